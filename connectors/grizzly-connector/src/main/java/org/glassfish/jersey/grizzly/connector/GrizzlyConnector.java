@@ -39,6 +39,7 @@
  */
 package org.glassfish.jersey.grizzly.connector;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
@@ -62,7 +63,13 @@ import org.glassfish.jersey.client.ClientResponse;
 import org.glassfish.jersey.client.RequestWriter;
 import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.process.internal.InvocationContext;
 
+import org.glassfish.hk2.Factory;
+
+import org.jvnet.hk2.annotations.Inject;
+
+import com.ning.http.client.AsyncCompletionHandler;
 import com.ning.http.client.AsyncHttpClient;
 import com.ning.http.client.AsyncHttpClientConfig;
 import com.ning.http.client.RequestBuilder;
@@ -70,14 +77,32 @@ import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProvider;
 
 /**
  * The transport using the AsyncHttpClient.
+ * <p>
+ * The connector keeps a single long-lived {@link AsyncHttpClient} instance with a pool
+ * of persistent connections that is shared by all the requests sent via the connector.
+ * The connection pool can be configured using the {@link GrizzlyConnectorProperties}.
+ * The underlying client is released once the connector is {@link #close() closed}, which
+ * happens automatically when the Jersey client using the connector is closed.
+ * </p>
+ * <p>
+ * Asynchronous requests are executed in a non-blocking way: the request invocation
+ * context is suspended once the request is sent and it is resumed from the
+ * AsyncHttpClient completion handler when the response arrives, so that no thread
+ * is blocked waiting for the response.
+ * </p>
  *
  * @author Stepan Kopriva (stepan.kopriva at oracle.com)
  */
-public class GrizzlyConnector extends RequestWriter implements Inflector<ClientRequest, ClientResponse> {
+public class GrizzlyConnector extends RequestWriter implements Inflector<ClientRequest, ClientResponse>, Closeable {
 
-    private AsyncHttpClient client;
-    private AsyncHttpClientConfig config;
+    private final AsyncHttpClient client;
     private final ExecutorService executorService;
+    /**
+     * Request-scoped invocation context factory. Injected by the Jersey client the connector
+     * is registered with; if not injected, asynchronous requests are executed in a blocking way.
+     */
+    @Inject
+    private Factory<InvocationContext> invocationContextFactory;
 
     /*
      * Constructs the new transport.
@@ -86,7 +111,8 @@ public class GrizzlyConnector extends RequestWriter implements Inflector<ClientR
         AsyncHttpClientConfig.Builder builder = new AsyncHttpClientConfig.Builder();
 
         if (configuration != null) {
-            final Object threadpoolSize = configuration.getProperties().get(ClientProperties.ASYNC_THREADPOOL_SIZE);
+            final Map<String, Object> properties = configuration.getProperties();
+            final Object threadpoolSize = properties.get(ClientProperties.ASYNC_THREADPOOL_SIZE);
 
             if (threadpoolSize != null && threadpoolSize instanceof Integer && (Integer) threadpoolSize > 0) {
                 this.executorService = Executors.newFixedThreadPool((Integer) threadpoolSize);
@@ -96,17 +122,30 @@ public class GrizzlyConnector extends RequestWriter implements Inflector<ClientR
 
             builder = builder.setExecutorService(this.executorService);
 
-            builder.setConnectionTimeoutInMs(PropertiesHelper.getValue(configuration.getProperties(),
+            builder.setConnectionTimeoutInMs(PropertiesHelper.getValue(properties,
                     ClientProperties.CONNECT_TIMEOUT, 0));
 
-            builder.setRequestTimeoutInMs(PropertiesHelper.getValue(configuration.getProperties(),
+            builder.setRequestTimeoutInMs(PropertiesHelper.getValue(properties,
                     ClientProperties.READ_TIMEOUT, 0));
+
+            builder.setAllowPoolingConnection(PropertiesHelper.getValue(properties,
+                    GrizzlyConnectorProperties.CONNECTION_POOLING, true));
+
+            builder.setMaximumConnectionsPerHost(PropertiesHelper.getValue(properties,
+                    GrizzlyConnectorProperties.MAX_CONNECTIONS_PER_HOST, -1));
+
+            builder.setMaximumConnectionsTotal(PropertiesHelper.getValue(properties,
+                    GrizzlyConnectorProperties.MAX_CONNECTIONS_TOTAL, -1));
+
+            builder.setIdleConnectionInPoolTimeoutInMs(PropertiesHelper.getValue(properties,
+                    GrizzlyConnectorProperties.IDLE_CONNECTION_TIMEOUT, 60000));
         } else {
             this.executorService = Executors.newCachedThreadPool();
             builder.setExecutorService(this.executorService);
+            builder.setAllowPoolingConnection(true);
         }
 
-        this.config = builder.setAllowPoolingConnection(true).build();
+        AsyncHttpClientConfig config = builder.build();
         this.client = new AsyncHttpClient(new GrizzlyAsyncHttpProvider(config), config);
     }
 
@@ -115,6 +154,12 @@ public class GrizzlyConnector extends RequestWriter implements Inflector<ClientR
      */
     @Override
     public ClientResponse apply(ClientRequest requestContext) {
+        if (requestContext.isAsynchronous() && invocationContextFactory != null) {
+            applyAsync(requestContext, invocationContextFactory.get());
+            // the response is provided by resuming the suspended invocation context
+            return null;
+        }
+
         com.ning.http.client.Response ningResponse = null;
 
         try {
@@ -126,14 +171,45 @@ public class GrizzlyConnector extends RequestWriter implements Inflector<ClientR
             throw new InvocationException(e.getMessage(), e);
         } catch (Exception ex) {
             throw new InvocationException(ex.getMessage(), ex);
-        } finally {
-            client.close();
         }
         ClientResponse responseContext = getClientResponse(requestContext, ningResponse);
 
         return responseContext;
     }
 
+    private void applyAsync(final ClientRequest requestContext, final InvocationContext invocationContext) {
+        final com.ning.http.client.Request grizzlyRequest = this.getRequest(requestContext);
+
+        invocationContext.suspend();
+        try {
+            client.executeRequest(grizzlyRequest, new AsyncCompletionHandler<Void>() {
+
+                @Override
+                public Void onCompleted(com.ning.http.client.Response ningResponse) {
+                    invocationContext.resume(getClientResponse(requestContext, ningResponse));
+                    return null;
+                }
+
+                @Override
+                public void onThrowable(Throwable t) {
+                    invocationContext.resume(new InvocationException(t.getMessage(), t));
+                }
+            });
+        } catch (IOException ex) {
+            invocationContext.resume(new InvocationException(ex.getMessage(), ex));
+        }
+    }
+
+    /**
+     * Close the connector and release the underlying AsyncHttpClient instance
+     * including all the pooled connections.
+     */
+    @Override
+    public void close() {
+        client.close();
+        executorService.shutdown();
+    }
+
     private ClientResponse getClientResponse(ClientRequest requestContext, final com.ning.http.client.Response original) {
 
         final ClientResponse responseContext = new ClientResponse(new Response.StatusType() {
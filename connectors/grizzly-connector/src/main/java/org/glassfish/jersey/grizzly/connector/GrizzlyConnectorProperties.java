@@ -0,0 +1,107 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly.connector;
+
+/**
+ * Configuration properties of the {@link GrizzlyConnector Grizzly client transport connector}.
+ * <p />
+ * The properties are read from the client configuration passed to the
+ * {@link GrizzlyConnector#GrizzlyConnector(javax.ws.rs.client.Configuration) connector constructor}.
+ *
+ * @author agent (agent at local)
+ */
+public final class GrizzlyConnectorProperties {
+
+    /**
+     * Maximum number of connections the connector opens to a single host.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * A negative value is equivalent to no limit.
+     * <p />
+     * The default value is no limit (-1).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String MAX_CONNECTIONS_PER_HOST =
+            "jersey.config.client.grizzly.maxConnectionsPerHost";
+
+    /**
+     * Maximum total number of connections the connector opens.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * A negative value is equivalent to no limit.
+     * <p />
+     * The default value is no limit (-1).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String MAX_CONNECTIONS_TOTAL =
+            "jersey.config.client.grizzly.maxConnectionsTotal";
+
+    /**
+     * Time interval, in milliseconds, after which an idle pooled connection is closed.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * The default value is 60000 (one minute).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String IDLE_CONNECTION_TIMEOUT =
+            "jersey.config.client.grizzly.idleConnectionTimeout";
+
+    /**
+     * Persistent connection pooling. A value of {@code true} declares that the connector
+     * keeps the connections open once a request is completed and reuses them for
+     * the subsequent requests to the same host.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Boolean}.
+     * <p />
+     * The default value is {@code true}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String CONNECTION_POOLING =
+            "jersey.config.client.grizzly.connectionPooling";
+
+    private GrizzlyConnectorProperties() {
+        // prevents instantiation
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly.connector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.JerseyClientFactory;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.glassfish.jersey.test.spi.TestContainer;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that the Grizzly connector can be reused for multiple requests
+ * and that asynchronous requests are completed by the connector.
+ *
+ * @author agent (agent at local)
+ */
+public class AsyncTest extends JerseyTest {
+
+    @Path("/test")
+    public static class AsyncResource {
+        @GET
+        @Path("{id}")
+        public String get(@PathParam("id") String id) {
+            return "GET " + id;
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(AsyncResource.class);
+    }
+
+    @Override
+    protected Client getClient(TestContainer tc, ApplicationHandler applicationHandler) {
+        Client c = super.getClient(tc, applicationHandler);
+        c.configuration().setProperty(GrizzlyConnectorProperties.MAX_CONNECTIONS_PER_HOST, 2);
+        return JerseyClientFactory.clientBuilder().transport(new GrizzlyConnector(c.configuration())).build();
+    }
+
+    @Test
+    public void testSequentialRequests() {
+        for (int i = 0; i < 10; i++) {
+            Response r = target("test").path(String.valueOf(i)).request().get();
+            assertEquals(200, r.getStatus());
+            assertEquals("GET " + i, r.readEntity(String.class));
+        }
+    }
+
+    @Test
+    public void testAsyncRequests() throws Exception {
+        final List<Future<Response>> futures = new ArrayList<Future<Response>>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(target("test").path(String.valueOf(i)).request().async().get());
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            Response r = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(200, r.getStatus());
+            assertEquals("GET " + i, r.readEntity(String.class));
+        }
+    }
+}
@@ -39,9 +39,12 @@
  */
 package org.glassfish.jersey.grizzly2.httpserver;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.Principal;
 import java.util.HashSet;
 import java.util.List;
@@ -54,10 +57,12 @@ import java.util.logging.Logger;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriBuilder;
 
+import org.glassfish.jersey.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.inject.AbstractModule;
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
 import org.glassfish.jersey.internal.util.ExtendedLogger;
 import org.glassfish.jersey.internal.util.collection.Ref;
+import org.glassfish.jersey.message.internal.ZeroCopyOutput;
 import org.glassfish.jersey.process.internal.RequestScope;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerException;
@@ -244,13 +249,74 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
                     }
                 }
 
-                return grizzlyResponse.getOutputStream();
+                return new ResponseOutputStream(grizzlyResponse);
             } finally {
                 logger.debugLog("{0} - writeResponseStatusAndHeaders() called", name);
             }
         }
     }
 
+    /**
+     * Grizzly response output stream supporting {@link ZeroCopyOutput zero-copy} writes.
+     *
+     * File regions are memory-mapped and passed, as well as the byte buffers, directly to the
+     * Grizzly output buffer without being copied through the heap.
+     */
+    private final static class ResponseOutputStream extends OutputStream implements ZeroCopyOutput {
+
+        /**
+         * Maximal size of a single memory-mapped file region.
+         */
+        private static final long MAX_MAPPED_REGION_SIZE = 8 * 1024 * 1024;
+
+        private final Response grizzlyResponse;
+        private final OutputStream output;
+
+        ResponseOutputStream(final Response grizzlyResponse) {
+            this.grizzlyResponse = grizzlyResponse;
+            this.output = grizzlyResponse.getOutputStream();
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            output.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            output.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            output.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+
+        @Override
+        public void write(final FileChannel channel, long position, final long count) throws IOException {
+            final long end = position + count;
+            if (end > channel.size()) {
+                throw new IOException(LocalizationMessages.ERROR_FILE_REGION_TRUNCATED(channel.size(), end));
+            }
+            while (position < end) {
+                final long size = Math.min(MAX_MAPPED_REGION_SIZE, end - position);
+                grizzlyResponse.getOutputBuffer().writeByteBuffer(
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, size));
+                position += size;
+            }
+        }
+
+        @Override
+        public void write(final ByteBuffer buffer) throws IOException {
+            grizzlyResponse.getOutputBuffer().writeByteBuffer(buffer);
+        }
+    }
+
     private volatile ApplicationHandler appHandler;
     private final ContainerLifecycleListener containerListener;
 
@@ -44,9 +44,15 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.Principal;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -59,7 +65,10 @@ import javax.ws.rs.core.UriBuilder;
 import org.glassfish.jersey.internal.MapPropertiesDelegate;
 import org.glassfish.jersey.jdkhttp.internal.LocalizationMessages;
 import org.glassfish.jersey.message.internal.HeadersFactory;
+import org.glassfish.jersey.message.internal.ReaderWriter;
+import org.glassfish.jersey.message.internal.ZeroCopyOutput;
 import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.Bulkhead;
 import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
@@ -69,6 +78,8 @@ import org.glassfish.jersey.server.spi.Container;
 import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
@@ -84,6 +95,8 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
 
     transient private ApplicationHandler appHandler;
     private final ContainerLifecycleListener containerListener;
+    private volatile Bulkhead workerPool;
+    private volatile LoadSheddingExecutor serverExecutor;
 
     /**
      * Creates a new Container connected to given {@link ApplicationHandler Jersey application}.
@@ -96,8 +109,53 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
         this.containerListener = ConfigHelper.getContainerLifecycleListener(appHandler);
     }
 
+    /**
+     * Get the worker pool processing the requests of the container, if the container has been
+     * created by the {@link JdkHttpServerFactory}. The returned pool can be used to monitor
+     * the pool metrics.
+     *
+     * @return container worker pool or {@code null} if the container is not managing the
+     *         request processing threads.
+     */
+    public Bulkhead getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * Set the worker pool processing the requests of the container and create a new
+     * {@link com.sun.net.httpserver.HttpServer#setExecutor(java.util.concurrent.Executor) server executor}
+     * dispatching the exchanges to the pool. Exchanges rejected by the saturated pool are answered with
+     * {@code 503 Service Unavailable} response.
+     *
+     * @param workerPool container worker pool.
+     * @return new server executor.
+     */
+    Executor setWorkerPool(final Bulkhead workerPool) {
+        this.workerPool = workerPool;
+        this.serverExecutor = new LoadSheddingExecutor(workerPool);
+        return serverExecutor;
+    }
+
+    /**
+     * Shut down the worker pool and the server executor set by {@link #setWorkerPool(Bulkhead)}, if any.
+     * Invoked once the server has been stopped.
+     */
+    void shutdownWorkerPool() {
+        final LoadSheddingExecutor executor = serverExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
     @Override
     public void handle(final HttpExchange exchange) throws IOException {
+        if (LoadSheddingExecutor.isShedding()) {
+            // the worker pool is saturated
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+
         /**
          * This is a URI that contains the path, query and fragment components.
          */
@@ -211,6 +269,144 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
         containerListener.onReload(this);
     }
 
+    /**
+     * Server executor dispatching the exchanges to the container worker pool.
+     *
+     * An exchange rejected by the worker pool is run on a small dedicated shedding pool with a load
+     * shedding flag set, so that the container only sends the {@code 503 Service Unavailable} response back
+     * and closes the exchange. The server dispatcher thread therefore never processes an exchange itself and
+     * a slow client cannot stall the dispatching of the other connections. If the shedding pool is saturated
+     * as well, the exchange is rejected and the server drops it.
+     */
+    private final static class LoadSheddingExecutor implements Executor {
+
+        private static final ThreadLocal<Boolean> SHEDDING = new ThreadLocal<Boolean>();
+        /**
+         * Number of threads sending the {@code 503} responses.
+         */
+        private static final int SHEDDING_THREADS = 2;
+        /**
+         * Maximum number of the rejected exchanges waiting for the {@code 503} response.
+         */
+        private static final int SHEDDING_QUEUE_SIZE = 256;
+
+        private final Bulkhead workerPool;
+        private final ThreadPoolExecutor sheddingPool;
+
+        LoadSheddingExecutor(final Bulkhead workerPool) {
+            this.workerPool = workerPool;
+            this.sheddingPool = new ThreadPoolExecutor(SHEDDING_THREADS, SHEDDING_THREADS,
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(SHEDDING_QUEUE_SIZE),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("jersey-jdkhttp-shedding-%d")
+                            .setDaemon(true)
+                            .build());
+            this.sheddingPool.allowCoreThreadTimeOut(true);
+        }
+
+        static boolean isShedding() {
+            return SHEDDING.get() != null;
+        }
+
+        @Override
+        public void execute(final Runnable exchangeTask) {
+            try {
+                workerPool.execute(exchangeTask);
+            } catch (RejectedExecutionException ex) {
+                sheddingPool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        SHEDDING.set(Boolean.TRUE);
+                        try {
+                            exchangeTask.run();
+                        } finally {
+                            SHEDDING.remove();
+                        }
+                    }
+                });
+            }
+        }
+
+        void shutdown() {
+            workerPool.shutdown();
+            sheddingPool.shutdown();
+        }
+    }
+
+    /**
+     * HTTP exchange response body stream supporting {@link ZeroCopyOutput zero-copy} writes.
+     *
+     * The JDK HTTP server exposes the response body as a stream only, so the file regions are
+     * memory-mapped and written to the stream through a single transfer buffer reused for all
+     * the writes, instead of being read into new heap buffers.
+     */
+    private final static class ResponseOutputStream extends OutputStream implements ZeroCopyOutput {
+
+        /**
+         * Maximal size of a single memory-mapped file region.
+         */
+        private static final long MAX_MAPPED_REGION_SIZE = 8 * 1024 * 1024;
+
+        private final OutputStream output;
+        private byte[] transferBuffer;
+
+        ResponseOutputStream(final OutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            output.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            output.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            output.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+
+        @Override
+        public void write(final FileChannel channel, long position, final long count) throws IOException {
+            final long end = position + count;
+            if (end > channel.size()) {
+                throw new IOException(LocalizationMessages.ERROR_RESPONSEWRITER_FILE_REGION_TRUNCATED(channel.size(), end));
+            }
+            while (position < end) {
+                final long size = Math.min(MAX_MAPPED_REGION_SIZE, end - position);
+                write(channel.map(FileChannel.MapMode.READ_ONLY, position, size));
+                position += size;
+            }
+        }
+
+        @Override
+        public void write(final ByteBuffer buffer) throws IOException {
+            if (buffer.hasArray()) {
+                output.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                buffer.position(buffer.limit());
+                return;
+            }
+
+            if (transferBuffer == null) {
+                transferBuffer = new byte[ReaderWriter.BUFFER_SIZE];
+            }
+            while (buffer.hasRemaining()) {
+                final int length = Math.min(transferBuffer.length, buffer.remaining());
+                buffer.get(transferBuffer, 0, length);
+                output.write(transferBuffer, 0, length);
+            }
+        }
+    }
+
     private final static class ResponseWriter implements ContainerResponseWriter {
 
         HttpExchange exchange;
@@ -250,7 +446,7 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
                 throw new ContainerException("Error during writing out the response headers.", ioe);
             }
 
-            return exchange.getResponseBody();
+            return new ResponseOutputStream(exchange.getResponseBody());
         }
 
         private long getResponseLength(long contentLength) {
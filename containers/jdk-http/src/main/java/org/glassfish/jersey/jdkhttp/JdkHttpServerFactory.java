@@ -42,17 +42,23 @@ package org.glassfish.jersey.jdkhttp;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.URI;
-import java.util.concurrent.Executors;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.glassfish.jersey.internal.ProcessingException;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.jdkhttp.internal.LocalizationMessages;
 import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.Bulkhead;
 import org.glassfish.jersey.server.ContainerFactory;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.internal.ConfigHelper;
 import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
 
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
 import com.sun.net.httpserver.HttpsServer;
 
 /**
@@ -67,7 +73,9 @@ public class JdkHttpServerFactory {
      * Creates and starts the {@link HttpServer JDK HttpServer} with the Jersey
      * application deployed on the given {@link URI}.
      *
-     * <p>The returned {@link HttpServer JDK HttpServer} is started.</p>
+     * <p>The returned {@link HttpServer JDK HttpServer} is started. The server worker pool
+     * and accept backlog are configured using the {@link JdkHttpServerProperties}. The worker pool
+     * is shut down when the server is {@link HttpServer#stop(int) stopped}.</p>
      *
      * @param uri The {@link URI uri} on which the Jersey application will be deployed.
      * @param configuration The Jersey server-side application configuration.
@@ -77,14 +85,17 @@ public class JdkHttpServerFactory {
      */
     public static HttpServer createHttpServer(final URI uri, final ResourceConfig configuration) throws ProcessingException {
         final JdkHttpHandlerContainer handler = ContainerFactory.createContainer(JdkHttpHandlerContainer.class, configuration);
-        return createHttpServer(uri, handler, ConfigHelper.getContainerLifecycleListener(new ApplicationHandler(configuration)));
+        return createHttpServer(uri, handler, configuration.getProperties(),
+                ConfigHelper.getContainerLifecycleListener(new ApplicationHandler(configuration)));
     }
 
     /**
      * Creates and starts the {@link HttpServer JDK HttpServer} with the
      * Jersey application deployed on the given {@link URI}.
      *
-     * <p>The returned {@link HttpServer JDK HttpServer} is started.</p>
+     * <p>The returned {@link HttpServer JDK HttpServer} is started. The server worker pool
+     * and accept backlog are configured using the {@link JdkHttpServerProperties}. The worker pool
+     * is shut down when the server is {@link HttpServer#stop(int) stopped}.</p>
      *
      * @param uri The {@link URI uri} on which the Jersey application will be deployed.
      * @param appHandler The Jersey server-side application handler.
@@ -93,10 +104,14 @@ public class JdkHttpServerFactory {
      * occurs.
      */
     public static HttpServer createHttpServer(final URI uri, final ApplicationHandler appHandler) throws ProcessingException {
-        return createHttpServer(uri, new JdkHttpHandlerContainer(appHandler), ConfigHelper.getContainerLifecycleListener(appHandler));
+        return createHttpServer(uri, new JdkHttpHandlerContainer(appHandler), appHandler.getConfiguration().getProperties(),
+                ConfigHelper.getContainerLifecycleListener(appHandler));
     }
 
-    private static HttpServer createHttpServer(final URI uri, final JdkHttpHandlerContainer handler, final ContainerLifecycleListener containerListener) throws ProcessingException {
+    private static HttpServer createHttpServer(final URI uri,
+                                               final JdkHttpHandlerContainer handler,
+                                               final Map<String, Object> properties,
+                                               final ContainerLifecycleListener containerListener) throws ProcessingException {
 
         if (uri == null) {
             throw new IllegalArgumentException(LocalizationMessages.ERROR_CONTAINER_URI_NULL());
@@ -117,16 +132,17 @@ public class JdkHttpServerFactory {
         }
 
         final int port = (uri.getPort() == -1) ? 80 : uri.getPort();
+        final int backlog = PropertiesHelper.getValue(properties, JdkHttpServerProperties.BACKLOG, 0);
         HttpServer server;
         try {
             server = (scheme.equalsIgnoreCase("http"))
-                    ? HttpServer.create(new InetSocketAddress(port), 0)
-                    : HttpsServer.create(new InetSocketAddress(port), 0);
+                    ? new WorkerPoolHttpServer(HttpServer.create(new InetSocketAddress(port), backlog), handler)
+                    : new WorkerPoolHttpsServer(HttpsServer.create(new InetSocketAddress(port), backlog), handler);
         } catch (IOException ioe) {
             throw new ProcessingException(LocalizationMessages.ERROR_CONTAINER_EXCEPTION_IO(), ioe);
         }
 
-        server.setExecutor(Executors.newCachedThreadPool());
+        server.setExecutor(handler.setWorkerPool(createWorkerPool(properties)));
         server.createContext(path, handler);
         server.start();
 
@@ -135,6 +151,167 @@ public class JdkHttpServerFactory {
         return server;
     }
 
+    private static Bulkhead createWorkerPool(final Map<String, Object> properties) {
+        final int maxWorkers = PropertiesHelper.getValue(properties, JdkHttpServerProperties.WORKERS_MAX,
+                Math.max(16, 8 * Runtime.getRuntime().availableProcessors()));
+        final int maxQueueSize = PropertiesHelper.getValue(properties, JdkHttpServerProperties.WORKERS_QUEUE,
+                JdkHttpServerProperties.DEFAULT_WORKERS_QUEUE);
+        final boolean virtual = PropertiesHelper.getValue(properties, JdkHttpServerProperties.WORKERS_VIRTUAL,
+                Boolean.FALSE);
+
+        return Bulkhead.builder("jdkhttp")
+                .maxConcurrency(maxWorkers)
+                .maxQueueSize(maxQueueSize)
+                .virtualThreads(virtual)
+                .build();
+    }
+
+    /**
+     * HTTP server shutting down the container worker pool once the server is stopped.
+     */
+    private static final class WorkerPoolHttpServer extends HttpServer {
+
+        private final HttpServer server;
+        private final JdkHttpHandlerContainer container;
+
+        WorkerPoolHttpServer(final HttpServer server, final JdkHttpHandlerContainer container) {
+            this.server = server;
+            this.container = container;
+        }
+
+        @Override
+        public void bind(final InetSocketAddress address, final int backlog) throws IOException {
+            server.bind(address, backlog);
+        }
+
+        @Override
+        public void start() {
+            server.start();
+        }
+
+        @Override
+        public void setExecutor(final Executor executor) {
+            server.setExecutor(executor);
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return server.getExecutor();
+        }
+
+        @Override
+        public void stop(final int delay) {
+            try {
+                server.stop(delay);
+            } finally {
+                container.shutdownWorkerPool();
+            }
+        }
+
+        @Override
+        public HttpContext createContext(final String path, final HttpHandler handler) {
+            return server.createContext(path, handler);
+        }
+
+        @Override
+        public HttpContext createContext(final String path) {
+            return server.createContext(path);
+        }
+
+        @Override
+        public void removeContext(final String path) throws IllegalArgumentException {
+            server.removeContext(path);
+        }
+
+        @Override
+        public void removeContext(final HttpContext context) {
+            server.removeContext(context);
+        }
+
+        @Override
+        public InetSocketAddress getAddress() {
+            return server.getAddress();
+        }
+    }
+
+    /**
+     * HTTPS server shutting down the container worker pool once the server is stopped.
+     */
+    private static final class WorkerPoolHttpsServer extends HttpsServer {
+
+        private final HttpsServer server;
+        private final JdkHttpHandlerContainer container;
+
+        WorkerPoolHttpsServer(final HttpsServer server, final JdkHttpHandlerContainer container) {
+            this.server = server;
+            this.container = container;
+        }
+
+        @Override
+        public void setHttpsConfigurator(final HttpsConfigurator config) {
+            server.setHttpsConfigurator(config);
+        }
+
+        @Override
+        public HttpsConfigurator getHttpsConfigurator() {
+            return server.getHttpsConfigurator();
+        }
+
+        @Override
+        public void bind(final InetSocketAddress address, final int backlog) throws IOException {
+            server.bind(address, backlog);
+        }
+
+        @Override
+        public void start() {
+            server.start();
+        }
+
+        @Override
+        public void setExecutor(final Executor executor) {
+            server.setExecutor(executor);
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return server.getExecutor();
+        }
+
+        @Override
+        public void stop(final int delay) {
+            try {
+                server.stop(delay);
+            } finally {
+                container.shutdownWorkerPool();
+            }
+        }
+
+        @Override
+        public HttpContext createContext(final String path, final HttpHandler handler) {
+            return server.createContext(path, handler);
+        }
+
+        @Override
+        public HttpContext createContext(final String path) {
+            return server.createContext(path);
+        }
+
+        @Override
+        public void removeContext(final String path) throws IllegalArgumentException {
+            server.removeContext(path);
+        }
+
+        @Override
+        public void removeContext(final HttpContext context) {
+            server.removeContext(context);
+        }
+
+        @Override
+        public InetSocketAddress getAddress() {
+            return server.getAddress();
+        }
+    }
+
     /**
      * Prevents instantiation.
      */
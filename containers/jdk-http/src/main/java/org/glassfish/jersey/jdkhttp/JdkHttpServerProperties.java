@@ -0,0 +1,103 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.jdkhttp;
+
+/**
+ * JDK HTTP server container configuration properties.
+ * <p>
+ * The properties are read from the {@link org.glassfish.jersey.server.ResourceConfig application configuration}
+ * when a new server is created using the {@link JdkHttpServerFactory}. The requests are processed by a
+ * {@link org.glassfish.jersey.server.Bulkhead bounded worker pool}, the pool metrics are available via
+ * {@link JdkHttpHandlerContainer#getWorkerPool()}, e.g. from a
+ * {@link org.glassfish.jersey.server.spi.ContainerLifecycleListener#onStartup(org.glassfish.jersey.server.spi.Container)
+ * container lifecycle listener}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class JdkHttpServerProperties {
+
+    /**
+     * Maximum number of worker threads processing the requests concurrently.
+     * <p />
+     * The value MUST be a positive integer. The default value is eight times the number of the available
+     * processors, but at least {@code 16}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String WORKERS_MAX = "jersey.config.jdkhttp.workers.max";
+    /**
+     * Maximum number of requests waiting for a free worker thread. Requests received while the queue is full
+     * are rejected with the {@code 503 Service Unavailable} response.
+     * <p />
+     * The value MUST be a non-negative integer. The default value is <code>{@value #DEFAULT_WORKERS_QUEUE}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String WORKERS_QUEUE = "jersey.config.jdkhttp.workers.queue";
+    /**
+     * The default maximum number of the requests waiting for a free worker thread ({@value}).
+     */
+    public static final int DEFAULT_WORKERS_QUEUE = 1024;
+    /**
+     * If set to {@code true}, each request is processed on a new virtual thread instead of a pooled
+     * platform worker thread. The maximum number of the requests processed concurrently and waiting for
+     * processing is still limited by the sum of the {@link #WORKERS_MAX} and {@link #WORKERS_QUEUE} values.
+     * The property is ignored if the virtual threads are not supported by the Java runtime.
+     * <p />
+     * The default value is {@code false}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String WORKERS_VIRTUAL = "jersey.config.jdkhttp.workers.virtual";
+    /**
+     * Maximum number of the incoming TCP connections queued by the server socket before they are accepted.
+     * <p />
+     * The value MUST be a non-negative integer; {@code 0} means the system default backlog value is used.
+     * The default value is {@code 0}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String BACKLOG = "jersey.config.jdkhttp.backlog";
+
+    private JdkHttpServerProperties() {
+        // prevents instantiation
+    }
+}
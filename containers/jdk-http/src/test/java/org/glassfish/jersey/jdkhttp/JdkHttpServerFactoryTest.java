@@ -0,0 +1,285 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.jdkhttp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.glassfish.jersey.message.internal.FileRegion;
+import org.glassfish.jersey.server.Bulkhead;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.spi.AbstractContainerLifecycleListener;
+import org.glassfish.jersey.server.spi.Container;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link JdkHttpServerFactory} worker pool configuration, load shedding and zero-copy entity writing tests.
+ *
+ * @author agent (agent at local)
+ */
+public class JdkHttpServerFactoryTest {
+
+    private static final URI BASE_URI = URI.create("http://localhost:9998/");
+
+    private static final int FILE_SIZE = 20000;
+
+    private static volatile CountDownLatch blocked;
+    private static volatile CountDownLatch release;
+    private static byte[] content;
+    private static File file;
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        public String get() {
+            return "get";
+        }
+
+        @GET
+        @Path("blocking")
+        public String getBlocking() throws InterruptedException {
+            blocked.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "blocking";
+        }
+
+        @GET
+        @Path("file")
+        @Produces("application/octet-stream")
+        public File getFile() {
+            return file;
+        }
+
+        @GET
+        @Path("region")
+        @Produces("application/octet-stream")
+        public FileRegion getRegion() {
+            return new FileRegion(file, 3, 15000);
+        }
+    }
+
+    /**
+     * Listener capturing the started container.
+     */
+    public static class StartupListener extends AbstractContainerLifecycleListener {
+
+        private volatile JdkHttpHandlerContainer container;
+
+        @Override
+        public void onStartup(Container container) {
+            this.container = (JdkHttpHandlerContainer) container;
+        }
+    }
+
+    private StartupListener listener;
+    private HttpServer server;
+    private ExecutorService clients;
+
+    @BeforeClass
+    public static void createFile() throws IOException {
+        content = new byte[FILE_SIZE];
+        new Random(FILE_SIZE).nextBytes(content);
+        file = File.createTempFile("jersey-jdkhttp", ".bin");
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    @AfterClass
+    public static void deleteFile() {
+        file.delete();
+    }
+
+    @Before
+    public void setUp() {
+        blocked = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        listener = new StartupListener();
+        clients = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        clients.shutdownNow();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private Bulkhead startServer(ResourceConfig config) {
+        server = JdkHttpServerFactory.createHttpServer(BASE_URI, config.addSingletons(listener));
+        assertNotNull(listener.container);
+        return listener.container.getWorkerPool();
+    }
+
+    private static int getStatus(String path) throws Exception {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(BASE_URI.resolve(path).toString()).openConnection();
+        try {
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static byte[] getEntity(String path, int expectedLength) throws Exception {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(BASE_URI.resolve(path).toString()).openConnection();
+        try {
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(expectedLength, connection.getContentLength());
+            final InputStream in = connection.getInputStream();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            in.close();
+            return out.toByteArray();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void testWorkerPoolConfiguration() throws Exception {
+        final Bulkhead workerPool = startServer(new ResourceConfig(Resource.class)
+                .setProperty(JdkHttpServerProperties.WORKERS_MAX, 3)
+                .setProperty(JdkHttpServerProperties.WORKERS_QUEUE, 5)
+                .setProperty(JdkHttpServerProperties.BACKLOG, 50));
+
+        assertEquals(3, workerPool.getMaxConcurrency());
+        assertEquals(5, workerPool.getMaxQueueSize());
+        assertEquals(200, getStatus("/"));
+    }
+
+    @Test
+    public void testDefaultWorkerPoolConfiguration() throws Exception {
+        final Bulkhead workerPool = startServer(new ResourceConfig(Resource.class));
+
+        assertEquals(Math.max(16, 8 * Runtime.getRuntime().availableProcessors()), workerPool.getMaxConcurrency());
+        assertEquals(JdkHttpServerProperties.DEFAULT_WORKERS_QUEUE, workerPool.getMaxQueueSize());
+        assertEquals(200, getStatus("/"));
+    }
+
+    @Test
+    public void testLoadShedding() throws Exception {
+        final Bulkhead workerPool = startServer(new ResourceConfig(Resource.class)
+                .setProperty(JdkHttpServerProperties.WORKERS_MAX, 1)
+                .setProperty(JdkHttpServerProperties.WORKERS_QUEUE, 0));
+
+        final Future<Integer> blockingRequest = clients.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return getStatus("/blocking");
+            }
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // the only worker is busy and no request may wait for it
+        assertEquals(503, getStatus("/"));
+        assertEquals(1, workerPool.getRejectedCount());
+
+        release.countDown();
+        assertEquals(200, (int) blockingRequest.get(5, TimeUnit.SECONDS));
+        assertEquals(200, getStatus("/"));
+    }
+
+    @Test
+    public void testStopShutsDownWorkerPool() throws Exception {
+        final Bulkhead workerPool = startServer(new ResourceConfig(Resource.class));
+        server.stop(0);
+        server = null;
+
+        try {
+            workerPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+            fail("The worker pool of a stopped server must not accept new tasks.");
+        } catch (RejectedExecutionException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testFileEntity() throws Exception {
+        startServer(new ResourceConfig(Resource.class));
+
+        assertArrayEquals(content, getEntity("/file", FILE_SIZE));
+        assertArrayEquals(Arrays.copyOfRange(content, 3, 15003), getEntity("/region", 15000));
+    }
+}
@@ -333,7 +333,8 @@ public class ServletContainer extends HttpServlet implements Filter, Container {
      * @param response   the {@link javax.servlet.http.HttpServletResponse} object that
      *                   contains the response the Web component returns
      *                   to the client.
-     * @return the status code of the response.
+     * @return the status code of the response or {@code -1} if the response is written asynchronously
+     *         (see {@link WebComponent#service(URI, URI, HttpServletRequest, HttpServletResponse)}).
      * @throws IOException      if an input or output error occurs
      *                          while the Web component is handling the
      *                          HTTP request.
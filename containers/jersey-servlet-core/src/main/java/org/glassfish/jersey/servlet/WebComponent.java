@@ -247,7 +247,8 @@ public class WebComponent {
      * @param servletResponse the {@link javax.servlet.http.HttpServletResponse} object that
      *                        contains the response the Web component returns
      *                        to the client.
-     * @return the status code of the response.
+     * @return the status code of the response or {@code -1} if the response is written asynchronously
+     *         and the request is not forwarded to the next filter in the chain on a 404 response.
      * @throws java.io.IOException            if an input or output error occurs
      *                                        while the Web component is handling the
      *                                        HTTP request.
@@ -287,6 +288,11 @@ public class WebComponent {
 
             appHandler.handle(requestContext);
 
+            if (responseWriter.isSuspended() && !forwardOn404) {
+                // the response is written asynchronously, release the container thread
+                // instead of blocking until the response status is available
+                return -1;
+            }
             return responseWriter.getResponseStatus();
         } catch (Exception e) {
             // TODO: proper error handling.
@@ -76,6 +76,7 @@ public class ResponseWriter implements ContainerResponseWriter {
     private final boolean useSetStatusOn404;
     private final SettableFuture<ContainerResponse> responseContext;
     private final AsyncContextDelegate asyncExt;
+    private volatile boolean suspended;
 
     /**
      * Creates a new instance to write a single Jersey response.
@@ -94,6 +95,7 @@ public class ResponseWriter implements ContainerResponseWriter {
     @Override
     public void suspend(final long timeOut, final TimeUnit timeUnit, final TimeoutHandler timeoutHandler) throws IllegalStateException {
         asyncExt.suspend(this, timeOut, timeUnit, timeoutHandler);
+        suspended = true;
     }
 
     @Override
@@ -173,6 +175,16 @@ public class ResponseWriter implements ContainerResponseWriter {
         }
     }
 
+    /**
+     * Check if the response writer has been suspended, i.e. the response is going to be written
+     * asynchronously once the request processing is finished.
+     *
+     * @return {@code true} if the response writer has been suspended, {@code false} otherwise.
+     */
+    public boolean isSuspended() {
+        return suspended;
+    }
+
     /**
      * Provides response status captured when {@link #writeResponseStatusAndHeaders(long, org.glassfish.jersey.server.ContainerResponse)} has been invoked.
      * The method will block if the write method has not been called yet.
@@ -0,0 +1,281 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.servlet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.Suspend;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.ExecutionContext;
+
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that a request suspended under the servlet container releases the servlet
+ * thread and that the response is completed by the resume.
+ *
+ * @author agent (agent at local)
+ */
+public class WebComponentSuspendTest {
+
+    private static final BlockingQueue<ExecutionContext> SUSPENDED = new ArrayBlockingQueue<ExecutionContext>(1);
+
+    @Path("suspend")
+    public static class SuspendResource {
+
+        @Context
+        private ExecutionContext context;
+
+        @GET
+        @Produces("text/plain")
+        @Suspend
+        public void get() throws InterruptedException {
+            SUSPENDED.put(context);
+        }
+    }
+
+    /**
+     * Records the calls the servlet container sees on the servlet response
+     * and the asynchronous context started for the request.
+     */
+    private static class ServletCalls {
+
+        final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        final AtomicInteger status = new AtomicInteger(-1);
+        final AtomicReference<Thread> startAsyncThread = new AtomicReference<Thread>();
+        final AtomicReference<Thread> completeThread = new AtomicReference<Thread>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        HttpServletRequest request() {
+            final InputStream in = new ByteArrayInputStream(new byte[0]);
+            final AsyncContext asyncContext = proxy(AsyncContext.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if ("complete".equals(method.getName())) {
+                        completeThread.set(Thread.currentThread());
+                        completed.countDown();
+                        return null;
+                    }
+                    return defaultValue(proxy, method, args);
+                }
+            });
+
+            return proxy(HttpServletRequest.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    final String name = method.getName();
+                    if ("getMethod".equals(name)) {
+                        return "GET";
+                    } else if ("getInputStream".equals(name)) {
+                        return new ServletInputStream() {
+                            @Override
+                            public int read() throws IOException {
+                                return in.read();
+                            }
+                        };
+                    } else if ("startAsync".equals(name)) {
+                        startAsyncThread.set(Thread.currentThread());
+                        return asyncContext;
+                    }
+                    return defaultValue(proxy, method, args);
+                }
+            });
+        }
+
+        HttpServletResponse response() {
+            return proxy(HttpServletResponse.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    final String name = method.getName();
+                    if ("setStatus".equals(name)) {
+                        status.set((Integer) args[0]);
+                        return null;
+                    } else if ("getOutputStream".equals(name)) {
+                        return new ServletOutputStream() {
+                            @Override
+                            public void write(int b) throws IOException {
+                                entity.write(b);
+                            }
+                        };
+                    }
+                    return defaultValue(proxy, method, args);
+                }
+            });
+        }
+    }
+
+    private static WebConfig webConfig() {
+        final InvocationHandler defaults = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return defaultValue(proxy, method, args);
+            }
+        };
+        final ServletContext servletContext = proxy(ServletContext.class, defaults);
+        final ServletConfig servletConfig = proxy(ServletConfig.class, defaults);
+
+        return new WebConfig() {
+            @Override
+            public ConfigType getConfigType() {
+                return ConfigType.ServletConfig;
+            }
+
+            @Override
+            public ServletConfig getServletConfig() {
+                return servletConfig;
+            }
+
+            @Override
+            public FilterConfig getFilterConfig() {
+                return null;
+            }
+
+            @Override
+            public String getName() {
+                return "suspend";
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return null;
+            }
+
+            @Override
+            public Enumeration getInitParameterNames() {
+                return Collections.enumeration(Collections.emptyList());
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return servletContext;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(WebComponentSuspendTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        final String name = method.getName();
+        final Class<?> returnType = method.getReturnType();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        } else if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        } else if ("toString".equals(name)) {
+            return method.getDeclaringClass().getSimpleName() + " proxy";
+        } else if (returnType == Enumeration.class) {
+            return Collections.enumeration(Collections.emptyList());
+        } else if (returnType == boolean.class) {
+            return false;
+        } else if (returnType == int.class) {
+            return 0;
+        } else if (returnType == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    @Test
+    public void testSuspendedResponseCompletedByResume() throws Exception {
+        final WebComponent webComponent = new WebComponent(webConfig(), new ResourceConfig(SuspendResource.class));
+        final ServletCalls calls = new ServletCalls();
+
+        final int status = webComponent.service(URI.create("http://localhost/"), URI.create("http://localhost/suspend"),
+                calls.request(), calls.response());
+
+        // the servlet thread is released while the request stays suspended
+        assertEquals(-1, status);
+        assertNotNull(calls.startAsyncThread.get());
+        assertEquals(1, calls.completed.getCount());
+        assertEquals(-1, calls.status.get());
+
+        final ExecutionContext context = SUSPENDED.poll(5, TimeUnit.SECONDS);
+        assertNotNull(context);
+
+        final Thread resumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                context.resume("resumed");
+            }
+        }, "resumer");
+        resumer.start();
+        resumer.join(5000);
+
+        assertTrue(calls.completed.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), calls.completeThread.get());
+        assertEquals(200, calls.status.get());
+        assertEquals("resumed", calls.entity.toString("UTF-8"));
+    }
+}
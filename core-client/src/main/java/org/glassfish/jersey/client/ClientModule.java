@@ -127,6 +127,16 @@ class ClientModule extends AbstractModule {
                                     // TODO get rid of this code on the client side
                                     return new ClientResponse(requestContext, response);
                                 }
+
+                                @Override
+                                protected ClientResponse convertResumedResponse(
+                                        ClientRequest requestContext, Object response) {
+                                    // connectors may resume the invocation directly with the client response
+                                    if (response instanceof ClientResponse) {
+                                        return (ClientResponse) response;
+                                    }
+                                    return super.convertResumedResponse(requestContext, response);
+                                }
                             };
                         }
                     };
@@ -162,7 +162,7 @@ public class HttpUrlConnector extends RequestWriter implements Inflector<ClientR
                         }
 
                         @Override
-                        public void commit() throws IOException {
+                        public void commit(long contentLength) throws IOException {
                             writeOutBoundHeaders(requestContext.getStringHeaders(), uc);
                         }
                     };
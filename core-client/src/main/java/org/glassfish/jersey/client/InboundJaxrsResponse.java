@@ -39,6 +39,8 @@
  */
 package org.glassfish.jersey.client;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.net.URI;
 import java.util.Date;
@@ -55,6 +57,8 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.NewCookie;
 import javax.ws.rs.core.Response;
 
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+
 /**
  * Implementation of an inbound JAX-RS response message.
  *
@@ -130,8 +134,18 @@ class InboundJaxrsResponse extends Response {
 
     @Override
     public void close() throws MessageProcessingException {
-        // TODO: implement method.
+        try {
+            final InputStream entityStream = context.getEntityStream();
+            if (entityStream != null) {
+                entityStream.close();
+            }
+        } catch (IOException ex) {
+            throw new MessageProcessingException(LocalizationMessages.ERROR_CLOSING_RESPONSE(), ex);
+        } finally {
+            context.releaseEntityBuffer();
+        }
     }
+
     @Override
     public String getHeader(String name) {
         return context.getHeaderString(name);
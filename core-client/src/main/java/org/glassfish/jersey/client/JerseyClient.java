@@ -39,6 +39,8 @@
  */
 package org.glassfish.jersey.client;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.net.URI;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -46,6 +48,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.InvocationException;
@@ -56,6 +60,7 @@ import javax.ws.rs.core.UriBuilder;
 import static javax.ws.rs.HttpMethod.POST;
 import static javax.ws.rs.HttpMethod.PUT;
 
+import org.glassfish.jersey.client.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.ProviderBinder;
 import org.glassfish.jersey.internal.inject.Providers;
 import org.glassfish.jersey.process.Inflector;
@@ -202,6 +207,8 @@ public class JerseyClient implements javax.ws.rs.client.Client {
             services = HK2.get().create(null, modules);
         }
         final Injector injector = services.forContract(Injector.class).get();
+        // let the connector access the client-side injectables, e.g. the request-scoped invocation context
+        injector.inject(connector);
 
         final RequestProcessingInitializationStage workersInitializationStage = injector.inject
                 (RequestProcessingInitializationStage.class);
@@ -317,7 +324,14 @@ public class JerseyClient implements javax.ws.rs.client.Client {
     }
 
     private void release() {
-        // TODO release resources
+        if (connector instanceof Closeable) {
+            try {
+                ((Closeable) connector).close();
+            } catch (IOException ex) {
+                Logger.getLogger(JerseyClient.class.getName()).log(Level.FINE, LocalizationMessages.ERROR_CLOSING_CONNECTOR(), ex);
+            }
+        }
+        // TODO release other resources
     }
 
     /**
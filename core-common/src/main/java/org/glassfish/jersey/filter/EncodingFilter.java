@@ -0,0 +1,435 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.filter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.ws.rs.BindingPriority;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.glassfish.jersey.FeaturesAndProperties;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.message.internal.AcceptableToken;
+import org.glassfish.jersey.message.internal.ContentCodings;
+import org.glassfish.jersey.message.internal.HttpHeaderReader;
+
+import org.glassfish.hk2.Factory;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+/**
+ * Universal HTTP content coding filter supporting the {@code gzip}, {@code x-gzip} and {@code deflate}
+ * content codings.
+ * <p>
+ * Can be used on client or server side. On the server side, the filter negotiates the response content
+ * coding based on the {@code Accept-Encoding} request header. On the client side, the filter advertises
+ * the supported content codings in the {@code Accept-Encoding} header of each request; request entities
+ * are compressed if the {@code Content-Encoding} header of the request is set to one of the supported
+ * content codings. On both sides the inbound entities are decoded as indicated by the {@code Content-Encoding}
+ * header.
+ * </p>
+ * <p>
+ * Entities smaller than the {@link MessageProperties#ENCODING_MIN_SIZE minimal size} as well as entities
+ * of the {@link MessageProperties#ENCODING_EXCLUDED_MEDIA_TYPES excluded media types} are sent without
+ * any content coding. If the entity size is not known in advance, up to the minimal size of the entity
+ * data is buffered before the decision to compress the entity is made.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+@BindingPriority(BindingPriority.ENTITY_CODER)
+public class EncodingFilter implements ContainerResponseFilter, ClientRequestFilter,
+        WriterInterceptor, ReaderInterceptor {
+
+    private static final String VARY = "Vary";
+    private static final String ACCEPT_ENCODING_VALUE = ContentCodings.GZIP + ", " + ContentCodings.DEFLATE;
+    private static final List<MediaType> DEFAULT_EXCLUDED_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+            new MediaType("image", MediaType.MEDIA_TYPE_WILDCARD),
+            new MediaType("audio", MediaType.MEDIA_TYPE_WILDCARD),
+            new MediaType("video", MediaType.MEDIA_TYPE_WILDCARD),
+            new MediaType("application", "zip"),
+            new MediaType("application", "gzip"),
+            new MediaType("application", "x-gzip")));
+
+    private final boolean configurable;
+    private volatile Supplier<Integer> minSize;
+    private volatile Supplier<List<MediaType>> excludedMediaTypes;
+    private volatile Factory<MessageBodyWorkers> workers;
+
+    /**
+     * Create a new encoding filter configured using the {@link MessageProperties#ENCODING_MIN_SIZE}
+     * and {@link MessageProperties#ENCODING_EXCLUDED_MEDIA_TYPES} configuration properties.
+     */
+    public EncodingFilter() {
+        this.configurable = true;
+        this.minSize = Suppliers.ofInstance(MessageProperties.ENCODING_DEFAULT_MIN_SIZE);
+        this.excludedMediaTypes = Suppliers.ofInstance(DEFAULT_EXCLUDED_MEDIA_TYPES);
+    }
+
+    /**
+     * Create a new encoding filter with custom settings. The configuration properties are ignored
+     * by the created filter.
+     *
+     * @param minSize            minimal size of an entity to be compressed.
+     * @param excludedMediaTypes media types of entities that must not be compressed.
+     */
+    public EncodingFilter(int minSize, MediaType... excludedMediaTypes) {
+        this.configurable = false;
+        this.minSize = Suppliers.ofInstance(minSize);
+        this.excludedMediaTypes = Suppliers.ofInstance(
+                Collections.unmodifiableList(new ArrayList<MediaType>(Arrays.asList(excludedMediaTypes))));
+    }
+
+    /**
+     * Set the configuration used to initialize the filter settings.
+     *
+     * @param fp configuration factory.
+     */
+    @Context
+    public void setConfiguration(final Factory<FeaturesAndProperties> fp) {
+        if (!configurable) {
+            return;
+        }
+
+        minSize = Suppliers.memoize(new Supplier<Integer>() {
+
+            @Override
+            public Integer get() {
+                final Object value = fp.get().getProperty(MessageProperties.ENCODING_MIN_SIZE);
+                if (value != null) {
+                    try {
+                        final int size = Integer.parseInt(value.toString());
+                        if (size >= 0) {
+                            return size;
+                        }
+                    } catch (NumberFormatException ex) {
+                        // ignore invalid value
+                    }
+                }
+                return MessageProperties.ENCODING_DEFAULT_MIN_SIZE;
+            }
+        });
+
+        excludedMediaTypes = Suppliers.memoize(new Supplier<List<MediaType>>() {
+
+            @Override
+            public List<MediaType> get() {
+                final Object value = fp.get().getProperty(MessageProperties.ENCODING_EXCLUDED_MEDIA_TYPES);
+                if (value == null) {
+                    return DEFAULT_EXCLUDED_MEDIA_TYPES;
+                }
+
+                final String[] types = (value instanceof String[]) ? (String[]) value : value.toString().split(",");
+                final List<MediaType> mediaTypes = new ArrayList<MediaType>(types.length);
+                for (String type : types) {
+                    if (type.trim().length() > 0) {
+                        mediaTypes.add(MediaType.valueOf(type.trim()));
+                    }
+                }
+                return Collections.unmodifiableList(mediaTypes);
+            }
+        });
+    }
+
+    /**
+     * Set the message body workers used to determine the entity size.
+     *
+     * @param workers message body workers factory.
+     */
+    @Context
+    public void setWorkers(final Factory<MessageBodyWorkers> workers) {
+        this.workers = workers;
+    }
+
+    @Override
+    public void filter(ClientRequestContext request) throws IOException {
+        if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.getHeaders().putSingle(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING_VALUE);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+        if (!response.hasEntity()) {
+            return;
+        }
+
+        final MultivaluedMap<String, Object> headers = response.getHeaders();
+        addVary(headers);
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || isExcluded(response.getMediaType())) {
+            return;
+        }
+
+        final String coding = selectCoding(request.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (coding != null) {
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, coding);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        final Object coding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (coding == null || !ContentCodings.isSupported(coding.toString())) {
+            context.proceed();
+            return;
+        }
+
+        final int threshold = minSize.get();
+        final long size = (threshold > 0) ? getEntitySize(context) : -1;
+        if (isExcluded(context.getMediaType()) || (size >= 0 && size < threshold)) {
+            context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+            context.proceed();
+            return;
+        }
+
+        final OutputStream old = context.getOutputStream();
+        final ThresholdOutputStream encodingStream = new ThresholdOutputStream(
+                coding.toString(), old, context.getHeaders(), size >= 0 ? 0 : threshold);
+        context.setOutputStream(encodingStream);
+        try {
+            context.proceed();
+        } finally {
+            encodingStream.finish();
+            context.setOutputStream(old);
+        }
+    }
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException {
+        final String coding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (coding == null || !ContentCodings.isSupported(coding)) {
+            return context.proceed();
+        }
+
+        final InputStream old = context.getInputStream();
+        context.setInputStream(ContentCodings.decode(coding, old));
+        try {
+            return context.proceed();
+        } finally {
+            context.setInputStream(old);
+        }
+    }
+
+    /**
+     * Select the response content coding based on the value of the {@code Accept-Encoding} request header.
+     *
+     * @param acceptEncoding value of the {@code Accept-Encoding} request header.
+     * @return selected supported content coding or {@code null} if the entity should not be encoded.
+     */
+    static String selectCoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+
+        final List<AcceptableToken> tokens;
+        try {
+            tokens = HttpHeaderReader.readAcceptToken(acceptEncoding);
+        } catch (ParseException ex) {
+            return null;
+        }
+
+        final Set<String> rejected = new HashSet<String>();
+        for (AcceptableToken token : tokens) {
+            if (token.getQuality() == 0) {
+                rejected.add(token.getToken().toLowerCase(Locale.ENGLISH));
+            }
+        }
+
+        // tokens are sorted by the quality in the descending order
+        for (AcceptableToken token : tokens) {
+            final String value = token.getToken();
+            if (token.getQuality() == 0 || ContentCodings.IDENTITY.equalsIgnoreCase(value)) {
+                return null;
+            } else if (ContentCodings.isSupported(value)) {
+                return value.toLowerCase(Locale.ENGLISH);
+            } else if ("*".equals(value)) {
+                if (!rejected.contains(ContentCodings.GZIP)) {
+                    return ContentCodings.GZIP;
+                } else if (!rejected.contains(ContentCodings.DEFLATE)) {
+                    return ContentCodings.DEFLATE;
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private boolean isExcluded(MediaType mediaType) {
+        if (mediaType == null) {
+            return false;
+        }
+        for (MediaType excluded : excludedMediaTypes.get()) {
+            if (excluded.isCompatible(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private long getEntitySize(WriterInterceptorContext context) {
+        if (workers == null) {
+            return -1;
+        }
+        final MessageBodyWriter writer = workers.get().getMessageBodyWriter(
+                context.getType(), context.getGenericType(), context.getAnnotations(), context.getMediaType());
+        return (writer == null) ? -1 : writer.getSize(context.getEntity(), context.getType(),
+                context.getGenericType(), context.getAnnotations(), context.getMediaType());
+    }
+
+    private static void addVary(MultivaluedMap<String, Object> headers) {
+        final List<Object> values = headers.get(VARY);
+        if (values != null) {
+            for (Object value : values) {
+                for (String field : value.toString().split(",")) {
+                    final String name = field.trim();
+                    if ("*".equals(name) || HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(name)) {
+                        return;
+                    }
+                }
+            }
+        }
+        headers.add(VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Entity output stream that buffers the written data until the threshold is reached. Once the threshold
+     * is exceeded, the data are encoded. If the stream is finished before reaching the threshold, the content
+     * coding header is removed and the buffered data are written without any encoding.
+     */
+    private static final class ThresholdOutputStream extends OutputStream {
+
+        private final String coding;
+        private final OutputStream out;
+        private final MultivaluedMap<String, Object> headers;
+        private byte[] buffer;
+        private int count;
+        private DeflaterOutputStream encoder;
+
+        ThresholdOutputStream(String coding, OutputStream out, MultivaluedMap<String, Object> headers, int threshold) {
+            this.coding = coding;
+            this.out = out;
+            this.headers = headers;
+            this.buffer = new byte[threshold];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (encoder != null) {
+                encoder.write(b);
+            } else if (count < buffer.length) {
+                buffer[count++] = (byte) b;
+            } else {
+                // threshold exceeded by this byte - create the encoder and flush the buffer into it
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (encoder == null) {
+                if (count + len <= buffer.length) {
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                encoder = ContentCodings.encode(coding, out);
+                encoder.write(buffer, 0, count);
+                buffer = null;
+            }
+            encoder.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (encoder != null) {
+                encoder.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            out.close();
+        }
+
+        /**
+         * Finish writing of the entity data without closing the underlying stream.
+         *
+         * @throws IOException in case of an I/O error.
+         */
+        void finish() throws IOException {
+            if (encoder != null) {
+                encoder.finish();
+            } else if (buffer != null) {
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                out.write(buffer, 0, count);
+                buffer = null;
+            }
+        }
+    }
+}
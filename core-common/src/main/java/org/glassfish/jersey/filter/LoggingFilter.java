@@ -39,11 +39,11 @@
  */
 package org.glassfish.jersey.filter;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
@@ -64,7 +64,9 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.WriterInterceptor;
 import javax.ws.rs.ext.WriterInterceptorContext;
 
+import org.glassfish.jersey.message.internal.EntityBuffer;
 import org.glassfish.jersey.message.internal.HeadersFactory;
+import org.glassfish.jersey.message.internal.ReaderWriter;
 
 /**
  * Universal logging filter.
@@ -175,20 +177,29 @@ public class LoggingFilter implements ContainerRequestFilter, ClientRequestFilte
         }
     }
 
-    private InputStream logInboundEntity(StringBuilder b, InputStream stream) throws IOException {
-        if (!stream.markSupported()) {
-            stream = new BufferedInputStream(stream);
-        }
-        stream.mark(maxEntitySize + 1);
-        byte[] entity = new byte[maxEntitySize + 1];
-        int entitySize = stream.read(entity);
-        b.append(new String(entity, 0, Math.min(entitySize, maxEntitySize)));
-        if (entitySize > maxEntitySize) {
+    private void printEntity(StringBuilder b, EntityBuffer entity) throws IOException {
+        b.append(ReaderWriter.readFromAsString(new InputStreamReader(entity.getInputStream(0, maxEntitySize))));
+        if (entity.size() > maxEntitySize) {
             b.append("...more...");
         }
         b.append('\n');
-        stream.reset();
-        return stream;
+    }
+
+    private InputStream logInboundEntity(StringBuilder b, InputStream stream) throws IOException {
+        // only the logged part of the entity is buffered, the rest of the entity is streamed
+        final EntityBuffer entity = new EntityBuffer(maxEntitySize + 1L, -1);
+        entity.readFrom(stream, maxEntitySize + 1L);
+        printEntity(b, entity);
+        return new SequenceInputStream(entity.getInputStream(), stream) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    entity.release();
+                }
+            }
+        };
     }
 
     @Override
@@ -271,32 +282,40 @@ public class LoggingFilter implements ContainerRequestFilter, ClientRequestFilte
     private class LoggingStream extends OutputStream {
         private final StringBuilder b;
         private final OutputStream inner;
-        private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        private EntityBuffer entity = new EntityBuffer(maxEntitySize + 1L, -1);
 
         LoggingStream(StringBuilder b, OutputStream inner) {
             this.b = b;
             this.inner = inner;
         }
 
-        StringBuilder getStringBuilder() {
+        StringBuilder getStringBuilder() throws IOException {
             // write entity to the builder
-            byte[] entity = baos.toByteArray();
-
-            b.append(new String(entity, 0, Math.min(entity.length, maxEntitySize)));
-            if (entity.length > maxEntitySize) {
-                b.append("...more...");
-            }
-            b.append('\n');
+            printEntity(b, entity);
+            // content written after the entity has been logged (e.g. chunks) is not buffered anymore
+            entity.release();
+            entity = null;
 
             return b;
         }
 
         @Override
         public void write(int i) throws IOException {
-            if (baos.size() <= maxEntitySize) {
-                baos.write(i);
+            if (entity != null && entity.size() <= maxEntitySize) {
+                entity.write(i);
             }
             inner.write(i);
         }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) throws IOException {
+            if (entity != null) {
+                final int logged = (int) Math.min(len, maxEntitySize + 1L - entity.size());
+                if (logged > 0) {
+                    entity.write(bytes, off, logged);
+                }
+            }
+            inner.write(bytes, off, len);
+        }
     }
 }
@@ -45,9 +45,12 @@ import java.lang.reflect.TypeVariable;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
 
 import org.glassfish.jersey.internal.inject.AbstractModule;
@@ -126,7 +129,23 @@ public class ExceptionMapperFactory implements ExceptionMappers {
         }
     }
 
+    /**
+     * Marker of a cached negative exception mapper lookup result.
+     */
+    private static final ExceptionMapper<Throwable> NO_MAPPER = new ExceptionMapper<Throwable>() {
+
+        @Override
+        public Response toResponse(Throwable exception) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
     private Set<ExceptionMapperType> exceptionMapperTypes = new HashSet<ExceptionMapperType>();
+    /**
+     * Cache of the exception mappers selected for the exception types, including
+     * the {@link #NO_MAPPER negative} results.
+     */
+    private final ConcurrentMap<Class<?>, ExceptionMapper> mapperCache = new ConcurrentHashMap<Class<?>, ExceptionMapper>();
 
     /**
      * Create new exception mapper factory initialized with a set of exception mappers.
@@ -140,6 +159,10 @@ public class ExceptionMapperFactory implements ExceptionMappers {
                 exceptionMapperTypes.add(new ExceptionMapperType(mapper, c));
             }
         }
+        // precompute the mappers of the directly mapped exception types
+        for (ExceptionMapperType mapperType : exceptionMapperTypes) {
+            mapperCache.put(mapperType.exceptionType, lookup(mapperType.exceptionType));
+        }
     }
 
     /**
@@ -156,6 +179,15 @@ public class ExceptionMapperFactory implements ExceptionMappers {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Throwable> ExceptionMapper<T> find(Class<T> type) {
+        ExceptionMapper mapper = mapperCache.get(type);
+        if (mapper == null) {
+            mapper = lookup(type);
+            mapperCache.putIfAbsent(type, (mapper == null) ? NO_MAPPER : mapper);
+        }
+        return (mapper == NO_MAPPER) ? null : mapper;
+    }
+
+    private ExceptionMapper lookup(Class<?> type) {
         int distance = Integer.MAX_VALUE;
         ExceptionMapper selectedEm = null;
         for (ExceptionMapperType mapperType : exceptionMapperTypes) {
@@ -94,6 +94,63 @@ public final class MessageProperties {
      * streams.
      */
     public static final int IO_DEFAULT_BUFFER_SIZE = 8192;
+    /**
+     * Minimal size (in bytes) of a message entity to be compressed by the
+     * {@link org.glassfish.jersey.filter.EncodingFilter encoding filter}. Smaller entities are
+     * sent without any content coding. The property value is expected to be a non-negative
+     * integer otherwise it will be ignored.
+     * <p />
+     * The default value is <code>{@value #ENCODING_DEFAULT_MIN_SIZE}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String ENCODING_MIN_SIZE = "jersey.config.encoding.minSize";
+    /**
+     * The default minimal size ({@value}) of a message entity to be compressed.
+     */
+    public static final int ENCODING_DEFAULT_MIN_SIZE = 1024;
+    /**
+     * Media types of message entities that must not be compressed by the
+     * {@link org.glassfish.jersey.filter.EncodingFilter encoding filter}, typically because
+     * the entity content is already compressed. The property value is expected to be either
+     * a comma-separated {@code String} or a {@code String[]} of media types, wildcard types
+     * (e.g. {@code image/*}) are supported.
+     * <p />
+     * The default value is <code>image/*, audio/*, video/*, application/zip, application/gzip,
+     * application/x-gzip</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String ENCODING_EXCLUDED_MEDIA_TYPES = "jersey.config.encoding.excludedMediaTypes";
+    /**
+     * Size (in bytes) up to which a {@link org.glassfish.jersey.message.internal.InboundMessageContext#bufferEntity()
+     * buffered} inbound message entity is kept in memory. Larger entities are buffered in a temporary file.
+     * The property value is expected to be a non-negative long integer otherwise it will be ignored.
+     * <p />
+     * The default value is <code>{@value #ENTITY_DEFAULT_BUFFER_THRESHOLD}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String ENTITY_BUFFER_THRESHOLD = "jersey.config.entity.buffer.threshold";
+    /**
+     * The default size ({@value}) up to which a buffered inbound message entity is kept in memory.
+     */
+    public static final long ENTITY_DEFAULT_BUFFER_THRESHOLD = 1024 * 1024;
+    /**
+     * Maximal size (in bytes) of a {@link org.glassfish.jersey.message.internal.InboundMessageContext#bufferEntity()
+     * buffered} inbound message entity. Buffering of a larger entity fails with {@code 413 Request Entity Too Large}
+     * {@link javax.ws.rs.WebApplicationException}. A negative value means the size of buffered entities is not
+     * limited. The property value is expected to be a long integer otherwise it will be ignored.
+     * <p />
+     * The default value is <code>{@value #ENTITY_DEFAULT_BUFFER_MAX_SIZE}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String ENTITY_BUFFER_MAX_SIZE = "jersey.config.entity.buffer.maxSize";
+    /**
+     * The default maximal size ({@value}) of a buffered inbound message entity, i.e. the size is not limited.
+     */
+    public static final long ENTITY_DEFAULT_BUFFER_MAX_SIZE = -1;
 
     private MessageProperties() {
         // prevents instantiation
@@ -107,12 +107,16 @@ public abstract class AbstractJaxbElementProvider extends AbstractJaxbProvider<J
         final ParameterizedType pt = (ParameterizedType) genericType;
         final Class ta = (Class) pt.getActualTypeArguments()[0];
 
+        Unmarshaller u = null;
         try {
-            return readFrom(ta, mediaType, getUnmarshaller(ta, mediaType), entityStream);
+            u = getUnmarshaller(ta, mediaType);
+            return readFrom(ta, mediaType, u, entityStream);
         } catch (UnmarshalException ex) {
             throw new WebApplicationException(ex, Status.BAD_REQUEST);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
+        } finally {
+            releaseUnmarshaller(u);
         }
     }
 
@@ -129,8 +133,9 @@ public abstract class AbstractJaxbElementProvider extends AbstractJaxbProvider<J
             MediaType mediaType,
             MultivaluedMap<String, Object> httpHeaders,
             OutputStream entityStream) throws IOException {
+        Marshaller m = null;
         try {
-            final Marshaller m = getMarshaller(t.getDeclaredType(), mediaType);
+            m = getMarshaller(t.getDeclaredType(), mediaType);
             final Charset c = getCharset(mediaType);
             if (c != UTF8) {
                 m.setProperty(Marshaller.JAXB_ENCODING, c.name());
@@ -139,6 +144,8 @@ public abstract class AbstractJaxbElementProvider extends AbstractJaxbProvider<J
             writeTo(t, mediaType, c, m, entityStream);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
+        } finally {
+            releaseMarshaller(m);
         }
     }
 
@@ -41,8 +41,9 @@ package org.glassfish.jersey.message.internal;
 
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -69,6 +70,7 @@ import org.xml.sax.InputSource;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.MapMaker;
 
 /**
  * A base class for implementing JAXB-based readers and writers.
@@ -80,8 +82,42 @@ import com.google.common.base.Suppliers;
  */
 public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWriterProvider<T> {
 
-    private static final Map<Class, JAXBContext> jaxbContexts =
-            new WeakHashMap<Class, JAXBContext>();
+    /**
+     * Maximum number of idle marshallers (and unmarshallers) pooled per JAXB context.
+     */
+    private static final int POOL_SIZE = 32;
+    /**
+     * JAXB RI specific XML headers marshaller properties.
+     */
+    private static final String[] XML_HEADERS_PROPERTIES = {
+            "com.sun.xml.bind.xmlHeaders", "com.sun.xml.internal.bind.xmlHeaders"};
+
+    /**
+     * Idle marshallers and unmarshallers created from a single JAXB context.
+     */
+    private static final class MarshallerPool {
+
+        private final BlockingQueue<Marshaller> marshallers = new ArrayBlockingQueue<Marshaller>(POOL_SIZE);
+        private final BlockingQueue<Unmarshaller> unmarshallers = new ArrayBlockingQueue<Unmarshaller>(POOL_SIZE);
+    }
+
+    /**
+     * Stored JAXB contexts. The keys are weak and the values soft so that the cached
+     * contexts do not prevent the JAXB classes (and their class loaders) from being unloaded.
+     */
+    private static final ConcurrentMap<Class, JAXBContext> jaxbContexts =
+            new MapMaker().weakKeys().softValues().makeMap();
+    /**
+     * Marshaller pools of the JAXB contexts (keyed by the context identity).
+     */
+    private static final ConcurrentMap<JAXBContext, MarshallerPool> pools =
+            new MapMaker().weakKeys().softValues().makeMap();
+    /**
+     * Pools the pooled marshallers and unmarshallers are returned to once released.
+     */
+    private static final ConcurrentMap<Object, MarshallerPool> origins =
+            new MapMaker().weakKeys().weakValues().makeMap();
+
     private final Providers ps;
     private final boolean fixedMediaType;
     private final Supplier<ContextResolver<JAXBContext>> mtContext;
@@ -163,7 +199,7 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        return getJAXBContext(type, mt).createUnmarshaller();
+        return acquireUnmarshaller(getJAXBContext(type, mt));
     }
 
     private Unmarshaller getUnmarshaller(Class type) throws JAXBException {
@@ -175,7 +211,7 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        return getJAXBContext(type).createUnmarshaller();
+        return acquireUnmarshaller(getJAXBContext(type));
     }
 
     protected final Marshaller getMarshaller(Class type, MediaType mt) throws JAXBException {
@@ -191,12 +227,7 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        Marshaller m = getJAXBContext(type, mt).createMarshaller();
-        if (formattedOutput.get()) {
-            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput.get());
-        }
-        return m;
-
+        return acquireMarshaller(getJAXBContext(type, mt));
     }
 
     private Marshaller getMarshaller(Class type) throws JAXBException {
@@ -208,13 +239,98 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        Marshaller m = getJAXBContext(type).createMarshaller();
+        return acquireMarshaller(getJAXBContext(type));
+    }
+
+    private static MarshallerPool getPool(JAXBContext context) {
+        MarshallerPool pool = pools.get(context);
+        if (pool == null) {
+            final MarshallerPool newPool = new MarshallerPool();
+            pool = pools.putIfAbsent(context, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        return pool;
+    }
+
+    private static Unmarshaller acquireUnmarshaller(JAXBContext context) throws JAXBException {
+        if (context == null) {
+            return null;
+        }
+
+        final MarshallerPool pool = getPool(context);
+        Unmarshaller u = pool.unmarshallers.poll();
+        if (u == null) {
+            u = context.createUnmarshaller();
+            origins.put(u, pool);
+        }
+        return u;
+    }
+
+    private Marshaller acquireMarshaller(JAXBContext context) throws JAXBException {
+        if (context == null) {
+            return null;
+        }
+
+        final MarshallerPool pool = getPool(context);
+        Marshaller m = pool.marshallers.poll();
+        if (m == null) {
+            m = context.createMarshaller();
+            origins.put(m, pool);
+        }
         if (formattedOutput.get()) {
             m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput.get());
         }
         return m;
     }
 
+    /**
+     * Release the unmarshaller obtained from {@link #getUnmarshaller(Class, MediaType)} once
+     * the entity has been read. Unmarshallers created by the provider are returned to the pool
+     * of their JAXB context, unmarshallers supplied by a {@link ContextResolver} are left intact.
+     *
+     * @param u unmarshaller to be released, may be {@code null}.
+     */
+    protected final void releaseUnmarshaller(Unmarshaller u) {
+        final MarshallerPool pool = (u == null) ? null : origins.get(u);
+        if (pool != null) {
+            pool.unmarshallers.offer(u);
+        }
+    }
+
+    /**
+     * Release the marshaller obtained from {@link #getMarshaller(Class, MediaType)} once
+     * the entity has been written. Marshallers created by the provider are reset to the default
+     * property values and returned to the pool of their JAXB context, marshallers supplied by
+     * a {@link ContextResolver} are left intact.
+     *
+     * @param m marshaller to be released, may be {@code null}.
+     */
+    protected final void releaseMarshaller(Marshaller m) {
+        final MarshallerPool pool = (m == null) ? null : origins.get(m);
+        if (pool == null) {
+            return;
+        }
+
+        try {
+            m.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
+            m.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+            for (String property : XML_HEADERS_PROPERTIES) {
+                try {
+                    m.setProperty(property, null);
+                } catch (PropertyException ignored) {
+                    // not supported by this JAXB implementation
+                }
+            }
+        } catch (PropertyException ex) {
+            // the marshaller cannot be reset, do not pool it
+            return;
+        }
+        pool.marshallers.offer(m);
+    }
+
     private JAXBContext getJAXBContext(Class type, MediaType mt) throws JAXBException {
         final ContextResolver<JAXBContext> cr = ps.getContextResolver(JAXBContext.class, mt);
         if (cr != null) {
@@ -240,14 +356,15 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
     }
 
     protected JAXBContext getStoredJaxbContext(Class type) throws JAXBException {
-        synchronized (jaxbContexts) {
-            JAXBContext c = jaxbContexts.get(type);
-            if (c == null) {
-                c = JAXBContext.newInstance(type);
-                jaxbContexts.put(type, c);
+        JAXBContext c = jaxbContexts.get(type);
+        if (c == null) {
+            c = JAXBContext.newInstance(type);
+            final JAXBContext stored = jaxbContexts.putIfAbsent(type, c);
+            if (stored != null) {
+                c = stored;
             }
-            return c;
         }
+        return c;
     }
 
     protected static SAXSource getSAXSource(SAXParserFactory spf,
@@ -41,20 +41,47 @@ package org.glassfish.jersey.message.internal;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.glassfish.jersey.internal.LocalizationMessages;
 
 /**
- * An abstract committing output stream adapter that performs a {@link org.glassfish.jersey.message.internal.OutboundMessageContext.StreamProvider#commit()
+ * An abstract committing output stream adapter that performs a {@link org.glassfish.jersey.message.internal.OutboundMessageContext.StreamProvider#commit(long)
  * commit} and then retrieves the {@link org.glassfish.jersey.message.internal.OutboundMessageContext.StreamProvider#getOutputStream() provided output} stream
  * before the first byte is written to the provided stream.
  *
  * Concrete implementations of the class typically override the commit operation
  * to perform any initialization on the adapted output stream.
+ * <p>
+ * If {@link #enableBuffering(int) buffering} is enabled, the written data are kept in a buffer
+ * and the commit is deferred until the stream is {@link #close() closed} or explicitly
+ * {@link #commit() committed}, in which case the exact content length is passed to the stream
+ * provider and the buffered data are written to the provided stream in a single write.
+ * Once the size of the written data exceeds the buffer size, the stream is committed with
+ * an unknown content length and the rest of the data is streamed directly.
+ * </p>
+ * <p>
+ * The stream is a {@link ZeroCopyOutput zero-copy output}. File regions and byte buffers written
+ * to the stream are passed to the provided stream directly if it supports the zero-copy writes.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
 // TODO make package-private
-public final class CommittingOutputStream extends OutputStream {
+public final class CommittingOutputStream extends OutputStream implements ZeroCopyOutput {
+
+    /**
+     * Default size of the buffer used in the buffering mode.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    /**
+     * Pool of the default-size buffers.
+     */
+    private static final BlockingQueue<byte[]> BUFFER_POOL = new ArrayBlockingQueue<byte[]>(64);
 
     /**
      * Adapted output stream.
@@ -68,6 +95,18 @@ public final class CommittingOutputStream extends OutputStream {
      * Stream provider.
      */
     private OutboundMessageContext.StreamProvider streamProvider;
+    /**
+     * Buffer size; {@code 0} if buffering is disabled.
+     */
+    private int bufferSize = 0;
+    /**
+     * Buffered data.
+     */
+    private byte[] buffer;
+    /**
+     * Number of buffered bytes.
+     */
+    private int count = 0;
 
     /**
      * Construct a new committing output stream using a deferred initialization
@@ -85,6 +124,23 @@ public final class CommittingOutputStream extends OutputStream {
         this.streamProvider = streamProvider;
     }
 
+    /**
+     * Enable buffering of the written data. The method has to be invoked before any data are
+     * written to the stream.
+     *
+     * @param bufferSize maximal number of bytes to be buffered before the stream is committed
+     *                   with an unknown content length. Value lower than or equal to {@code 0}
+     *                   disables the buffering.
+     * @throws IllegalStateException in case the stream is already committed or some data
+     *                               have already been written.
+     */
+    public void enableBuffering(int bufferSize) {
+        if (isCommitted || count > 0) {
+            throw new IllegalStateException(LocalizationMessages.COMMITTING_STREAM_BUFFERING_ILLEGAL_STATE());
+        }
+        this.bufferSize = Math.max(bufferSize, 0);
+    }
+
     /**
      * Determines whether the stream was already committed or not.
      *
@@ -96,47 +152,128 @@ public final class CommittingOutputStream extends OutputStream {
 
     @Override
     public void write(byte b[]) throws IOException {
-        if (b.length > 0) {
-            commitWrite();
-            adaptedOutput.write(b);
-        }
+        write(b, 0, b.length);
     }
 
     @Override
     public void write(byte b[], int off, int len) throws IOException {
         if (len > 0) {
-            commitWrite();
+            if (isBuffering()) {
+                if (count + len <= bufferSize) {
+                    ensureBuffer();
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                // buffer exceeded - switch to streaming mode
+                commitWrite(-1);
+            } else {
+                commitWrite(-1);
+            }
             adaptedOutput.write(b, off, len);
         }
     }
 
     @Override
     public void write(int b) throws IOException {
-        commitWrite();
+        if (isBuffering() && count < bufferSize) {
+            ensureBuffer();
+            buffer[count++] = (byte) b;
+            return;
+        }
+        commitWrite(-1);
         adaptedOutput.write(b);
     }
 
+    @Override
+    public void write(FileChannel channel, long position, long count) throws IOException {
+        if (count > 0) {
+            commitWrite(-1);
+            ReaderWriter.writeTo(channel, position, count, adaptedOutput);
+        }
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) throws IOException {
+        if (buffer.hasRemaining()) {
+            if (isBuffering() && buffer.hasArray() && count + buffer.remaining() <= bufferSize) {
+                write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                buffer.position(buffer.limit());
+                return;
+            }
+            commitWrite(-1);
+            ReaderWriter.writeTo(buffer, adaptedOutput);
+        }
+    }
+
     @Override
     public void flush() throws IOException {
-        commitWrite();
+        if (isBuffering()) {
+            // flushing is deferred until the buffered entity is committed
+            return;
+        }
+        commitWrite(-1);
         adaptedOutput.flush();
     }
 
     @Override
     public void close() throws IOException {
-        commitWrite();
+        commitWrite(isBuffering() ? count : -1);
         adaptedOutput.close();
     }
 
-    private void commitWrite() throws IOException {
+    /**
+     * Commit the stream if it has not been committed yet. In the buffering mode all the data written
+     * so far are considered to be the complete entity, i.e. the stream provider is committed with the
+     * exact content length and the buffered data are written to the provided stream.
+     *
+     * @throws IOException in case of an IO error.
+     */
+    public void commit() throws IOException {
+        commitWrite(isBuffering() ? count : -1);
+        adaptedOutput.flush();
+    }
+
+    private boolean isBuffering() {
+        return bufferSize > 0 && !isCommitted;
+    }
+
+    private void ensureBuffer() {
+        if (buffer == null) {
+            buffer = (bufferSize == DEFAULT_BUFFER_SIZE) ? BUFFER_POOL.poll() : null;
+            if (buffer == null) {
+                buffer = new byte[bufferSize];
+            }
+        }
+    }
+
+    private void commitWrite(long contentLength) throws IOException {
         if (!isCommitted) {
             isCommitted = true;
 
-            streamProvider.commit();
+            streamProvider.commit(contentLength);
 
             if (adaptedOutput == null) {
                 adaptedOutput = streamProvider.getOutputStream();
             }
+
+            if (buffer != null) {
+                try {
+                    if (count > 0) {
+                        adaptedOutput.write(buffer, 0, count);
+                    }
+                } finally {
+                    releaseBuffer();
+                }
+            }
+        }
+    }
+
+    private void releaseBuffer() {
+        if (buffer.length == DEFAULT_BUFFER_SIZE) {
+            BUFFER_POOL.offer(buffer);
         }
+        buffer = null;
+        count = 0;
     }
 }
@@ -0,0 +1,354 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import org.glassfish.jersey.internal.LocalizationMessages;
+
+/**
+ * Utility methods for encoding and decoding of the HTTP message entity content codings
+ * ({@code gzip}, {@code x-gzip} and {@code deflate}).
+ * <p>
+ * The {@link Deflater deflaters} and {@link Inflater inflaters} used by the encoding and decoding
+ * streams are pooled. A deflater is returned to the pool once the encoding stream is
+ * {@link DeflaterOutputStream#finish() finished}, an inflater is returned once the decoding stream
+ * reaches the end of the encoded content or is closed.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class ContentCodings {
+
+    /**
+     * {@code gzip} content coding.
+     */
+    public static final String GZIP = "gzip";
+    /**
+     * {@code x-gzip} content coding, an alias for the {@link #GZIP gzip} coding.
+     */
+    public static final String X_GZIP = "x-gzip";
+    /**
+     * {@code deflate} content coding.
+     */
+    public static final String DEFLATE = "deflate";
+    /**
+     * {@code identity} content coding.
+     */
+    public static final String IDENTITY = "identity";
+
+    private static final int POOL_SIZE = 32;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final byte[] GZIP_HEADER = new byte[]{
+            (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int GZIP_FHCRC = 2;
+    private static final int GZIP_FEXTRA = 4;
+    private static final int GZIP_FNAME = 8;
+    private static final int GZIP_FCOMMENT = 16;
+
+    // gzip codings use the raw deflate format, the deflate coding uses the zlib format
+    private static final BlockingQueue<Deflater> GZIP_DEFLATERS = new ArrayBlockingQueue<Deflater>(POOL_SIZE);
+    private static final BlockingQueue<Deflater> ZLIB_DEFLATERS = new ArrayBlockingQueue<Deflater>(POOL_SIZE);
+    private static final BlockingQueue<Inflater> GZIP_INFLATERS = new ArrayBlockingQueue<Inflater>(POOL_SIZE);
+    private static final BlockingQueue<Inflater> ZLIB_INFLATERS = new ArrayBlockingQueue<Inflater>(POOL_SIZE);
+
+    private ContentCodings() {
+        // prevents instantiation
+    }
+
+    /**
+     * Check if the content coding is supported.
+     *
+     * @param coding content coding.
+     * @return {@code true} if the content coding can be encoded and decoded, {@code false} otherwise.
+     */
+    public static boolean isSupported(String coding) {
+        return isGzip(coding) || DEFLATE.equalsIgnoreCase(coding);
+    }
+
+    /**
+     * Get a stream encoding the data written to the entity output stream using the content coding.
+     * The returned stream must be {@link DeflaterOutputStream#finish() finished} once all the data
+     * are written in order to complete the encoded content. Finishing the stream does not close
+     * the underlying entity stream.
+     *
+     * @param coding supported content coding.
+     * @param out    entity output stream.
+     * @return encoding output stream.
+     * @throws IOException in case writing of the content coding header fails.
+     */
+    public static DeflaterOutputStream encode(String coding, OutputStream out) throws IOException {
+        return new EncodingOutputStream(coding, out, isGzip(coding));
+    }
+
+    /**
+     * Get a stream decoding the entity input stream content encoded using the content coding.
+     *
+     * @param coding supported content coding.
+     * @param in     encoded entity input stream.
+     * @return decoding input stream.
+     * @throws IOException in case reading of the content coding header fails.
+     */
+    public static InputStream decode(String coding, InputStream in) throws IOException {
+        return new DecodingInputStream(coding, in, isGzip(coding));
+    }
+
+    private static boolean isGzip(String coding) {
+        return GZIP.equalsIgnoreCase(coding) || X_GZIP.equalsIgnoreCase(coding);
+    }
+
+    private static Deflater acquireDeflater(boolean gzip) {
+        final Deflater deflater = (gzip ? GZIP_DEFLATERS : ZLIB_DEFLATERS).poll();
+        return (deflater != null) ? deflater : new Deflater(Deflater.DEFAULT_COMPRESSION, gzip);
+    }
+
+    private static void releaseDeflater(Deflater deflater, boolean gzip) {
+        deflater.reset();
+        if (!(gzip ? GZIP_DEFLATERS : ZLIB_DEFLATERS).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private static Inflater acquireInflater(boolean gzip) {
+        final Inflater inflater = (gzip ? GZIP_INFLATERS : ZLIB_INFLATERS).poll();
+        return (inflater != null) ? inflater : new Inflater(gzip);
+    }
+
+    private static void releaseInflater(Inflater inflater, boolean gzip) {
+        inflater.reset();
+        if (!(gzip ? GZIP_INFLATERS : ZLIB_INFLATERS).offer(inflater)) {
+            inflater.end();
+        }
+    }
+
+    private static final class EncodingOutputStream extends DeflaterOutputStream {
+
+        private final String coding;
+        private final boolean gzip;
+        private final CRC32 crc;
+        private boolean finished;
+
+        EncodingOutputStream(String coding, OutputStream out, boolean gzip) throws IOException {
+            super(out, acquireDeflater(gzip), ReaderWriter.BUFFER_SIZE);
+            this.coding = coding;
+            this.gzip = gzip;
+            if (gzip) {
+                this.crc = new CRC32();
+                out.write(GZIP_HEADER);
+            } else {
+                this.crc = null;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException(LocalizationMessages.ERROR_CONTENT_CODING_STREAM_FINISHED(coding));
+            }
+            super.write(b, off, len);
+            if (gzip) {
+                crc.update(b, off, len);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                super.finish();
+                if (gzip) {
+                    writeInt((int) crc.getValue());
+                    writeInt((int) def.getBytesRead());
+                }
+            } finally {
+                releaseDeflater(def, gzip);
+            }
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(value & 0xff);
+            out.write((value >> 8) & 0xff);
+            out.write((value >> 16) & 0xff);
+            out.write((value >> 24) & 0xff);
+        }
+    }
+
+    private static final class DecodingInputStream extends InflaterInputStream {
+
+        private final String coding;
+        private final boolean gzip;
+        private final CRC32 crc;
+        private boolean released;
+
+        DecodingInputStream(String coding, InputStream in, boolean gzip) throws IOException {
+            super(in, acquireInflater(gzip), ReaderWriter.BUFFER_SIZE);
+            this.coding = coding;
+            this.gzip = gzip;
+            if (gzip) {
+                this.crc = new CRC32();
+                try {
+                    readHeader();
+                } catch (IOException ex) {
+                    release();
+                    throw ex;
+                }
+            } else {
+                this.crc = null;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (released) {
+                return -1;
+            }
+            final int n = super.read(b, off, len);
+            if (n == -1) {
+                try {
+                    if (gzip) {
+                        readTrailer();
+                    }
+                } finally {
+                    release();
+                }
+            } else if (gzip) {
+                crc.update(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return released ? 0 : super.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            release();
+            super.close();
+        }
+
+        private void release() {
+            if (!released) {
+                released = true;
+                releaseInflater(inf, gzip);
+            }
+        }
+
+        private void readHeader() throws IOException {
+            if (readShort() != GZIP_MAGIC || readByte() != Deflater.DEFLATED) {
+                throw new ZipException(LocalizationMessages.ERROR_CONTENT_CODING_CORRUPTED(coding, "header"));
+            }
+            final int flags = readByte();
+            skipBytes(6); // modification time, extra flags and OS
+            if ((flags & GZIP_FEXTRA) != 0) {
+                skipBytes(readShort());
+            }
+            if ((flags & GZIP_FNAME) != 0) {
+                skipString();
+            }
+            if ((flags & GZIP_FCOMMENT) != 0) {
+                skipString();
+            }
+            if ((flags & GZIP_FHCRC) != 0) {
+                skipBytes(2);
+            }
+        }
+
+        private void readTrailer() throws IOException {
+            // part of the trailer may have already been read into the inflater input buffer
+            final byte[] trailer = new byte[8];
+            final int buffered = Math.min(inf.getRemaining(), trailer.length);
+            System.arraycopy(buf, len - inf.getRemaining(), trailer, 0, buffered);
+            for (int i = buffered; i < trailer.length; i++) {
+                trailer[i] = (byte) readByte();
+            }
+            if (readInt(trailer, 0) != crc.getValue()
+                    || readInt(trailer, 4) != (inf.getBytesWritten() & 0xffffffffL)) {
+                throw new ZipException(LocalizationMessages.ERROR_CONTENT_CODING_CORRUPTED(coding, "trailer"));
+            }
+        }
+
+        private long readInt(byte[] b, int off) {
+            return (b[off] & 0xffL)
+                    | ((b[off + 1] & 0xffL) << 8)
+                    | ((b[off + 2] & 0xffL) << 16)
+                    | ((b[off + 3] & 0xffL) << 24);
+        }
+
+        private int readShort() throws IOException {
+            return readByte() | (readByte() << 8);
+        }
+
+        private int readByte() throws IOException {
+            final int b = in.read();
+            if (b == -1) {
+                throw new EOFException();
+            }
+            return b;
+        }
+
+        private void skipBytes(int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                readByte();
+            }
+        }
+
+        private void skipString() throws IOException {
+            while (readByte() != 0) {
+                // skip zero-terminated string
+            }
+        }
+    }
+}
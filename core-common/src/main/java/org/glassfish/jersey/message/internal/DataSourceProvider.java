@@ -41,11 +41,13 @@ package org.glassfish.jersey.message.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
@@ -53,6 +55,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 
 import javax.activation.DataSource;
+import javax.activation.FileDataSource;
 
 
 /**
@@ -179,6 +182,18 @@ public class DataSourceProvider extends AbstractMessageReaderWriterProvider<Data
             MediaType mediaType,
             MultivaluedMap<String, Object> httpHeaders,
             OutputStream entityStream) throws IOException {
+        if (t instanceof FileDataSource) {
+            // write the file directly, possibly using zero-copy writes
+            final FileInputStream in = new FileInputStream(((FileDataSource) t).getFile());
+            try {
+                final FileChannel channel = in.getChannel();
+                ReaderWriter.writeTo(channel, 0, channel.size(), entityStream);
+            } finally {
+                in.close();
+            }
+            return;
+        }
+
         InputStream in = t.getInputStream();
         try {
             writeTo(in, entityStream);
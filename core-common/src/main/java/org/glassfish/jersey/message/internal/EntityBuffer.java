@@ -0,0 +1,582 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.glassfish.jersey.internal.LocalizationMessages;
+import org.glassfish.jersey.message.MessageProperties;
+
+/**
+ * Bounded buffer of a message entity content.
+ * <p>
+ * The content written to the buffer is stored in memory in pooled fixed-size chunks until
+ * it reaches the configured {@link MessageProperties#ENTITY_BUFFER_THRESHOLD threshold}. The content
+ * exceeding the threshold is spilled into a temporary file which is memory-mapped once the buffer
+ * is {@link #close() closed}. Writing more than the configured {@link MessageProperties#ENTITY_BUFFER_MAX_SIZE
+ * maximal size} fails with {@code 413 Request Entity Too Large} {@link WebApplicationException}.
+ * </p>
+ * <p>
+ * Once closed, the buffered content can be read repeatedly (as a whole or as a range) using the
+ * {@link #getInputStream() input streams} backed directly by the buffered chunks or the mapped file
+ * without copying the content. The input streams support {@link InputStream#mark(int) mark} and
+ * {@link InputStream#reset() reset}; a reset without a previous mark rewinds the stream to its start.
+ * </p>
+ * <p>
+ * The buffer must be {@link #release() released} when the buffered content is not needed anymore so that
+ * the temporary file is deleted. Reading from the input streams of a released buffer fails with an
+ * {@link IOException}. The memory chunks are returned to the pool once the buffer is released, the input
+ * streams therefore never return content written into a chunk reused by another buffer. The buffer is
+ * not thread-safe.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class EntityBuffer extends OutputStream {
+
+    private static final Logger LOGGER = Logger.getLogger(EntityBuffer.class.getName());
+
+    /**
+     * Default size of the content kept in memory, see {@link MessageProperties#ENTITY_BUFFER_THRESHOLD}.
+     */
+    public static final long DEFAULT_THRESHOLD = getLimit(
+            MessageProperties.ENTITY_BUFFER_THRESHOLD, MessageProperties.ENTITY_DEFAULT_BUFFER_THRESHOLD, 0);
+    /**
+     * Default maximal size of the content, see {@link MessageProperties#ENTITY_BUFFER_MAX_SIZE}.
+     */
+    public static final long DEFAULT_MAX_SIZE = getLimit(
+            MessageProperties.ENTITY_BUFFER_MAX_SIZE, MessageProperties.ENTITY_DEFAULT_BUFFER_MAX_SIZE, Long.MIN_VALUE);
+
+    /**
+     * Size of the memory chunks.
+     */
+    static final int CHUNK_SIZE = 8192;
+    /**
+     * Maximal number of the memory chunks retained in the pool.
+     */
+    private static final int MAX_POOLED_CHUNKS = 256;
+    /**
+     * Maximal size of a single mapped region of the temporary file.
+     */
+    private static final long MAX_MAPPED_REGION = 1 << 30;
+
+    private static final Queue<byte[]> POOL = new ConcurrentLinkedQueue<byte[]>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    private static long getLimit(String property, long defaultValue, long minValue) {
+        final String value = System.getProperty(property);
+        if (value != null) {
+            try {
+                final long l = Long.parseLong(value);
+                if (l < minValue) {
+                    throw new NumberFormatException("Value too small.");
+                }
+                return l;
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.CONFIG,
+                        "Value of " + property + " property is not a valid long integer [" + value + "]."
+                        + " Reverting to default [" + defaultValue + "].",
+                        e);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static byte[] acquireChunk() {
+        final byte[] chunk = POOL.poll();
+        if (chunk == null) {
+            return new byte[CHUNK_SIZE];
+        }
+        POOLED.decrementAndGet();
+        return chunk;
+    }
+
+    private static void releaseChunk(byte[] chunk) {
+        if (POOLED.incrementAndGet() <= MAX_POOLED_CHUNKS) {
+            POOL.offer(chunk);
+        } else {
+            POOLED.decrementAndGet();
+        }
+    }
+
+    private final long threshold;
+    private final long maxSize;
+
+    /**
+     * Memory chunks, in the file mode contains only the chunk staging the content written to the file.
+     */
+    private final List<byte[]> chunks = new ArrayList<byte[]>();
+    private byte[] current;
+    private int count;
+    private long size;
+
+    private File file;
+    private OutputStream fileStream;
+
+    private ByteBuffer[] content;
+    private volatile boolean released;
+
+    /**
+     * Create new entity buffer using the {@link #DEFAULT_THRESHOLD default threshold} and
+     * {@link #DEFAULT_MAX_SIZE maximal size}.
+     */
+    public EntityBuffer() {
+        this(DEFAULT_THRESHOLD, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create new entity buffer.
+     *
+     * @param threshold size of the content (in bytes) kept in memory, larger content is spilled
+     *                  into a temporary file.
+     * @param maxSize   maximal size of the content (in bytes), negative value means the size
+     *                  is not limited.
+     */
+    public EntityBuffer(long threshold, long maxSize) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.threshold = threshold;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the size of the buffered content.
+     *
+     * @return size of the buffered content in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Check whether the buffered content has been spilled into a temporary file.
+     *
+     * @return {@code true} if the content is buffered in a temporary file, {@code false} otherwise.
+     */
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkOpen();
+        checkSize(1);
+        if (current == null || count == current.length) {
+            nextChunk();
+        }
+        current[count++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkOpen();
+        checkSize(len);
+        while (len > 0) {
+            if (current == null || count == current.length) {
+                nextChunk();
+            }
+            final int n = Math.min(len, current.length - count);
+            System.arraycopy(b, off, current, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    /**
+     * Read the remaining content of the input stream into the buffer. The content is read
+     * directly into the buffer chunks.
+     *
+     * @param in input stream to read from.
+     * @return number of bytes read.
+     * @throws IOException in case of an I/O error.
+     */
+    public long readFrom(InputStream in) throws IOException {
+        return readFrom(in, Long.MAX_VALUE);
+    }
+
+    /**
+     * Read at most the given number of bytes from the input stream into the buffer. The content is read
+     * directly into the buffer chunks.
+     *
+     * @param in    input stream to read from.
+     * @param limit maximal number of bytes to read.
+     * @return number of bytes read, smaller than the limit only if the end of the stream has been reached.
+     * @throws IOException in case of an I/O error.
+     */
+    public long readFrom(InputStream in, long limit) throws IOException {
+        long total = 0;
+        checkOpen();
+        while (total < limit) {
+            if (current == null || count == current.length) {
+                if (file == null && size >= threshold) {
+                    // do not spill the content into a file unless there is more content to be read
+                    final int b = in.read();
+                    if (b < 0) {
+                        break;
+                    }
+                    write(b);
+                    total++;
+                    continue;
+                }
+                nextChunk();
+            }
+            final int n = in.read(current, count, (int) Math.min(current.length - count, limit - total));
+            if (n < 0) {
+                break;
+            }
+            checkSize(n);
+            count += n;
+            size += n;
+            total += n;
+        }
+        return total;
+    }
+
+    private void checkOpen() throws IOException {
+        if (content != null || released) {
+            throw new IOException(LocalizationMessages.ENTITY_BUFFER_CLOSED());
+        }
+    }
+
+    private void checkSize(long length) {
+        if (maxSize >= 0 && size + length > maxSize) {
+            release();
+            LOGGER.log(Level.FINE, LocalizationMessages.ENTITY_TOO_LARGE(maxSize));
+            throw new WebApplicationException(413);
+        }
+    }
+
+    private void nextChunk() throws IOException {
+        if (file != null) {
+            flushChunk();
+        } else if (size >= threshold) {
+            spill();
+        } else {
+            current = acquireChunk();
+            count = 0;
+            chunks.add(current);
+        }
+    }
+
+    private void flushChunk() throws IOException {
+        fileStream.write(current, 0, count);
+        count = 0;
+    }
+
+    private void spill() throws IOException {
+        file = File.createTempFile("jersey-entity", ".buffer");
+        fileStream = new FileOutputStream(file);
+        for (byte[] chunk : chunks) {
+            // all memory chunks are full at this point
+            fileStream.write(chunk);
+            if (chunk != current) {
+                releaseChunk(chunk);
+            }
+        }
+        chunks.clear();
+        if (current == null) {
+            current = acquireChunk();
+        }
+        chunks.add(current);
+        count = 0;
+    }
+
+    /**
+     * Close the buffer for writing. Once closed, the buffered content can be read using
+     * the {@link #getInputStream() input streams}. Closing a closed buffer has no effect.
+     *
+     * @throws IOException in case of an I/O error.
+     */
+    @Override
+    public void close() throws IOException {
+        if (content != null || released) {
+            return;
+        }
+
+        if (file == null) {
+            content = new ByteBuffer[chunks.size()];
+            for (int i = 0; i < content.length; i++) {
+                final byte[] chunk = chunks.get(i);
+                content[i] = ByteBuffer.wrap(chunk, 0, (chunk == current) ? count : chunk.length).slice();
+            }
+            return;
+        }
+
+        flushChunk();
+        fileStream.close();
+        releaseChunk(current);
+        chunks.clear();
+        current = null;
+
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final int regions = (int) ((size + MAX_MAPPED_REGION - 1) / MAX_MAPPED_REGION);
+            final ByteBuffer[] mapped = new ByteBuffer[regions];
+            for (int i = 0; i < regions; i++) {
+                final long position = i * MAX_MAPPED_REGION;
+                mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAX_MAPPED_REGION, size - position));
+            }
+            content = mapped;
+        } finally {
+            // the mapped regions remain valid after the channel is closed
+            raf.close();
+        }
+    }
+
+    /**
+     * Get a new input stream reading the whole buffered content.
+     *
+     * @return new input stream of the buffered content.
+     * @throws IOException in case of an I/O error.
+     */
+    public InputStream getInputStream() throws IOException {
+        return getInputStream(0, size);
+    }
+
+    /**
+     * Get a new input stream reading a range of the buffered content. The buffer is {@link #close() closed}
+     * for writing if not closed already.
+     *
+     * @param position position of the first byte of the range.
+     * @param length   maximal length of the range, the range is truncated at the end of the buffered content.
+     * @return new input stream of the buffered content range.
+     * @throws IOException in case of an I/O error.
+     */
+    public InputStream getInputStream(long position, long length) throws IOException {
+        if (released) {
+            throw new IllegalStateException(LocalizationMessages.ENTITY_BUFFER_RELEASED());
+        }
+        if (position < 0 || length < 0) {
+            throw new IllegalArgumentException(LocalizationMessages.FILE_REGION_INVALID(position, length));
+        }
+        close();
+
+        final long end = Math.min(size, position + length);
+        final List<ByteBuffer> range = new ArrayList<ByteBuffer>(content.length);
+        long offset = 0;
+        for (ByteBuffer buffer : content) {
+            final long bufferEnd = offset + buffer.limit();
+            if (bufferEnd > position && offset < end) {
+                final ByteBuffer view = buffer.duplicate();
+                view.limit((int) (Math.min(end, bufferEnd) - offset));
+                view.position((int) (Math.max(position, offset) - offset));
+                range.add(view);
+            }
+            offset = bufferEnd;
+        }
+        return new ContentInputStream(range.toArray(new ByteBuffer[range.size()]));
+    }
+
+    /**
+     * Release the buffered content. The temporary file is deleted and the memory chunks are returned
+     * to the pool. The input streams of the buffer fail once the buffer is released. Releasing a released
+     * buffer has no effect.
+     */
+    public void release() {
+        if (released) {
+            return;
+        }
+        // mark released before the chunks are pooled, the input streams check the flag after reading a chunk
+        released = true;
+        content = null;
+
+        for (byte[] chunk : chunks) {
+            releaseChunk(chunk);
+        }
+        chunks.clear();
+        current = null;
+
+        if (file != null) {
+            if (fileStream != null) {
+                try {
+                    fileStream.close();
+                } catch (IOException ex) {
+                    LOGGER.log(Level.FINE, LocalizationMessages.ENTITY_BUFFER_TEMP_FILE_DELETE_FAILED(file), ex);
+                }
+            }
+            if (!file.delete()) {
+                LOGGER.log(Level.FINE, LocalizationMessages.ENTITY_BUFFER_TEMP_FILE_DELETE_FAILED(file));
+            }
+        }
+    }
+
+    /**
+     * Input stream reading a sequence of byte buffers. The stream does not modify the buffers
+     * other than their position and fails once the entity buffer is released. The released state
+     * is checked again after the content is read, so that content of a chunk released to the pool
+     * in the meantime is never returned.
+     */
+    private final class ContentInputStream extends InputStream {
+
+        private final ByteBuffer[] buffers;
+        private final int[] starts;
+        private int index;
+        private int markIndex;
+        private int markPosition;
+
+        ContentInputStream(ByteBuffer[] buffers) {
+            this.buffers = buffers;
+            this.starts = new int[buffers.length];
+            for (int i = 0; i < buffers.length; i++) {
+                starts[i] = buffers[i].position();
+            }
+            this.markPosition = (buffers.length == 0) ? 0 : starts[0];
+        }
+
+        private void checkNotReleased() throws IOException {
+            if (released) {
+                throw new IOException(LocalizationMessages.ENTITY_BUFFER_RELEASED());
+            }
+        }
+
+        private ByteBuffer currentBuffer() throws IOException {
+            checkNotReleased();
+            while (index < buffers.length) {
+                final ByteBuffer buffer = buffers[index];
+                if (buffer.hasRemaining()) {
+                    return buffer;
+                }
+                if (index == buffers.length - 1) {
+                    break;
+                }
+                index++;
+            }
+            return null;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final ByteBuffer buffer = currentBuffer();
+            if (buffer == null) {
+                return -1;
+            }
+            final int b = buffer.get() & 0xFF;
+            checkNotReleased();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            final ByteBuffer buffer = currentBuffer();
+            if (buffer == null) {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            checkNotReleased();
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            ByteBuffer buffer;
+            while (skipped < n && (buffer = currentBuffer()) != null) {
+                final int s = (int) Math.min(n - skipped, buffer.remaining());
+                buffer.position(buffer.position() + s);
+                skipped += s;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            checkNotReleased();
+            long available = 0;
+            for (int i = index; i < buffers.length && available < Integer.MAX_VALUE; i++) {
+                available += buffers[i].remaining();
+            }
+            return (int) Math.min(available, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public void mark(int readLimit) {
+            markIndex = index;
+            markPosition = (index < buffers.length) ? buffers[index].position() : 0;
+        }
+
+        @Override
+        public void reset() throws IOException {
+            checkNotReleased();
+            for (int i = markIndex + 1; i <= index && i < buffers.length; i++) {
+                buffers[i].position(starts[i]);
+            }
+            if (markIndex < buffers.length) {
+                buffers[markIndex].position(markPosition);
+            }
+            index = markIndex;
+        }
+
+        @Override
+        public void close() {
+            // the content remains readable until the entity buffer is released
+        }
+    }
+}
@@ -39,7 +39,6 @@
  */
 package org.glassfish.jersey.message.internal;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -49,6 +48,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
@@ -59,6 +59,10 @@ import javax.ws.rs.core.MultivaluedMap;
 /**
  * Provider for marshalling/un-marshalling of {@code application/octet-stream}
  * entity type to/from a {@link File} instance.
+ * <p>
+ * The file is written using {@link ZeroCopyOutput zero-copy} writes if supported
+ * by the entity stream.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -104,9 +108,10 @@ public final class FileProvider extends AbstractMessageReaderWriterProvider<File
             MediaType mediaType,
             MultivaluedMap<String, Object> httpHeaders,
             OutputStream entityStream) throws IOException {
-        InputStream in = new BufferedInputStream(new FileInputStream(t), ReaderWriter.BUFFER_SIZE);
+        final FileInputStream in = new FileInputStream(t);
         try {
-            writeTo(in, entityStream);
+            final FileChannel channel = in.getChannel();
+            ReaderWriter.writeTo(channel, 0, channel.size(), entityStream);
         } finally {
             in.close();
         }
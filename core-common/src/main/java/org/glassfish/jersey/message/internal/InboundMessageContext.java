@@ -39,8 +39,6 @@
  */
 package org.glassfish.jersey.message.internal;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
@@ -78,6 +76,8 @@ import javax.xml.transform.Source;
 import org.glassfish.jersey.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.ProcessingException;
 import org.glassfish.jersey.internal.PropertiesDelegate;
+import org.glassfish.jersey.internal.util.KeyComparatorHashMap;
+import org.glassfish.jersey.internal.util.StringIgnoreCaseKeyComparator;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 
 import com.google.common.base.Function;
@@ -103,6 +103,211 @@ public class InboundMessageContext {
     private final ContentStream contentStream;
     private MessageBodyWorkers workers;
 
+    private long entityBufferThreshold = EntityBuffer.DEFAULT_THRESHOLD;
+    private long entityBufferMaxSize = EntityBuffer.DEFAULT_MAX_SIZE;
+    private EntityBuffer entityBuffer;
+
+    /**
+     * Typed header values parsed from the raw message headers, keyed by the header name.
+     * Lazily initialized on the first typed header value retrieval.
+     */
+    private Map<String, ParsedHeader> parsedHeaders;
+
+    /**
+     * Typed header value along with the snapshot of the raw header values it has
+     * been parsed from.
+     */
+    private static final class ParsedHeader {
+        private final String[] rawValues;
+        private final Object value;
+
+        public ParsedHeader(List<String> rawValues, Object value) {
+            this.rawValues = (rawValues == null) ? null : rawValues.toArray(new String[rawValues.size()]);
+            this.value = value;
+        }
+
+        /**
+         * Check whether the typed value is still backed by the supplied raw header values.
+         * <p>
+         * The raw values are compared by identity so that any modification of the header
+         * made directly through the {@link InboundMessageContext#getHeaders() mutable header map}
+         * is detected as well.
+         * </p>
+         *
+         * @param currentValues current raw header values.
+         * @return {@code true} if the cached value has been parsed from the current raw values,
+         *         {@code false} otherwise.
+         */
+        public boolean isParsedFrom(List<String> currentValues) {
+            if (currentValues == null || rawValues == null) {
+                return currentValues == rawValues;
+            }
+            if (currentValues.size() != rawValues.length) {
+                return false;
+            }
+            int i = 0;
+            for (String currentValue : currentValues) {
+                if (currentValue != rawValues[i++]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Typed header value parser.
+     *
+     * @param <T> typed header value type.
+     */
+    private static interface HeaderParser<T> {
+        /**
+         * Parse the typed header value from the raw headers of the message context.
+         *
+         * @param context message context.
+         * @return parsed header value.
+         */
+        public T parse(InboundMessageContext context);
+    }
+
+    private static final HeaderParser<Locale> LANGUAGE_PARSER = new HeaderParser<Locale>() {
+        @Override
+        public Locale parse(InboundMessageContext context) {
+            return context.singleHeader(HttpHeaders.CONTENT_LANGUAGE, new Function<String, Locale>() {
+                @Override
+                public Locale apply(String input) {
+                    try {
+                        return new LanguageTag(input).getAsLocale();
+                    } catch (ParseException e) {
+                        throw new ProcessingException(e);
+                    }
+                }
+            });
+        }
+    };
+
+    private static final HeaderParser<MediaType> MEDIA_TYPE_PARSER = new HeaderParser<MediaType>() {
+        @Override
+        public MediaType parse(InboundMessageContext context) {
+            return context.singleHeader(HttpHeaders.CONTENT_TYPE, new Function<String, MediaType>() {
+                @Override
+                public MediaType apply(String input) {
+                    return MediaType.valueOf(input);
+                }
+            });
+        }
+    };
+
+    private static final HeaderParser<List<AcceptableMediaType>> ACCEPT_PARSER = new HeaderParser<List<AcceptableMediaType>>() {
+        @Override
+        public List<AcceptableMediaType> parse(InboundMessageContext context) {
+            final String value = context.getHeaderString(HttpHeaders.ACCEPT);
+
+            if (value == null || value.length() == 0) {
+                return Collections.unmodifiableList(MediaTypes.GENERAL_ACCEPT_MEDIA_TYPE_LIST);
+            }
+
+            try {
+                return Collections.unmodifiableList(HttpHeaderReader.readAcceptMediaType(value));
+            } catch (ParseException e) {
+                throw exception(HttpHeaders.ACCEPT, value, e);
+            }
+        }
+    };
+
+    private static final HeaderParser<List<AcceptableLanguageTag>> ACCEPT_LANGUAGE_PARSER = new HeaderParser<List<AcceptableLanguageTag>>() {
+        @Override
+        public List<AcceptableLanguageTag> parse(InboundMessageContext context) {
+            final String value = context.getHeaderString(HttpHeaders.ACCEPT_LANGUAGE);
+
+            if (value == null || value.length() == 0) {
+                return Collections.singletonList(new AcceptableLanguageTag("*", null));
+            }
+
+            try {
+                return Collections.unmodifiableList(HttpHeaderReader.readAcceptLanguage(value));
+            } catch (ParseException e) {
+                throw exception(HttpHeaders.ACCEPT_LANGUAGE, value, e);
+            }
+        }
+    };
+
+    private static final HeaderParser<List<AcceptableToken>> ACCEPT_CHARSET_PARSER = new HeaderParser<List<AcceptableToken>>() {
+        @Override
+        public List<AcceptableToken> parse(InboundMessageContext context) {
+            final String acceptCharset = context.getHeaderString(HttpHeaders.ACCEPT_CHARSET);
+            try {
+                if (acceptCharset == null || acceptCharset.length() == 0) {
+                    return Collections.singletonList(new AcceptableToken("*"));
+                }
+                return Collections.unmodifiableList(HttpHeaderReader.readAcceptToken(acceptCharset));
+            } catch (java.text.ParseException e) {
+                throw exception(HttpHeaders.ACCEPT_CHARSET, acceptCharset, e);
+            }
+        }
+    };
+
+    private static final HeaderParser<List<AcceptableToken>> ACCEPT_ENCODING_PARSER = new HeaderParser<List<AcceptableToken>>() {
+        @Override
+        public List<AcceptableToken> parse(InboundMessageContext context) {
+            final String acceptEncoding = context.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+            try {
+                if (acceptEncoding == null || acceptEncoding.length() == 0) {
+                    return Collections.singletonList(new AcceptableToken("*"));
+                }
+                return Collections.unmodifiableList(HttpHeaderReader.readAcceptToken(acceptEncoding));
+            } catch (java.text.ParseException e) {
+                throw exception("Accept-Encoding", acceptEncoding, e);
+            }
+        }
+    };
+
+    private static final HeaderParser<Map<String, Cookie>> COOKIE_PARSER = new HeaderParser<Map<String, Cookie>>() {
+        @Override
+        public Map<String, Cookie> parse(InboundMessageContext context) {
+            List<String> cookies = context.headers.get(HttpHeaders.COOKIE);
+            if (cookies == null || cookies.isEmpty()) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, Cookie> result = new HashMap<String, Cookie>();
+            for (String cookie : cookies) {
+                if (cookie != null) {
+                    result.putAll(HttpHeaderReader.readCookies(cookie));
+                }
+            }
+            return Collections.unmodifiableMap(result);
+        }
+    };
+
+    private static final HeaderParser<EntityTag> ENTITY_TAG_PARSER = new HeaderParser<EntityTag>() {
+        @Override
+        public EntityTag parse(InboundMessageContext context) {
+            return context.singleHeader(HttpHeaders.ETAG, new Function<String, EntityTag>() {
+                @Override
+                public EntityTag apply(String value) {
+                    return value == null ? null : EntityTag.valueOf(value);
+                }
+            });
+        }
+    };
+
+    private static final HeaderParser<URI> LOCATION_PARSER = new HeaderParser<URI>() {
+        @Override
+        public URI parse(InboundMessageContext context) {
+            return context.singleHeader(HttpHeaders.LOCATION, new Function<String, URI>() {
+                @Override
+                public URI apply(String value) {
+                    try {
+                        return value == null ? null : URI.create(value);
+                    } catch (IllegalArgumentException ex) {
+                        throw new ProcessingException(ex);
+                    }
+                }
+            });
+        }
+    };
+
     /**
      * Input stream and its state. State is represented by the {@link Type Type enum} and
      * is used to control the execution of interceptors.
@@ -253,6 +458,7 @@ public class InboundMessageContext {
      */
     public InboundMessageContext header(String name, Object value) {
         getHeaders().add(name, HeadersFactory.asString(value, RuntimeDelegate.getInstance()));
+        invalidateParsedHeader(name);
         return this;
     }
 
@@ -265,6 +471,7 @@ public class InboundMessageContext {
      */
     public InboundMessageContext headers(String name, Object... values) {
         this.getHeaders().addAll(name, HeadersFactory.asStringList(Arrays.asList(values), RuntimeDelegate.getInstance()));
+        invalidateParsedHeader(name);
         return this;
     }
 
@@ -277,6 +484,7 @@ public class InboundMessageContext {
      */
     public InboundMessageContext headers(String name, Iterable<?> values) {
         this.getHeaders().addAll(name, iterableToList(values));
+        invalidateParsedHeader(name);
         return this;
     }
 
@@ -288,6 +496,7 @@ public class InboundMessageContext {
      */
     public InboundMessageContext headers(MultivaluedMap<String, String> headers) {
         this.getHeaders().putAll(headers);
+        invalidateParsedHeaders();
         return this;
     }
 
@@ -299,6 +508,7 @@ public class InboundMessageContext {
      */
     public InboundMessageContext headers(Map<String, List<String>> headers) {
         this.getHeaders().putAll(headers);
+        invalidateParsedHeaders();
         return this;
     }
 
@@ -310,6 +520,7 @@ public class InboundMessageContext {
      */
     public InboundMessageContext remove(String name) {
         this.getHeaders().remove(name);
+        invalidateParsedHeader(name);
         return this;
     }
 
@@ -322,10 +533,23 @@ public class InboundMessageContext {
     public InboundMessageContext replaceHeaders(MultivaluedMap<String, String> headers) {
         this.headers.clear();
         this.headers.putAll(headers);
+        invalidateParsedHeaders();
 
         return this;
     }
 
+    private void invalidateParsedHeader(final String name) {
+        if (parsedHeaders != null) {
+            parsedHeaders.remove(name);
+        }
+    }
+
+    private void invalidateParsedHeaders() {
+        if (parsedHeaders != null) {
+            parsedHeaders.clear();
+        }
+    }
+
 
     private static List<String> iterableToList(final Iterable<?> values) {
         final LinkedList<String> linkedList = new LinkedList<String>();
@@ -403,6 +627,37 @@ public class InboundMessageContext {
         }
     }
 
+    /**
+     * Get a typed header value, parsing the raw header value at most once.
+     * <p>
+     * The parsed value is cached in the message context and reused by subsequent calls
+     * until the raw header value changes. The method must therefore be used only for
+     * typed header values that are immutable or read-only.
+     * </p>
+     *
+     * @param <T>    header value type.
+     * @param name   header name.
+     * @param parser typed header value parser.
+     * @return typed header value as returned by the parser.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T parsedHeader(final String name, final HeaderParser<T> parser) {
+        final List<String> rawValues = this.headers.get(name);
+
+        if (parsedHeaders == null) {
+            parsedHeaders = new KeyComparatorHashMap<String, ParsedHeader>(StringIgnoreCaseKeyComparator.SINGLETON);
+        } else {
+            final ParsedHeader cached = parsedHeaders.get(name);
+            if (cached != null && cached.isParsedFrom(rawValues)) {
+                return (T) cached.value;
+            }
+        }
+
+        final T value = parser.parse(this);
+        parsedHeaders.put(name, new ParsedHeader(rawValues, value));
+        return value;
+    }
+
     private static HeaderValueException exception(final String headerName, Object headerValue, Exception e) {
         return new HeaderValueException(LocalizationMessages.UNABLE_TO_PARSE_HEADER_VALUE(headerName, headerValue), e);
     }
@@ -474,16 +729,7 @@ public class InboundMessageContext {
      * @return the language of the entity or {@code null} if not specified
      */
     public Locale getLanguage() {
-        return singleHeader(HttpHeaders.CONTENT_LANGUAGE, new Function<String, Locale>() {
-            @Override
-            public Locale apply(String input) {
-                try {
-                    return new LanguageTag(input).getAsLocale();
-                } catch (ParseException e) {
-                    throw new ProcessingException(e);
-                }
-            }
-        });
+        return parsedHeader(HttpHeaders.CONTENT_LANGUAGE, LANGUAGE_PARSER);
     }
 
     /**
@@ -512,12 +758,7 @@ public class InboundMessageContext {
      *         message entity).
      */
     public MediaType getMediaType() {
-        return singleHeader(HttpHeaders.CONTENT_TYPE, new Function<String, MediaType>() {
-            @Override
-            public MediaType apply(String input) {
-                return MediaType.valueOf(input);
-            }
-        });
+        return parsedHeader(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_PARSER);
     }
 
     /**
@@ -527,17 +768,7 @@ public class InboundMessageContext {
      *         to their q-value, with highest preference first.
      */
     public List<AcceptableMediaType> getQualifiedAcceptableMediaTypes() {
-        final String value = getHeaderString(HttpHeaders.ACCEPT);
-
-        if (value == null || value.length() == 0) {
-            return Collections.unmodifiableList(MediaTypes.GENERAL_ACCEPT_MEDIA_TYPE_LIST);
-        }
-
-        try {
-            return Collections.unmodifiableList(HttpHeaderReader.readAcceptMediaType(value));
-        } catch (ParseException e) {
-            throw exception(HttpHeaders.ACCEPT, value, e);
-        }
+        return parsedHeader(HttpHeaders.ACCEPT, ACCEPT_PARSER);
     }
 
     /**
@@ -547,17 +778,7 @@ public class InboundMessageContext {
      *         to their q-value, with highest preference first.
      */
     public List<AcceptableLanguageTag> getQualifiedAcceptableLanguages() {
-        final String value = getHeaderString(HttpHeaders.ACCEPT_LANGUAGE);
-
-        if (value == null || value.length() == 0) {
-            return Collections.singletonList(new AcceptableLanguageTag("*", null));
-        }
-
-        try {
-            return Collections.unmodifiableList(HttpHeaderReader.readAcceptLanguage(value));
-        } catch (ParseException e) {
-            throw exception(HttpHeaders.ACCEPT_LANGUAGE, value, e);
-        }
+        return parsedHeader(HttpHeaders.ACCEPT_LANGUAGE, ACCEPT_LANGUAGE_PARSER);
     }
 
     /**
@@ -567,15 +788,7 @@ public class InboundMessageContext {
      *         is ordered with the highest quality acceptable charset occurring first.
      */
     public List<AcceptableToken> getQualifiedAcceptCharset() {
-        final String acceptCharset = getHeaderString(HttpHeaders.ACCEPT_CHARSET);
-        try {
-            if (acceptCharset == null || acceptCharset.length() == 0) {
-                return Collections.singletonList(new AcceptableToken("*"));
-            }
-            return HttpHeaderReader.readAcceptToken(acceptCharset);
-        } catch (java.text.ParseException e) {
-            throw exception(HttpHeaders.ACCEPT_CHARSET, acceptCharset, e);
-        }
+        return parsedHeader(HttpHeaders.ACCEPT_CHARSET, ACCEPT_CHARSET_PARSER);
     }
 
     /**
@@ -585,15 +798,7 @@ public class InboundMessageContext {
      *         is ordered with the highest quality acceptable charset occurring first.
      */
     public List<AcceptableToken> getQualifiedAcceptEncoding() {
-        final String acceptEncoding = getHeaderString(HttpHeaders.ACCEPT_ENCODING);
-        try {
-            if (acceptEncoding == null || acceptEncoding.length() == 0) {
-                return Collections.singletonList(new AcceptableToken("*"));
-            }
-            return HttpHeaderReader.readAcceptToken(acceptEncoding);
-        } catch (java.text.ParseException e) {
-            throw exception("Accept-Encoding", acceptEncoding, e);
-        }
+        return parsedHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING_PARSER);
     }
 
     /**
@@ -602,18 +807,7 @@ public class InboundMessageContext {
      * @return a read-only map of cookie name (String) to {@link javax.ws.rs.core.Cookie}.
      */
     public Map<String, Cookie> getRequestCookies() {
-        List<String> cookies = this.headers.get(HttpHeaders.COOKIE);
-        if (cookies == null || cookies.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        Map<String, Cookie> result = new HashMap<String, Cookie>();
-        for (String cookie : cookies) {
-            if (cookie != null) {
-                result.putAll(HttpHeaderReader.readCookies(cookie));
-            }
-        }
-        return result;
+        return parsedHeader(HttpHeaders.COOKIE, COOKIE_PARSER);
     }
 
     /**
@@ -661,12 +855,7 @@ public class InboundMessageContext {
      * @return the entity tag, otherwise {@code null} if not present.
      */
     public EntityTag getEntityTag() {
-        return singleHeader(HttpHeaders.ETAG, new Function<String, EntityTag>() {
-            @Override
-            public EntityTag apply(String value) {
-                return value == null ? null : EntityTag.valueOf(value);
-            }
-        });
+        return parsedHeader(HttpHeaders.ETAG, ENTITY_TAG_PARSER);
     }
 
     /**
@@ -693,16 +882,7 @@ public class InboundMessageContext {
      * @return the location URI, otherwise {@code null} if not present.
      */
     public URI getLocation() {
-        return singleHeader(HttpHeaders.LOCATION, new Function<String, URI>() {
-            @Override
-            public URI apply(String value) {
-                try {
-                    return value == null ? null : URI.create(value);
-                } catch (IllegalArgumentException ex) {
-                    throw new ProcessingException(ex);
-                }
-            }
-        });
+        return parsedHeader(HttpHeaders.LOCATION, LOCATION_PARSER);
     }
 
     /**
@@ -914,8 +1094,40 @@ public class InboundMessageContext {
         return null;
     }
 
+    /**
+     * Set the limits of the {@link #bufferEntity() entity buffering}.
+     *
+     * @param threshold size (in bytes) up to which the buffered entity is kept in memory, larger
+     *                  entities are buffered in a temporary file.
+     * @param maxSize   maximal size (in bytes) of the buffered entity, negative value means the size
+     *                  is not limited.
+     * @see org.glassfish.jersey.message.MessageProperties#ENTITY_BUFFER_THRESHOLD
+     * @see org.glassfish.jersey.message.MessageProperties#ENTITY_BUFFER_MAX_SIZE
+     */
+    public void setEntityBufferLimits(long threshold, long maxSize) {
+        this.entityBufferThreshold = threshold;
+        this.entityBufferMaxSize = maxSize;
+    }
+
+    /**
+     * Release the resources held by the {@link #bufferEntity() buffered entity}, if any. The buffered
+     * entity stream must not be read once released.
+     */
+    public void releaseEntityBuffer() {
+        if (entityBuffer != null) {
+            entityBuffer.release();
+            entityBuffer = null;
+        }
+    }
+
     /**
      * Buffer the entity stream (if not empty).
+     * <p>
+     * Entities not larger than the {@link #setEntityBufferLimits(long, long) configured threshold} are
+     * buffered in memory, larger entities are buffered in a temporary file. Buffering of an entity larger
+     * than the configured maximal size fails with {@code 413 Request Entity Too Large}
+     * {@link javax.ws.rs.WebApplicationException}.
+     * </p>
      *
      * @return {@code true} if the entity input stream was successfully buffered.
      * @throws MessageProcessingException in case of an IO error.
@@ -927,14 +1139,22 @@ public class InboundMessageContext {
                 return true;
             }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            final EntityBuffer buffer = new EntityBuffer(entityBufferThreshold, entityBufferMaxSize);
+            boolean buffered = false;
             try {
-                ReaderWriter.writeTo(contentStream.getInputStream(), baos);
+                buffer.readFrom(contentStream.getInputStream());
+                buffer.close();
+                buffered = true;
             } finally {
                 contentStream.invalidateContentStream();
+                if (!buffered) {
+                    buffer.release();
+                }
             }
 
-            contentStream.setBufferedContentStream(new ByteArrayInputStream(baos.toByteArray()));
+            releaseEntityBuffer();
+            entityBuffer = buffer;
+            contentStream.setBufferedContentStream(buffer.getInputStream());
 
             return true;
         } catch (IOException ex) {
@@ -47,6 +47,7 @@ import java.io.StringWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -84,10 +85,25 @@ import org.glassfish.hk2.TypeLiteral;
 
 import org.jvnet.hk2.annotations.Inject;
 
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * A factory for managing {@link MessageBodyReader} and {@link MessageBodyWriter}
  * instances.
  * <p/>
+ * The results of the message body reader and writer selection as well as of the
+ * supported media type lookups are cached by the factory. The lookup cache key consists
+ * of the Java raw type, generic type, media type (without the media type parameters, such
+ * as charset or multipart boundary) and the annotations passed to the lookup method. The
+ * annotations are compared by value, so that the cached results stay correct also for the
+ * providers whose {@code isReadable}/{@code isWriteable} result depends on the annotations.
+ * Providers are however expected to return the same {@code isReadable}/{@code isWriteable}
+ * result for the same arguments regardless of the media type parameters; a provider that
+ * needs to base its decision on the media type parameters or on some other (changing)
+ * state should not be used with the factory.
+ * <p/>
  * Note: {@link MessageBodyReader} and {@link MessageBodyWriter} implementation
  * must not inject the instance of this type directly, e.g. {@code @Inject MessageBodyWorkers w;}.
  * Instead a {@link Factory}-based injection should be used to prevent
@@ -152,7 +168,16 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                 }
             };
 
+    /**
+     * Maximum number of results cached by each of the lookup caches.
+     */
+    private static final int LOOKUP_CACHE_SIZE = 1024;
+    //
     private final Services services;
+    private final Cache<LookupKey, MessageBodyReader> readerCache = createLookupCache();
+    private final Cache<LookupKey, MessageBodyWriter> writerCache = createLookupCache();
+    private final Cache<LookupKey, List<MediaType>> readerMediaTypesCache = createLookupCache();
+    private final Cache<LookupKey, List<MediaType>> writerMediaTypesCache = createLookupCache();
     private Map<MediaType, List<MessageBodyReader>> readerProviders;
     private Map<MediaType, List<MessageBodyWriter>> writerProviders;
     private List<MessageBodyReaderPair> readerListProviders;
@@ -163,6 +188,11 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     private List<MessageBodyWriterPair> customWriterListProviders;
     private List<ReaderInterceptor> readerInterceptors;
     private List<WriterInterceptor> writerInterceptors;
+    // pre-sorted interceptor chains shared by all interceptor executors
+    private List<ReaderInterceptor> readerInterceptorChain;
+    private List<ReaderInterceptor> exceptionWrappingReaderInterceptorChain;
+    private List<WriterInterceptor> writerInterceptorChain;
+    private List<WriterInterceptor> exceptionWrappingWriterInterceptorChain;
 
     @Override
     public List<ReaderInterceptor> getReaderInterceptors() {
@@ -196,6 +226,70 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         }
     }
 
+    /**
+     * Message body worker lookup cache key. The media type parameters (e.g. charset or multipart
+     * boundary) are not part of the key.
+     */
+    private static final class LookupKey {
+
+        private final Class<?> rawType;
+        private final Type genericType;
+        private final Annotation[] annotations;
+        private final MediaType mediaType;
+        private final int hash;
+
+        LookupKey(Class<?> rawType, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            this.rawType = rawType;
+            this.genericType = genericType;
+            this.annotations = annotations;
+            this.mediaType = (mediaType == null || mediaType.getParameters().isEmpty())
+                    ? mediaType : new MediaType(mediaType.getType(), mediaType.getSubtype());
+            this.hash = 31 * Objects.hashCode(rawType, genericType, this.mediaType) + Arrays.hashCode(annotations);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LookupKey)) {
+                return false;
+            }
+            final LookupKey other = (LookupKey) o;
+            return hash == other.hash
+                    && rawType == other.rawType
+                    && Objects.equal(genericType, other.genericType)
+                    && Objects.equal(mediaType, other.mediaType)
+                    && Arrays.equals(annotations, other.annotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Get a copy of the key that does not share the annotation array with the caller
+         * of the lookup method and is therefore safe to be stored in the cache.
+         *
+         * @return cache-safe copy of the key.
+         */
+        LookupKey detach() {
+            return (annotations == null || annotations.length == 0) ? this
+                    : new LookupKey(rawType, genericType, annotations.clone(), mediaType);
+        }
+    }
+
+    private static <V> Cache<LookupKey, V> createLookupCache() {
+        return CacheBuilder.newBuilder().maximumSize(LOOKUP_CACHE_SIZE).build();
+    }
+
+    private static <V> void cache(Cache<LookupKey, V> cache, LookupKey key, V value) {
+        if (value != null) {
+            cache.put(key.detach(), value);
+        }
+    }
+
     public MessageBodyFactory(Services services) {
         this.services = services;
 
@@ -258,6 +352,15 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     private void initInterceptors() {
         this.readerInterceptors = Providers.getAllProviders(services, ReaderInterceptor.class);
         this.writerInterceptors = Providers.getAllProviders(services, WriterInterceptor.class);
+
+        this.readerInterceptorChain = Collections.unmodifiableList(
+                ReaderInterceptorExecutor.getInterceptors(this, true));
+        this.exceptionWrappingReaderInterceptorChain = Collections.unmodifiableList(
+                ReaderInterceptorExecutor.getInterceptors(this, false));
+        this.writerInterceptorChain = Collections.unmodifiableList(
+                WriterInterceptorExecutor.getInterceptors(this, true));
+        this.exceptionWrappingWriterInterceptorChain = Collections.unmodifiableList(
+                WriterInterceptorExecutor.getInterceptors(this, false));
     }
 
     private void initReaders() {
@@ -398,10 +501,24 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> c, Type t,
             Annotation[] as,
             MediaType mediaType) {
 
+        final LookupKey key = new LookupKey(c, t, as, mediaType);
+        MessageBodyReader<T> reader = readerCache.getIfPresent(key);
+        if (reader == null) {
+            reader = lookupMessageBodyReader(c, t, as, mediaType);
+            cache(readerCache, key, reader);
+        }
+        return reader;
+    }
+
+    private <T> MessageBodyReader<T> lookupMessageBodyReader(Class<T> c, Type t,
+            Annotation[] as,
+            MediaType mediaType) {
+
         MessageBodyReader<T> reader;
 
         if (!customReaderProviders.isEmpty()) {
@@ -417,6 +534,16 @@ public class MessageBodyFactory implements MessageBodyWorkers {
 
     @Override
     public <T> List<MediaType> getMessageBodyReaderMediaTypes(Class<T> type, Type genericType, Annotation[] annotations) {
+        final LookupKey key = new LookupKey(type, genericType, annotations, null);
+        List<MediaType> mtl = readerMediaTypesCache.getIfPresent(key);
+        if (mtl == null) {
+            mtl = Collections.unmodifiableList(lookupMessageBodyReaderMediaTypes(type, genericType, annotations));
+            cache(readerMediaTypesCache, key, mtl);
+        }
+        return mtl;
+    }
+
+    private <T> List<MediaType> lookupMessageBodyReaderMediaTypes(Class<T> type, Type genericType, Annotation[] annotations) {
         List<MediaType> mtl = new ArrayList<MediaType>();
         for (MessageBodyReaderPair mbrp : customReaderListProviders) {
             for (MediaType mt : mbrp.types) {
@@ -475,10 +602,24 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> c, Type t,
             Annotation[] as,
             MediaType mediaType) {
 
+        final LookupKey key = new LookupKey(c, t, as, mediaType);
+        MessageBodyWriter<T> writer = writerCache.getIfPresent(key);
+        if (writer == null) {
+            writer = lookupMessageBodyWriter(c, t, as, mediaType);
+            cache(writerCache, key, writer);
+        }
+        return writer;
+    }
+
+    private <T> MessageBodyWriter<T> lookupMessageBodyWriter(Class<T> c, Type t,
+            Annotation[] as,
+            MediaType mediaType) {
+
         MessageBodyWriter<T> p;
 
         if (!customWriterProviders.isEmpty()) {
@@ -561,6 +702,17 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     @Override
     public <T> List<MediaType> getMessageBodyWriterMediaTypes(Class<T> c, Type t,
             Annotation[] as) {
+        final LookupKey key = new LookupKey(c, t, as, null);
+        List<MediaType> mtl = writerMediaTypesCache.getIfPresent(key);
+        if (mtl == null) {
+            mtl = Collections.unmodifiableList(lookupMessageBodyWriterMediaTypes(c, t, as));
+            cache(writerMediaTypesCache, key, mtl);
+        }
+        return mtl;
+    }
+
+    private <T> List<MediaType> lookupMessageBodyWriterMediaTypes(Class<T> c, Type t,
+            Annotation[] as) {
         List<MediaType> mtl = new ArrayList<MediaType>();
         for (MessageBodyWriterPair mbwp : customWriterListProviders) {
             for (MediaType mt : mbwp.types) {
@@ -612,7 +764,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             boolean intercept) throws WebApplicationException, IOException {
 
         ReaderInterceptorExecutor executor = new ReaderInterceptorExecutor(rawType, type, annotations, mediaType,
-                httpHeaders, propertiesDelegate, entityStream, this, intercept);
+                httpHeaders, propertiesDelegate, entityStream, this,
+                intercept ? readerInterceptorChain : exceptionWrappingReaderInterceptorChain);
         return executor.proceed();
     }
 
@@ -630,7 +783,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             MessageBodySizeCallback sizeCallback, boolean intercept, boolean writeEntity) throws IOException, WebApplicationException {
 
         WriterInterceptorExecutor executor = new WriterInterceptorExecutor(t, rawType, type, annotations, mediaType,
-                httpHeaders, propertiesDelegate, entityStream, this, sizeCallback, intercept, writeEntity);
+                httpHeaders, propertiesDelegate, entityStream, this,
+                intercept ? writerInterceptorChain : exceptionWrappingWriterInterceptorChain, sizeCallback, writeEntity);
         executor.proceed();
     }
 }
@@ -107,6 +107,7 @@ public class MessagingModules {
             // Message body writers
             bind(MessageBodyWriter.class).to(StreamingOutputProvider.class).in(Singleton.class);
             bind(MessageBodyWriter.class).to(SourceProvider.SourceWriter.class).in(Singleton.class);
+            bind(MessageBodyWriter.class).to(FileRegionProvider.class).in(Singleton.class);
 
             install(new ServiceFinderModule<MessageBodyWriter>(MessageBodyWriter.class));
 
@@ -81,12 +81,13 @@ import com.google.common.collect.Lists;
 public class OutboundMessageContext {
     private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation[0];
 
-    private final MultivaluedMap<String, Object> headers;
+    private MultivaluedMap<String, Object> headers;
     private final CommittingOutputStream rootStream;
 
     private Object entity;
     private GenericType<?> entityType;
     private Annotation[] entityAnnotations = EMPTY_ANNOTATIONS;
+    private boolean entityAnnotationsShared;
     private OutputStream entityStream;
 
     /**
@@ -110,16 +111,18 @@ public class OutboundMessageContext {
          * The method is called once as part of a "commit" operation before the first byte
          * is written to the provider stream.
          *
+         * @param contentLength exact length of the entity in bytes if known (i.e. the entity
+         *                      has been {@link OutboundMessageContext#enableBuffering(int) buffered} completely),
+         *                      {@code -1} otherwise.
          * @throws java.io.IOException in case of an IO error.
          */
-        public void commit() throws IOException;
+        public void commit(long contentLength) throws IOException;
     }
 
     /**
      * Create new outbound message context.
      */
     public OutboundMessageContext() {
-        this.headers = HeadersFactory.createOutbound();
         this.rootStream = new CommittingOutputStream();
         this.entityStream = rootStream;
     }
@@ -131,14 +134,17 @@ public class OutboundMessageContext {
      * @param original the original outbound message context.
      */
     public OutboundMessageContext(OutboundMessageContext original) {
-        this.headers = HeadersFactory.createOutbound();
-        this.headers.putAll(original.headers);
+        if (original.headers != null && !original.headers.isEmpty()) {
+            this.headers = HeadersFactory.createOutbound();
+            this.headers.putAll(original.headers);
+        }
         this.rootStream = new CommittingOutputStream();
         this.entityStream = rootStream;
 
         this.entity = original.entity;
         this.entityType = original.entityType;
         this.entityAnnotations = original.entityAnnotations;
+        this.entityAnnotationsShared = original.entityAnnotationsShared;
     }
 
     /**
@@ -156,7 +162,7 @@ public class OutboundMessageContext {
     }
 
     public MultivaluedMap<String, String> getStringHeaders() {
-        return HeadersFactory.asStringHeaders(headers);
+        return HeadersFactory.asStringHeaders(getHeaders());
     }
 
     /**
@@ -176,7 +182,7 @@ public class OutboundMessageContext {
      *         character.
      */
     public String getHeaderString(String name) {
-        return HeadersFactory.asHeaderString(headers.get(name), RuntimeDelegate.getInstance());
+        return HeadersFactory.asHeaderString(headerValues(name), RuntimeDelegate.getInstance());
     }
 
     /**
@@ -190,7 +196,7 @@ public class OutboundMessageContext {
      * @return value of the header, or {@code null} if not present.
      */
     private <T> T singleHeader(String name, Class<T> valueType, Function<String, T> converter) {
-        final List<Object> values = headers.get(name);
+        final List<Object> values = headerValues(name);
 
         if (values == null || values.isEmpty()) {
             return null;
@@ -222,13 +228,30 @@ public class OutboundMessageContext {
 
     /**
      * Get the mutable message headers multivalued map.
+     * <p>
+     * The headers map is created lazily on the first access so that messages
+     * without any headers (e.g. plain entity responses) do not allocate it.
+     * </p>
      *
      * @return mutable multivalued map of message headers.
      */
     public MultivaluedMap<String, Object> getHeaders() {
+        if (headers == null) {
+            headers = HeadersFactory.createOutbound();
+        }
         return headers;
     }
 
+    /**
+     * Get the values of a message header without creating the headers map.
+     *
+     * @param name header name.
+     * @return header values or {@code null} if the header is not present.
+     */
+    private List<Object> headerValues(String name) {
+        return (headers == null) ? null : headers.get(name);
+    }
+
     /**
      * Get message date.
      *
@@ -288,7 +311,7 @@ public class OutboundMessageContext {
      */
     @SuppressWarnings("unchecked")
     public List<MediaType> getAcceptableMediaTypes() {
-        final List<Object> values = headers.get(HttpHeaders.ACCEPT);
+        final List<Object> values = headerValues(HttpHeaders.ACCEPT);
 
         if (values == null || values.size() == 0) {
             return Collections.unmodifiableList(new ArrayList<MediaType>(MediaTypes.GENERAL_ACCEPT_MEDIA_TYPE_LIST));
@@ -311,7 +334,7 @@ public class OutboundMessageContext {
 
         if (conversionApplied) {
             // cache converted
-            headers.put(HttpHeaders.ACCEPT, Lists.transform(result, new Function<MediaType, Object>() {
+            getHeaders().put(HttpHeaders.ACCEPT, Lists.transform(result, new Function<MediaType, Object>() {
                 @Override
                 public Object apply(MediaType input) {
                     return input;
@@ -329,7 +352,7 @@ public class OutboundMessageContext {
      *         to their q-value, with highest preference first.
      */
     public List<Locale> getAcceptableLanguages() {
-        final List<Object> values = headers.get(HttpHeaders.ACCEPT_LANGUAGE);
+        final List<Object> values = headerValues(HttpHeaders.ACCEPT_LANGUAGE);
 
         if (values == null || values.size() == 0) {
             return Collections.singletonList(new AcceptableLanguageTag("*", null).getAsLocale());
@@ -360,7 +383,7 @@ public class OutboundMessageContext {
 
         if (conversionApplied) {
             // cache converted
-            headers.put(HttpHeaders.ACCEPT_LANGUAGE, Lists.transform(result, new Function<Locale, Object>() {
+            getHeaders().put(HttpHeaders.ACCEPT_LANGUAGE, Lists.transform(result, new Function<Locale, Object>() {
                 @Override
                 public Object apply(Locale input) {
                     return input;
@@ -377,7 +400,7 @@ public class OutboundMessageContext {
      * @return a read-only map of cookie name (String) to {@link javax.ws.rs.core.Cookie}.
      */
     public Map<String, Cookie> getRequestCookies() {
-        final List<Object> cookies = headers.get(HttpHeaders.COOKIE);
+        final List<Object> cookies = headerValues(HttpHeaders.COOKIE);
         if (cookies == null || cookies.isEmpty()) {
             return Collections.emptyMap();
         }
@@ -434,7 +457,7 @@ public class OutboundMessageContext {
      * @return a read-only map of cookie name (String) to a {@link javax.ws.rs.core.NewCookie new cookie}.
      */
     public Map<String, NewCookie> getResponseCookies() {
-        List<Object> cookies = headers.get(HttpHeaders.SET_COOKIE);
+        List<Object> cookies = headerValues(HttpHeaders.SET_COOKIE);
         if (cookies == null || cookies.isEmpty()) {
             return Collections.emptyMap();
         }
@@ -510,7 +533,7 @@ public class OutboundMessageContext {
      *         returns {@code null}.
      */
     public Set<Link> getLinks() {
-        List<Object> values = headers.get(HttpHeaders.LINK);
+        List<Object> values = headerValues(HttpHeaders.LINK);
         if (values == null || values.isEmpty()) {
             return Collections.emptySet();
         }
@@ -533,7 +556,7 @@ public class OutboundMessageContext {
 
         if (conversionApplied) {
             // cache converted
-            headers.put(HttpHeaders.LINK, new ArrayList<Object>(Collections2.transform(result, new Function<Link, Object>() {
+            getHeaders().put(HttpHeaders.LINK, new ArrayList<Object>(Collections2.transform(result, new Function<Link, Object>() {
                 @Override
                 public Object apply(Link input) {
                     return input;
@@ -717,7 +740,7 @@ public class OutboundMessageContext {
      * @param mediaType message content media type.
      */
     public void setMediaType(MediaType mediaType) {
-        this.headers.putSingle(HttpHeaders.CONTENT_TYPE, mediaType);
+        getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, mediaType);
     }
 
     /**
@@ -755,6 +778,11 @@ public class OutboundMessageContext {
      * @return entity annotations.
      */
     public Annotation[] getEntityAnnotations() {
+        if (entityAnnotationsShared) {
+            // copy the shared annotations before they are exposed to a possible modification
+            entityAnnotations = entityAnnotations.clone();
+            entityAnnotationsShared = false;
+        }
         return entityAnnotations;
     }
 
@@ -765,6 +793,32 @@ public class OutboundMessageContext {
      */
     public void setEntityAnnotations(Annotation[] annotations) {
         this.entityAnnotations = (annotations == null) ? EMPTY_ANNOTATIONS : annotations;
+        this.entityAnnotationsShared = false;
+    }
+
+    /**
+     * Set the annotations attached to the entity without copying them.
+     * <p>
+     * The annotation array may be shared by many messages and is never modified. It is copied
+     * the first time it is requested via {@link #getEntityAnnotations()}, so that a modification
+     * of the returned array does not affect the other messages.
+     * </p>
+     *
+     * @param annotations shared entity annotations.
+     */
+    public void setSharedEntityAnnotations(Annotation[] annotations) {
+        setEntityAnnotations(annotations);
+        this.entityAnnotationsShared = annotations != null && annotations.length > 0;
+    }
+
+    /**
+     * Get the annotations attached to the entity without copying the {@link #setSharedEntityAnnotations(Annotation[])
+     * shared} annotation array. The returned array must not be modified.
+     *
+     * @return entity annotations.
+     */
+    public Annotation[] getSharedEntityAnnotations() {
+        return entityAnnotations;
     }
 
     /**
@@ -794,8 +848,27 @@ public class OutboundMessageContext {
         this.rootStream.setStreamProvider(streamProvider);
     }
 
+    /**
+     * Enable buffering of the entity data written to the {@link #getEntityStream() entity stream}.
+     * <p>
+     * Up to {@code bufferSize} bytes of the entity are buffered. If the whole entity fits into the buffer,
+     * the stream is committed with the exact entity content length once the entity stream is
+     * {@link #commitStream() committed} or closed. Otherwise the stream is committed with an unknown
+     * content length as soon as the buffer size is exceeded.
+     * </p>
+     *
+     * @param bufferSize maximal number of entity bytes to be buffered. Value lower than or equal
+     *                   to {@code 0} disables the buffering.
+     * @throws IllegalStateException in case some entity data have already been written.
+     */
+    public void enableBuffering(int bufferSize) {
+        this.rootStream.enableBuffering(bufferSize);
+    }
+
     /**
      * Commits the {@link #getEntityStream() entity stream} if it wasn't already committed.
+     * In case the entity stream is {@link #enableBuffering(int) buffered}, all the data
+     * written so far are considered to be the complete entity.
      */
     public void commitStream() {
         if (!rootStream.isCommitted()) {
@@ -803,8 +876,8 @@ public class OutboundMessageContext {
                 // flush the entity stream
                 entityStream.flush();
                 if (!rootStream.isCommitted()) {
-                    // flush the committing stream
-                    rootStream.flush();
+                    // commit the committing stream
+                    rootStream.commit();
                 }
             } catch (Exception ioe) {
                 // Do nothing - we are already handling an exception.
@@ -45,7 +45,6 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
 import javax.ws.rs.WebApplicationException;
@@ -75,7 +74,9 @@ import org.glassfish.jersey.process.internal.PriorityComparator.Order;
 public class ReaderInterceptorExecutor extends InterceptorExecutor implements ReaderInterceptorContext {
     private InputStream inputStream;
     private final MultivaluedMap<String, String> headers;
-    private Iterator<ReaderInterceptor> iterator;
+    private final List<ReaderInterceptor> interceptors;
+    private final ReaderInterceptor terminalInterceptor;
+    private int position = 0;
 
     /**
      * Reads a type from the {@link InputStream entityStream} using interceptors.
@@ -99,10 +100,48 @@ public class ReaderInterceptorExecutor extends InterceptorExecutor implements Re
     public ReaderInterceptorExecutor(Class<?> rawType, Type type, Annotation[] annotations, MediaType mediaType,
             MultivaluedMap<String, String> headers, PropertiesDelegate propertiesDelegate, InputStream inputStream,
             MessageBodyWorkers workers, boolean intercept) {
+
+        this(rawType, type, annotations, mediaType, headers, propertiesDelegate, inputStream, workers,
+                getInterceptors(workers, intercept));
+    }
+
+    /**
+     * Creates new executor for the pre-resolved interceptor chain.
+     *
+     * @param rawType     raw Java entity type.
+     * @param type        generic Java entity type.
+     * @param annotations an array of the annotations on the declaration of the artifact
+     *            that will be initialized with the produced instance.
+     * @param mediaType the media type of the HTTP entity.
+     * @param headers mutable message headers.
+     * @param propertiesDelegate a request-scoped properties delegate.
+     * @param inputStream entity stream.
+     * @param workers {@link MessageBodyWorkers Message body workers}.
+     * @param interceptors sorted interceptors to be executed, as returned by
+     *            {@link #getInterceptors(MessageBodyWorkers, boolean)}. The list is not modified
+     *            by the executor and can be shared by multiple executors.
+     */
+    public ReaderInterceptorExecutor(Class<?> rawType, Type type, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, String> headers, PropertiesDelegate propertiesDelegate, InputStream inputStream,
+            MessageBodyWorkers workers, List<ReaderInterceptor> interceptors) {
         super(rawType, type, annotations, mediaType, propertiesDelegate);
         this.headers = headers;
         this.inputStream = inputStream;
+        this.interceptors = interceptors;
+        this.terminalInterceptor = new TerminalReaderInterceptor(workers);
+    }
 
+    /**
+     * Get the sorted list of the reader interceptors that are executed before the entity is
+     * read by the {@link MessageBodyReader message body reader}.
+     *
+     * @param workers {@link MessageBodyWorkers Message body workers}.
+     * @param intercept true if the user interceptors should be executed. Otherwise only
+     *            {@link ExceptionWrapperInterceptor exception wrapping interceptor} will
+     *            be returned (if registered).
+     * @return sorted reader interceptors.
+     */
+    public static List<ReaderInterceptor> getInterceptors(MessageBodyWorkers workers, boolean intercept) {
         List<ReaderInterceptor> interceptors = new ArrayList<ReaderInterceptor>();
         for (ReaderInterceptor interceptor : workers.getReaderInterceptors()) {
             if (intercept || (interceptor instanceof ExceptionWrapperInterceptor)) {
@@ -111,8 +150,7 @@ public class ReaderInterceptorExecutor extends InterceptorExecutor implements Re
         }
         Collections.sort(interceptors, new PriorityComparator<ReaderInterceptor>(Order.ASCENDING));
 
-        interceptors.add(new TerminalReaderInterceptor(workers));
-        this.iterator = interceptors.iterator();
+        return interceptors;
     }
 
     /**
@@ -121,10 +159,14 @@ public class ReaderInterceptorExecutor extends InterceptorExecutor implements Re
      * @return Next interceptor.
      */
     public ReaderInterceptor getNextInterceptor() {
-        if (!iterator.hasNext()) {
-            return null;
+        final int size = interceptors.size();
+        if (position < size) {
+            return interceptors.get(position++);
+        } else if (position == size) {
+            position++;
+            return terminalInterceptor;
         }
-        return iterator.next();
+        return null;
     }
 
     /**
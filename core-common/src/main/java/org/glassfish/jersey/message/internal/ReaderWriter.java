@@ -47,12 +47,17 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.ws.rs.core.MediaType;
 
+import org.glassfish.jersey.internal.LocalizationMessages;
 import org.glassfish.jersey.message.MessageProperties;
 
 /**
@@ -112,6 +117,76 @@ public final class ReaderWriter {
         }
     }
 
+    /**
+     * Write a region of a file channel to an output stream.
+     * <p>
+     * If the output stream is a {@link ZeroCopyOutput zero-copy output}, the region is passed
+     * to the output directly. Otherwise the region is {@link FileChannel#transferTo(long, long,
+     * WritableByteChannel) transferred} to the stream.
+     * </p>
+     *
+     * @param channel  the file channel to read from. The position of the channel is not modified.
+     * @param position position of the first byte of the region to be written.
+     * @param count    number of bytes to be written.
+     * @param out      the output stream to write to.
+     * @throws IOException if there is an error reading or writing bytes.
+     */
+    public static void writeTo(FileChannel channel, long position, long count, OutputStream out) throws IOException {
+        if (out instanceof ZeroCopyOutput) {
+            ((ZeroCopyOutput) out).write(channel, position, count);
+        } else {
+            transferTo(channel, position, count, Channels.newChannel(out));
+        }
+    }
+
+    /**
+     * Transfer a region of a file channel to a writable byte channel.
+     *
+     * @param channel  the file channel to read from. The position of the channel is not modified.
+     * @param position position of the first byte of the region to be transferred.
+     * @param count    number of bytes to be transferred.
+     * @param target   the channel to write to.
+     * @throws IOException if there is an error reading or writing bytes or if the file is
+     *                     shorter than the requested region.
+     */
+    public static void transferTo(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        final long end = position + count;
+        while (position < end) {
+            final long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                throw new IOException(LocalizationMessages.ERROR_FILE_REGION_TRUNCATED(position, end));
+            }
+            position += transferred;
+        }
+    }
+
+    /**
+     * Write the remaining content of a byte buffer to an output stream.
+     * <p>
+     * If the output stream is a {@link ZeroCopyOutput zero-copy output}, the buffer is passed
+     * to the output directly. Heap buffers are written using their backing array, other
+     * buffers are written using a channel adapter of the stream.
+     * </p>
+     *
+     * @param buffer the byte buffer to write.
+     * @param out    the output stream to write to.
+     * @throws IOException if there is an error writing bytes.
+     */
+    public static void writeTo(ByteBuffer buffer, OutputStream out) throws IOException {
+        if (out instanceof ZeroCopyOutput) {
+            ((ZeroCopyOutput) out).write(buffer);
+        } else if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+        } else {
+            final WritableByteChannel target = Channels.newChannel(out);
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+        }
+    }
+
     /**
      * Read characters from an input stream and write them to an output stream.
      *
@@ -45,7 +45,6 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
 import javax.ws.rs.WebApplicationException;
@@ -73,11 +72,18 @@ import org.glassfish.jersey.process.internal.PriorityComparator.Order;
  * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
  */
 public class WriterInterceptorExecutor extends InterceptorExecutor implements WriterInterceptorContext {
-    private Iterator<WriterInterceptor> iterator;
+    private final List<WriterInterceptor> interceptors;
+    private final WriterInterceptor terminalInterceptor;
+    private int position = 0;
 
     private OutputStream outputStream;
     private final MultivaluedMap<String, Object> headers;
     private Object entity;
+    /**
+     * The annotations handed to the executor may be shared with other messages,
+     * they are copied before they are first exposed to an interceptor.
+     */
+    private boolean annotationsShared = true;
 
     /**
      * Reads a type from the {@link java.io.InputStream entityStream} using interceptors.
@@ -107,11 +113,54 @@ public class WriterInterceptorExecutor extends InterceptorExecutor implements Wr
             MultivaluedMap<String, Object> headers, PropertiesDelegate propertiesDelegate, OutputStream entityStream,
             MessageBodyWorkers workers, MessageBodySizeCallback sizeCallback, boolean intercept, boolean writeEntity) {
 
+        this(entity, rawType, type, annotations, mediaType, headers, propertiesDelegate, entityStream, workers,
+                getInterceptors(workers, intercept), sizeCallback, writeEntity);
+    }
+
+    /**
+     * Creates new executor for the pre-resolved interceptor chain.
+     *
+     * @param entity entity object to be processed.
+     * @param rawType raw Java entity type.
+     * @param type generic Java entity type.
+     * @param annotations an array of the annotations on the declaration of the artifact
+     *            that will be initialized with the produced instance.
+     * @param mediaType the media type of the HTTP entity.
+     * @param headers the mutable HTTP headers associated with HTTP entity.
+     * @param propertiesDelegate a request-scoped properties depegate.
+     * @param entityStream the {@link java.io.OutputStream} of the HTTP entity.
+     * @param workers {@link MessageBodyWorkers Message body workers}.
+     * @param interceptors sorted interceptors to be executed, as returned by
+     *            {@link #getInterceptors(MessageBodyWorkers, boolean)}. The list is not modified
+     *            by the executor and can be shared by multiple executors.
+     * @param sizeCallback {@link MessageBodySizeCallback} instance. Can be null.
+     * @param writeEntity true if the entity should be written. Otherwise only headers will
+     *            be written to underlying {@link OutputStream}.
+     */
+    public WriterInterceptorExecutor(Object entity, Class<?> rawType, Type type, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> headers, PropertiesDelegate propertiesDelegate, OutputStream entityStream,
+            MessageBodyWorkers workers, List<WriterInterceptor> interceptors, MessageBodySizeCallback sizeCallback,
+            boolean writeEntity) {
+
         super(rawType, type, annotations, mediaType, propertiesDelegate);
         this.entity = entity;
         this.headers = headers;
         this.outputStream = entityStream;
+        this.interceptors = interceptors;
+        this.terminalInterceptor = new TerminalWriterInterceptor(workers, sizeCallback, writeEntity);
+    }
 
+    /**
+     * Get the sorted list of the writer interceptors that are executed before the entity is
+     * written by the {@link MessageBodyWriter message body writer}.
+     *
+     * @param workers {@link MessageBodyWorkers Message body workers}.
+     * @param intercept true if the user interceptors should be executed. Otherwise only
+     *            {@link ExceptionWrapperInterceptor exception wrapping interceptor} will
+     *            be returned (if registered).
+     * @return sorted writer interceptors.
+     */
+    public static List<WriterInterceptor> getInterceptors(MessageBodyWorkers workers, boolean intercept) {
         List<WriterInterceptor> interceptors = new ArrayList<WriterInterceptor>();
         for (WriterInterceptor interceptor : workers.getWriterInterceptors()) {
             if (intercept || (interceptor instanceof ExceptionWrapperInterceptor)) {
@@ -120,9 +169,7 @@ public class WriterInterceptorExecutor extends InterceptorExecutor implements Wr
         }
         Collections.sort(interceptors, new PriorityComparator<WriterInterceptor>(Order.ASCENDING));
 
-        interceptors.add(new TerminalWriterInterceptor(workers, sizeCallback, writeEntity));
-
-        this.iterator = interceptors.iterator();
+        return interceptors;
     }
 
     /**
@@ -131,10 +178,14 @@ public class WriterInterceptorExecutor extends InterceptorExecutor implements Wr
      * @return Next interceptor.
      */
     public WriterInterceptor getNextInterceptor() {
-        if (!iterator.hasNext()) {
-            return null;
+        final int size = interceptors.size();
+        if (position < size) {
+            return interceptors.get(position++);
+        } else if (position == size) {
+            position++;
+            return terminalInterceptor;
         }
-        return iterator.next();
+        return null;
     }
 
     /**
@@ -150,6 +201,33 @@ public class WriterInterceptorExecutor extends InterceptorExecutor implements Wr
         nextInterceptor.aroundWriteTo(this);
     }
 
+    @Override
+    public Annotation[] getAnnotations() {
+        if (annotationsShared) {
+            annotationsShared = false;
+            final Annotation[] annotations = super.getAnnotations();
+            if (annotations != null && annotations.length > 0) {
+                super.setAnnotations(annotations.clone());
+            }
+        }
+        return super.getAnnotations();
+    }
+
+    @Override
+    public void setAnnotations(Annotation[] annotations) {
+        annotationsShared = false;
+        super.setAnnotations(annotations);
+    }
+
+    /**
+     * Get the current annotations without copying them. The returned array must not be modified.
+     *
+     * @return current annotations.
+     */
+    private Annotation[] getAnnotationsForWriter() {
+        return super.getAnnotations();
+    }
+
     @Override
     public Object getEntity() {
         return entity;
@@ -199,21 +277,22 @@ public class WriterInterceptorExecutor extends InterceptorExecutor implements Wr
         @Override
         @SuppressWarnings("unchecked")
         public void aroundWriteTo(WriterInterceptorContext context) throws WebApplicationException, IOException {
+            final Annotation[] annotations = ((WriterInterceptorExecutor) context).getAnnotationsForWriter();
 
             final MessageBodyWriter writer = workers.getMessageBodyWriter(context.getType(), context.getGenericType(),
-                    context.getAnnotations(), context.getMediaType());
+                    annotations, context.getMediaType());
             if (writer == null) {
                 throw new MessageBodyProviderNotFoundException(LocalizationMessages.ERROR_NOTFOUND_MESSAGEBODYWRITER(
                         context.getMediaType(), context.getType(), context.getGenericType()));
             }
             if (sizeCallback != null) {
                 long size = writer.getSize(context.getEntity(), context.getType(), context.getGenericType(),
-                        context.getAnnotations(), context.getMediaType());
+                        annotations, context.getMediaType());
                 sizeCallback.onRequestEntitySize(size);
             }
 
             if(writeEntity) {
-                writer.writeTo(context.getEntity(), context.getType(), context.getGenericType(), context.getAnnotations(),
+                writer.writeTo(context.getEntity(), context.getType(), context.getGenericType(), annotations,
                         context.getMediaType(), context.getHeaders(), context.getOutputStream());
             }
         }
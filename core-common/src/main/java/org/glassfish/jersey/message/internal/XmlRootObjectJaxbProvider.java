@@ -138,7 +138,12 @@ public abstract class XmlRootObjectJaxbProvider extends AbstractJaxbProvider<Obj
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation annotations[], MediaType mediaType) {
         try {
-            return Object.class == type && isSupported(mediaType) && getUnmarshaller(type, mediaType) != null;
+            if (Object.class != type || !isSupported(mediaType)) {
+                return false;
+            }
+            final Unmarshaller u = getUnmarshaller(type, mediaType);
+            releaseUnmarshaller(u);
+            return u != null;
         } catch (JAXBException cause) {
             throw new RuntimeException(LocalizationMessages.ERROR_UNMARSHALLING_JAXB(type), cause);
         }
@@ -152,13 +157,16 @@ public abstract class XmlRootObjectJaxbProvider extends AbstractJaxbProvider<Obj
             MediaType mediaType,
             MultivaluedMap<String, String> httpHeaders,
             InputStream entityStream) throws IOException {
+        Unmarshaller u = null;
         try {
-            return getUnmarshaller(type, mediaType).
-                    unmarshal(getSAXSource(spf.get(), entityStream));
+            u = getUnmarshaller(type, mediaType);
+            return u.unmarshal(getSAXSource(spf.get(), entityStream));
         } catch (UnmarshalException ex) {
             throw new WebApplicationException(ex, Status.BAD_REQUEST);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
+        } finally {
+            releaseUnmarshaller(u);
         }
     }
 
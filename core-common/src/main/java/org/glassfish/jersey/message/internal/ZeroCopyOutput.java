@@ -0,0 +1,81 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Entity output capable of writing {@link FileChannel file channel} regions and
+ * {@link ByteBuffer byte buffers} without copying the data through intermediate
+ * heap buffers.
+ * <p>
+ * The capability is typically implemented by the entity output streams provided
+ * by the containers. Message body writers should use the
+ * {@link ReaderWriter#writeTo(FileChannel, long, long, java.io.OutputStream)} and
+ * {@link ReaderWriter#writeTo(ByteBuffer, java.io.OutputStream)} methods that utilize
+ * the capability if the entity stream supports it and fall back to regular stream
+ * writes otherwise.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public interface ZeroCopyOutput {
+
+    /**
+     * Write a region of the file channel to the output.
+     *
+     * @param channel  file channel to be written. The position of the channel is not modified.
+     * @param position position of the first byte of the region to be written.
+     * @param count    number of bytes to be written.
+     * @throws IOException in case of an IO error.
+     */
+    public void write(FileChannel channel, long position, long count) throws IOException;
+
+    /**
+     * Write the remaining content of the byte buffer to the output. The buffer must
+     * not be modified once it has been passed to the output.
+     *
+     * @param buffer byte buffer to be written.
+     * @throws IOException in case of an IO error.
+     */
+    public void write(ByteBuffer buffer) throws IOException;
+}
@@ -188,7 +188,7 @@ public abstract class AsyncInflectorAdapter<REQUEST, RESPONSE> extends AbstractF
         resume(new Runnable() {
             @Override
             public void run() {
-                set(convertResponse(originatingRequest.get(), toJaxrsResponse(response)));
+                set(convertResumedResponse(originatingRequest.get(), response));
             }
         });
     }
@@ -353,6 +353,24 @@ public abstract class AsyncInflectorAdapter<REQUEST, RESPONSE> extends AbstractF
         }
     }
 
+    /**
+     * Convert the response the invocation context has been {@link #resume(Object) resumed}
+     * with to supported response data type.
+     * <p>
+     * By default the resumed response is converted to a JAX-RS {@link Response response}
+     * first, which is then {@link #convertResponse(Object, Response) converted} to the supported
+     * response data type. Implementations may override the method to support resuming the
+     * invocation context directly with an instance of the supported response data type.
+     * </p>
+     *
+     * @param originatingRequest originating request data.
+     * @param response           response the invocation context has been resumed with.
+     * @return resumed response converted to supported response data type.
+     */
+    protected RESPONSE convertResumedResponse(REQUEST originatingRequest, Object response) {
+        return convertResponse(originatingRequest, toJaxrsResponse(response));
+    }
+
     /**
      * Convert the JAX-RS {@link Response response} to supported response data type.
      *
@@ -78,6 +78,13 @@ import com.google.common.util.concurrent.SettableFuture;
  * on the caller thread too. In case the request processing is suspended, the response
  * processing is resumed in the thread executing the code that resumed the response
  * processing.
+ * <p/>
+ * Alternatively, the request invoker may be configured to use a <em>direct</em> invocation
+ * mode. In the direct mode the whole request processing stage chain, the inflector as well
+ * as the response processing are executed on the caller thread in a single request scope
+ * run, bypassing the requesting executor completely. The responding executor is used only
+ * in case the request processing has been {@link InvocationContext#suspend() suspended}
+ * by the inflector.
  *
  * @param <REQUEST>  request processing data type.
  * @param <RESPONSE> response processing data type.
@@ -119,6 +126,7 @@ public class RequestInvoker<REQUEST, RESPONSE> {
     private final ResponseProcessor.Builder<RESPONSE> responseProcessorBuilder;
     private final Factory<Ref<InvocationContext>> invocationContextReferenceFactory;
     private final ExecutorsFactory<REQUEST> executorsFactory;
+    private final boolean directInvocation;
 
     /**
      * Create new request invoker.
@@ -138,6 +146,33 @@ public class RequestInvoker<REQUEST, RESPONSE> {
             final ResponseProcessor.Builder<RESPONSE> responseProcessorBuilder,
             final Factory<Ref<InvocationContext>> invocationContextReferenceFactory,
             final ExecutorsFactory<REQUEST> executorsFactory) {
+        this(rootStage, requestScope, asyncAdapterBuilder, responseProcessorBuilder,
+                invocationContextReferenceFactory, executorsFactory, false);
+    }
+
+    /**
+     * Create new request invoker.
+     *
+     * @param rootStage                root processing stage.
+     * @param requestScope             request scope.
+     * @param asyncAdapterBuilder      asynchronous adapter builder.
+     * @param responseProcessorBuilder response processor builder.
+     * @param invocationContextReferenceFactory
+     *                                 invocation context {@link Ref reference} provider.
+     * @param executorsFactory         processing executors factory.
+     * @param directInvocation         if {@code true}, the request and response processing
+     *                                 is executed directly on the caller thread and the
+     *                                 processing executors are used only for suspended
+     *                                 requests.
+     */
+    public RequestInvoker(
+            final Stage<REQUEST> rootStage,
+            final RequestScope requestScope,
+            final AsyncInflectorAdapter.Builder<REQUEST, RESPONSE> asyncAdapterBuilder,
+            final ResponseProcessor.Builder<RESPONSE> responseProcessorBuilder,
+            final Factory<Ref<InvocationContext>> invocationContextReferenceFactory,
+            final ExecutorsFactory<REQUEST> executorsFactory,
+            final boolean directInvocation) {
 
         this.requestScope = requestScope;
         this.rootStage = rootStage;
@@ -145,6 +180,7 @@ public class RequestInvoker<REQUEST, RESPONSE> {
         this.responseProcessorBuilder = responseProcessorBuilder;
         this.invocationContextReferenceFactory = invocationContextReferenceFactory;
         this.executorsFactory = executorsFactory;
+        this.directInvocation = directInvocation;
     }
 
     /**
@@ -175,6 +211,10 @@ public class RequestInvoker<REQUEST, RESPONSE> {
         final Instance instance = requestScope.createInstance();
         final SettableFuture<RESPONSE> result = SettableFuture.create();
 
+        if (directInvocation) {
+            return applyDirectly(request, callback, instance, result);
+        }
+
         final Runnable requester = new Runnable() {
 
             @Override
@@ -216,6 +256,46 @@ public class RequestInvoker<REQUEST, RESPONSE> {
         }
     }
 
+    /**
+     * Run the request and, unless suspended, also the response processing directly on the caller
+     * thread within a single request scope run.
+     *
+     * @param request  request data to be transformed into a response result.
+     * @param callback result callback.
+     * @param instance request scope instance of the processed request.
+     * @param result   settable response future.
+     * @return future response.
+     */
+    private ListenableFuture<RESPONSE> applyDirectly(final REQUEST request,
+                                                     final InvocationCallback<RESPONSE> callback,
+                                                     final Instance instance,
+                                                     final SettableFuture<RESPONSE> result) {
+        requestScope.runInScope(instance, new Runnable() {
+
+            @Override
+            public void run() {
+                final AsyncInflectorAdapter<REQUEST, RESPONSE> asyncAdapter =
+                        asyncAdapterBuilder.create(new AcceptingInvoker(), callback);
+                final ResponseProcessor<RESPONSE> responseProcessor =
+                        responseProcessorBuilder.build(asyncAdapter, result, callback, instance);
+                invocationContextReferenceFactory.get().set(asyncAdapter);
+                try {
+                    asyncAdapter.apply(request);
+                } finally {
+                    if (asyncAdapter.isDone()) {
+                        // not suspended - finish the response processing in the active request scope
+                        responseProcessor.runInCurrentScope();
+                    } else {
+                        // suspended - response processing is resumed via the responding executor
+                        asyncAdapter.addListener(responseProcessor, executorsFactory.getRespondingExecutor(request));
+                    }
+                }
+            }
+        });
+
+        return result;
+    }
+
     private class AcceptingInvoker implements Inflector<REQUEST, RESPONSE> {
 
         @Override
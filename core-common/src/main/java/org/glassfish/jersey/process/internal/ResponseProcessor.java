@@ -189,63 +189,82 @@ public abstract class ResponseProcessor<DATA> implements Runnable {
 
                 @Override
                 public void run() {
-                    if (inflectedResponse.isCancelled()) {
-                        // the request processing has been cancelled; just cancel this future & return
-                        processedResponse.cancel(true);
-                        return;
-                    }
+                    process();
+                }
+            });
+        } finally {
+            scopeInstance.release();
+        }
+    }
 
-                    DATA response;
-                    try {
-                        response = inflectedResponse.get();
-                    } catch (Throwable ex) {
-                        final Throwable unwrapped = (ex instanceof ExecutionException) ? ex.getCause() : ex;
-                        LOGGER.log(Level.FINE,
-                                "Request-to-response transformation finished with an exception.", unwrapped);
-
-                        try {
-                            response = convertResponse(mapException(unwrapped));
-                        } catch (Throwable ex2) {
-                            setResult(ex2);
-                            return;
-                        }
-
-                        if (response == null) {
-                            setResult(unwrapped);
-                            return;
-                        }
-                    }
+    /**
+     * Run the response processing on the current thread without entering the request scope.
+     * <p/>
+     * The method must only be invoked from a code that is already running in the request scope
+     * initialized from the same {@link RequestScope.Instance request scope instance} this
+     * response processor belongs to.
+     */
+    void runInCurrentScope() {
+        try {
+            process();
+        } finally {
+            scopeInstance.release();
+        }
+    }
 
-                    for (int i = 0; i < 2; i++) {
-                        try {
-                            response = runResponders(response);
-                            break;
-                        } catch (Throwable ex) {
-                            LOGGER.log(Level.FINE,
-                                    "Responder chain execution finished with an exception.", ex);
-                            if (i == 0) {
-                                // try to map the first responder exception
-                                try {
-                                    response = convertResponse(mapException(ex));
-                                } catch (Throwable ex2) {
-                                    setResult(ex2);
-                                    return;
-                                }
-                            }
-
-                            if (response == null) {
-                                setResult(ex);
-                                return;
-                            }
-                        }
+    private void process() {
+        if (inflectedResponse.isCancelled()) {
+            // the request processing has been cancelled; just cancel this future & return
+            processedResponse.cancel(true);
+            return;
+        }
+
+        DATA response;
+        try {
+            response = inflectedResponse.get();
+        } catch (Throwable ex) {
+            final Throwable unwrapped = (ex instanceof ExecutionException) ? ex.getCause() : ex;
+            LOGGER.log(Level.FINE,
+                    "Request-to-response transformation finished with an exception.", unwrapped);
+
+            try {
+                response = convertResponse(mapException(unwrapped));
+            } catch (Throwable ex2) {
+                setResult(ex2);
+                return;
+            }
+
+            if (response == null) {
+                setResult(unwrapped);
+                return;
+            }
+        }
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                response = runResponders(response);
+                break;
+            } catch (Throwable ex) {
+                LOGGER.log(Level.FINE,
+                        "Responder chain execution finished with an exception.", ex);
+                if (i == 0) {
+                    // try to map the first responder exception
+                    try {
+                        response = convertResponse(mapException(ex));
+                    } catch (Throwable ex2) {
+                        setResult(ex2);
+                        return;
                     }
+                }
 
-                    setResult(response);
+                if (response == null) {
+                    setResult(ex);
+                    return;
                 }
-            });
-        } finally {
-            scopeInstance.release();
+            }
         }
+
+        setResult(response);
     }
 
     private DATA runResponders(DATA response) {
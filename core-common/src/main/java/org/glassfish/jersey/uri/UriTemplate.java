@@ -254,6 +254,17 @@ public class UriTemplate {
         return template;
     }
 
+    /**
+     * Get the normalized URI template as a String. In the normalized template the literal
+     * characters are encoded (if required by the template type) and any explicit regular
+     * expressions are removed from the template variable declarations.
+     *
+     * @return the normalized URI template.
+     */
+    public final String getNormalizedTemplate() {
+        return normalizedTemplate;
+    }
+
     /**
      * Get the URI pattern.
      *
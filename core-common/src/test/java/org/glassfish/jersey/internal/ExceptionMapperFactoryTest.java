@@ -0,0 +1,100 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.internal;
+
+import java.util.Arrays;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+
+import org.junit.Test;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link ExceptionMapperFactory} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class ExceptionMapperFactoryTest {
+
+    public static class RuntimeExceptionMapper implements ExceptionMapper<RuntimeException> {
+
+        @Override
+        public Response toResponse(RuntimeException exception) {
+            return Response.status(500).build();
+        }
+    }
+
+    public static class IllegalArgumentExceptionMapper implements ExceptionMapper<IllegalArgumentException> {
+
+        @Override
+        public Response toResponse(IllegalArgumentException exception) {
+            return Response.status(400).build();
+        }
+    }
+
+    @Test
+    public void testFindNearestMapper() {
+        final RuntimeExceptionMapper runtimeMapper = new RuntimeExceptionMapper();
+        final IllegalArgumentExceptionMapper argumentMapper = new IllegalArgumentExceptionMapper();
+        final ExceptionMapperFactory factory = new ExceptionMapperFactory(
+                Arrays.<ExceptionMapper>asList(runtimeMapper, argumentMapper));
+
+        // repeated lookups are served from the cache
+        for (int i = 0; i < 2; i++) {
+            assertSame(argumentMapper, factory.find(IllegalArgumentException.class));
+            assertSame(argumentMapper, factory.find(NumberFormatException.class));
+            assertSame(runtimeMapper, factory.find(IllegalStateException.class));
+            assertSame(runtimeMapper, factory.find(RuntimeException.class));
+        }
+    }
+
+    @Test
+    public void testNoMapper() {
+        final ExceptionMapperFactory factory = new ExceptionMapperFactory(
+                Arrays.<ExceptionMapper>asList(new IllegalArgumentExceptionMapper()));
+
+        for (int i = 0; i < 2; i++) {
+            assertNull(factory.find(IllegalStateException.class));
+            assertNull(factory.find(Exception.class));
+        }
+    }
+}
@@ -46,16 +46,32 @@ package org.glassfish.jersey.message.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 
+import org.glassfish.hk2.ComponentException;
+import org.glassfish.hk2.Factory;
 import org.glassfish.hk2.Services;
 
 import org.junit.Before;
 import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class AbstractJaxbProviderTest {
     private Services services;
@@ -75,4 +91,77 @@ public class AbstractJaxbProviderTest {
 
         TransformerFactory.newInstance().newTransformer().transform(saxSource, new StreamResult(new ByteArrayOutputStream()));
     }
+
+    @XmlRootElement
+    public static class Bean {
+        public String value;
+    }
+
+    private static class NoProviders implements Providers {
+
+        @Override
+        public <T> MessageBodyReader<T> getMessageBodyReader(
+                Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return null;
+        }
+
+        @Override
+        public <T> MessageBodyWriter<T> getMessageBodyWriter(
+                Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return null;
+        }
+
+        @Override
+        public <T extends Throwable> ExceptionMapper<T> getExceptionMapper(Class<T> type) {
+            return null;
+        }
+
+        @Override
+        public <T> ContextResolver<T> getContextResolver(Class<T> contextType, MediaType mediaType) {
+            return null;
+        }
+    }
+
+    private XmlRootElementJaxbProvider createProvider() {
+        return new XmlRootElementJaxbProvider.App(new Factory<SAXParserFactory>() {
+
+            @Override
+            public SAXParserFactory get() throws ComponentException {
+                return services.forContract(SAXParserFactory.class).get();
+            }
+        }, new NoProviders());
+    }
+
+    @Test
+    public void releasedMarshallerIsResetAndReused() throws Exception {
+        final XmlRootElementJaxbProvider provider = createProvider();
+
+        final Marshaller m = provider.getMarshaller(Bean.class, MediaType.APPLICATION_XML_TYPE);
+        m.setProperty(Marshaller.JAXB_ENCODING, "ISO-8859-1");
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        provider.releaseMarshaller(m);
+
+        final Marshaller pooled = provider.getMarshaller(Bean.class, MediaType.APPLICATION_XML_TYPE);
+        assertSame(m, pooled);
+        assertEquals("UTF-8", pooled.getProperty(Marshaller.JAXB_ENCODING));
+        assertEquals(Boolean.FALSE, pooled.getProperty(Marshaller.JAXB_FRAGMENT));
+
+        // the pooled marshaller is not shared until released
+        final Marshaller other = createProvider().getMarshaller(Bean.class, MediaType.APPLICATION_XML_TYPE);
+        assertNotSame(pooled, other);
+        provider.releaseMarshaller(pooled);
+        provider.releaseMarshaller(other);
+    }
+
+    @Test
+    public void releasedUnmarshallerIsReused() throws Exception {
+        final XmlRootElementJaxbProvider provider = createProvider();
+
+        final Unmarshaller u = provider.getUnmarshaller(Bean.class, MediaType.APPLICATION_XML_TYPE);
+        provider.releaseUnmarshaller(u);
+
+        final Unmarshaller pooled = provider.getUnmarshaller(Bean.class, MediaType.APPLICATION_XML_TYPE);
+        assertSame(u, pooled);
+        provider.releaseUnmarshaller(pooled);
+    }
 }
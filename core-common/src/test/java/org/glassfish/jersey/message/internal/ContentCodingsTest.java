@@ -0,0 +1,130 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ContentCodings} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class ContentCodingsTest {
+
+    private static byte[] data() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("{\"id\":").append(i % 100).append('}');
+        }
+        return sb.toString().getBytes("UTF-8");
+    }
+
+    private static byte[] encode(String coding, byte[] data) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final DeflaterOutputStream encoder = ContentCodings.encode(coding, out);
+        encoder.write(data);
+        encoder.finish();
+        return out.toByteArray();
+    }
+
+    private static byte[] decode(String coding, byte[] data) throws IOException {
+        final InputStream in = ContentCodings.decode(coding, new ByteArrayInputStream(data));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReaderWriter.writeTo(in, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSupportedCodings() {
+        assertTrue(ContentCodings.isSupported("gzip"));
+        assertTrue(ContentCodings.isSupported("X-GZIP"));
+        assertTrue(ContentCodings.isSupported("deflate"));
+        assertFalse(ContentCodings.isSupported("identity"));
+        assertFalse(ContentCodings.isSupported("br"));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final byte[] data = data();
+        for (String coding : Arrays.asList("gzip", "x-gzip", "deflate")) {
+            // repeat to exercise the pooled deflaters and inflaters
+            for (int i = 0; i < 3; i++) {
+                final byte[] encoded = encode(coding, data);
+                assertTrue(encoded.length < data.length);
+                assertArrayEquals(data, decode(coding, encoded));
+            }
+        }
+    }
+
+    @Test
+    public void testGzipInterop() throws IOException {
+        final byte[] data = data();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(data);
+        gzip.finish();
+        assertArrayEquals(data, decode("gzip", out.toByteArray()));
+
+        final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        ReaderWriter.writeTo(new GZIPInputStream(new ByteArrayInputStream(encode("gzip", data))), decoded);
+        assertArrayEquals(data, decoded.toByteArray());
+    }
+
+    @Test(expected = ZipException.class)
+    public void testCorruptedGzipTrailer() throws IOException {
+        final byte[] encoded = encode("gzip", data());
+        encoded[encoded.length - 5]++;
+        decode("gzip", encoded);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.glassfish.jersey.internal.TestRuntimeDelegate;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link EntityBuffer} test.
+ *
+ * @author agent (agent at local)
+ */
+public class EntityBufferTest {
+
+    public EntityBufferTest() {
+        RuntimeDelegate.setInstance(new TestRuntimeDelegate());
+    }
+
+    private static byte[] content(int size) {
+        final byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReaderWriter.writeTo(in, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSmallContentBufferedInMemory() throws IOException {
+        final byte[] content = content(3 * EntityBuffer.CHUNK_SIZE + 17);
+        final EntityBuffer buffer = new EntityBuffer(1024 * 1024, -1);
+        buffer.readFrom(new ByteArrayInputStream(content));
+
+        assertEquals(content.length, buffer.size());
+        assertFalse(buffer.isSpilled());
+        assertArrayEquals(content, readAll(buffer.getInputStream()));
+        buffer.release();
+    }
+
+    @Test
+    public void testLargeContentSpilledToFile() throws IOException {
+        final byte[] content = content(5 * EntityBuffer.CHUNK_SIZE + 3);
+        final EntityBuffer buffer = new EntityBuffer(EntityBuffer.CHUNK_SIZE, -1);
+        buffer.write(content, 0, 100);
+        buffer.write(content[100]);
+        buffer.write(content, 101, content.length - 101);
+
+        assertTrue(buffer.isSpilled());
+        assertArrayEquals(content, readAll(buffer.getInputStream()));
+        buffer.release();
+    }
+
+    @Test
+    public void testContentOfThresholdSizeNotSpilled() throws IOException {
+        final EntityBuffer buffer = new EntityBuffer(EntityBuffer.CHUNK_SIZE, -1);
+        buffer.readFrom(new ByteArrayInputStream(content(EntityBuffer.CHUNK_SIZE)));
+
+        assertFalse(buffer.isSpilled());
+        buffer.release();
+    }
+
+    @Test
+    public void testContentReadRepeatedly() throws IOException {
+        final byte[] content = content(2 * EntityBuffer.CHUNK_SIZE + 1);
+        final EntityBuffer buffer = new EntityBuffer(EntityBuffer.CHUNK_SIZE, -1);
+        buffer.readFrom(new ByteArrayInputStream(content));
+
+        final InputStream in = buffer.getInputStream();
+        assertArrayEquals(content, readAll(in));
+        in.reset();
+        assertArrayEquals(content, readAll(in));
+
+        in.reset();
+        assertEquals(EntityBuffer.CHUNK_SIZE + 5, in.skip(EntityBuffer.CHUNK_SIZE + 5));
+        in.mark(0);
+        final byte[] rest = readAll(in);
+        assertArrayEquals(Arrays.copyOfRange(content, EntityBuffer.CHUNK_SIZE + 5, content.length), rest);
+        in.reset();
+        assertArrayEquals(rest, readAll(in));
+
+        assertArrayEquals(content, readAll(buffer.getInputStream()));
+        buffer.release();
+    }
+
+    @Test
+    public void testRange() throws IOException {
+        final byte[] content = content(3 * EntityBuffer.CHUNK_SIZE);
+        for (long threshold : new long[] {0, 1024 * 1024}) {
+            final EntityBuffer buffer = new EntityBuffer(threshold, -1);
+            buffer.readFrom(new ByteArrayInputStream(content));
+
+            assertArrayEquals(Arrays.copyOfRange(content, 100, 100 + 2 * EntityBuffer.CHUNK_SIZE),
+                    readAll(buffer.getInputStream(100, 2 * EntityBuffer.CHUNK_SIZE)));
+            assertArrayEquals(Arrays.copyOfRange(content, content.length - 10, content.length),
+                    readAll(buffer.getInputStream(content.length - 10, 100)));
+            assertEquals(0, readAll(buffer.getInputStream(content.length, 10)).length);
+            buffer.release();
+        }
+    }
+
+    @Test
+    public void testMaxSize() throws IOException {
+        final EntityBuffer buffer = new EntityBuffer(0, 100);
+        buffer.readFrom(new ByteArrayInputStream(content(100)));
+        assertEquals(100, buffer.size());
+        buffer.release();
+
+        try {
+            new EntityBuffer(0, 100).readFrom(new ByteArrayInputStream(content(101)));
+            fail("Buffering of a content exceeding the maximal size is expected to fail.");
+        } catch (WebApplicationException ex) {
+            assertEquals(413, ex.getResponse().getStatus());
+        }
+    }
+
+    @Test
+    public void testReadLimit() throws IOException {
+        final byte[] content = content(1000);
+        final InputStream in = new ByteArrayInputStream(content);
+        final EntityBuffer buffer = new EntityBuffer();
+
+        assertEquals(10, buffer.readFrom(in, 10));
+        assertArrayEquals(Arrays.copyOf(content, 10), readAll(buffer.getInputStream()));
+        assertEquals(content.length - 10, in.available());
+        buffer.release();
+    }
+
+    @Test
+    public void testReadReleasedContent() throws IOException {
+        final EntityBuffer buffer = new EntityBuffer();
+        buffer.readFrom(new ByteArrayInputStream(content(100)));
+        final InputStream in = buffer.getInputStream();
+        assertTrue(in.read() >= 0);
+
+        buffer.release();
+        try {
+            in.read();
+            fail("Reading from a released entity buffer is expected to fail.");
+        } catch (IOException expected) {
+            // passed
+        }
+        try {
+            in.reset();
+            fail("Reading from a released entity buffer is expected to fail.");
+        } catch (IOException expected) {
+            // passed
+        }
+    }
+
+    @Test
+    public void testReleasedContentNotReadAfterReuse() throws IOException {
+        final byte[] first = new byte[2 * EntityBuffer.CHUNK_SIZE];
+        Arrays.fill(first, (byte) 1);
+        final EntityBuffer buffer = new EntityBuffer();
+        buffer.readFrom(new ByteArrayInputStream(first));
+        final InputStream in = buffer.getInputStream();
+        assertEquals(1, in.read());
+        buffer.release();
+
+        // the released chunks are reused by the next buffers
+        final byte[] second = new byte[2 * EntityBuffer.CHUNK_SIZE];
+        Arrays.fill(second, (byte) 2);
+        final EntityBuffer next = new EntityBuffer();
+        next.readFrom(new ByteArrayInputStream(second));
+
+        try {
+            in.read(new byte[EntityBuffer.CHUNK_SIZE]);
+            fail("Reading from a released entity buffer is expected to fail.");
+        } catch (IOException expected) {
+            // passed
+        }
+        try {
+            in.available();
+            fail("Reading from a released entity buffer is expected to fail.");
+        } catch (IOException expected) {
+            // passed
+        }
+        assertArrayEquals(second, readAll(next.getInputStream()));
+        next.release();
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteToClosedBuffer() throws IOException {
+        final EntityBuffer buffer = new EntityBuffer();
+        buffer.close();
+        buffer.write(1);
+    }
+}
@@ -39,23 +39,33 @@
  */
 package org.glassfish.jersey.message.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Cookie;
 import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Link;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.RuntimeDelegate;
 
 import org.glassfish.jersey.internal.TestRuntimeDelegate;
 
 import org.junit.Test;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNull;
@@ -188,4 +198,152 @@ public class InboundMessageContextTest {
         assertTrue(r.getLink("self").equals(link1));
         assertTrue(r.getLink("update").equals(link2) || r.getLink("update").equals(link3));
     }
+
+    @Test
+    public void testParsedHeadersAreReused() {
+        InboundMessageContext r = new InboundMessageContext();
+        r.header(HttpHeaders.CONTENT_TYPE, "text/plain");
+        r.header(HttpHeaders.ACCEPT, "application/xml, text/plain;q=0.5");
+        r.header(HttpHeaders.ACCEPT_LANGUAGE, "en, cs;q=0.5");
+        r.header(HttpHeaders.COOKIE, "oreo=chocolate");
+
+        final MediaType mediaType = r.getMediaType();
+        final List<AcceptableMediaType> acceptable = r.getQualifiedAcceptableMediaTypes();
+        final List<AcceptableLanguageTag> languages = r.getQualifiedAcceptableLanguages();
+        final Map<String, Cookie> cookies = r.getRequestCookies();
+
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, mediaType);
+        assertEquals(2, acceptable.size());
+        assertEquals(2, languages.size());
+        assertEquals(1, cookies.size());
+
+        assertSame(mediaType, r.getMediaType());
+        assertSame(acceptable, r.getQualifiedAcceptableMediaTypes());
+        assertSame(languages, r.getQualifiedAcceptableLanguages());
+        assertSame(cookies, r.getRequestCookies());
+    }
+
+    @Test
+    public void testParsedHeaderInvalidation() {
+        InboundMessageContext r = new InboundMessageContext();
+        r.header(HttpHeaders.ACCEPT, "application/xml");
+        final List<AcceptableMediaType> acceptable = r.getQualifiedAcceptableMediaTypes();
+        assertEquals(1, acceptable.size());
+
+        r.header(HttpHeaders.ACCEPT, "application/json");
+        final List<AcceptableMediaType> updated = r.getQualifiedAcceptableMediaTypes();
+        assertNotSame(acceptable, updated);
+        assertEquals(2, updated.size());
+
+        r.remove(HttpHeaders.ACCEPT);
+        assertEquals(MediaTypes.GENERAL_ACCEPT_MEDIA_TYPE_LIST, r.getQualifiedAcceptableMediaTypes());
+
+        r.header(HttpHeaders.CONTENT_TYPE, "text/plain");
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, r.getMediaType());
+
+        final InboundMessageContext other = new InboundMessageContext();
+        other.header(HttpHeaders.CONTENT_TYPE, "application/json");
+        r.replaceHeaders(other.getHeaders());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, r.getMediaType());
+
+        r.headers(HttpHeaders.COOKIE, "oreo=chocolate", "nilla=vanilla");
+        assertEquals(2, r.getRequestCookies().size());
+        r.headers(HttpHeaders.COOKIE, "chips=ahoy");
+        assertEquals(3, r.getRequestCookies().size());
+    }
+
+    @Test
+    public void testParsedHeaderInvalidationOnDirectHeaderMapUpdate() {
+        InboundMessageContext r = new InboundMessageContext();
+        r.header(HttpHeaders.CONTENT_TYPE, "text/plain");
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, r.getMediaType());
+
+        r.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, "application/xml");
+        assertEquals(MediaType.APPLICATION_XML_TYPE, r.getMediaType());
+
+        // header names are case-insensitive
+        r.getHeaders().putSingle("content-type", "application/json");
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, r.getMediaType());
+
+        r.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        assertNull(r.getMediaType());
+    }
+
+    @Test
+    public void testHeaderParsedOncePerRequest() {
+        final MediaTypeParsingCounter counter = new MediaTypeParsingCounter();
+        RuntimeDelegate.setInstance(counter);
+        try {
+            InboundMessageContext r = new InboundMessageContext();
+            r.header(HttpHeaders.CONTENT_TYPE, "text/plain");
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(MediaType.TEXT_PLAIN_TYPE, r.getMediaType());
+            }
+            assertEquals(1, counter.parsed);
+
+            r.remove(HttpHeaders.CONTENT_TYPE);
+            r.header(HttpHeaders.CONTENT_TYPE, "text/html");
+            for (int i = 0; i < 10; i++) {
+                assertEquals(MediaType.TEXT_HTML_TYPE, r.getMediaType());
+            }
+            assertEquals(2, counter.parsed);
+        } finally {
+            RuntimeDelegate.setInstance(new TestRuntimeDelegate());
+        }
+    }
+
+    @Test
+    public void testBufferedEntityReadRepeatedly() throws IOException {
+        InboundMessageContext r = new InboundMessageContext();
+        r.setEntityStream(new ByteArrayInputStream("buffered entity".getBytes()));
+
+        assertTrue(r.bufferEntity());
+        assertEquals("buffered entity", ReaderWriter.readFromAsString(r.getEntityStream(), MediaType.TEXT_PLAIN_TYPE));
+        r.getEntityStream().reset();
+        assertEquals("buffered entity", ReaderWriter.readFromAsString(r.getEntityStream(), MediaType.TEXT_PLAIN_TYPE));
+
+        r.releaseEntityBuffer();
+    }
+
+    @Test
+    public void testBufferedEntityTooLarge() {
+        InboundMessageContext r = new InboundMessageContext();
+        r.setEntityBufferLimits(4, 8);
+        r.setEntityStream(new ByteArrayInputStream("buffered entity".getBytes()));
+
+        try {
+            r.bufferEntity();
+            fail("Buffering of an entity exceeding the maximal size is expected to fail.");
+        } catch (WebApplicationException ex) {
+            assertEquals(413, ex.getResponse().getStatus());
+        }
+    }
+
+    /**
+     * Runtime delegate counting the number of media type header values parsed.
+     */
+    private static class MediaTypeParsingCounter extends TestRuntimeDelegate {
+        private int parsed = 0;
+
+        @Override
+        public <T> HeaderDelegate<T> createHeaderDelegate(Class<T> type) {
+            final HeaderDelegate<T> delegate = super.createHeaderDelegate(type);
+            if (type != MediaType.class) {
+                return delegate;
+            }
+            return new HeaderDelegate<T>() {
+                @Override
+                public T fromString(String value) {
+                    parsed++;
+                    return delegate.fromString(value);
+                }
+
+                @Override
+                public String toString(T value) {
+                    return delegate.toString(value);
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.glassfish.jersey.internal.TestRuntimeDelegate;
+
+import org.glassfish.hk2.DynamicBinderFactory;
+import org.glassfish.hk2.HK2;
+import org.glassfish.hk2.Services;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link MessageBodyFactory} message body worker lookup tests.
+ *
+ * @author agent (agent at local)
+ */
+public class MessageBodyFactoryTest {
+
+    /**
+     * String writer that is writeable only if the written artifact is annotated
+     * with {@link Deprecated}.
+     */
+    private static class DeprecatedStringWriter implements MessageBodyWriter<String> {
+
+        int isWriteableCalls = 0;
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            isWriteableCalls++;
+            if (type != String.class) {
+                return false;
+            }
+            for (Annotation annotation : annotations) {
+                if (annotation.annotationType() == Deprecated.class) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long getSize(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+            // not used
+        }
+    }
+
+    /**
+     * Writer that is writeable for any type.
+     */
+    private static class ObjectWriter implements MessageBodyWriter<Object> {
+
+        int isWriteableCalls = 0;
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            isWriteableCalls++;
+            return true;
+        }
+
+        @Override
+        public long getSize(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+            // not used
+        }
+    }
+
+    @Deprecated
+    public String deprecated() {
+        return null;
+    }
+
+    public String plain() {
+        return null;
+    }
+
+    private DeprecatedStringWriter deprecatedWriter;
+    private ObjectWriter objectWriter;
+    private MessageBodyFactory workers;
+
+    public MessageBodyFactoryTest() {
+        RuntimeDelegate.setInstance(new TestRuntimeDelegate());
+    }
+
+    @Before
+    public void setUp() {
+        deprecatedWriter = new DeprecatedStringWriter();
+        objectWriter = new ObjectWriter();
+
+        final Services services = HK2.get().create(null);
+        final DynamicBinderFactory binderFactory = services.bindDynamically();
+        binderFactory.bind(MessageBodyWriter.class).toInstance(deprecatedWriter);
+        binderFactory.bind(MessageBodyWriter.class).toInstance(objectWriter);
+        binderFactory.commit();
+
+        workers = new MessageBodyFactory(services);
+    }
+
+    private Annotation[] annotations(String methodName) throws NoSuchMethodException {
+        // fresh array on every call, just like in the real resource method invocation
+        return MessageBodyFactoryTest.class.getMethod(methodName).getDeclaredAnnotations();
+    }
+
+    @Test
+    public void testAnnotationDependentWriterSelection() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertSame(deprecatedWriter, workers.getMessageBodyWriter(
+                    String.class, String.class, annotations("deprecated"), MediaType.TEXT_PLAIN_TYPE));
+            assertSame(objectWriter, workers.getMessageBodyWriter(
+                    String.class, String.class, annotations("plain"), MediaType.TEXT_PLAIN_TYPE));
+            assertSame(objectWriter, workers.getMessageBodyWriter(
+                    Integer.class, Integer.class, annotations("deprecated"), MediaType.TEXT_PLAIN_TYPE));
+        }
+    }
+
+    @Test
+    public void testWriterLookupCached() throws Exception {
+        assertSame(deprecatedWriter, workers.getMessageBodyWriter(
+                String.class, String.class, annotations("deprecated"), MediaType.TEXT_PLAIN_TYPE));
+        final int calls = deprecatedWriter.isWriteableCalls;
+
+        for (int i = 0; i < 10; i++) {
+            assertSame(deprecatedWriter, workers.getMessageBodyWriter(
+                    String.class, String.class, annotations("deprecated"), MediaType.TEXT_PLAIN_TYPE));
+        }
+        assertEquals(calls, deprecatedWriter.isWriteableCalls);
+
+        // media type parameters are not part of the lookup key
+        assertSame(deprecatedWriter, workers.getMessageBodyWriter(
+                String.class, String.class, annotations("deprecated"), MediaType.valueOf("text/plain;charset=UTF-8")));
+        assertEquals(calls, deprecatedWriter.isWriteableCalls);
+    }
+
+    @Test
+    public void testWriterLookupCachedWhenFull() throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            workers.getMessageBodyWriter(String.class, String.class, annotations("plain"),
+                    new MediaType("text", "x-" + i));
+        }
+
+        assertSame(deprecatedWriter, workers.getMessageBodyWriter(
+                String.class, String.class, annotations("deprecated"), MediaType.TEXT_PLAIN_TYPE));
+        final int calls = deprecatedWriter.isWriteableCalls;
+        assertSame(deprecatedWriter, workers.getMessageBodyWriter(
+                String.class, String.class, annotations("deprecated"), MediaType.TEXT_PLAIN_TYPE));
+        assertEquals(calls, deprecatedWriter.isWriteableCalls);
+    }
+
+    @Test
+    public void testWriterMediaTypesCached() throws Exception {
+        final List<MediaType> mediaTypes = workers.getMessageBodyWriterMediaTypes(
+                String.class, String.class, annotations("plain"));
+        assertEquals(1, mediaTypes.size());
+        assertEquals(MediaType.WILDCARD_TYPE, mediaTypes.get(0));
+
+        final int calls = objectWriter.isWriteableCalls;
+        assertSame(mediaTypes, workers.getMessageBodyWriterMediaTypes(String.class, String.class, annotations("plain")));
+        assertEquals(calls, objectWriter.isWriteableCalls);
+
+        try {
+            mediaTypes.add(MediaType.TEXT_PLAIN_TYPE);
+            fail("Cached media type list must not be modifiable.");
+        } catch (UnsupportedOperationException expected) {
+            // ok
+        }
+    }
+}
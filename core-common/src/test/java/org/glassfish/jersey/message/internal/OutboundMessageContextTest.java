@@ -39,6 +39,9 @@
  */
 package org.glassfish.jersey.message.internal;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.ParseException;
@@ -211,4 +214,112 @@ public class OutboundMessageContextTest {
         assertTrue(r.getLink("self").equals(link1));
         assertTrue(r.getLink("update").equals(link2) || r.getLink("update").equals(link3));
     }
+
+    @Test
+    public void testNoHeaders() {
+        OutboundMessageContext r = new OutboundMessageContext();
+        assertNull(r.getHeaderString(HttpHeaders.ACCEPT));
+        assertNull(r.getMediaType());
+        assertTrue(r.getResponseCookies().isEmpty());
+        assertTrue(r.getLinks().isEmpty());
+
+        OutboundMessageContext copy = new OutboundMessageContext(r);
+        assertTrue(copy.getHeaders().isEmpty());
+        assertTrue(copy.getStringHeaders().isEmpty());
+    }
+
+    @Test
+    public void testCopiedHeadersAreIndependent() {
+        OutboundMessageContext r = new OutboundMessageContext();
+        r.getHeaders().add("Allow", "GET");
+
+        OutboundMessageContext copy = new OutboundMessageContext(r);
+        copy.getHeaders().add("Allow", "POST");
+        r.setMediaType(MediaType.TEXT_PLAIN_TYPE);
+
+        assertEquals(1, r.getHeaders().get("Allow").size());
+        assertEquals(2, copy.getHeaders().get("Allow").size());
+        assertNull(copy.getMediaType());
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, r.getMediaType());
+    }
+
+    /**
+     * Stream provider recording the commit content length and the number of writes.
+     */
+    private static class RecordingStreamProvider implements OutboundMessageContext.StreamProvider {
+
+        long contentLength = Long.MIN_VALUE;
+        int writes = 0;
+        final ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                writes++;
+                super.write(b, off, len);
+            }
+
+            @Override
+            public synchronized void write(int b) {
+                writes++;
+                super.write(b);
+            }
+        };
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            return output;
+        }
+
+        @Override
+        public void commit(long contentLength) throws IOException {
+            this.contentLength = contentLength;
+        }
+    }
+
+    @Test
+    public void testBufferedEntityCommittedWithContentLength() throws IOException {
+        OutboundMessageContext r = new OutboundMessageContext();
+        RecordingStreamProvider provider = new RecordingStreamProvider();
+        r.setStreamProvider(provider);
+        r.enableBuffering(16);
+
+        r.getEntityStream().write('a');
+        r.getEntityStream().write("bcd".getBytes());
+        r.getEntityStream().flush();
+        assertFalse(r.isCommitted());
+
+        r.commitStream();
+        assertTrue(r.isCommitted());
+        assertEquals(4, provider.contentLength);
+        assertEquals(1, provider.writes);
+        assertEquals("abcd", provider.output.toString());
+    }
+
+    @Test
+    public void testBufferedEntityExceedingBufferIsStreamed() throws IOException {
+        OutboundMessageContext r = new OutboundMessageContext();
+        RecordingStreamProvider provider = new RecordingStreamProvider();
+        r.setStreamProvider(provider);
+        r.enableBuffering(4);
+
+        r.getEntityStream().write("abc".getBytes());
+        assertFalse(r.isCommitted());
+        r.getEntityStream().write("def".getBytes());
+        assertTrue(r.isCommitted());
+        assertEquals(-1, provider.contentLength);
+
+        r.getEntityStream().write('g');
+        r.commitStream();
+        assertEquals("abcdefg", provider.output.toString());
+    }
+
+    @Test
+    public void testUnbufferedEntityCommittedOnFirstWrite() throws IOException {
+        OutboundMessageContext r = new OutboundMessageContext();
+        RecordingStreamProvider provider = new RecordingStreamProvider();
+        r.setStreamProvider(provider);
+
+        r.getEntityStream().write('a');
+        assertTrue(r.isCommitted());
+        assertEquals(-1, provider.contentLength);
+    }
 }
@@ -0,0 +1,345 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Zero-copy write path tests of the {@link ReaderWriter}, {@link CommittingOutputStream}
+ * and {@link FileRegionProvider}.
+ *
+ * @author agent (agent at local)
+ */
+public class ZeroCopyOutputTest {
+
+    private static final int FILE_SIZE = 1000;
+
+    private byte[] content;
+    private File file;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+
+    /**
+     * Plain output stream recording the zero-copy writes.
+     */
+    private static class RecordingOutput extends ByteArrayOutputStream implements ZeroCopyOutput {
+
+        private FileChannel channel;
+        private long position = -1;
+        private long count = -1;
+        private ByteBuffer buffer;
+
+        @Override
+        public void write(FileChannel channel, long position, long count) {
+            this.channel = channel;
+            this.position = position;
+            this.count = count;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Channel accepting at most a few bytes per write.
+     */
+    private static class ThrottledChannel implements WritableByteChannel {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private int writes;
+
+        @Override
+        public int write(ByteBuffer src) {
+            final int n = Math.min(7, src.remaining());
+            for (int i = 0; i < n; i++) {
+                out.write(src.get());
+            }
+            writes++;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Stream provider recording the commit.
+     */
+    private static class RecordingStreamProvider implements OutboundMessageContext.StreamProvider {
+
+        private final OutputStream out;
+        private int commits;
+        private long contentLength = Long.MIN_VALUE;
+
+        RecordingStreamProvider(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return out;
+        }
+
+        @Override
+        public void commit(long contentLength) {
+            this.commits++;
+            this.contentLength = contentLength;
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        content = new byte[FILE_SIZE];
+        new Random(FILE_SIZE).nextBytes(content);
+        file = File.createTempFile("jersey-zero-copy", ".bin");
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        raf = new RandomAccessFile(file, "r");
+        channel = raf.getChannel();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        raf.close();
+        file.delete();
+    }
+
+    private byte[] range(int position, int count) {
+        return Arrays.copyOfRange(content, position, position + count);
+    }
+
+    private static CommittingOutputStream committingStream(RecordingStreamProvider provider) {
+        final CommittingOutputStream stream = new CommittingOutputStream();
+        stream.setStreamProvider(provider);
+        return stream;
+    }
+
+    @Test
+    public void testWriteFileChannelToPlainStream() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReaderWriter.writeTo(channel, 100, 500, out);
+
+        assertArrayEquals(range(100, 500), out.toByteArray());
+        assertEquals(0, channel.position());
+    }
+
+    @Test
+    public void testWriteFileChannelToZeroCopyOutput() throws IOException {
+        final RecordingOutput out = new RecordingOutput();
+        ReaderWriter.writeTo(channel, 100, 500, out);
+
+        assertSame(channel, out.channel);
+        assertEquals(100, out.position);
+        assertEquals(500, out.count);
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testPartialTransfers() throws IOException {
+        final ThrottledChannel target = new ThrottledChannel();
+        ReaderWriter.transferTo(channel, 3, 200, target);
+
+        assertArrayEquals(range(3, 200), target.out.toByteArray());
+        assertTrue(target.writes > 1);
+    }
+
+    @Test
+    public void testTruncatedTransfer() throws IOException {
+        try {
+            ReaderWriter.transferTo(channel, FILE_SIZE - 10, 20, new ThrottledChannel());
+            fail("Transfer of a region exceeding the file is expected to fail.");
+        } catch (IOException expected) {
+            // passed
+        }
+    }
+
+    @Test
+    public void testWriteByteBuffer() throws IOException {
+        // heap buffer with a non-zero array offset
+        final ByteBuffer heap = ByteBuffer.wrap(content, 10, 100).slice();
+        heap.position(5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReaderWriter.writeTo(heap, out);
+        assertArrayEquals(range(15, 95), out.toByteArray());
+        assertFalse(heap.hasRemaining());
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(100);
+        direct.put(content, 0, 100).flip();
+        out = new ByteArrayOutputStream();
+        ReaderWriter.writeTo(direct, out);
+        assertArrayEquals(range(0, 100), out.toByteArray());
+        assertFalse(direct.hasRemaining());
+
+        final RecordingOutput zeroCopy = new RecordingOutput();
+        final ByteBuffer buffer = ByteBuffer.wrap(content);
+        ReaderWriter.writeTo(buffer, zeroCopy);
+        assertSame(buffer, zeroCopy.buffer);
+        assertEquals(0, zeroCopy.size());
+    }
+
+    @Test
+    public void testCommittingStreamFileChannelFallback() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final RecordingStreamProvider provider = new RecordingStreamProvider(out);
+        final CommittingOutputStream stream = committingStream(provider);
+        stream.enableBuffering(CommittingOutputStream.DEFAULT_BUFFER_SIZE);
+
+        stream.write(channel, 0, 0);
+        assertFalse(stream.isCommitted());
+
+        stream.write(channel, 200, 300);
+        assertTrue(stream.isCommitted());
+        assertEquals(-1, provider.contentLength);
+        stream.close();
+
+        assertEquals(1, provider.commits);
+        assertArrayEquals(range(200, 300), out.toByteArray());
+    }
+
+    @Test
+    public void testCommittingStreamFileChannelForwarded() throws IOException {
+        final RecordingOutput out = new RecordingOutput();
+        final RecordingStreamProvider provider = new RecordingStreamProvider(out);
+        final CommittingOutputStream stream = committingStream(provider);
+
+        stream.write(channel, 200, 300);
+        assertTrue(stream.isCommitted());
+        assertEquals(-1, provider.contentLength);
+        assertSame(channel, out.channel);
+        assertEquals(200, out.position);
+        assertEquals(300, out.count);
+    }
+
+    @Test
+    public void testCommittingStreamBufferedByteBuffer() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final RecordingStreamProvider provider = new RecordingStreamProvider(out);
+        final CommittingOutputStream stream = committingStream(provider);
+        stream.enableBuffering(CommittingOutputStream.DEFAULT_BUFFER_SIZE);
+
+        // small heap buffers are buffered and committed with the exact content length
+        final ByteBuffer buffer = ByteBuffer.wrap(content, 10, 100);
+        stream.write(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertFalse(stream.isCommitted());
+
+        stream.close();
+        assertEquals(1, provider.commits);
+        assertEquals(100, provider.contentLength);
+        assertArrayEquals(range(10, 100), out.toByteArray());
+    }
+
+    @Test
+    public void testCommittingStreamDirectByteBuffer() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final RecordingStreamProvider provider = new RecordingStreamProvider(out);
+        final CommittingOutputStream stream = committingStream(provider);
+        stream.enableBuffering(CommittingOutputStream.DEFAULT_BUFFER_SIZE);
+
+        stream.write(content, 0, 10);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(100);
+        direct.put(content, 10, 100).flip();
+        stream.write(direct);
+
+        // the buffered data are written before the direct buffer
+        assertTrue(stream.isCommitted());
+        assertEquals(-1, provider.contentLength);
+        assertArrayEquals(range(0, 110), out.toByteArray());
+    }
+
+    @Test
+    public void testCommittingStreamByteBufferForwarded() throws IOException {
+        final RecordingOutput out = new RecordingOutput();
+        final CommittingOutputStream stream = committingStream(new RecordingStreamProvider(out));
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(100);
+        stream.write(direct);
+        assertSame(direct, out.buffer);
+    }
+
+    @Test
+    public void testFileRegionProvider() throws IOException {
+        final FileRegionProvider provider = new FileRegionProvider();
+        final FileRegion region = new FileRegion(file, 300, 250);
+
+        assertTrue(provider.isWriteable(FileRegion.class, FileRegion.class, null, MediaType.APPLICATION_OCTET_STREAM_TYPE));
+        assertEquals(250, provider.getSize(region, FileRegion.class, FileRegion.class, null,
+                MediaType.APPLICATION_OCTET_STREAM_TYPE));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.writeTo(region, FileRegion.class, FileRegion.class, null, MediaType.APPLICATION_OCTET_STREAM_TYPE,
+                null, out);
+        assertArrayEquals(range(300, 250), out.toByteArray());
+    }
+}
@@ -103,6 +103,10 @@ public class RequestInvokerTest {
         private Factory<ExecutorsFactory<String>> executorsFactory;
 
         public RequestInvoker<String, Integer> build(final Stage<String> rootStage) {
+            return build(rootStage, false);
+        }
+
+        public RequestInvoker<String, Integer> build(final Stage<String> rootStage, final boolean directInvocation) {
             final AsyncInflectorAdapter.Builder<String, Integer> asyncAdapterBuilder = new AsyncInflectorAdapter
                     .Builder<String, Integer>() {
 
@@ -120,7 +124,7 @@ public class RequestInvokerTest {
             };
             return new RequestInvoker<String, Integer>(rootStage, requestScope, asyncAdapterBuilder,
                     injector.inject(String2IntegerResponseProcessorBuilder.class), invocationContextReferenceFactory,
-                    executorsFactory.get());
+                    executorsFactory.get(), directInvocation);
         }
     }
 
@@ -211,6 +215,37 @@ public class RequestInvokerTest {
         assertEquals(-1, result.get().intValue());
     }
 
+    @Test
+    public void testDirectInvocation() throws Exception {
+        final Services services = init();
+        final RequestInvoker<String, Integer> invoker = services.forContract(String2IntegerRequestInvokerBuilder.class).get()
+                .build(createProcessingRoot(), true);
+        final Thread callerThread = Thread.currentThread();
+
+        invoker.apply("",
+                new AbstractInvocationCallback<Integer>() {
+
+                    @Override
+                    public void result(Integer response) {
+                        assertSame(callerThread, Thread.currentThread());
+                        assertEquals(123, response.intValue());
+                    }
+
+                    @Override
+                    public void failure(Throwable exception) {
+                        fail(exception.getMessage());
+                    }
+                });
+
+        Future<Integer> result = invoker.apply("");
+        assertTrue("Response expected to be available once the direct invocation returns.", result.isDone());
+        assertEquals(123, result.get().intValue());
+
+        result = invoker.apply("text");
+        assertTrue("Response expected to be available once the direct invocation returns.", result.isDone());
+        assertEquals(-1, result.get().intValue());
+    }
+
     @Test
     public void testWaeThrownInRequestPreProcessingChain() throws Exception {
         final Services services = init();
@@ -64,6 +64,7 @@ import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.container.DynamicBinder;
 import javax.ws.rs.container.PostMatching;
 import javax.ws.rs.core.Application;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
@@ -90,9 +91,13 @@ import org.glassfish.jersey.internal.ProviderBinder;
 import org.glassfish.jersey.internal.ServiceFinder;
 import org.glassfish.jersey.internal.inject.AbstractModule;
 import org.glassfish.jersey.internal.inject.Providers;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.message.internal.CommittingOutputStream;
+import org.glassfish.jersey.message.internal.EntityBuffer;
 import org.glassfish.jersey.message.internal.HeaderValueException;
 import org.glassfish.jersey.message.internal.MessageBodyFactory;
 import org.glassfish.jersey.message.internal.OutboundMessageContext;
@@ -217,6 +222,15 @@ public final class ApplicationHandler {
      */
     private RequestInvoker<ContainerRequest, ContainerResponse> invoker;
     private final ResourceConfig configuration;
+    /**
+     * Outbound entity buffer size.
+     */
+    private int contentLengthBufferSize;
+    /**
+     * Inbound entity buffering limits.
+     */
+    private long entityBufferThreshold;
+    private long entityBufferMaxSize;
 
     /**
      * Create a new Jersey application handler using a default configuration.
@@ -358,6 +372,7 @@ public final class ApplicationHandler {
         final RuntimeModelBuilder runtimeModelBuilder = services.byType(RuntimeModelBuilder.class).get();
         runtimeModelBuilder.setWorkers(workers);
         runtimeModelBuilder.setBoundProviders(nameBoundRequestFilters, nameBoundResponseFilters, dynamicBinders);
+        runtimeModelBuilder.setGlobalFilters(requestFilters, responseFilters);
         for (Resource resource : resources) {
             runtimeModelBuilder.process(resource, false);
         }
@@ -388,7 +403,13 @@ public final class ApplicationHandler {
                 .build(routedInflectorExtractorStage);
 
         this.invoker = injector.inject(ServerModule.RequestInvokerBuilder.class)
-                .build(rootStage);
+                .build(rootStage, configuration.isProperty(ServerProperties.PROCESSING_DIRECT_INVOCATION));
+        this.contentLengthBufferSize = PropertiesHelper.getValue(configuration.getProperties(),
+                ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, CommittingOutputStream.DEFAULT_BUFFER_SIZE);
+        this.entityBufferThreshold = PropertiesHelper.getValue(configuration.getProperties(),
+                MessageProperties.ENTITY_BUFFER_THRESHOLD, EntityBuffer.DEFAULT_THRESHOLD);
+        this.entityBufferMaxSize = PropertiesHelper.getValue(configuration.getProperties(),
+                MessageProperties.ENTITY_BUFFER_MAX_SIZE, EntityBuffer.DEFAULT_MAX_SIZE);
 
         // inject self
         injector.inject(this);
@@ -634,6 +655,7 @@ public final class ApplicationHandler {
     public Future<ContainerResponse> apply(final ContainerRequest requestContext,
                                            final OutputStream outputStream) {
         requestContext.setSecurityContext(DEFAULT_SECURITY_CONTEXT);
+        requestContext.setEntityBufferLimits(entityBufferThreshold, entityBufferMaxSize);
         requestContext.setWriter(new ContainerResponseWriter() {
             @Override
             public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse responseContext)
@@ -735,6 +757,7 @@ public final class ApplicationHandler {
      */
     public void handle(final ContainerRequest requestContext) {
         checkContainerRequestContext(requestContext);
+        requestContext.setEntityBufferLimits(entityBufferThreshold, entityBufferMaxSize);
 
         final ContainerResponseWriterCallback callback = new ContainerResponseWriterCallback(requestContext) {
 
@@ -768,6 +791,7 @@ public final class ApplicationHandler {
 
     private void releaseRequestProcessing(final ContainerRequest requestContext) {
         closeableServiceFactory.get().close();
+        requestContext.releaseEntityBuffer();
         final boolean isChunked;
         final Object property = requestContext.getProperty(ChunkedResponse.CHUNKED_MODE);
         if (property instanceof Boolean) {
@@ -859,14 +883,18 @@ public final class ApplicationHandler {
         }
 
         final Object entity = responseContext.getEntity();
+        final boolean writeEntity = !requestContext.getMethod().equals(HttpMethod.HEAD);
+        // the size reported by the entity provider does not apply to an encoded entity
+        final boolean encoded = responseContext.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING);
         boolean skipFinally = false;
         try {
             responseContext.setStreamProvider(new OutboundMessageContext.StreamProvider() {
                 private OutputStream output;
 
                 @Override
-                public void commit() throws IOException {
-                    output = writer.writeResponseStatusAndHeaders(messageBodySizeCallback.getSize(), responseContext);
+                public void commit(long contentLength) throws IOException {
+                    output = writer.writeResponseStatusAndHeaders(
+                            contentLength >= 0 ? contentLength : messageBodySizeCallback.getSize(), responseContext);
                 }
 
                 @Override
@@ -874,18 +902,22 @@ public final class ApplicationHandler {
                     return output;
                 }
             });
+            if (writeEntity && !(entity instanceof ChunkedResponse)) {
+                // buffer small entities to compute the content length; chunked responses are streamed
+                responseContext.enableBuffering(contentLengthBufferSize);
+            }
             requestContext.getWorkers().writeTo(
                     entity,
                     entity.getClass(),
                     responseContext.getEntityType(),
-                    responseContext.getEntityAnnotations(),
+                    responseContext.getWrappedMessageContext().getSharedEntityAnnotations(),
                     responseContext.getMediaType(),
                     responseContext.getHeaders(),
                     requestContext.getPropertiesDelegate(),
                     responseContext.getEntityStream(),
-                    messageBodySizeCallback,
+                    encoded ? null : messageBodySizeCallback,
                     true,
-                    !requestContext.getMethod().equals(HttpMethod.HEAD));
+                    writeEntity);
         } catch (Exception ex) {
             if (responseContext.isCommitted()) {
                 /**
@@ -40,37 +40,65 @@
 package org.glassfish.jersey.server;
 
 import java.io.IOException;
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 
+import com.google.common.base.Preconditions;
+
 /**
  * Used for broadcasting response chunks to multiple {@link ChunkedResponse} instances.
+ * <p>
+ * By default, the chunks are written to all the registered chunked responses sequentially
+ * on the thread that invokes the {@link #broadcast(Object)} method. A broadcaster created with
+ * an {@link Executor} keeps a bounded queue of pending chunks for each registered chunked response
+ * instead; the queues are drained independently by the executor threads, so that a single slow
+ * consumer does not delay the delivery of chunks to the other consumers. When a queue of a chunked
+ * response is full, the configured {@link OverflowPolicy} is applied and the registered listeners
+ * implementing {@link BroadcasterOverflowListener} are {@link BroadcasterOverflowListener#onOverflow(ChunkedResponse,
+ * Object) notified}.
+ * </p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  * @author Martin Matula (martin.matula at oracle.com)
  */
-public class Broadcaster<T> implements BroadcasterListener<T> {
+public class Broadcaster<T> implements BroadcasterOverflowListener<T> {
 
-    private final ConcurrentSkipListSet<BroadcasterListener<T>> listeners =
-            new ConcurrentSkipListSet<BroadcasterListener<T>> (new Comparator<BroadcasterListener<T>>() {
-                @Override
-                public int compare(final BroadcasterListener<T> listener1, final BroadcasterListener<T> listener2) {
-                    return listener1.hashCode() - listener2.hashCode();
-                }
-            });
+    /**
+     * Policy applied when a chunk cannot be queued for a chunked response because
+     * the queue of pending chunks of the response is full.
+     */
+    public static enum OverflowPolicy {
+        /**
+         * Discard the oldest pending chunk to make room for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Unregister and close the slow chunked response.
+         */
+        DISCONNECT
+    }
 
-    private final ConcurrentSkipListSet<ChunkedResponse<T>> chunkedResponses =
-            new ConcurrentSkipListSet<ChunkedResponse<T>> (new Comparator<ChunkedResponse<T>>() {
-        @Override
-        public int compare(final ChunkedResponse<T> chunkedResponse1, final ChunkedResponse<T> chunkedResponse2) {
-            return chunkedResponse1.hashCode() - chunkedResponse2.hashCode();
-        }
-    });
+    private final CopyOnWriteArraySet<BroadcasterListener<T>> listeners =
+            new CopyOnWriteArraySet<BroadcasterListener<T>>();
+    /**
+     * Registered chunked responses. {@link ChunkedResponse} instances are compared by identity.
+     */
+    private final ConcurrentMap<ChunkedResponse<T>, Subscriber> subscribers =
+            new ConcurrentHashMap<ChunkedResponse<T>, Subscriber>();
+
+    private final Executor executor;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
 
     /**
      * Creates a new instance.
@@ -80,6 +108,10 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * passing {@code false} as argument.
      */
     public Broadcaster() {
+        this.executor = null;
+        this.queueCapacity = 0;
+        this.overflowPolicy = null;
+
         if (getClass() != Broadcaster.class) {
             listeners.add(this);
         }
@@ -93,6 +125,52 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * @see #Broadcaster()
      */
     protected Broadcaster(final boolean listen) {
+        this.executor = null;
+        this.queueCapacity = 0;
+        this.overflowPolicy = null;
+
+        if (listen) {
+            listeners.add(this);
+        }
+    }
+
+    /**
+     * Creates a new instance that delivers the chunks using the supplied executor.
+     * If this constructor is called by a subclass, the newly created instance is added as the listener
+     * (see {@link #Broadcaster()}).
+     *
+     * @param executor executor used to write the queued chunks to the registered chunked responses.
+     * @param queueCapacity maximum number of chunks queued for a single chunked response.
+     * @param overflowPolicy policy applied when the queue of a chunked response is full.
+     */
+    public Broadcaster(final Executor executor, final int queueCapacity, final OverflowPolicy overflowPolicy) {
+        this(false, executor, queueCapacity, overflowPolicy);
+
+        if (getClass() != Broadcaster.class) {
+            listeners.add(this);
+        }
+    }
+
+    /**
+     * Can be used by subclasses to create a new instance that delivers the chunks using the supplied executor
+     * and to override the default functionality of adding self to the set of {@link BroadcasterListener listeners}.
+     *
+     * @param listen if {@code true}, registers this instance as a listener, otherwise it doesn't.
+     * @param executor executor used to write the queued chunks to the registered chunked responses.
+     * @param queueCapacity maximum number of chunks queued for a single chunked response.
+     * @param overflowPolicy policy applied when the queue of a chunked response is full.
+     * @see #Broadcaster(Executor, int, OverflowPolicy)
+     */
+    protected Broadcaster(final boolean listen, final Executor executor, final int queueCapacity,
+                          final OverflowPolicy overflowPolicy) {
+        Preconditions.checkNotNull(executor, "Executor must not be null.");
+        Preconditions.checkNotNull(overflowPolicy, "Overflow policy must not be null.");
+        Preconditions.checkArgument(queueCapacity > 0, "Queue capacity must be positive.");
+
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+
         if (listen) {
             listeners.add(this);
         }
@@ -106,7 +184,7 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * the list of registered chunked responses.
      */
     public final boolean add(final ChunkedResponse<T> chunkedResponse) {
-        return chunkedResponses.add(chunkedResponse);
+        return subscribers.putIfAbsent(chunkedResponse, new Subscriber(chunkedResponse)) == null;
     }
 
     /**
@@ -119,7 +197,7 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * of registered chunked responses.
      */
     public final boolean remove(final ChunkedResponse<T> chunkedResponse) {
-        return chunkedResponses.remove(chunkedResponse);
+        return subscribers.remove(chunkedResponse) != null;
     }
 
     /**
@@ -149,24 +227,22 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * @param chunk chunk to be sent.
      */
     public final void broadcast(final T chunk) {
-        forEachChunkedResponse(new Task<ChunkedResponse<T>>() {
-            @Override
-            public void run(final ChunkedResponse<T> cr) throws IOException {
-                cr.write(chunk);
-            }
-        });
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.send(chunk);
+        }
     }
 
     /**
      * Close all registered {@link ChunkedResponse} instances.
+     * <p>
+     * If the broadcaster delivers the chunks using an executor, the chunked responses are closed
+     * asynchronously, once all the chunks queued for them so far have been written.
+     * </p>
      */
     public final void closeAll() {
-        forEachChunkedResponse(new Task<ChunkedResponse<T>>() {
-            @Override
-            public void run(final ChunkedResponse<T> cr) throws IOException {
-                cr.close();
-            }
-        });
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.close();
+        }
     }
 
     /**
@@ -193,22 +269,132 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
     public void onClose(final ChunkedResponse<T> chunkedResponse) {
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Can be implemented by subclasses to handle the event of the {@link OverflowPolicy overflow policy}
+     * being applied to a slow {@link ChunkedResponse}.
+     *
+     * @param chunkedResponse instance the queue of which overflowed.
+     * @param chunk chunk that has not been delivered.
+     */
+    @Override
+    public void onOverflow(final ChunkedResponse<T> chunkedResponse, final T chunk) {
+    }
+
     private static interface Task<T> {
         void run(T parameter) throws IOException;
     }
 
-    private void forEachChunkedResponse(final Task<ChunkedResponse<T>> t) {
-        for (Iterator<ChunkedResponse<T>> iterator = chunkedResponses.iterator(); iterator.hasNext();) {
-            ChunkedResponse<T> chunkedResponse = iterator.next();
+    /**
+     * Delivery state of a single registered chunked response.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final ChunkedResponse<T> chunkedResponse;
+        private final BlockingQueue<T> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private final AtomicBoolean closeFired = new AtomicBoolean(false);
+        private volatile boolean closing = false;
+        // accessed by the draining task only
+        private boolean closeAttempted = false;
+
+        Subscriber(final ChunkedResponse<T> chunkedResponse) {
+            this.chunkedResponse = chunkedResponse;
+            this.queue = (executor == null) ? null : new ArrayBlockingQueue<T>(queueCapacity);
+        }
+
+        void send(final T chunk) {
+            if (queue == null) {
+                write(chunk);
+                return;
+            }
+
+            while (!queue.offer(chunk)) {
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    disconnect(chunk);
+                    return;
+                }
+                final T dropped = queue.poll();
+                if (dropped != null) {
+                    fireOnOverflow(chunkedResponse, dropped);
+                }
+            }
+            schedule();
+        }
+
+        void close() {
+            if (queue == null) {
+                closeResponse();
+            } else {
+                closing = true;
+                schedule();
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                T chunk;
+                while ((chunk = queue.poll()) != null) {
+                    write(chunk);
+                }
+                if (closing && !closeAttempted) {
+                    closeAttempted = true;
+                    closeResponse();
+                }
+                scheduled.set(false);
+                // re-check to not miss the chunks queued or the close requested after the queue has been drained
+            } while ((!queue.isEmpty() || closing && !closeAttempted) && scheduled.compareAndSet(false, true));
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    fireOnException(chunkedResponse, e);
+                }
+            }
+        }
+
+        private void disconnect(final T chunk) {
+            if (subscribers.remove(chunkedResponse, this)) {
+                fireOnOverflow(chunkedResponse, chunk);
+                close();
+            }
+        }
+
+        private void write(final T chunk) {
+            if (!chunkedResponse.isClosed()) {
+                try {
+                    chunkedResponse.write(chunk);
+                } catch (Exception e) {
+                    fireOnException(chunkedResponse, e);
+                }
+            }
+            if (chunkedResponse.isClosed()) {
+                closed();
+            }
+        }
+
+        private void closeResponse() {
             if (!chunkedResponse.isClosed()) {
                 try {
-                    t.run(chunkedResponse);
+                    chunkedResponse.close();
                 } catch (Exception e) {
                     fireOnException(chunkedResponse, e);
                 }
             }
             if (chunkedResponse.isClosed()) {
-                iterator.remove();
+                closed();
+            }
+        }
+
+        private void closed() {
+            subscribers.remove(chunkedResponse, this);
+            if (closeFired.compareAndSet(false, true)) {
                 fireOnClose(chunkedResponse);
             }
         }
@@ -243,4 +429,16 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
             }
         });
     }
+
+    private final void fireOnOverflow(final ChunkedResponse<T> chunkedResponse, final T chunk) {
+        forEachListener(new Task<BroadcasterListener<T>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void run(BroadcasterListener<T> parameter) throws IOException {
+                if (parameter instanceof BroadcasterOverflowListener) {
+                    ((BroadcasterOverflowListener<T>) parameter).onOverflow(chunkedResponse, chunk);
+                }
+            }
+        });
+    }
 }
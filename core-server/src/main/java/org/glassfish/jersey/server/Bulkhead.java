@@ -0,0 +1,381 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.server.internal.LocalizationMessages;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Named execution pool with a limited concurrency and a bounded queue of pending tasks.
+ * <p>
+ * At most {@link Builder#maxConcurrency(int) max concurrency} tasks submitted to the bulkhead
+ * run at the same time, at most {@link Builder#maxQueueSize(int) max queue size} tasks wait for
+ * their execution. Any additional task is rejected immediately with a {@link RejectedExecutionException}.
+ * When used to invoke resource methods (see {@link BulkheadExecutorRouter}), a rejected invocation results
+ * in a {@code 503 Service Unavailable} response.
+ * </p>
+ * <p>
+ * The tasks run on dedicated daemon platform threads. If {@link Builder#virtualThreads(boolean) requested}
+ * and supported by the JVM, each task runs on a new virtual thread instead; the concurrency limit still applies.
+ * </p>
+ * <p>
+ * The bulkhead collects basic metrics, such as the current {@link #getQueueDepth() queue depth} or
+ * the {@link #getAverageWaitTime(TimeUnit) average time} the tasks spent waiting for their execution.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class Bulkhead implements Executor {
+
+    private static final Logger LOGGER = Logger.getLogger(Bulkhead.class.getName());
+
+    /**
+     * Create new bulkhead builder.
+     *
+     * @param name bulkhead (execution pool) name.
+     * @return new bulkhead builder.
+     */
+    public static Builder builder(final String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * Bulkhead builder.
+     */
+    public static final class Builder {
+        private final String name;
+        private int maxConcurrency = Runtime.getRuntime().availableProcessors();
+        private int maxQueueSize = 0;
+        private boolean virtualThreads = false;
+
+        private Builder(final String name) {
+            Preconditions.checkNotNull(name, "Execution pool name must not be null.");
+            this.name = name;
+        }
+
+        /**
+         * Set the maximum number of concurrently running tasks. Defaults to the number of available processors.
+         *
+         * @param maxConcurrency maximum number of concurrently running tasks. Must be positive.
+         * @return updated builder.
+         */
+        public Builder maxConcurrency(final int maxConcurrency) {
+            Preconditions.checkArgument(maxConcurrency > 0, "Maximum concurrency must be positive.");
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of tasks waiting for execution. Defaults to {@code 0}, i.e. tasks
+         * are rejected once the concurrency limit is reached.
+         *
+         * @param maxQueueSize maximum number of tasks waiting for execution. Must not be negative.
+         * @return updated builder.
+         */
+        public Builder maxQueueSize(final int maxQueueSize) {
+            Preconditions.checkArgument(maxQueueSize >= 0, "Maximum queue size must not be negative.");
+            this.maxQueueSize = maxQueueSize;
+            return this;
+        }
+
+        /**
+         * Run the tasks on virtual threads if supported by the JVM. Defaults to {@code false}.
+         *
+         * @param virtualThreads if {@code true}, tasks run on virtual threads where supported.
+         * @return updated builder.
+         */
+        public Builder virtualThreads(final boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Build the bulkhead.
+         *
+         * @return new bulkhead.
+         */
+        public Bulkhead build() {
+            return new Bulkhead(this);
+        }
+    }
+
+    private final String name;
+    private final int maxConcurrency;
+    private final int maxQueueSize;
+    private final ExecutorService executor;
+    /**
+     * Limits concurrency of the tasks running on virtual threads; {@code null} for platform threads.
+     */
+    private final Semaphore permits;
+    /**
+     * Number of admitted tasks running on virtual threads (running or waiting for a permit).
+     */
+    private final AtomicInteger admitted = new AtomicInteger();
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    private Bulkhead(final Builder builder) {
+        this.name = builder.name;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.maxQueueSize = builder.maxQueueSize;
+
+        final ExecutorService virtualThreadExecutor = builder.virtualThreads ? createVirtualThreadExecutor() : null;
+        if (virtualThreadExecutor != null) {
+            this.executor = virtualThreadExecutor;
+            this.permits = new Semaphore(maxConcurrency);
+        } else {
+            if (builder.virtualThreads) {
+                LOGGER.warning(LocalizationMessages.BULKHEAD_VIRTUAL_THREADS_NOT_SUPPORTED(name));
+            }
+            final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                    60, TimeUnit.SECONDS,
+                    maxQueueSize == 0 ? new SynchronousQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(maxQueueSize),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("jersey-bulkhead-" + name.replace("%", "%%") + "-%d")
+                            .setDaemon(true)
+                            .build());
+            threadPool.allowCoreThreadTimeOut(true);
+            this.executor = threadPool;
+            this.permits = null;
+        }
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (Exception ex) {
+            LOGGER.log(Level.FINEST, "Virtual threads not available.", ex);
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        final long submitted = System.nanoTime();
+        final Runnable measuredTask = new Runnable() {
+            @Override
+            public void run() {
+                queued.decrementAndGet();
+                totalWaitNanos.addAndGet(System.nanoTime() - submitted);
+                started.incrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            }
+        };
+
+        queued.incrementAndGet();
+        if (permits == null) {
+            try {
+                executor.execute(measuredTask);
+            } catch (RejectedExecutionException ex) {
+                throw reject();
+            }
+        } else {
+            if (admitted.incrementAndGet() > maxConcurrency + maxQueueSize) {
+                admitted.decrementAndGet();
+                throw reject();
+            }
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        permits.acquireUninterruptibly();
+                        try {
+                            measuredTask.run();
+                        } finally {
+                            permits.release();
+                            admitted.decrementAndGet();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                admitted.decrementAndGet();
+                throw reject();
+            }
+        }
+    }
+
+    private RejectedExecutionException reject() {
+        queued.decrementAndGet();
+        rejected.incrementAndGet();
+        return new RejectedExecutionException(LocalizationMessages.BULKHEAD_REJECTED(name));
+    }
+
+    /**
+     * Shut down the bulkhead. Previously submitted tasks are executed, no new tasks are accepted.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Get the bulkhead (execution pool) name.
+     *
+     * @return bulkhead name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the maximum number of concurrently running tasks.
+     *
+     * @return maximum number of concurrently running tasks.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Get the maximum number of tasks waiting for execution.
+     *
+     * @return maximum number of tasks waiting for execution.
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Check whether the tasks run on virtual threads.
+     *
+     * @return {@code true} if the tasks run on virtual threads, {@code false} otherwise.
+     */
+    public boolean isVirtualThreads() {
+        return permits != null;
+    }
+
+    /**
+     * Get the number of accepted tasks waiting for execution.
+     *
+     * @return current queue depth.
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * Get the number of currently running tasks.
+     *
+     * @return number of currently running tasks.
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Get the number of completed tasks.
+     *
+     * @return number of completed tasks.
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Get the number of rejected tasks.
+     *
+     * @return number of rejected tasks.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Get the total time the started tasks spent waiting for their execution.
+     *
+     * @param unit time unit of the returned value.
+     * @return total wait time.
+     */
+    public long getTotalWaitTime(final TimeUnit unit) {
+        return unit.convert(totalWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the average time the started tasks spent waiting for their execution.
+     *
+     * @param unit time unit of the returned value.
+     * @return average wait time, {@code 0} if no task has been started yet.
+     */
+    public long getAverageWaitTime(final TimeUnit unit) {
+        final long count = started.get();
+        return count == 0 ? 0 : unit.convert(totalWaitNanos.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("name", name)
+                .add("maxConcurrency", maxConcurrency)
+                .add("maxQueueSize", maxQueueSize)
+                .add("virtualThreads", isVirtualThreads())
+                .add("queueDepth", getQueueDepth())
+                .add("active", getActiveCount())
+                .add("rejected", getRejectedCount()).toString();
+    }
+}
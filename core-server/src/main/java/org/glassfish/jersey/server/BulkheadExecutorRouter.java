@@ -0,0 +1,132 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.server.internal.LocalizationMessages;
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.spi.ExecutorRouter;
+
+/**
+ * {@link ExecutorRouter Executor router} that routes the invocations of resource methods
+ * annotated with {@link ExecutionPool &#64;ExecutionPool} to the {@link Bulkhead bulkhead}
+ * of the same name.
+ * <p>
+ * Example:
+ * </p>
+ * <pre>
+ * resourceConfig.addSingletons(new BulkheadExecutorRouter(
+ *         Bulkhead.builder("reports").maxConcurrency(4).maxQueueSize(16).build()));
+ * </pre>
+ *
+ * @author agent (agent at local)
+ */
+public class BulkheadExecutorRouter implements ExecutorRouter {
+
+    private static final Logger LOGGER = Logger.getLogger(BulkheadExecutorRouter.class.getName());
+
+    private final Map<String, Bulkhead> bulkheads;
+
+    /**
+     * Create new router for the bulkheads.
+     *
+     * @param bulkheads bulkheads the resource methods are routed to.
+     */
+    public BulkheadExecutorRouter(final Bulkhead... bulkheads) {
+        final Map<String, Bulkhead> map = new LinkedHashMap<String, Bulkhead>();
+        for (Bulkhead bulkhead : bulkheads) {
+            map.put(bulkhead.getName(), bulkhead);
+        }
+        this.bulkheads = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Get the bulkhead of the given name.
+     *
+     * @param name bulkhead (execution pool) name.
+     * @return bulkhead or {@code null} if there is no bulkhead of the given name.
+     */
+    public Bulkhead getBulkhead(final String name) {
+        return bulkheads.get(name);
+    }
+
+    /**
+     * Get all the bulkheads of this router, e.g. to collect their metrics.
+     *
+     * @return bulkheads of this router.
+     */
+    public Collection<Bulkhead> getBulkheads() {
+        return bulkheads.values();
+    }
+
+    @Override
+    public Executor getExecutor(final ResourceMethod method) {
+        final Invocable invocable = method.getInvocable();
+
+        ExecutionPool pool = null;
+        final Method handlingMethod = invocable.getHandlingMethod();
+        if (handlingMethod != null) {
+            pool = handlingMethod.getAnnotation(ExecutionPool.class);
+        }
+        if (pool == null) {
+            final Class<?> handlerClass = invocable.getHandler().getHandlerClass();
+            if (handlerClass != null) {
+                pool = handlerClass.getAnnotation(ExecutionPool.class);
+            }
+        }
+        if (pool == null) {
+            return null;
+        }
+
+        final Bulkhead bulkhead = bulkheads.get(pool.value());
+        if (bulkhead == null) {
+            LOGGER.warning(LocalizationMessages.EXECUTION_POOL_UNKNOWN(handlingMethod, pool.value()));
+        }
+        return bulkhead;
+    }
+}
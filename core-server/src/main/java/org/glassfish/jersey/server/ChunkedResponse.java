@@ -40,18 +40,38 @@
 package org.glassfish.jersey.server;
 
 import java.io.Closeable;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.LinkedBlockingDeque;
 
 import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.WriterInterceptor;
 
+import org.glassfish.jersey.internal.PropertiesDelegate;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.WriterInterceptorExecutor;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 
 /**
  * Used for sending messages in "typed" chunks. Useful for long running processes,
  * which needs to produce partial responses.
+ * <p>
+ * The {@link MessageBodyWriter message body writer} and the writer interceptors used to serialize
+ * the chunks are resolved once, when the response entity stream becomes available. Chunks that have
+ * already been serialized by the application can be written using the {@link #writeEncoded(byte[])}
+ * and {@link #writeEncoded(ByteBuffer)} methods, which bypass the serialization completely. Chunks that
+ * are queued while the previous chunks are being written are written in a single batch, with a single
+ * flush of the underlying entity stream.
+ * </p>
  *
  * @param <T> chunk type.
  * @author Pavel Bucek (pavel.bucek at oracle.com)
@@ -65,12 +85,16 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
      */
     static final String CHUNKED_MODE = "jersey.internal.server.chunked-mode";
 
-    private final BlockingDeque<T> queue = new LinkedBlockingDeque<T>();
+    /**
+     * Queued chunks: either typed chunks or {@link EncodedChunk encoded chunks}.
+     */
+    private final BlockingDeque<Object> queue = new LinkedBlockingDeque<Object>();
 
     private volatile boolean closed = false;
     private boolean flushing = false;
     private volatile ContainerRequest requestContext;
     private volatile ContainerResponse responseContext;
+    private volatile ChunkWriter chunkWriter;
 
     protected ChunkedResponse() {
     }
@@ -91,6 +115,47 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
      * @throws IOException if this response is closed or when encountered any problem during serializing or writing a chunk.
      */
     public void write(final T chunk) throws IOException {
+        enqueue(chunk);
+    }
+
+    /**
+     * Write an already serialized chunk. The bytes are written to the response entity stream as they are,
+     * no {@link MessageBodyWriter message body writer} or writer interceptor is invoked for the chunk.
+     * <p>
+     * The content of the array must not be modified until the chunk is written.
+     * </p>
+     *
+     * @param chunk serialized chunk to be written.
+     * @throws IOException if this response is closed or when encountered any problem during writing a chunk.
+     */
+    public void writeEncoded(final byte[] chunk) throws IOException {
+        enqueue(chunk == null ? null : new EncodedChunk(chunk, 0, chunk.length));
+    }
+
+    /**
+     * Write an already serialized chunk. The {@link ByteBuffer#remaining() remaining} bytes of the buffer are
+     * written to the response entity stream as they are, no {@link MessageBodyWriter message body writer}
+     * or writer interceptor is invoked for the chunk. The position of the buffer is not changed.
+     * <p>
+     * The content of an array-backed buffer must not be modified until the chunk is written.
+     * </p>
+     *
+     * @param chunk serialized chunk to be written.
+     * @throws IOException if this response is closed or when encountered any problem during writing a chunk.
+     */
+    public void writeEncoded(final ByteBuffer chunk) throws IOException {
+        if (chunk == null) {
+            enqueue(null);
+        } else if (chunk.hasArray()) {
+            enqueue(new EncodedChunk(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining()));
+        } else {
+            final byte[] bytes = new byte[chunk.remaining()];
+            chunk.duplicate().get(bytes);
+            enqueue(new EncodedChunk(bytes, 0, bytes.length));
+        }
+    }
+
+    private void enqueue(final Object chunk) throws IOException {
         if (closed) {
             throw new IOException(LocalizationMessages.CHUNKED_RESPONSE_CLOSED());
         }
@@ -103,12 +168,13 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
     }
 
     private void flushQueue() throws IOException {
-        if (requestContext == null || responseContext == null) {
+        final ChunkWriter writer = chunkWriter;
+        if (writer == null) {
             return;
         }
 
         Exception ex = null;
-        T t;
+        Object t;
         boolean shouldClose;
 
         synchronized (this) {
@@ -132,17 +198,8 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
 
         try {
             while (t != null) {
-                requestContext.getWorkers().writeTo(
-                        t,
-                        t.getClass(),
-                        getType(),
-                        responseContext.getEntityAnnotations(),
-                        responseContext.getMediaType(),
-                        responseContext.getHeaders(),
-                        requestContext.getPropertiesDelegate(),
-                        responseContext.getEntityStream(),
-                        null,
-                        true);
+                // flushes requested while writing the chunk are deferred until the queue is drained
+                writer.write(t);
                 t = queue.poll();
                 if (t == null) {
                     synchronized (this) {
@@ -157,6 +214,7 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
                             // other thread will take care of it -> flush the stream and unset
                             // the flushing flag at the very end (to make sure it is unset only if no
                             // exception is thrown)
+                            writer.flush();
                             responseContext.commitStream();
                             // if closing, we keep the "flushing" flag set, since no other thread needs to flush
                             // this queue anymore - finally clause will take care of closing the stream
@@ -245,6 +303,110 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
                     final ContainerResponse responseContext) throws IOException {
         this.requestContext = requestContext;
         this.responseContext = responseContext;
+        this.chunkWriter = new ChunkWriter(requestContext, responseContext);
         flushQueue();
     }
+
+    /**
+     * Already serialized chunk.
+     */
+    private static final class EncodedChunk {
+        private final byte[] bytes;
+        private final int offset;
+        private final int length;
+
+        EncodedChunk(final byte[] bytes, final int offset, final int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Entity stream wrapper that defers the flushing of the entity stream until
+     * all the queued chunks are written.
+     */
+    private static final class DeferredFlushOutputStream extends FilterOutputStream {
+
+        DeferredFlushOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // deferred
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the entity stream is closed once the chunked response is closed
+        }
+
+        void flushDeferred() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes chunks using the message body writer and interceptors resolved when the context is set.
+     * <p>
+     * The instance is used only by the thread that currently flushes the queue.
+     * </p>
+     */
+    private final class ChunkWriter {
+        private final MessageBodyWorkers workers;
+        private final List<WriterInterceptor> interceptors;
+        private final Annotation[] annotations;
+        private final MediaType mediaType;
+        private final MultivaluedMap<String, Object> headers;
+        private final PropertiesDelegate propertiesDelegate;
+        private final DeferredFlushOutputStream entityStream;
+
+        private Class<?> writerChunkType;
+        private MessageBodyWriter writer;
+
+        ChunkWriter(final ContainerRequest requestContext, final ContainerResponse responseContext) {
+            this.workers = requestContext.getWorkers();
+            this.interceptors = WriterInterceptorExecutor.getInterceptors(workers, true);
+            this.annotations = responseContext.getWrappedMessageContext().getSharedEntityAnnotations();
+            this.mediaType = responseContext.getMediaType();
+            this.headers = responseContext.getHeaders();
+            this.propertiesDelegate = requestContext.getPropertiesDelegate();
+            this.entityStream = new DeferredFlushOutputStream(responseContext.getEntityStream());
+        }
+
+        @SuppressWarnings("unchecked")
+        void write(final Object chunk) throws IOException {
+            if (chunk instanceof EncodedChunk) {
+                final EncodedChunk encoded = (EncodedChunk) chunk;
+                entityStream.write(encoded.bytes, encoded.offset, encoded.length);
+                return;
+            }
+
+            final Class<?> chunkType = chunk.getClass();
+            if (interceptors.isEmpty()) {
+                if (chunkType != writerChunkType) {
+                    writer = workers.getMessageBodyWriter(chunkType, getType(), annotations, mediaType);
+                    writerChunkType = chunkType;
+                }
+                if (writer != null) {
+                    writer.writeTo(chunk, chunkType, getType(), annotations, mediaType, headers, entityStream);
+                    return;
+                }
+            }
+
+            // interceptors registered or no writer found (the executor reports the missing writer)
+            new WriterInterceptorExecutor(chunk, chunkType, getType(), annotations, mediaType, headers,
+                    propertiesDelegate, entityStream, workers, interceptors, null, true).proceed();
+        }
+
+        void flush() throws IOException {
+            entityStream.flushDeferred();
+        }
+    }
 }
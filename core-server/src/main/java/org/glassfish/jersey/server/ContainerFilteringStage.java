@@ -56,15 +56,20 @@ import org.glassfish.jersey.process.internal.PriorityComparator;
 import org.glassfish.jersey.process.internal.ResponseProcessor;
 import org.glassfish.jersey.process.internal.Stages;
 import org.glassfish.jersey.server.internal.routing.RoutingContext;
+import org.glassfish.jersey.server.model.ResourceMethodInvoker;
 
 import org.glassfish.hk2.Factory;
-import org.glassfish.hk2.Services;
 
 import org.jvnet.hk2.annotations.Inject;
 
 /**
  * Container filtering stage responsible for execution of request and response filters
  * on each request-response message exchange.
+ * <p>
+ * The global filters are sorted once, when the stage is built. Once a resource method is matched,
+ * the pre-sorted filter chains of the matched {@link ResourceMethodInvoker resource method invoker}
+ * are used instead, so no filter lists are copied or sorted during the request processing.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  * @author Martin Matula (martin.matula at oracle.com)
@@ -72,9 +77,9 @@ import org.jvnet.hk2.annotations.Inject;
 class ContainerFilteringStage extends AbstractChainableStage<ContainerRequest> {
 
     private final Factory<ResponseProcessor.RespondingContext<ContainerResponse>> respondingContextFactory;
-    private final Services services;
+    private final Factory<RoutingContext> routingContextFactory;
     private final List<ContainerRequestFilter> requestFilters;
-    private final List<ContainerResponseFilter> responseFilters;
+    private final ResponseFilterStage responseFilterStage;
 
     /**
      * Injectable container filtering stage builder.
@@ -84,7 +89,7 @@ class ContainerFilteringStage extends AbstractChainableStage<ContainerRequest> {
         private Factory<ResponseProcessor.RespondingContext<ContainerResponse>> respondingContextFactory;
 
         @Inject
-        private Services services;
+        private Factory<RoutingContext> routingContextFactory;
 
         /**
          * Build a new container filtering stage specifying global request and response filters. This stage class
@@ -103,7 +108,7 @@ class ContainerFilteringStage extends AbstractChainableStage<ContainerRequest> {
          */
         public ContainerFilteringStage build(List<ContainerRequestFilter> requestFilters,
                                              List<ContainerResponseFilter> responseFilters) {
-            return new ContainerFilteringStage(respondingContextFactory, services,
+            return new ContainerFilteringStage(respondingContextFactory, routingContextFactory,
                     requestFilters, responseFilters);
         }
 
@@ -113,42 +118,48 @@ class ContainerFilteringStage extends AbstractChainableStage<ContainerRequest> {
      * Injection constructor.
      *
      * @param respondingContextFactory responding context factory.
-     * @param services HK2 services.
+     * @param routingContextFactory routing context factory.
      * @param requestFilters global request filters (pre or post match).
      * @param responseFilters global response filters or {@code null}.
      *
      */
     private ContainerFilteringStage(
             Factory<ResponseProcessor.RespondingContext<ContainerResponse>> respondingContextFactory,
-            Services services,
+            Factory<RoutingContext> routingContextFactory,
             List<ContainerRequestFilter> requestFilters,
             List<ContainerResponseFilter> responseFilters
     ) {
         this.respondingContextFactory = respondingContextFactory;
-        this.services = services;
-        this.requestFilters = requestFilters;
-        this.responseFilters = responseFilters;
+        this.routingContextFactory = routingContextFactory;
+        this.requestFilters = sorted(requestFilters, PriorityComparator.Order.ASCENDING);
+        this.responseFilterStage = (responseFilters == null) ? null :
+                new ResponseFilterStage(sorted(responseFilters, PriorityComparator.Order.DESCENDING), routingContextFactory);
+    }
+
+    private static <T> List<T> sorted(List<T> filters, PriorityComparator.Order order) {
+        final List<T> result = new ArrayList<T>(filters);
+        Collections.sort(result, new PriorityComparator<T>(order));
+        return Collections.unmodifiableList(result);
     }
 
     @Override
     public Continuation<ContainerRequest> apply(ContainerRequest requestContext) {
-        List<ContainerRequestFilter> sortedRequestFilters;
+        final List<ContainerRequestFilter> sortedRequestFilters;
 
-        if (responseFilters == null) {
+        if (responseFilterStage == null) {
             // post-matching (response filter stage is pushed in pre-matching phase, so that if pre-matching filter
             // throws exception, response filters get still invoked)
-            RoutingContext rc = services.forContract(RoutingContext.class).get();
-            sortedRequestFilters = new ArrayList<ContainerRequestFilter>(requestFilters);
-            sortedRequestFilters.addAll(rc.getBoundRequestFilters());
-            Collections.sort(sortedRequestFilters,
-                    new PriorityComparator<ContainerRequestFilter>(PriorityComparator.Order.ASCENDING));
+            final Inflector<ContainerRequest, ContainerResponse> inflector = routingContextFactory.get().getInflector();
+            sortedRequestFilters = (inflector instanceof ResourceMethodInvoker) ?
+                    ((ResourceMethodInvoker) inflector).getRequestFilterChain() : requestFilters;
         } else {
             // pre-matching
-            respondingContextFactory.get().push(new ResponseFilterStage(responseFilters, services));
+            respondingContextFactory.get().push(responseFilterStage);
             sortedRequestFilters = requestFilters;
         }
 
-        for (ContainerRequestFilter filter : sortedRequestFilters) {
+        for (int i = 0; i < sortedRequestFilters.size(); i++) {
+            final ContainerRequestFilter filter = sortedRequestFilters.get(i);
             try {
                 filter.filter(requestContext);
                 final Response abortResponse = requestContext.getAbortResponse();
@@ -177,27 +188,24 @@ class ContainerFilteringStage extends AbstractChainableStage<ContainerRequest> {
 
     private static class ResponseFilterStage extends AbstractChainableStage<ContainerResponse> {
         private final List<ContainerResponseFilter> filters;
-        private final Services services;
+        private final Factory<RoutingContext> routingContextFactory;
 
-        private ResponseFilterStage(List<ContainerResponseFilter> filters, Services services) {
+        private ResponseFilterStage(List<ContainerResponseFilter> filters, Factory<RoutingContext> routingContextFactory) {
             this.filters = filters;
-            this.services = services;
+            this.routingContextFactory = routingContextFactory;
         }
 
         @Override
         public Continuation<ContainerResponse> apply(ContainerResponse responseContext) {
             try {
-                RoutingContext rc = services.forContract(RoutingContext.class).get();
+                final RoutingContext rc = routingContextFactory.get();
+                final Inflector<ContainerRequest, ContainerResponse> inflector = (rc == null) ? null : rc.getInflector();
 
-                List<ContainerResponseFilter> sortedResponseFilters = new ArrayList<ContainerResponseFilter>(filters);
-                if (rc != null) {
-                    sortedResponseFilters.addAll(rc.getBoundResponseFilters());
-                }
-                Collections.sort(sortedResponseFilters,
-                        new PriorityComparator<ContainerResponseFilter>(PriorityComparator.Order.DESCENDING));
+                final List<ContainerResponseFilter> sortedResponseFilters = (inflector instanceof ResourceMethodInvoker) ?
+                        ((ResourceMethodInvoker) inflector).getResponseFilterChain() : filters;
 
-                for (ContainerResponseFilter filter : sortedResponseFilters) {
-                    filter.filter(responseContext.getRequestContext(), responseContext);
+                for (int i = 0; i < sortedResponseFilters.size(); i++) {
+                    sortedResponseFilters.get(i).filter(responseContext.getRequestContext(), responseContext);
                 }
             } catch (IOException ex) {
                 throw new WebApplicationException(ex);
@@ -355,6 +355,17 @@ public class ContainerResponse implements ContainerResponseContext {
         messageContext.setStreamProvider(streamProvider);
     }
 
+    /**
+     * Enable buffering of the entity data written to the {@link #getEntityStream() entity stream}.
+     *
+     * @param bufferSize maximal number of entity bytes to be buffered. Value lower than or equal
+     *                   to {@code 0} disables the buffering.
+     * @see OutboundMessageContext#enableBuffering(int)
+     */
+    public void enableBuffering(int bufferSize) {
+        messageContext.enableBuffering(bufferSize);
+    }
+
     /**
      * Commits the {@link #getEntityStream() entity stream} if it wasn't already committed.
      */
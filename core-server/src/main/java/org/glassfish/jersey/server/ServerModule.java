@@ -128,6 +128,21 @@ public class ServerModule extends AbstractModule {
          */
         public RequestInvoker<ContainerRequest, ContainerResponse> build(
                 final Stage<ContainerRequest> rootStage) {
+            return build(rootStage, false);
+        }
+
+        /**
+         * Build a new {@link org.glassfish.jersey.process.internal.RequestInvoker request invoker} configured to use
+         * the supplied request processor for processing requests.
+         *
+         * @param rootStage        root processing stage.
+         * @param directInvocation if {@code true}, the built request invoker processes requests directly
+         *                         on the caller thread unless suspended.
+         * @return new request invoker instance.
+         * @see ServerProperties#PROCESSING_DIRECT_INVOCATION
+         */
+        public RequestInvoker<ContainerRequest, ContainerResponse> build(
+                final Stage<ContainerRequest> rootStage, final boolean directInvocation) {
 
             return new RequestInvoker<ContainerRequest, ContainerResponse>(
                     rootStage,
@@ -145,12 +160,23 @@ public class ServerModule extends AbstractModule {
                                         ContainerRequest requestContext, Response response) {
                                     return new ContainerResponse(requestContext, response);
                                 }
+
+                                @Override
+                                protected ContainerResponse convertResumedResponse(
+                                        ContainerRequest requestContext, Object response) {
+                                    // routed resource method invocations resume with the container response
+                                    if (response instanceof ContainerResponse) {
+                                        return (ContainerResponse) response;
+                                    }
+                                    return super.convertResumedResponse(requestContext, response);
+                                }
                             };
                         }
                     },
                     responseProcessorBuilder,
                     invocationContextReferenceFactory,
-                    executorsFactory);
+                    executorsFactory,
+                    directInvocation);
         }
 
     }
@@ -181,6 +181,78 @@ public final class ServerProperties {
      */
     public static final String HTTP_METHOD_OVERRIDE = "jersey.config.server.httpMethodOverride";
 
+    /**
+     * Enables direct (same-thread) request processing mode.
+     * <p>
+     * If enabled, the whole request processing chain (request filters, routing, resource method
+     * invocation as well as response filters) is executed directly on the container thread that
+     * invoked the {@link ApplicationHandler application handler}. Any custom
+     * {@link org.glassfish.jersey.spi.RequestExecutorsProvider requesting executor} is bypassed
+     * in this mode. The {@link org.glassfish.jersey.spi.ResponseExecutorsProvider responding executor}
+     * is used only in case a resource method suspends the request processing.
+     * </p>
+     * <p>
+     * The property value MUST be an instance of {@link Boolean} or {@link String} ({@code "true"}
+     * or {@code "false"}).
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    public static final String PROCESSING_DIRECT_INVOCATION = "jersey.config.server.processing.direct";
+
+    /**
+     * Defines the size of the buffer used to buffer the outbound response entity in order to
+     * determine its exact content length.
+     * <p>
+     * Entities that fit into the buffer are written to the container in a single write with the
+     * {@code Content-Length} header set to the exact entity size. If the entity is larger than
+     * the buffer, the response is committed with an unknown content length as soon as the buffer
+     * size is exceeded and the rest of the entity is streamed directly to the container. Any failure
+     * that occurs while writing a buffered entity results in a proper error response. A value lower
+     * than or equal to {@code 0} disables the buffering.
+     * </p>
+     * <p>
+     * The property value MUST be an instance of {@link Integer} or {@link String} representing
+     * an integer value.
+     * </p>
+     * <p>
+     * The default value is {@code 8192}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    public static final String OUTBOUND_CONTENT_LENGTH_BUFFER = "jersey.config.server.contentLength.buffer";
+
+    /**
+     * If {@code true}, the resource methods are invoked directly using an invoker generated
+     * for each resource method when the application is initialized, instead of using the
+     * Java reflection.
+     * <p>
+     * The generated invokers are used only for public methods of public resource classes
+     * with public parameter and return types; other methods are still invoked using reflection.
+     * The processing of the exceptions thrown from the resource methods is the same for both
+     * invocation modes. The generated invokers are not used if a custom
+     * {@link org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider}
+     * provides an invocation handler for the resource method.
+     * </p>
+     * <p>
+     * The property value MUST be an instance of {@link Boolean} or {@link String} ({@code "true"}
+     * or {@code "false"}).
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    public static final String RESOURCE_METHOD_DISPATCH_GENERATED = "jersey.config.server.dispatch.generated";
+
     private ServerProperties() {
         // prevents instantiation
     }
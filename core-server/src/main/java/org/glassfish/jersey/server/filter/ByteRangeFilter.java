@@ -0,0 +1,213 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.filter;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.ws.rs.BindingPriority;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.message.internal.FileRegion;
+
+/**
+ * Simple server-side response filter that adds support for single byte range requests
+ * (see <a href="http://tools.ietf.org/html/rfc2616#section-14.35">RFC 2616, section 14.35</a>)
+ * to the {@link File file} entities returned in response to {@code GET} requests.
+ * <p>
+ * If you add it to the response filters of your application, every successful response to a {@code GET}
+ * request that carries a file entity advertises the byte range support via the {@code Accept-Ranges}
+ * header. If the request contains a single satisfiable {@code bytes} range, the file entity is replaced
+ * with the requested {@link FileRegion file region} and a {@code 206 Partial Content} response
+ * is returned. The file region is written by the {@link org.glassfish.jersey.message.internal.FileRegionProvider}
+ * which transfers the region without copying it through the heap whenever the container supports it.
+ * Unsatisfiable ranges are rejected with the {@code 416 Requested Range Not Satisfiable} response.
+ * </p>
+ * <p>
+ * Requests containing multiple ranges, a malformed range or the {@code If-Range} header are not supported
+ * by the filter and receive the full file entity.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+@BindingPriority(BindingPriority.HEADER_DECORATOR)
+public class ByteRangeFilter implements ContainerResponseFilter {
+
+    /**
+     * Name of the request header carrying the requested byte range.
+     */
+    public static final String RANGE = "Range";
+    /**
+     * Name of the request header making the range request conditional.
+     */
+    public static final String IF_RANGE = "If-Range";
+    /**
+     * Name of the response header advertising the range request support.
+     */
+    public static final String ACCEPT_RANGES = "Accept-Ranges";
+    /**
+     * Name of the response header describing the returned byte range.
+     */
+    public static final String CONTENT_RANGE = "Content-Range";
+
+    private static final String BYTES_UNIT = "bytes";
+    private static final int PARTIAL_CONTENT = 206;
+    private static final int REQUESTED_RANGE_NOT_SATISFIABLE = 416;
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+        if (!"GET".equals(request.getMethod())
+                || response.getStatus() != Response.Status.OK.getStatusCode()
+                || !(response.getEntity() instanceof File)) {
+            return;
+        }
+        response.getHeaders().putSingle(ACCEPT_RANGES, BYTES_UNIT);
+
+        final String range = request.getHeaderString(RANGE);
+        if (range == null || request.getHeaders().containsKey(IF_RANGE)) {
+            return;
+        }
+
+        final File file = (File) response.getEntity();
+        final long length = file.length();
+        final long[] bounds = parseRange(range, length);
+        if (bounds == null) {
+            // unsupported range specification, ignore the header
+            return;
+        }
+
+        if (bounds.length == 0) {
+            response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.getHeaders().putSingle(CONTENT_RANGE, BYTES_UNIT + " */" + length);
+            response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            response.setEntity(null, response.getEntityAnnotations(), null);
+            return;
+        }
+
+        final long first = bounds[0];
+        final long last = bounds[1];
+        response.setStatus(PARTIAL_CONTENT);
+        response.getHeaders().putSingle(CONTENT_RANGE, BYTES_UNIT + " " + first + "-" + last + "/" + length);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.setEntity(
+                new FileRegion(file, first, last - first + 1),
+                FileRegion.class,
+                response.getEntityAnnotations(),
+                response.getMediaType());
+    }
+
+    /**
+     * Parse the single byte range specification.
+     *
+     * @param range  value of the {@code Range} request header.
+     * @param length length of the entity.
+     * @return two-element array containing the first and the last byte position of the range,
+     *         empty array if the range is not satisfiable or {@code null} if the range specification
+     *         is invalid or not supported.
+     */
+    static long[] parseRange(final String range, final long length) {
+        final String value = range.trim();
+        if (!value.startsWith(BYTES_UNIT + "=")) {
+            return null;
+        }
+        final String spec = value.substring(BYTES_UNIT.length() + 1).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+
+        final long first;
+        final long last;
+        final String firstValue = spec.substring(0, dash).trim();
+        final String lastValue = spec.substring(dash + 1).trim();
+        if (firstValue.isEmpty()) {
+            // suffix byte range
+            final long suffixLength = parseBytePosition(lastValue);
+            if (suffixLength < 0) {
+                return null;
+            }
+            if (suffixLength == 0 || length == 0) {
+                return new long[0];
+            }
+            first = Math.max(0, length - suffixLength);
+            last = length - 1;
+        } else {
+            first = parseBytePosition(firstValue);
+            final long lastPosition = lastValue.isEmpty() ? Long.MAX_VALUE : parseBytePosition(lastValue);
+            if (first < 0 || lastPosition < first) {
+                return null;
+            }
+            last = Math.min(lastPosition, length - 1);
+        }
+
+        if (first >= length) {
+            return new long[0];
+        }
+        return new long[]{first, last};
+    }
+
+    /**
+     * Parse a byte position or a suffix length of the byte range specification.
+     *
+     * @param value byte position consisting of decimal digits only.
+     * @return parsed byte position, {@link Long#MAX_VALUE} if the position is too large
+     *         or {@code -1} if the value is not a valid byte position.
+     */
+    private static long parseBytePosition(final String value) {
+        if (value.isEmpty()) {
+            return -1;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.filter;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/**
+ * Bounded in-memory store of serialized responses used by the {@link ResponseCacheDynamicBinder}.
+ * <p>
+ * The cache stores the entity bytes and the headers of the cacheable responses to {@code GET} requests
+ * keyed by the resource method, the request path and query and the negotiated variant of the response.
+ * The least recently used responses are evicted once the total size of the stored responses reaches
+ * the configured limit. Responses exceeding the configured maximal entry size are never stored.
+ * </p>
+ * <p>
+ * The cached responses can be explicitly invalidated by the application, e.g. once the underlying
+ * resource state is updated.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class ResponseCache {
+
+    /**
+     * Default maximal total size of the cached responses in bytes.
+     */
+    public static final long DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+    /**
+     * Default maximal size of a single cached response entity in bytes.
+     */
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+    /**
+     * Default time in milliseconds a request waits for a concurrent request computing the same response.
+     */
+    public static final long DEFAULT_LOAD_TIMEOUT = 5000;
+
+    /**
+     * Estimated size of the cache entry bookkeeping data.
+     */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    /**
+     * Cache key of a response variant.
+     */
+    static final class Key {
+
+        private final Class<?> resourceClass;
+        private final Method resourceMethod;
+        private final String path;
+        private final String query;
+        private final String variant;
+        private final int hash;
+
+        Key(Class<?> resourceClass, Method resourceMethod, String path, String query, String variant) {
+            this.resourceClass = resourceClass;
+            this.resourceMethod = resourceMethod;
+            this.path = path;
+            this.query = (query == null) ? "" : query;
+            this.variant = variant;
+
+            int h = resourceMethod.hashCode();
+            h = 31 * h + path.hashCode();
+            h = 31 * h + this.query.hashCode();
+            h = 31 * h + variant.hashCode();
+            this.hash = h;
+        }
+
+        private int size() {
+            return 2 * (path.length() + query.length() + variant.length());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return hash == other.hash
+                    && resourceMethod.equals(other.resourceMethod)
+                    && path.equals(other.path)
+                    && query.equals(other.query)
+                    && variant.equals(other.variant);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Cached response.
+     */
+    static final class Entry {
+
+        private final MultivaluedMap<String, String> headers;
+        private final byte[] entity;
+        private final long created;
+        private final long expires;
+
+        Entry(MultivaluedMap<String, String> headers, byte[] entity, long created, long maxAge) {
+            this.headers = headers;
+            this.entity = entity;
+            this.created = created;
+            this.expires = created + TimeUnit.SECONDS.toMillis(maxAge);
+        }
+
+        /**
+         * Get the cached response headers.
+         *
+         * @return response headers.
+         */
+        MultivaluedMap<String, String> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * Get the cached response entity bytes.
+         *
+         * @return response entity bytes.
+         */
+        byte[] getEntity() {
+            return entity;
+        }
+
+        /**
+         * Get the age of the cached response in seconds.
+         *
+         * @param now current time in milliseconds.
+         * @return age of the cached response.
+         */
+        long getAge(long now) {
+            return TimeUnit.MILLISECONDS.toSeconds(Math.max(0, now - created));
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expires;
+        }
+
+        private int size() {
+            int size = entity.length;
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                size += 2 * header.getKey().length();
+                for (String value : header.getValue()) {
+                    size += 2 * value.length();
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Response being computed by a request. Other requests for the same response wait
+     * for the load to finish instead of computing the same response concurrently.
+     */
+    static final class Load {
+
+        private final Key key;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private Load(Key key) {
+            this.key = key;
+        }
+    }
+
+    private final int maxEntrySize;
+    private final long loadTimeout;
+    private final Cache<Key, Entry> entries;
+    private final ConcurrentMap<Key, Load> loads = new ConcurrentHashMap<Key, Load>();
+    private final ConcurrentMap<Method, String[]> varyHeaders = new ConcurrentHashMap<Method, String[]>();
+
+    /**
+     * Create new response cache with the {@link #DEFAULT_MAX_SIZE default} size limits.
+     */
+    public ResponseCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_ENTRY_SIZE);
+    }
+
+    /**
+     * Create new response cache.
+     *
+     * @param maxSize      maximal total size of the cached responses in bytes.
+     * @param maxEntrySize maximal size of a single cached response entity in bytes.
+     */
+    public ResponseCache(long maxSize, int maxEntrySize) {
+        this(maxSize, maxEntrySize, DEFAULT_LOAD_TIMEOUT);
+    }
+
+    /**
+     * Create new response cache.
+     *
+     * @param maxSize      maximal total size of the cached responses in bytes.
+     * @param maxEntrySize maximal size of a single cached response entity in bytes.
+     * @param loadTimeout  maximal time in milliseconds a request waits for a concurrent request
+     *                     computing the same response.
+     */
+    public ResponseCache(long maxSize, int maxEntrySize, long loadTimeout) {
+        if (maxSize < 0 || maxEntrySize < 0 || loadTimeout < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxEntrySize = maxEntrySize;
+        this.loadTimeout = loadTimeout;
+        this.entries = CacheBuilder.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher(new Weigher<Key, Entry>() {
+
+                    @Override
+                    public int weigh(Key key, Entry entry) {
+                        return ENTRY_OVERHEAD + key.size() + entry.size();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Invalidate all cached responses to the requests for the given path.
+     *
+     * @param path request path relative to the application base URI.
+     */
+    public void invalidate(String path) {
+        final String relative = (path.startsWith("/")) ? path.substring(1) : path;
+        for (Key key : entries.asMap().keySet()) {
+            if (key.path.equals(relative)) {
+                entries.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached responses produced by the methods of the given resource class.
+     *
+     * @param resourceClass resource class.
+     */
+    public void invalidate(Class<?> resourceClass) {
+        for (Key key : entries.asMap().keySet()) {
+            if (key.resourceClass == resourceClass) {
+                entries.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached responses.
+     */
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    /**
+     * Get the number of cached responses.
+     *
+     * @return number of cached responses.
+     */
+    public long size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the maximal size of a single cached response entity in bytes.
+     *
+     * @return maximal cached entity size.
+     */
+    int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Get the fresh cached response.
+     *
+     * @param key response key.
+     * @param now current time in milliseconds.
+     * @return fresh cached response or {@code null} if not cached.
+     */
+    Entry get(Key key, long now) {
+        final Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.isExpired(now)) {
+            entries.asMap().remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Store the response.
+     *
+     * @param key   response key.
+     * @param entry cached response.
+     */
+    void put(Key key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    /**
+     * Get the names of the request headers the responses of the resource method vary on.
+     *
+     * @param resourceMethod resource method.
+     * @return lower-case names of the request headers, {@code null} if not known yet.
+     */
+    String[] getVaryHeaders(Method resourceMethod) {
+        return varyHeaders.get(resourceMethod);
+    }
+
+    /**
+     * Update the names of the request headers the responses of the resource method vary on.
+     *
+     * @param resourceMethod resource method.
+     * @param headers        lower-case names of the request headers.
+     */
+    void setVaryHeaders(Method resourceMethod, String[] headers) {
+        varyHeaders.put(resourceMethod, headers);
+    }
+
+    /**
+     * Start computing the response. If the response is already being computed by another request,
+     * the method waits until the computation is finished (or the load timeout expires) and returns
+     * {@code null}.
+     *
+     * @param key response key.
+     * @return started load to be {@link #finish(Load) finished} once the response is computed or
+     *         {@code null} if the response has been computed by another request.
+     * @throws InterruptedException in case the waiting thread has been interrupted.
+     */
+    Load start(Key key) throws InterruptedException {
+        final Load load = new Load(key);
+        final Load current = loads.putIfAbsent(key, load);
+        if (current == null) {
+            return load;
+        }
+
+        if (!current.done.await(loadTimeout, TimeUnit.MILLISECONDS)) {
+            // the load has not been finished in time (e.g. the response has never been written)
+            loads.remove(key, current);
+        }
+        return null;
+    }
+
+    /**
+     * Finish the response computation and release the waiting requests.
+     *
+     * @param load finished load, may be {@code null}.
+     */
+    void finish(Load load) {
+        if (load != null) {
+            loads.remove(load.key, load);
+            load.done.countDown();
+        }
+    }
+}
@@ -0,0 +1,507 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.ws.rs.BindingPriority;
+import javax.ws.rs.GET;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.DynamicBinder;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.glassfish.jersey.message.internal.QualityFactor;
+import org.glassfish.jersey.server.CloseableService;
+import org.glassfish.jersey.server.model.AnnotatedMethod;
+
+/**
+ * A {@link DynamicBinder} adding server-side response caching to the {@link GET} resource methods.
+ * <p>
+ * Responses are cached in the {@link ResponseCache} supplied to the binder. Only successful responses
+ * to {@code GET} requests carrying an entity and a {@code Cache-Control} header with a positive
+ * {@code s-maxage} or {@code max-age} directive are cached. Responses marked {@code no-store}, {@code no-cache}
+ * or {@code private}, responses varying on all request headers ({@code Vary: *}) and responses setting cookies
+ * are never cached. The cached responses are stored separately for each request path and query, acceptable
+ * media types of the request and values of the request headers listed in the {@code Vary} response header.
+ * </p>
+ * <p>
+ * While a response is fresh, subsequent {@code GET} and {@code HEAD} requests are answered directly from the cache,
+ * with {@code 304 Not Modified} if the request {@code If-None-Match} header matches the cached entity tag.
+ * Concurrent requests for the same missing response wait until the first request computes it instead of invoking
+ * the resource method concurrently. Requests with the {@code no-store} cache directive bypass the cache; requests
+ * with the {@code no-cache} directive are not answered from the cache, but refresh the cached response.
+ * Requests carrying the {@code Authorization} or {@code Cookie} header are never cached.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public class ResponseCacheDynamicBinder implements DynamicBinder<ContainerRequestFilter> {
+
+    private final ResponseCache cache;
+
+    /**
+     * Create new response cache binder storing the responses in a new {@link ResponseCache}
+     * with the default size limits.
+     */
+    public ResponseCacheDynamicBinder() {
+        this(new ResponseCache());
+    }
+
+    /**
+     * Create new response cache binder.
+     *
+     * @param cache cache used to store the responses.
+     */
+    public ResponseCacheDynamicBinder(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Get the cache used to store the responses, e.g. to invalidate the cached responses.
+     *
+     * @return response cache.
+     */
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public ContainerRequestFilter getBoundProvider(ResourceInfo resourceInfo) {
+        final Method method = resourceInfo.getResourceMethod();
+        if (method == null || !new AnnotatedMethod(method).isAnnotationPresent(GET.class)) {
+            return null;
+        }
+        return new ResponseCachingFilter(cache, resourceInfo.getResourceClass(), method);
+    }
+
+    /**
+     * Resource method bound filter answering requests from the cache and storing the cacheable responses.
+     */
+    @BindingPriority(BindingPriority.USER)
+    private static class ResponseCachingFilter implements ContainerRequestFilter, ContainerResponseFilter,
+            WriterInterceptor {
+
+        private static final String CACHE_CONTROL = "Cache-Control";
+        private static final String PRAGMA = "Pragma";
+        private static final String VARY = "Vary";
+        private static final String AGE = "Age";
+        private static final String SET_COOKIE = "Set-Cookie";
+        private static final String[] NO_HEADERS = new String[0];
+
+        private static final String REQUEST_KEY = ResponseCachingFilter.class.getName() + ".request";
+        private static final String LOAD = ResponseCachingFilter.class.getName() + ".load";
+        private static final String STORE = ResponseCachingFilter.class.getName() + ".store";
+
+        private final ResponseCache cache;
+        private final Class<?> resourceClass;
+        private final Method resourceMethod;
+
+        @Context
+        private CloseableService closeableService;
+
+        /**
+         * Cacheable response to be stored once the entity is written.
+         */
+        private static final class Store {
+
+            private final ResponseCache.Key key;
+            private final MultivaluedMap<String, String> headers;
+            private final long created;
+            private final long maxAge;
+
+            private Store(ResponseCache.Key key, MultivaluedMap<String, String> headers, long created, long maxAge) {
+                this.key = key;
+                this.headers = headers;
+                this.created = created;
+                this.maxAge = maxAge;
+            }
+        }
+
+        ResponseCachingFilter(ResponseCache cache, Class<?> resourceClass, Method resourceMethod) {
+            this.cache = cache;
+            this.resourceClass = resourceClass;
+            this.resourceMethod = resourceMethod;
+        }
+
+        @Override
+        public void filter(ContainerRequestContext request) throws IOException {
+            final String method = request.getMethod();
+            final boolean head = "HEAD".equals(method);
+            if ((!head && !"GET".equals(method)) || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                    || request.getHeaders().containsKey(HttpHeaders.COOKIE)) {
+                return;
+            }
+
+            final CacheControl cacheControl = getCacheControl(request.getHeaderString(CACHE_CONTROL));
+            if (cacheControl != null && cacheControl.isNoStore()) {
+                return;
+            }
+            final boolean noCache = (cacheControl != null && cacheControl.isNoCache())
+                    || "no-cache".equalsIgnoreCase(request.getHeaderString(PRAGMA));
+
+            final ResponseCache.Key key = createKey(request, cache.getVaryHeaders(resourceMethod));
+            if (!noCache) {
+                ResponseCache.Entry entry = cache.get(key, System.currentTimeMillis());
+                if (entry == null && !head) {
+                    try {
+                        final ResponseCache.Load load = cache.start(key);
+                        if (load == null) {
+                            // computed by a concurrent request
+                            entry = cache.get(key, System.currentTimeMillis());
+                        } else {
+                            request.setProperty(LOAD, load);
+                            finishOnRelease(load);
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+
+                if (entry != null) {
+                    request.abortWith(createResponse(request, entry, head));
+                    return;
+                }
+            }
+
+            if (!head) {
+                request.setProperty(REQUEST_KEY, key);
+            }
+        }
+
+        @Override
+        public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+            if (request.getProperty(REQUEST_KEY) == null) {
+                // response served from the cache or not cacheable request
+                return;
+            }
+            request.removeProperty(REQUEST_KEY);
+            final ResponseCache.Load load = (ResponseCache.Load) request.getProperty(LOAD);
+            request.removeProperty(LOAD);
+
+            final String[] varyHeaders = getVaryHeaders(response);
+            final long maxAge = getMaxAge(response);
+            if (varyHeaders == null || maxAge <= 0 || !response.hasEntity()
+                    || response.getStatus() != Response.Status.OK.getStatusCode()
+                    || response.getHeaders().containsKey(SET_COOKIE)) {
+                cache.finish(load);
+                return;
+            }
+
+            final MultivaluedMap<String, String> headers = new MultivaluedHashMap<String, String>();
+            for (Map.Entry<String, List<String>> header : response.getStringHeaders().entrySet()) {
+                if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                    headers.put(header.getKey(), new ArrayList<String>(header.getValue()));
+                }
+            }
+
+            cache.setVaryHeaders(resourceMethod, varyHeaders);
+            request.setProperty(STORE, new Store(createKey(request, varyHeaders), headers, System.currentTimeMillis(),
+                    maxAge));
+            if (load != null) {
+                request.setProperty(LOAD, load);
+            }
+        }
+
+        @Override
+        public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+            final Store store = (Store) context.getProperty(STORE);
+            if (store == null) {
+                context.proceed();
+                return;
+            }
+            context.removeProperty(STORE);
+            final ResponseCache.Load load = (ResponseCache.Load) context.getProperty(LOAD);
+            context.removeProperty(LOAD);
+
+            final OutputStream old = context.getOutputStream();
+            final CapturingOutputStream capturingStream = new CapturingOutputStream(old, cache.getMaxEntrySize());
+            context.setOutputStream(capturingStream);
+            try {
+                context.proceed();
+                final byte[] entity = capturingStream.getCaptured();
+                if (entity != null) {
+                    cache.put(store.key, new ResponseCache.Entry(store.headers, entity, store.created, store.maxAge));
+                }
+            } finally {
+                context.setOutputStream(old);
+                cache.finish(load);
+            }
+        }
+
+        /**
+         * Make sure the load is finished once the request processing is done, even if the response filters
+         * or the entity writing are never invoked (e.g. because of an unmapped exception).
+         *
+         * @param load started load.
+         */
+        private void finishOnRelease(final ResponseCache.Load load) {
+            if (closeableService != null) {
+                closeableService.add(new Closeable() {
+
+                    @Override
+                    public void close() {
+                        cache.finish(load);
+                    }
+                });
+            }
+        }
+
+        private ResponseCache.Key createKey(ContainerRequestContext request, String[] varyHeaders) {
+            final StringBuilder variant = new StringBuilder();
+            appendAcceptableMediaTypes(variant, request);
+            if (varyHeaders != null) {
+                for (String name : varyHeaders) {
+                    variant.append('\n').append(name).append(':');
+                    appendHeader(variant, request, name);
+                }
+            }
+            return new ResponseCache.Key(resourceClass, resourceMethod,
+                    request.getUriInfo().getPath(false), request.getUriInfo().getRequestUri().getRawQuery(),
+                    variant.toString());
+        }
+
+        private static void appendAcceptableMediaTypes(StringBuilder variant, ContainerRequestContext request) {
+            for (MediaType mediaType : request.getAcceptableMediaTypes()) {
+                variant.append(mediaType.getType().toLowerCase(Locale.ENGLISH)).append('/')
+                        .append(mediaType.getSubtype().toLowerCase(Locale.ENGLISH));
+                for (Map.Entry<String, String> parameter : mediaType.getParameters().entrySet()) {
+                    if (!"q".equalsIgnoreCase(parameter.getKey())) {
+                        variant.append(';').append(parameter.getKey().toLowerCase(Locale.ENGLISH))
+                                .append('=').append(parameter.getValue());
+                    }
+                }
+                if (mediaType instanceof QualityFactor) {
+                    variant.append(";q=").append(((QualityFactor) mediaType).getQuality());
+                }
+                variant.append(',');
+            }
+        }
+
+        private static void appendHeader(StringBuilder variant, ContainerRequestContext request, String name) {
+            final List<String> values = request.getHeaders().get(name);
+            if (values != null) {
+                for (String value : values) {
+                    variant.append(value).append(',');
+                }
+            }
+        }
+
+        private static Response createResponse(ContainerRequestContext request, ResponseCache.Entry entry, boolean head) {
+            final MultivaluedMap<String, String> headers = entry.getHeaders();
+
+            final String eTag = headers.getFirst(HttpHeaders.ETAG);
+            if (eTag != null) {
+                final Response.ResponseBuilder notModified = request.getRequest().evaluatePreconditions(
+                        EntityTag.valueOf(eTag));
+                if (notModified != null) {
+                    copyHeader(headers, CACHE_CONTROL, notModified);
+                    copyHeader(headers, VARY, notModified);
+                    return notModified.build();
+                }
+            }
+
+            final Response.ResponseBuilder builder = Response.ok();
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                for (String value : header.getValue()) {
+                    builder.header(header.getKey(), value);
+                }
+            }
+            builder.header(AGE, entry.getAge(System.currentTimeMillis()));
+            if (head) {
+                builder.header(HttpHeaders.CONTENT_LENGTH, entry.getEntity().length);
+            } else {
+                builder.entity(entry.getEntity());
+            }
+            return builder.build();
+        }
+
+        private static void copyHeader(MultivaluedMap<String, String> headers, String name,
+                                       Response.ResponseBuilder builder) {
+            final List<String> values = headers.get(name);
+            if (values != null) {
+                for (String value : values) {
+                    builder.header(name, value);
+                }
+            }
+        }
+
+        private static CacheControl getCacheControl(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return CacheControl.valueOf(value);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+
+        /**
+         * Get the time in seconds the response may be cached for.
+         *
+         * @param response response.
+         * @return max age of the response or {@code -1} if the response must not be cached.
+         */
+        private static long getMaxAge(ContainerResponseContext response) {
+            final CacheControl cacheControl = getCacheControl(response.getHeaderString(CACHE_CONTROL));
+            if (cacheControl == null || cacheControl.isNoStore() || cacheControl.isNoCache()
+                    || cacheControl.isPrivate()) {
+                return -1;
+            }
+            return (cacheControl.getSMaxAge() >= 0) ? cacheControl.getSMaxAge() : cacheControl.getMaxAge();
+        }
+
+        /**
+         * Get the lower-case names of the request headers listed in the {@code Vary} response header.
+         *
+         * @param response response.
+         * @return sorted lower-case names of the varying request headers or {@code null} if the response
+         *         varies on all request headers.
+         */
+        private static String[] getVaryHeaders(ContainerResponseContext response) {
+            final List<String> values = response.getStringHeaders().get(VARY);
+            if (values == null || values.isEmpty()) {
+                return NO_HEADERS;
+            }
+
+            final List<String> names = new ArrayList<String>();
+            for (String value : values) {
+                for (String field : value.split(",")) {
+                    final String name = field.trim().toLowerCase(Locale.ENGLISH);
+                    if ("*".equals(name)) {
+                        return null;
+                    } else if (name.length() > 0 && !names.contains(name)) {
+                        names.add(name);
+                    }
+                }
+            }
+            final String[] result = names.toArray(new String[names.size()]);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    /**
+     * Entity output stream capturing a copy of the written data up to the given limit.
+     */
+    private static final class CapturingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final int limit;
+        private ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+        private CapturingOutputStream(OutputStream out, int limit) {
+            this.out = out;
+            this.limit = limit;
+        }
+
+        /**
+         * Get the captured data.
+         *
+         * @return captured data or {@code null} if the limit has been exceeded.
+         */
+        byte[] getCaptured() {
+            return (captured == null) ? null : captured.toByteArray();
+        }
+
+        private void capture(byte[] b, int off, int len) {
+            if (captured != null) {
+                if (captured.size() + len > limit) {
+                    captured = null;
+                } else {
+                    captured.write(b, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (captured != null) {
+                if (captured.size() + 1 > limit) {
+                    captured = null;
+                } else {
+                    captured.write(b);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            capture(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -79,7 +79,7 @@ public class CloseableServiceModule extends AbstractModule {
 
             if (closeableSet == null) {
                 closeableSet = new HashSet<Closeable>();
-                context.getRequestContext().setProperty(CloseableServiceFactory.class.getName(), closeableSet);
+                context.getRequestContext().setProperty(HttpContextCloseableService.class.getName(), closeableSet);
             }
 
             closeableSet.add(c);
@@ -63,11 +63,18 @@ final class PrimitiveValueOfExtractor implements MultivaluedParameterExtractor<O
     final String defaultStringValue;
     final Object defaultValue;
     final Object defaultDefaultValue;
+    /**
+     * Primitive wrapper type parsed directly or {@code null} if the valueOf method has to be invoked.
+     */
+    final Class<?> parsedType;
 
     public PrimitiveValueOfExtractor(Method valueOf, String parameter,
             String defaultStringValue, Object defaultDefaultValue)
             throws IllegalAccessException, InvocationTargetException {
         this.valueOf = valueOf;
+        this.parsedType = ("valueOf".equals(valueOf.getName())
+                && PrimitiveMapper.primitiveToDefaultValueMap.containsKey(valueOf.getDeclaringClass()))
+                ? valueOf.getDeclaringClass() : null;
         this.parameter = parameter;
         this.defaultStringValue = defaultStringValue;
         this.defaultValue = (defaultStringValue != null)
@@ -86,6 +93,15 @@ final class PrimitiveValueOfExtractor implements MultivaluedParameterExtractor<O
     }
 
     private Object getValue(String v) {
+        if (parsedType != null) {
+            // primitive wrapper types are parsed directly, without the reflective call
+            try {
+                return parse(parsedType, v);
+            } catch (RuntimeException ex) {
+                throw new ExtractorException(ex);
+            }
+        }
+
         try {
             return valueOf.invoke(null, v);
         } catch (InvocationTargetException ex) {
@@ -102,6 +118,24 @@ final class PrimitiveValueOfExtractor implements MultivaluedParameterExtractor<O
         }
     }
 
+    private static Object parse(Class<?> type, String v) {
+        if (type == Integer.class) {
+            return Integer.valueOf(v);
+        } else if (type == Long.class) {
+            return Long.valueOf(v);
+        } else if (type == Boolean.class) {
+            return Boolean.valueOf(v);
+        } else if (type == Double.class) {
+            return Double.valueOf(v);
+        } else if (type == Float.class) {
+            return Float.valueOf(v);
+        } else if (type == Short.class) {
+            return Short.valueOf(v);
+        } else {
+            return Byte.valueOf(v);
+        }
+    }
+
     @Override
     public Object extract(MultivaluedMap<String, String> parameters) {
         String v = parameters.getFirst(parameter);
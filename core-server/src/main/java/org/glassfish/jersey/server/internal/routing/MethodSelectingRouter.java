@@ -49,13 +49,13 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.ws.rs.HttpMethod;
-import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.AcceptableMediaType;
 import org.glassfish.jersey.process.Inflector;
 import org.glassfish.jersey.process.internal.ResponseProcessor;
 import org.glassfish.jersey.server.ContainerRequest;
@@ -70,6 +70,9 @@ import org.glassfish.hk2.Factory;
 import org.jvnet.hk2.annotations.Inject;
 
 import com.google.common.base.Function;
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 
 /**
@@ -79,6 +82,12 @@ import com.google.common.collect.Sets;
  * The method selection algorithm selects the handling method based on the HTTP request
  * method name, requested media type as well as defined resource method media type
  * capabilities.
+ * <p>
+ * Successful (unambiguous) selection results are cached by the router, keyed by
+ * the request HTTP method, request content type (without parameters) and the acceptable
+ * media types of the request, so that repeated requests with the same negotiation input
+ * skip the method selection. The least recently used results are evicted once the cache is full.
+ * </p>
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -86,12 +95,18 @@ import com.google.common.collect.Sets;
 final class MethodSelectingRouter implements Router {
 
     private static final Logger LOGGER = Logger.getLogger(MethodSelectingRouter.class.getName());
+    /**
+     * Maximum number of content negotiation results cached by a single router.
+     */
+    private static final int NEGOTIATION_CACHE_SIZE = 64;
 
     private final Factory<ResponseProcessor.RespondingContext<ContainerResponse>> respondingContextFactory;
     private final MessageBodyWorkers workers;
 
     private final Map<String, List<ConsumesProducesAcceptor>> consumesProducesAcceptors;
     private final Router router;
+    private final Cache<NegotiationKey, MethodSelection> negotiationCache =
+            CacheBuilder.newBuilder().maximumSize(NEGOTIATION_CACHE_SIZE).build();
 
     /**
      * Injectable builder of a {@link MethodSelectingRouter} instance.
@@ -216,11 +231,10 @@ final class MethodSelectingRouter implements Router {
         /**
          * Determines whether this {@link ConsumesProducesAcceptor router} can process the {@code request}.
          *
-         * @param requestContext The request to be tested.
+         * @param contentType The content type of the request to be tested, may be {@code null}.
          * @return True if the {@code request} can be processed by this router, false otherwise.
          */
-        boolean isConsumable(ContainerRequest requestContext) {
-            MediaType contentType = requestContext.getMediaType();
+        boolean isConsumable(MediaType contentType) {
             return contentType == null || consumes.getMediaType().isCompatible(contentType);
         }
 
@@ -304,6 +318,85 @@ final class MethodSelectingRouter implements Router {
     }
 
 
+    /**
+     * Content negotiation cache key. Consists of the request HTTP method, the type and subtype
+     * of the request content type and the parsed acceptable media types of the request.
+     * The content type parameters (e.g. a multipart boundary) do not affect the method selection
+     * and are therefore not part of the key.
+     */
+    private static final class NegotiationKey {
+
+        private final String httpMethod;
+        private final MediaType contentType;
+        private final List<AcceptableMediaType> accept;
+        private final int hash;
+
+        NegotiationKey(String httpMethod, MediaType contentType, List<AcceptableMediaType> accept) {
+            this.httpMethod = httpMethod;
+            this.contentType = (contentType == null || contentType.getParameters().isEmpty())
+                    ? contentType : new MediaType(contentType.getType(), contentType.getSubtype());
+            this.accept = accept;
+            this.hash = Objects.hashCode(httpMethod, this.contentType, accept);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof NegotiationKey)) {
+                return false;
+            }
+            final NegotiationKey other = (NegotiationKey) o;
+            return hash == other.hash
+                    && Objects.equal(httpMethod, other.httpMethod)
+                    && Objects.equal(contentType, other.contentType)
+                    && Objects.equal(accept, other.accept);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Result of a successful content negotiation: the selected method router and
+     * the responding function setting the effective response media type.
+     */
+    private final class MethodSelection {
+
+        private final MethodAcceptorPair methodAcceptorPair;
+        private final Function<ContainerResponse, ContainerResponse> responseMediaTypeSetter;
+        private final boolean ambiguous;
+
+        MethodSelection(final RequestSpecificConsumesProducesAcceptor selected, boolean ambiguous) {
+            this.methodAcceptorPair = selected.methodAcceptorPair;
+            this.ambiguous = ambiguous;
+            this.responseMediaTypeSetter = new Function<ContainerResponse, ContainerResponse>() {
+                @Override
+                public ContainerResponse apply(final ContainerResponse responseContext) {
+                    // we only need to compute and set the effective media type if it hasn't been set already
+                    // and either there is an entity, or we are responding to a HEAD request
+                    if (responseContext.getMediaType() == null &&
+                            (responseContext.hasEntity() ||
+                                    HttpMethod.HEAD.equals(responseContext.getRequestContext().getMethod()))) {
+                        MediaType effectiveResponseType = selected.produces.getCombinedMediaType();
+                        if (isWildcard(effectiveResponseType)) {
+                            if (effectiveResponseType.isWildcardType() || effectiveResponseType.getType().equalsIgnoreCase("application")) {
+                                effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
+                            } else {
+                                throw new StacklessWebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
+                            }
+                        }
+                        responseContext.setMediaType(effectiveResponseType);
+                    }
+                    return responseContext;
+                }
+            };
+        }
+    }
+
     private Router createInternalRouter() {
         return new Router() {
 
@@ -381,30 +474,47 @@ final class MethodSelectingRouter implements Router {
     private Router getMethodRouter(final ContainerRequest requestContext) {
         List<ConsumesProducesAcceptor> acceptors = consumesProducesAcceptors.get(requestContext.getMethod());
         if (acceptors == null) {
-            throw new WebApplicationException(
+            throw new StacklessWebApplicationException(
                     Response.status(Status.METHOD_NOT_ALLOWED).allow(consumesProducesAcceptors.keySet()).build());
         }
+
+        final MediaType requestContentType = requestContext.getMediaType();
+        final NegotiationKey negotiationKey = new NegotiationKey(
+                requestContext.getMethod(), requestContentType, requestContext.getQualifiedAcceptableMediaTypes());
+
+        MethodSelection selection = negotiationCache.getIfPresent(negotiationKey);
+        if (selection == null) {
+            selection = selectMethod(requestContext, acceptors, requestContentType);
+            // ambiguous selections are not cached so that the ambiguity is reported for every request
+            if (!selection.ambiguous) {
+                negotiationCache.put(negotiationKey, selection);
+            }
+        }
+
+        respondingContextFactory.get().push(selection.responseMediaTypeSetter);
+        return selection.methodAcceptorPair.router;
+    }
+
+    private MethodSelection selectMethod(final ContainerRequest requestContext,
+                                         final List<ConsumesProducesAcceptor> acceptors,
+                                         final MediaType requestContentType) {
         List<ConsumesProducesAcceptor> satisfyingAcceptors = new LinkedList<ConsumesProducesAcceptor>();
         for (ConsumesProducesAcceptor cpi : acceptors) {
-            if (cpi.isConsumable(requestContext)) {
+            if (cpi.isConsumable(requestContentType)) {
                 satisfyingAcceptors.add(cpi);
             }
         }
         if (satisfyingAcceptors.isEmpty()) {
-            throw new WebApplicationException(Status.UNSUPPORTED_MEDIA_TYPE);
+            throw new StacklessWebApplicationException(Status.UNSUPPORTED_MEDIA_TYPE);
         }
 
         final List<MediaType> acceptableMediaTypes = requestContext.getAcceptableMediaTypes();
+        final MediaType effectiveContentType = requestContentType == null ? MediaType.WILDCARD_TYPE : requestContentType;
         final MethodSelector methodSelector = new MethodSelector(null);
 
         for (MediaType acceptableMediaType : acceptableMediaTypes) {
             for (final ConsumesProducesAcceptor satisfiable : satisfyingAcceptors) {
                 if (satisfiable.produces.getMediaType().isCompatible(acceptableMediaType)) {
-
-                    final MediaType requestContentType = requestContext.getMediaType();
-                    final MediaType effectiveContentType = requestContentType == null ? MediaType.WILDCARD_TYPE :
-                            requestContentType;
-
                     final RequestSpecificConsumesProducesAcceptor candidate = new RequestSpecificConsumesProducesAcceptor(
                             CombinedClientServerMediaType.create(effectiveContentType, satisfiable.getConsumes()),
                             CombinedClientServerMediaType.create(acceptableMediaType, satisfiable.getProduces()),
@@ -417,36 +527,15 @@ final class MethodSelectingRouter implements Router {
         if (methodSelector.selected != null) {
             final RequestSpecificConsumesProducesAcceptor selected = methodSelector.selected;
 
-            if (methodSelector.sameFitnessAcceptors != null) {
+            final boolean ambiguous = methodSelector.sameFitnessAcceptors != null;
+            if (ambiguous) {
                 reportMethodSelectionAmbiguity(acceptableMediaTypes, selected, methodSelector.sameFitnessAcceptors);
             }
 
-            respondingContextFactory.get().push(
-                    new Function<ContainerResponse, ContainerResponse>() {
-                        @Override
-                        public ContainerResponse apply(final ContainerResponse responseContext) {
-                            // we only need to compute and set the effective media type if it hasn't been set already
-                            // and either there is an entity, or we are responding to a HEAD request
-                            if (responseContext.getMediaType() == null &&
-                                    (responseContext.hasEntity() ||
-                                            HttpMethod.HEAD.equals(responseContext.getRequestContext().getMethod()))) {
-                                MediaType effectiveResponseType = selected.produces.getCombinedMediaType();
-                                if (isWildcard(effectiveResponseType)) {
-                                    if (effectiveResponseType.isWildcardType() || effectiveResponseType.getType().equalsIgnoreCase("application")) {
-                                        effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
-                                    } else {
-                                        throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
-                                    }
-                                }
-                                responseContext.setMediaType(effectiveResponseType);
-                            }
-                            return responseContext;
-                        }
-                    });
-            return selected.methodAcceptorPair.router;
+            return new MethodSelection(selected, ambiguous);
         }
 
-        throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
+        throw new StacklessWebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
     }
 
     private boolean isWildcard(final MediaType effectiveResponseType) {
@@ -0,0 +1,220 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.glassfish.jersey.uri.PathPattern;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Compiled literal prefix index of a list of {@link PathPattern path patterns}.
+ * <p>
+ * Every path pattern is indexed in a character trie under the literal (encoded) characters
+ * of its template that precede the first template variable. When a request path is routed,
+ * the trie is traversed along the path characters and the positions of all the patterns whose
+ * literal prefix the path starts with are returned. Patterns that have not been returned cannot
+ * match the path, so the regular expression matching can be restricted to the returned
+ * candidates only.
+ * </p>
+ * <p>
+ * The returned candidate positions are sorted in the ascending order, i.e. in the order
+ * of the original pattern list. Iterating over the candidates and running the regular
+ * expression matching on each of them therefore yields exactly the same first matching
+ * pattern (and the same {@link java.util.regex.MatchResult match result}) as iterating over
+ * the whole original pattern list.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class PathPatternRouteIndex {
+
+    private static final int[] NO_CANDIDATES = new int[0];
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    /**
+     * Immutable trie node.
+     */
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        private final int[] candidates;
+
+        private Node(final char[] keys, final Node[] children, final int[] candidates) {
+            this.keys = keys;
+            this.children = children;
+            this.candidates = candidates;
+        }
+
+        private Node child(final char c) {
+            final int i = Arrays.binarySearch(keys, c);
+            return (i < 0) ? null : children[i];
+        }
+    }
+
+    /**
+     * Mutable trie node used while the index is being compiled.
+     */
+    private static final class NodeBuilder {
+
+        private final TreeMap<Character, NodeBuilder> children = Maps.newTreeMap();
+        private final List<Integer> patternIndexes = Lists.newArrayList();
+
+        private NodeBuilder child(final char c) {
+            NodeBuilder child = children.get(c);
+            if (child == null) {
+                child = new NodeBuilder();
+                children.put(c, child);
+            }
+            return child;
+        }
+
+        private Node build(final int[] inherited) {
+            final int[] candidates = merge(inherited, patternIndexes);
+
+            if (children.isEmpty()) {
+                return new Node(NO_KEYS, NO_CHILDREN, candidates);
+            }
+
+            final char[] keys = new char[children.size()];
+            final Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build(candidates);
+                i++;
+            }
+            return new Node(keys, nodes, candidates);
+        }
+
+        private static int[] merge(final int[] inherited, final List<Integer> own) {
+            if (own.isEmpty()) {
+                // share the parent array - there is nothing to add on this level
+                return inherited;
+            }
+
+            final int[] result = new int[inherited.length + own.size()];
+            int i = 0, j = 0, k = 0;
+            while (i < inherited.length && j < own.size()) {
+                result[k++] = (inherited[i] < own.get(j)) ? inherited[i++] : own.get(j++);
+            }
+            while (i < inherited.length) {
+                result[k++] = inherited[i++];
+            }
+            while (j < own.size()) {
+                result[k++] = own.get(j++);
+            }
+            return result;
+        }
+    }
+
+    private final Node root;
+
+    /**
+     * Compile a new literal prefix index for the list of path patterns.
+     *
+     * @param patterns path patterns to be indexed. The positions returned from the
+     *                 {@link #candidates(CharSequence)} method refer to this list.
+     */
+    PathPatternRouteIndex(final List<PathPattern> patterns) {
+        final NodeBuilder rootBuilder = new NodeBuilder();
+
+        int index = 0;
+        for (PathPattern pattern : patterns) {
+            final String prefix = literalPrefix(pattern);
+
+            NodeBuilder node = rootBuilder;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            node.patternIndexes.add(index++);
+        }
+
+        this.root = rootBuilder.build(NO_CANDIDATES);
+    }
+
+    /**
+     * Get the sorted positions of all path patterns that may match the given path.
+     * <p>
+     * The returned array is shared and must not be modified.
+     * </p>
+     *
+     * @param path path to be matched. May be {@code null}.
+     * @return sorted positions of the candidate patterns, never {@code null}.
+     */
+    int[] candidates(final CharSequence path) {
+        Node node = root;
+        if (path != null) {
+            for (int i = 0; i < path.length(); i++) {
+                final Node next = node.child(path.charAt(i));
+                if (next == null) {
+                    break;
+                }
+                node = next;
+            }
+        }
+        return node.candidates;
+    }
+
+    /**
+     * Get the literal prefix any path matched by the path pattern must start with.
+     *
+     * @param pattern path pattern.
+     * @return literal path prefix, possibly empty.
+     */
+    static String literalPrefix(final PathPattern pattern) {
+        final String template = pattern.getTemplate().getNormalizedTemplate();
+
+        final int variableStart = template.indexOf('{');
+        if (variableStart >= 0) {
+            return template.substring(0, variableStart);
+        }
+
+        // trailing slash of a literal-only template is removed from the path pattern regular expression
+        return template.endsWith("/") ? template.substring(0, template.length() - 1) : template;
+    }
+}
@@ -49,9 +49,18 @@ import org.glassfish.hk2.Factory;
 
 import org.jvnet.hk2.annotations.Inject;
 
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+
 /**
  * Matches the un-matched right-hand request path to a configured
  * {@link PathPattern path pattern}.
+ * <p>
+ * The routes are compiled into a {@link PathPatternRouteIndex literal prefix index}
+ * so that only the path patterns that can possibly match the routed path are
+ * matched using their regular expressions. The routes are still tried in the
+ * configured order and the first matching route wins.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -81,8 +90,18 @@ class PathPatternRouter implements Router {
         }
     }
 
+    private static final Function<Route<PathPattern>, PathPattern> ROUTE_TO_PATTERN =
+            new Function<Route<PathPattern>, PathPattern>() {
+
+                @Override
+                public PathPattern apply(Route<PathPattern> route) {
+                    return route.routingPattern();
+                }
+            };
+
     private final Factory<RoutingContext> contextProvider;
     private final List<Route<PathPattern>> acceptedRoutes;
+    private final PathPatternRouteIndex routeIndex;
 
     /**
      * Constructs route methodAcceptorPair that uses {@link PathPattern} instances for
@@ -96,16 +115,18 @@ class PathPatternRouter implements Router {
                               final List<Route<PathPattern>> routes) {
 
         this.contextProvider = provider;
-        this.acceptedRoutes = routes;
+        this.acceptedRoutes = Lists.newArrayList(routes);
+        this.routeIndex = new PathPatternRouteIndex(Lists.transform(acceptedRoutes, ROUTE_TO_PATTERN));
     }
 
     @Override
     public Router.Continuation apply(final ContainerRequest request) {
         final RoutingContext rc = contextProvider.get();
         // Peek at matching information to obtain path to match
-        String path = rc.getFinalMatchingGroup();
+        final String path = rc.getFinalMatchingGroup();
 
-        for (final Route<PathPattern> acceptedRoute : acceptedRoutes) {
+        for (final int candidate : routeIndex.candidates(path)) {
+            final Route<PathPattern> acceptedRoute = acceptedRoutes.get(candidate);
             final MatchResult m = acceptedRoute.routingPattern().match(path);
             if (m != null) {
                 // Push match result information and rest of path to match
@@ -0,0 +1,320 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.core.AbstractMultivaluedMap;
+
+/**
+ * Unmodifiable multivalued map of request query parameters that decodes the query parameters on demand.
+ * <p/>
+ * The raw query string is {@link Tokenizer tokenized} once per request, recording only the
+ * boundaries of the individual query parameters. The parameter names and values are
+ * extracted (and decoded) only for the parameters that are actually looked up by
+ * {@link #get(Object)}, {@link #getFirst(Object)} or {@link #containsKey(Object)}.
+ * All the remaining parameters are extracted once the map is iterated.
+ * <p/>
+ * The map is shared by all the consumers of the request query parameters, e.g. the {@code @QueryParam}
+ * injection, and therefore any attempt to modify the map or its values results in an
+ * {@link UnsupportedOperationException}.
+ * <p/>
+ * As with {@link org.glassfish.jersey.uri.UriComponent#decodeQuery(String, boolean)}, the
+ * parameter names are always decoded, while the values are decoded only if requested.
+ *
+ * @author agent (agent at local)
+ */
+final class QueryParameterMap extends AbstractMultivaluedMap<String, String> {
+
+    /**
+     * Single-pass tokenizer of a raw query string. The tokenizer does not create any
+     * strings, it only records the positions of the parameter names and values in the query.
+     */
+    static final class Tokenizer {
+
+        private final String query;
+        /**
+         * Parameter bounds, 3 entries per parameter: start of the parameter, position of the
+         * first '=' character (or end of the parameter if not present) and end of the parameter.
+         */
+        private int[] bounds;
+        private int count;
+
+        /**
+         * Tokenize the raw query string.
+         *
+         * @param query raw query string, may be {@code null}.
+         */
+        Tokenizer(String query) {
+            this.query = (query == null) ? "" : query;
+            this.bounds = new int[12];
+
+            final int length = this.query.length();
+            int start = 0;
+            int equals = -1;
+            for (int i = 0; i <= length; i++) {
+                final char c = (i < length) ? this.query.charAt(i) : '&';
+                if (c == '&') {
+                    // parameters with an empty name are ignored
+                    if (i > start && equals != start) {
+                        add(start, (equals == -1) ? i : equals, i);
+                    }
+                    start = i + 1;
+                    equals = -1;
+                } else if (c == '=' && equals == -1) {
+                    equals = i;
+                }
+            }
+        }
+
+        private void add(int start, int equals, int end) {
+            if (bounds.length < 3 * (count + 1)) {
+                bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+            }
+            bounds[3 * count] = start;
+            bounds[3 * count + 1] = equals;
+            bounds[3 * count + 2] = end;
+            count++;
+        }
+
+        /**
+         * Get the number of the query parameters.
+         *
+         * @return number of the query parameters, including repeated parameters.
+         */
+        int size() {
+            return count;
+        }
+
+        /**
+         * Check whether the name of the i-th query parameter is equal to the given (decoded) name.
+         *
+         * @param i    parameter index.
+         * @param name decoded parameter name.
+         * @return {@code true} if the parameter name matches the given name.
+         */
+        boolean nameEquals(int i, String name) {
+            final int start = bounds[3 * i];
+            final int end = bounds[3 * i + 1];
+            if (isEncoded(start, end)) {
+                return name.equals(getName(i));
+            }
+            return end - start == name.length() && query.regionMatches(start, name, 0, end - start);
+        }
+
+        /**
+         * Get the decoded name of the i-th query parameter.
+         *
+         * @param i parameter index.
+         * @return decoded parameter name.
+         */
+        String getName(int i) {
+            final int start = bounds[3 * i];
+            final int end = bounds[3 * i + 1];
+            final String name = query.substring(start, end);
+            return isEncoded(start, end) ? decode(name) : name;
+        }
+
+        /**
+         * Get the value of the i-th query parameter.
+         *
+         * @param i      parameter index.
+         * @param decode if {@code true}, the value is decoded.
+         * @return parameter value, empty string if the parameter has no value.
+         */
+        String getValue(int i, boolean decode) {
+            final int equals = bounds[3 * i + 1];
+            final int end = bounds[3 * i + 2];
+            if (equals >= end) {
+                return "";
+            }
+            final String value = query.substring(equals + 1, end);
+            return (decode && isEncoded(equals + 1, end)) ? decode(value) : value;
+        }
+
+        private boolean isEncoded(int start, int end) {
+            for (int i = start; i < end; i++) {
+                final char c = query.charAt(i);
+                if (c == '%' || c == '+') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String decode(String s) {
+            try {
+                return URLDecoder.decode(s, "UTF-8");
+            } catch (UnsupportedEncodingException ex) {
+                // This should never occur
+                throw new IllegalArgumentException(ex);
+            }
+        }
+    }
+
+    /**
+     * Read-only query parameter map store extracting the requested parameters from the tokenized query.
+     * Any operation other than a look-up by the parameter name extracts all the parameters first.
+     */
+    private static final class Store extends AbstractMap<String, List<String>> {
+
+        private final Tokenizer tokenizer;
+        private final boolean decode;
+        private final Map<String, List<String>> extracted = new HashMap<String, List<String>>();
+        private final Map<String, List<String>> unmodifiable = Collections.unmodifiableMap(extracted);
+        private boolean complete;
+
+        Store(Tokenizer tokenizer, boolean decode) {
+            this.tokenizer = tokenizer;
+            this.decode = decode;
+            this.complete = tokenizer.size() == 0;
+        }
+
+        private List<String> extract(Object key) {
+            List<String> values = extracted.get(key);
+            if (values != null || complete || !(key instanceof String)) {
+                return values;
+            }
+
+            final String name = (String) key;
+            for (int i = 0; i < tokenizer.size(); i++) {
+                if (tokenizer.nameEquals(i, name)) {
+                    if (values == null) {
+                        values = new ArrayList<String>(1);
+                    }
+                    values.add(tokenizer.getValue(i, decode));
+                }
+            }
+            if (values != null) {
+                values = Collections.unmodifiableList(values);
+                extracted.put(name, values);
+            }
+            return values;
+        }
+
+        private Map<String, List<String>> extractAll() {
+            if (!complete) {
+                for (int i = 0; i < tokenizer.size(); i++) {
+                    final String name = tokenizer.getName(i);
+                    if (!extracted.containsKey(name)) {
+                        extract(name);
+                    }
+                }
+                complete = true;
+            }
+            return unmodifiable;
+        }
+
+        @Override
+        public List<String> get(Object key) {
+            return extract(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return extract(key) != null;
+        }
+
+        @Override
+        public List<String> put(String key, List<String> value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<String> remove(Object key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int size() {
+            return extractAll().size();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return extractAll().keySet();
+        }
+
+        @Override
+        public Collection<List<String>> values() {
+            return extractAll().values();
+        }
+
+        @Override
+        public Set<Entry<String, List<String>>> entrySet() {
+            return extractAll().entrySet();
+        }
+    }
+
+    /**
+     * Create new query parameter map.
+     *
+     * @param tokenizer tokenized request query.
+     * @param decode    if {@code true}, the query parameter values are decoded.
+     */
+    QueryParameterMap(Tokenizer tokenizer, boolean decode) {
+        super(new Store(tokenizer, decode));
+    }
+
+    @Override
+    protected void addNull(List<String> values) {
+        values.add("");
+    }
+
+    @Override
+    protected void addFirstNull(List<String> values) {
+        values.add(0, "");
+    }
+}
@@ -51,6 +51,7 @@ import org.glassfish.jersey.uri.PathPattern;
 import org.glassfish.hk2.ComponentException;
 import org.glassfish.hk2.Factory;
 import org.glassfish.hk2.TypeLiteral;
+import org.glassfish.hk2.scopes.Singleton;
 
 import org.jvnet.hk2.annotations.Inject;
 
@@ -105,6 +106,8 @@ public class RouterModule extends AbstractModule {
         bind(ExtendedUriInfo.class).toFactory(UriRoutingContextFactory.class).in(RequestScope.class);
         bind(UriInfo.class).toFactory(UriRoutingContextFactory.class).in(RequestScope.class);
 
+        bind().to(SubResourceRouterCache.class).in(Singleton.class);
+
         // "Assisted" bindings
         bind().to(MatchResultInitializerRouter.Builder.class);
         bind().to(PatternRouter.Builder.class);
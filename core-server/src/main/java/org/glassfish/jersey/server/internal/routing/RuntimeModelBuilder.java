@@ -40,6 +40,7 @@
 package org.glassfish.jersey.server.internal.routing;
 
 import java.lang.annotation.Annotation;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -92,11 +93,15 @@ public final class RuntimeModelBuilder {
     private MethodSelectingRouter.Builder methodSelectingAcceptorBuilder;
     @Inject
     private SingletonResourceBinder resourceProvider;
+    @Inject
+    private SubResourceRouterCache subResourceRouterCache;
 
     private MessageBodyWorkers workers;
     private MultivaluedMap<Class<? extends Annotation>, ContainerRequestFilter> nameBoundRequestFilters;
     private MultivaluedMap<Class<? extends Annotation>, ContainerResponseFilter> nameBoundResponseFilters;
     private List<DynamicBinder> dynamicBinders;
+    private List<ContainerRequestFilter> globalRequestFilters = Collections.emptyList();
+    private List<ContainerResponseFilter> globalResponseFilters = Collections.emptyList();
 
     /**
      * A sorted map of closed resource path patterns to the list of (root) resource method
@@ -195,7 +200,8 @@ public final class RuntimeModelBuilder {
                 methodAcceptor = Routers.asTreeAcceptor(createInflector(resourceMethod));
                 break;
             case SUB_RESOURCE_LOCATOR:
-                methodAcceptor = new SubResourceLocatorRouter(injector, services, this, resourceMethod);
+                methodAcceptor = new SubResourceLocatorRouter(injector, services, this, subResourceRouterCache,
+                        resourceMethodInvokerBuilder.getInvocationHandler(resourceMethod.getInvocable()), resourceMethod);
                 break;
         }
 
@@ -213,6 +219,8 @@ public final class RuntimeModelBuilder {
 
         return resourceMethodInvokerBuilder.build(
                 method,
+                globalRequestFilters,
+                globalResponseFilters,
                 nameBoundRequestFilters,
                 nameBoundResponseFilters,
                 dynamicBinders
@@ -264,11 +272,23 @@ public final class RuntimeModelBuilder {
 
     /**
      * Build a runtime model.
+     * <p/>
+     * The resource and sub-resource path patterns of each routing level are compiled
+     * into {@link PathPatternRouter path pattern routers} that index the patterns by
+     * their literal prefixes, so that a regular expression matching is performed only
+     * on the patterns that may possibly match the request path.
+     *
+     * <p/>
+     * Building a root runtime model (i.e. not in the sub-resource mode) invalidates all the
+     * sub-resource routers cached in the {@link SubResourceRouterCache}.
      *
      * @param subResourceMode if {@code true}, all resources will be processed as sub-resources.
      * @return runtime request routing root.
      */
     public Router buildModel(boolean subResourceMode) {
+        if (!subResourceMode) {
+            subResourceRouterCache.invalidateAll();
+        }
         final PushMatchedUriRouter uriPushingRouter = injector.inject(PushMatchedUriRouter.class);
         RouteToPathBuilder<PathPattern> lastRoutedBuilder = null;
 
@@ -358,4 +378,20 @@ public final class RuntimeModelBuilder {
         this.nameBoundResponseFilters = nameBoundResponseFilters;
         this.dynamicBinders = dynamicBinders;
     }
+
+    /**
+     * Set the global post-matching request filters and global response filters. The filters
+     * are merged with the bound filters into the pre-sorted filter chains of each resource
+     * method invoker.
+     *
+     * @param globalRequestFilters global post-matching request filters.
+     * @param globalResponseFilters global response filters.
+     */
+    public void setGlobalFilters(
+            List<ContainerRequestFilter> globalRequestFilters,
+            List<ContainerResponseFilter> globalResponseFilters
+    ) {
+        this.globalRequestFilters = globalRequestFilters;
+        this.globalResponseFilters = globalResponseFilters;
+    }
 }
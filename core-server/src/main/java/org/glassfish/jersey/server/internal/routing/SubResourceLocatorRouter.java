@@ -39,13 +39,14 @@
  */
 package org.glassfish.jersey.server.internal.routing;
 
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
-import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 
 import org.glassfish.jersey.internal.MappableException;
@@ -66,32 +67,43 @@ import org.glassfish.hk2.inject.Injector;
  * Then the {@link RuntimeModelBuilder} is used to generate corresponding methodAcceptorPair.
  * Finally the generated methodAcceptorPair is invoked to return the request methodAcceptorPair chain.
  * <p/>
+ * The generated sub-resource routers are cached per sub-resource class in the {@link SubResourceRouterCache}.
+ * The locator method is invoked using the same {@link InvocationHandler invocation handler} that is
+ * used to invoke the resource methods.
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  */
 class SubResourceLocatorRouter implements Router {
 
     private final Injector injector;
-    private final ResourceMethod locatorModel;
+    private final Method locatorMethod;
+    private final InvocationHandler invocationHandler;
     private final List<Factory<?>> valueProviders;
     private final RuntimeModelBuilder runtimeModelBuilder;
+    private final SubResourceRouterCache routerCache;
 
     /**
      * Create a new sub-resource locator router.
      *
-     * @param injector     HK2 injector.
-     * @param services     HK2 services.
+     * @param injector            HK2 injector.
+     * @param services            HK2 services.
      * @param runtimeModelBuilder Runtime model builder.
-     * @param locatorModel resource locator method model.
+     * @param routerCache         Sub-resource router cache.
+     * @param invocationHandler   Locator method invocation handler.
+     * @param locatorModel        resource locator method model.
      */
     public SubResourceLocatorRouter(
             final Injector injector,
             final Services services,
             final RuntimeModelBuilder runtimeModelBuilder,
+            final SubResourceRouterCache routerCache,
+            final InvocationHandler invocationHandler,
             final ResourceMethod locatorModel) {
         this.injector = injector;
         this.runtimeModelBuilder = runtimeModelBuilder;
-        this.locatorModel = locatorModel;
+        this.routerCache = routerCache;
+        this.invocationHandler = invocationHandler;
+        this.locatorMethod = locatorModel.getInvocable().getHandlingMethod();
         this.valueProviders = ParameterValueHelper.createValueProviders(services, locatorModel.getInvocable());
     }
 
@@ -101,30 +113,42 @@ class SubResourceLocatorRouter implements Router {
 
         Object subResource = getResource(routingCtx);
         if (subResource == null) {
-            throw new WebApplicationException(Response.Status.NOT_FOUND);
+            throw new StacklessWebApplicationException(Response.Status.NOT_FOUND);
         }
-        if (subResource.getClass().isAssignableFrom(Class.class)) {
+        if (subResource instanceof Class) {
             final Class<?> clazz = (Class<?>) subResource;
             SingletonResourceBinder singletonResourceFactory = injector.inject(SingletonResourceBinder.class);
             singletonResourceFactory.bindResourceClassAsSingleton(clazz);
             subResource = injector.inject(clazz);
         }
 
-        // TODO: what to do with the issues?
-        final Resource subResourceModel = Resource.builder(subResource, new LinkedList<ResourceModelIssue>()).build();
-        runtimeModelBuilder.process(subResourceModel, true);
-
-        // TODO: implement generated sub-resource methodAcceptorPair caching
+        final Router subResourceAcceptor = getSubResourceRouter(subResource);
         routingCtx.pushMatchedResource(subResource);
-        Router subResourceAcceptor = runtimeModelBuilder.buildModel(true);
         return Continuation.of(request, subResourceAcceptor);
     }
 
+    private Router getSubResourceRouter(final Object subResource) {
+        return routerCache.get(subResource.getClass(), new Callable<Router>() {
+
+            @Override
+            public Router call() {
+                // the runtime model builder is shared by all the locators of the application
+                synchronized (runtimeModelBuilder) {
+                    // TODO: what to do with the issues?
+                    final Resource subResourceModel =
+                            Resource.builder(subResource, new LinkedList<ResourceModelIssue>()).build();
+                    runtimeModelBuilder.process(subResourceModel, true);
+                    return runtimeModelBuilder.buildModel(true);
+                }
+            }
+        });
+    }
+
     private Object getResource(RoutingContext routingCtx) {
         final Object resource = routingCtx.peekMatchedResource();
         try {
-            Method handlingMethod = locatorModel.getInvocable().getHandlingMethod();
-            return handlingMethod.invoke(resource, ParameterValueHelper.getParameterValues(valueProviders));
+            return invocationHandler.invoke(resource, locatorMethod,
+                    ParameterValueHelper.getParameterValues(valueProviders));
         } catch (IllegalAccessException ex) {
             throw new ProcessingException("Resource Java method invocation error.", ex);
         } catch (InvocationTargetException ex) {
@@ -0,0 +1,154 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.glassfish.jersey.internal.ProcessingException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Application-wide cache of the sub-resource routers generated by the
+ * {@link SubResourceLocatorRouter sub-resource locator routers}.
+ * <p/>
+ * The routers are cached per sub-resource class, regardless of the locator that returned
+ * the sub-resource, as the generated routing tree does not depend on the sub-resource
+ * instance; the instance returned by a locator is pushed to the routing context as the
+ * matched resource before the cached router is applied. The number of cached routers
+ * is bounded, the least recently used routers are evicted first. The cache is
+ * invalidated whenever the root runtime model is (re)built.
+ *
+ * @author agent (agent at local)
+ */
+public final class SubResourceRouterCache {
+
+    /**
+     * Maximal number of cached sub-resource routers.
+     */
+    public static final int MAX_SIZE = 512;
+
+    private final Cache<Class<?>, Router> routers = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(MAX_SIZE)
+            .build();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Get the cached router for the sub-resource class, building and caching it if necessary.
+     * Concurrent requests for the same missing router wait for the router being built.
+     *
+     * @param subResourceClass sub-resource class.
+     * @param builder          sub-resource router builder invoked on a cache miss.
+     * @return sub-resource router.
+     */
+    Router get(final Class<?> subResourceClass, final Callable<Router> builder) {
+        final Router router = routers.getIfPresent(subResourceClass);
+        if (router != null) {
+            hitCount.incrementAndGet();
+            return router;
+        }
+
+        try {
+            final boolean[] built = new boolean[1];
+            final Router result = routers.get(subResourceClass, new Callable<Router>() {
+
+                @Override
+                public Router call() throws Exception {
+                    built[0] = true;
+                    return builder.call();
+                }
+            });
+            if (built[0]) {
+                missCount.incrementAndGet();
+            } else {
+                // built concurrently by another request
+                hitCount.incrementAndGet();
+            }
+            return result;
+        } catch (ExecutionException ex) {
+            throw new ProcessingException(ex.getCause());
+        } catch (UncheckedExecutionException ex) {
+            throw (RuntimeException) ex.getCause();
+        } catch (ExecutionError ex) {
+            throw (Error) ex.getCause();
+        }
+    }
+
+    /**
+     * Invalidate all cached sub-resource routers.
+     */
+    public void invalidateAll() {
+        routers.invalidateAll();
+    }
+
+    /**
+     * Get the number of cached sub-resource routers.
+     *
+     * @return number of cached routers.
+     */
+    public long size() {
+        return routers.size();
+    }
+
+    /**
+     * Get the number of sub-resource router look-ups served from the cache.
+     *
+     * @return cache hit count.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of sub-resource router look-ups that resulted in a new router being built.
+     *
+     * @return cache miss count.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+}
@@ -87,6 +87,76 @@ class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
     private MultivaluedHashMap<String, String> decodedTemplateValues;
     private final LinkedList<String> paths = Lists.newLinkedList();
     private Inflector<ContainerRequest, ContainerResponse> inflector;
+    private ParsedRequestUri parsedRequestUri;
+
+    /**
+     * Request URI components parsed on demand and shared by all the URI information
+     * look-ups (e.g. by all the parameter value factories) within the request.
+     */
+    private static final class ParsedRequestUri {
+
+        private final URI requestUri;
+        private final URI baseUri;
+        private final String encodedPath;
+        private URI absolutePath;
+        private QueryParameterMap.Tokenizer queryTokenizer;
+        private MultivaluedMap<String, String> encodedQueryParameters;
+        private MultivaluedMap<String, String> decodedQueryParameters;
+        private List<PathSegment> encodedPathSegments;
+        private List<PathSegment> decodedPathSegments;
+
+        ParsedRequestUri(URI requestUri, URI baseUri) {
+            this.requestUri = requestUri;
+            this.baseUri = baseUri;
+
+            final String rp = requestUri.toString();
+            final String qrp = requestUri.getRawQuery();
+            this.encodedPath = (qrp == null) ? rp : rp.substring(0, rp.length() - qrp.length() - 1);
+        }
+
+        URI getAbsolutePath() {
+            if (absolutePath == null) {
+                absolutePath = URI.create(encodedPath);
+            }
+            return absolutePath;
+        }
+
+        MultivaluedMap<String, String> getQueryParameters(boolean decode) {
+            if (queryTokenizer == null) {
+                queryTokenizer = new QueryParameterMap.Tokenizer(requestUri.getRawQuery());
+            }
+            if (decode) {
+                if (decodedQueryParameters == null) {
+                    decodedQueryParameters = new QueryParameterMap(queryTokenizer, true);
+                }
+                return decodedQueryParameters;
+            } else {
+                if (encodedQueryParameters == null) {
+                    encodedQueryParameters = new QueryParameterMap(queryTokenizer, false);
+                }
+                return encodedQueryParameters;
+            }
+        }
+
+        List<PathSegment> getPathSegments(boolean decode) {
+            if (decode) {
+                if (decodedPathSegments == null) {
+                    decodedPathSegments = parsePathSegments(true);
+                }
+                return decodedPathSegments;
+            } else {
+                if (encodedPathSegments == null) {
+                    encodedPathSegments = parsePathSegments(false);
+                }
+                return encodedPathSegments;
+            }
+        }
+
+        private List<PathSegment> parsePathSegments(boolean decode) {
+            final String base = baseUri.toString();
+            return Collections.unmodifiableList(UriComponent.decodePath(encodedPath.substring(base.length()), decode));
+        }
+    }
 
     /**
      * Injection constructor.
@@ -117,7 +187,7 @@ class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
     public void pushLeftHandPath() {
         final String rightHandPath = getFinalMatchingGroup();
         final int rhpLength = (rightHandPath != null) ? rightHandPath.length() : 0;
-        final String encodedRequestPath = getAbsolutePath().toString();
+        final String encodedRequestPath = getParsedRequestUri().encodedPath;
         // TODO: do we need to cut the starting slash ?
 //        paths.addFirst(encodedRequestPath.substring(startIndex, encodedRequestPath.length() - rhpLength));
         if (encodedRequestPath.length() != rhpLength) {
@@ -215,9 +285,26 @@ class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
         return collection == null ? Collections.<T>emptyList() : collection;
     }
 
+    /**
+     * Get the parsed request URI model, (re)creating it if the request URI has not been parsed
+     * yet or if the request or base URI has been changed since it was parsed.
+     *
+     * @return parsed request URI.
+     */
+    private ParsedRequestUri getParsedRequestUri() {
+        final ContainerRequest request = requestContext.get();
+        final URI requestUri = request.getRequestUri();
+        final URI baseUri = request.getBaseUri();
+        if (parsedRequestUri == null
+                || parsedRequestUri.requestUri != requestUri || parsedRequestUri.baseUri != baseUri) {
+            parsedRequestUri = new ParsedRequestUri(requestUri, baseUri);
+        }
+        return parsedRequestUri;
+    }
+
     @Override
     public URI getAbsolutePath() {
-        return URI.create(getEncodedPath());
+        return getParsedRequestUri().getAbsolutePath();
     }
 
     @Override
@@ -306,13 +393,6 @@ class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
         }
     }
 
-    private String getEncodedPath() {
-        final URI requestUri = getRequestUri();
-        final String rp = requestUri.toString();
-        final String qrp = requestUri.getRawQuery();
-        return qrp == null ? rp : rp.substring(0, rp.length() - qrp.length() - 1);
-    }
-
     @Override
     public List<PathSegment> getPathSegments() {
         return getPathSegments(true);
@@ -320,19 +400,17 @@ class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
 
     @Override
     public List<PathSegment> getPathSegments(boolean decode) {
-        final String ep = getEncodedPath();
-        final String base = getBaseUri().toString();
-        return UriComponent.decodePath(ep.substring(base.length()), decode);
+        return getParsedRequestUri().getPathSegments(decode);
     }
 
     @Override
     public MultivaluedMap<String, String> getQueryParameters() {
-        return UriComponent.decodeQuery(getRequestUri(), false);
+        return getQueryParameters(true);
     }
 
     @Override
     public MultivaluedMap<String, String> getQueryParameters(boolean decode) {
-        return UriComponent.decodeQuery(getRequestUri(), true);
+        return getParsedRequestUri().getQueryParameters(decode);
     }
 
     @Override
@@ -48,6 +48,8 @@ import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 import org.glassfish.jersey.internal.ProcessingException;
+import org.glassfish.jersey.message.internal.OutboundJaxrsResponse;
+import org.glassfish.jersey.message.internal.OutboundMessageContext;
 import org.glassfish.jersey.server.spi.internal.ParameterValueHelper;
 import org.glassfish.jersey.server.spi.internal.ResourceMethodDispatcher;
 
@@ -146,6 +148,26 @@ abstract class AbstractJavaResourceMethodDispatcherProvider implements ResourceM
         }
     }
 
+    /**
+     * Create a new response with the given status and entity.
+     * <p>
+     * Unlike a {@link Response.ResponseBuilder response builder} the method creates
+     * a single message context for the response and does not copy it when the response
+     * is built. The headers of the response are created lazily once written.
+     * </p>
+     *
+     * @param status response status.
+     * @param entity response entity, may be {@code null}.
+     * @return new response.
+     */
+    private static Response response(Response.Status status, Object entity) {
+        final OutboundMessageContext context = new OutboundMessageContext();
+        if (entity != null) {
+            context.setEntity(entity);
+        }
+        return new OutboundJaxrsResponse(status, context);
+    }
+
     private static final class VoidOutInvoker extends AbstractMethodParamInvoker {
 
         public VoidOutInvoker(
@@ -158,7 +180,7 @@ abstract class AbstractJavaResourceMethodDispatcherProvider implements ResourceM
         @Override
         protected Response doDispatch(Object resource, Request request) throws ProcessingException {
             invoke(resource, getParamValues());
-            return Response.noContent().build();
+            return response(Response.Status.NO_CONTENT, null);
         }
     }
 
@@ -195,9 +217,9 @@ abstract class AbstractJavaResourceMethodDispatcherProvider implements ResourceM
 //            } else if (o instanceof JResponse) {
 //                context.getResponseContext().setResponse(((JResponse)o).toResponse());
             } else if (o != null) {
-                return Response.ok().entity(o).build();
+                return response(Response.Status.OK, o);
             } else {
-                return Response.noContent().build();
+                return response(Response.Status.NO_CONTENT, null);
             }
         }
     }
@@ -219,13 +241,13 @@ abstract class AbstractJavaResourceMethodDispatcherProvider implements ResourceM
             final Object o = invoke(resource, getParamValues());
             if (o != null) {
 
-                Response response = Response.ok().entity(o).build();
+                Response response = response(Response.Status.OK, o);
                 // TODO set the method return Java type to the proper context.
 //                Response r = new ResponseBuilderImpl().
 //                        entityWithType(o, t).status(200).build();
                 return response;
             } else {
-                return Response.noContent().build();
+                return response(Response.Status.NO_CONTENT, null);
             }
         }
     }
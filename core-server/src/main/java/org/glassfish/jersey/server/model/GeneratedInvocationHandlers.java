@@ -0,0 +1,309 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Factory of the {@link InvocationHandler invocation handlers} that invoke the resource
+ * Java methods directly, using a bytecode generated per resource method, instead of using
+ * the reflective {@link Method#invoke(Object, Object...)} call.
+ * <p />
+ * The generated handler casts the resource instance and unboxes the argument values the same
+ * way the reflective call does. Any exception thrown by the invoked method is wrapped into an
+ * {@link InvocationTargetException} and an invalid resource instance or argument value results in
+ * an {@link IllegalArgumentException}, so that the exception processing of the
+ * {@link AbstractJavaResourceMethodDispatcher dispatchers} stays the same as with the reflective call.
+ * <p />
+ * The handlers can only be generated for the public, non-static methods declared by public
+ * classes that use only public parameter and return types. For other methods no handler is
+ * generated and the reflective invocation has to be used.
+ *
+ * @author agent (agent at local)
+ */
+final class GeneratedInvocationHandlers {
+
+    private static final Logger LOGGER = Logger.getLogger(GeneratedInvocationHandlers.class.getName());
+
+    private static final String GENERATED_CLASS_NAME_PREFIX = "org/glassfish/jersey/server/model/generated/Invoker$";
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String INVOCATION_HANDLER = Type.getInternalName(InvocationHandler.class);
+    private static final String THROWABLE = Type.getInternalName(Throwable.class);
+    private static final String INVOCATION_TARGET_EXCEPTION = Type.getInternalName(InvocationTargetException.class);
+    private static final String INVOKE_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/reflect/Method;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private static final AtomicInteger generatedClassCount = new AtomicInteger();
+
+    /**
+     * Class loader defining a single generated invocation handler class. The generated class
+     * can be unloaded together with its handler once the resource method is not used anymore.
+     */
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+
+    /**
+     * Generated invocation handler wrapper converting the exceptions thrown while casting the resource
+     * instance or the argument values into {@link IllegalArgumentException}. The exceptions thrown by
+     * the invoked method are wrapped into {@link InvocationTargetException} by the generated code.
+     */
+    private static final class DirectInvocationHandler implements InvocationHandler {
+
+        private final InvocationHandler generated;
+        private final Method resourceMethod;
+
+        DirectInvocationHandler(InvocationHandler generated, Method resourceMethod) {
+            this.generated = generated;
+            this.resourceMethod = resourceMethod;
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return generated.invoke(target, method, args);
+            } catch (RuntimeException ex) {
+                // ClassCastException, NullPointerException or ArrayIndexOutOfBoundsException
+                // thrown by the generated argument conversion
+                throw new IllegalArgumentException(ex);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "DirectInvocationHandler{" + resourceMethod + '}';
+        }
+    }
+
+    /**
+     * Prevents instantiation.
+     */
+    private GeneratedInvocationHandlers() {
+    }
+
+    /**
+     * Create an invocation handler invoking the given method directly.
+     *
+     * @param method resource Java method.
+     * @return direct invocation handler or {@code null} if no handler can be generated
+     *         for the method.
+     */
+    static InvocationHandler create(Method method) {
+        if (!isSupported(method)) {
+            return null;
+        }
+
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final String className = GENERATED_CLASS_NAME_PREFIX + generatedClassCount.incrementAndGet();
+        try {
+            final ClassLoader parent = (declaringClass.getClassLoader() != null)
+                    ? declaringClass.getClassLoader() : GeneratedInvocationHandlers.class.getClassLoader();
+            final Class<?> generatedClass = new GeneratedClassLoader(parent)
+                    .define(className.replace('/', '.'), generate(className, method));
+            return new DirectInvocationHandler((InvocationHandler) generatedClass.newInstance(), method);
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "Direct invocation handler could not be generated for " + method
+                    + ", the method will be invoked using reflection.", t);
+            return null;
+        }
+    }
+
+    private static boolean isSupported(Method method) {
+        final int modifiers = method.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || !isPublic(method.getDeclaringClass())) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isPublic(parameterType)) {
+                return false;
+            }
+        }
+        return isPublic(method.getReturnType());
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] generate(String className, Method method) {
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC + Opcodes.ACC_FINAL + Opcodes.ACC_SUPER,
+                className, null, OBJECT, new String[]{INVOCATION_HANDLER});
+
+        // default constructor
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V");
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // public Object invoke(Object target, Method method, Object[] args)
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke", INVOKE_DESCRIPTOR, null, new String[]{THROWABLE});
+        mv.visitCode();
+
+        // only the throwables thrown by the invoked method are wrapped into InvocationTargetException
+        final Label invokeStart = new Label();
+        final Label invokeEnd = new Label();
+        final Label invokeHandler = new Label();
+        mv.visitTryCatchBlock(invokeStart, invokeEnd, invokeHandler, THROWABLE);
+
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final String owner = Type.getInternalName(declaringClass);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            pushInt(mv, i);
+            mv.visitInsn(Opcodes.AALOAD);
+            unbox(mv, parameterTypes[i]);
+        }
+
+        mv.visitLabel(invokeStart);
+        mv.visitMethodInsn(declaringClass.isInterface() ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL,
+                owner, method.getName(), Type.getMethodDescriptor(method));
+        mv.visitLabel(invokeEnd);
+        box(mv, method.getReturnType());
+        mv.visitInsn(Opcodes.ARETURN);
+
+        // throw new InvocationTargetException(throwable)
+        mv.visitLabel(invokeHandler);
+        mv.visitVarInsn(Opcodes.ASTORE, 4);
+        mv.visitTypeInsn(Opcodes.NEW, INVOCATION_TARGET_EXCEPTION);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitVarInsn(Opcodes.ALOAD, 4);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, INVOCATION_TARGET_EXCEPTION, "<init>",
+                "(L" + THROWABLE + ";)V");
+        mv.visitInsn(Opcodes.ATHROW);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+
+    private static void unbox(MethodVisitor mv, Class<?> type) {
+        if (type == Object.class) {
+            return;
+        }
+        if (!type.isPrimitive()) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+            return;
+        }
+
+        final Class<?> wrapper = getWrapper(type);
+        final String wrapperName = Type.getInternalName(wrapper);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperName);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperName, type.getName() + "Value",
+                "()" + Type.getDescriptor(type));
+    }
+
+    private static void box(MethodVisitor mv, Class<?> type) {
+        if (type == void.class) {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        } else if (type.isPrimitive()) {
+            final Class<?> wrapper = getWrapper(type);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+                    "(" + Type.getDescriptor(type) + ")" + Type.getDescriptor(wrapper));
+        }
+    }
+
+    private static Class<?> getWrapper(Class<?> primitive) {
+        if (primitive == boolean.class) {
+            return Boolean.class;
+        } else if (primitive == byte.class) {
+            return Byte.class;
+        } else if (primitive == char.class) {
+            return Character.class;
+        } else if (primitive == short.class) {
+            return Short.class;
+        } else if (primitive == int.class) {
+            return Integer.class;
+        } else if (primitive == long.class) {
+            return Long.class;
+        } else if (primitive == float.class) {
+            return Float.class;
+        } else {
+            return Double.class;
+        }
+    }
+}
@@ -46,7 +46,9 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.glassfish.jersey.FeaturesAndProperties;
 import org.glassfish.jersey.internal.inject.Providers;
+import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider;
 
@@ -67,6 +69,10 @@ import org.jvnet.hk2.annotations.Scoped;
  * invocation handler} instance retrieved from the providers. If no custom providers
  * are available, or if none of the providers returns a non-null invocation handler,
  * in such case a default invocation handler provided by the factory is returned.
+ * <p />
+ * If the {@link ServerProperties#RESOURCE_METHOD_DISPATCH_GENERATED generated dispatch}
+ * is enabled, the default invocation handler invokes the resource methods directly using
+ * a {@link GeneratedInvocationHandlers generated} bytecode instead of reflection, if possible.
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
@@ -83,11 +89,23 @@ final class ResourceMethodInvocationHandlerFactory implements ResourceMethodInvo
     };
     private static final Logger LOGGER = Logger.getLogger(ResourceMethodInvocationHandlerFactory.class.getName());
     private final Set<ResourceMethodInvocationHandlerProvider> providers;
+    private final Services services;
+    private Boolean generatedDispatch;
 
     ResourceMethodInvocationHandlerFactory(@Inject Services services) {
+        this.services = services;
         providers = Providers.getProviders(services, ResourceMethodInvocationHandlerProvider.class);
     }
 
+    private boolean isGeneratedDispatch() {
+        if (generatedDispatch == null) {
+            final FeaturesAndProperties properties = services.forContract(FeaturesAndProperties.class).get();
+            generatedDispatch = properties != null
+                    && properties.isProperty(ServerProperties.RESOURCE_METHOD_DISPATCH_GENERATED);
+        }
+        return generatedDispatch;
+    }
+
     // ResourceMethodInvocationHandlerProvider
     @Override
     public InvocationHandler create(Invocable resourceMethod) {
@@ -104,6 +122,12 @@ final class ResourceMethodInvocationHandlerFactory implements ResourceMethodInvo
             }
         }
 
+        if (isGeneratedDispatch()) {
+            final InvocationHandler handler = GeneratedInvocationHandlers.create(resourceMethod.getHandlingMethod());
+            if (handler != null) {
+                return handler;
+            }
+        }
         return DEFAULT_HANDLER;
     }
 }
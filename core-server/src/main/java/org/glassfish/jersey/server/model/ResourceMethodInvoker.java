@@ -40,37 +40,67 @@
 package org.glassfish.jersey.server.model;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.container.DynamicBinder;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ReaderInterceptor;
 import javax.ws.rs.ext.WriterInterceptor;
 
+import org.glassfish.jersey.internal.inject.Providers;
 import org.glassfish.jersey.process.Inflector;
 import org.glassfish.jersey.process.internal.InvocationContext;
+import org.glassfish.jersey.process.internal.PriorityComparator;
+import org.glassfish.jersey.process.internal.RequestScope;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.internal.routing.RoutingContext;
+import org.glassfish.jersey.server.spi.ExecutorRouter;
 import org.glassfish.jersey.server.spi.internal.ResourceMethodDispatcher;
 import org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider;
 
 import org.glassfish.hk2.Factory;
+import org.glassfish.hk2.Services;
+import org.glassfish.hk2.inject.Injector;
 
 import org.jvnet.hk2.annotations.Inject;
 
 /**
  * Server-side request-response {@link Inflector inflector} for invoking methods
  * of annotation-based resource classes.
+ * <p>
+ * If an {@link ExecutorRouter executor router} routes the resource method to an executor,
+ * the request processing is suspended and the resource method is invoked using the executor
+ * in the same request scope. The processing is then resumed with the produced response.
+ * </p>
+ * <p>
+ * The bound filters and interceptors as well as the complete filter chains (global filters
+ * merged with the bound ones) are resolved and sorted once, when the invoker is built,
+ * so that the request processing stages can iterate over them without copying or sorting.
+ * </p>
+ * <p>
+ * Providers returned by the {@link DynamicBinder dynamic binders} are injected the same way
+ * as the resource instances, so that they may use {@code @Context} fields. A provider instance
+ * bound to several resource methods is injected only once.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  * @author Martin Matula (martin.matula at oracle.com)
@@ -79,14 +109,20 @@ public class ResourceMethodInvoker implements Inflector<ContainerRequest, Contai
 
     private final Factory<RoutingContext> routingContextFactory;
     private final Factory<InvocationContext> invocationContextFactory;
+    private final RequestScope requestScope;
+    private final Executor executor;
     private final ResourceMethod method;
     private final ResourceMethodDispatcher dispatcher;
     private final Method resourceMethod;
     private final Class<?> resourceClass;
-    private final Collection<ContainerRequestFilter> requestFilters = new HashSet<ContainerRequestFilter>();
-    private final Collection<ContainerResponseFilter> responseFilters = new HashSet<ContainerResponseFilter>();
-    private final Collection<ReaderInterceptor> readerInterceptors = new HashSet<ReaderInterceptor>();
-    private final Collection<WriterInterceptor> writerInterceptors = new HashSet<WriterInterceptor>();
+    private final Annotation[] methodAnnotations;
+    private final Type invocableResponseType;
+    private final List<ContainerRequestFilter> requestFilters;
+    private final List<ContainerResponseFilter> responseFilters;
+    private final List<ReaderInterceptor> readerInterceptors;
+    private final List<WriterInterceptor> writerInterceptors;
+    private final List<ContainerRequestFilter> requestFilterChain;
+    private final List<ContainerResponseFilter> responseFilterChain;
 
     /**
      * Resource method invoker "assisted" injection helper.
@@ -104,6 +140,14 @@ public class ResourceMethodInvoker implements Inflector<ContainerRequest, Contai
         private ResourceMethodDispatcherFactory dispatcherProviderFactory;
         @Inject
         private ResourceMethodInvocationHandlerFactory invocationHandlerProviderFactory;
+        @Inject
+        private RequestScope requestScope;
+        @Inject
+        private Services services;
+
+        private List<ExecutorRouter> executorRouters;
+        private final Set<Object> injectedProviders =
+                Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
 
         /**
          * Build a new resource method invoker instance.
@@ -118,30 +162,98 @@ public class ResourceMethodInvoker implements Inflector<ContainerRequest, Contai
             MultivaluedMap<Class<? extends Annotation>, ContainerRequestFilter> nameBoundRequestFilters,
             MultivaluedMap<Class<? extends Annotation>, ContainerResponseFilter> nameBoundResponseFilters,
             Collection<DynamicBinder> dynamicBinders
+        ) {
+            return build(method,
+                    Collections.<ContainerRequestFilter>emptyList(),
+                    Collections.<ContainerResponseFilter>emptyList(),
+                    nameBoundRequestFilters,
+                    nameBoundResponseFilters,
+                    dynamicBinders);
+        }
+
+        /**
+         * Build a new resource method invoker instance with pre-compiled filter chains.
+         *
+         * @param method resource method model.
+         * @param globalRequestFilters global post-matching request filters.
+         * @param globalResponseFilters global response filters.
+         * @param nameBoundRequestFilters name bound request filters.
+         * @param nameBoundResponseFilters name bound response filters.
+         * @param dynamicBinders dynamic binders.
+         * @return new resource method invoker instance.
+         */
+        public ResourceMethodInvoker build(ResourceMethod method,
+            Collection<ContainerRequestFilter> globalRequestFilters,
+            Collection<ContainerResponseFilter> globalResponseFilters,
+            MultivaluedMap<Class<? extends Annotation>, ContainerRequestFilter> nameBoundRequestFilters,
+            MultivaluedMap<Class<? extends Annotation>, ContainerResponseFilter> nameBoundResponseFilters,
+            Collection<DynamicBinder> dynamicBinders
         ) {
             return new ResourceMethodInvoker(
                     routingContextFactory,
                     invocationContextFactory,
+                    requestScope,
+                    getExecutor(method),
                     dispatcherProviderFactory,
                     invocationHandlerProviderFactory,
+                    services.byType(Injector.class).get(),
+                    injectedProviders,
                     method,
+                    globalRequestFilters,
+                    globalResponseFilters,
                     nameBoundRequestFilters,
                     nameBoundResponseFilters,
                     dynamicBinders);
         }
+
+        /**
+         * Get the invocation handler used to invoke the Java method of the invocable
+         * resource method, sub-resource method or sub-resource locator.
+         *
+         * @param invocable invocable resource method.
+         * @return invocation handler for the invocable resource method.
+         */
+        public InvocationHandler getInvocationHandler(Invocable invocable) {
+            return invocationHandlerProviderFactory.create(invocable);
+        }
+
+        private Executor getExecutor(final ResourceMethod method) {
+            if (method.isSuspendDeclared()) {
+                // suspendable resource methods are resumed by the application
+                return null;
+            }
+            if (executorRouters == null) {
+                executorRouters = Providers.getAllProviders(services, ExecutorRouter.class);
+            }
+            for (ExecutorRouter router : executorRouters) {
+                final Executor executor = router.getExecutor(method);
+                if (executor != null) {
+                    return executor;
+                }
+            }
+            return null;
+        }
     }
 
     private ResourceMethodInvoker(
             Factory<RoutingContext> routingContextFactory,
             Factory<InvocationContext> invocationContextFactory,
+            RequestScope requestScope,
+            Executor executor,
             ResourceMethodDispatcher.Provider dispatcherProvider,
             ResourceMethodInvocationHandlerProvider invocationHandlerProvider,
+            Injector injector,
+            Set<Object> injectedProviders,
             ResourceMethod method,
+            Collection<ContainerRequestFilter> globalRequestFilters,
+            Collection<ContainerResponseFilter> globalResponseFilters,
             MultivaluedMap<Class<? extends Annotation>, ContainerRequestFilter> nameBoundRequestFilters,
             MultivaluedMap<Class<? extends Annotation>, ContainerResponseFilter> nameBoundResponseFilters,
             Collection<DynamicBinder> dynamicBinders) {
         this.routingContextFactory = routingContextFactory;
         this.invocationContextFactory = invocationContextFactory;
+        this.requestScope = requestScope;
+        this.executor = executor;
 
         this.method = method;
         final Invocable invocable = method.getInvocable();
@@ -149,53 +261,97 @@ public class ResourceMethodInvoker implements Inflector<ContainerRequest, Contai
 
         this.resourceMethod = invocable.getHandlingMethod();
         this.resourceClass = invocable.getHandler().getHandlerClass();
+        // the per-method response metadata are computed once rather than on every request;
+        // the annotations are shared by the responses and copied only if a filter or interceptor asks for them
+        this.methodAnnotations = resourceMethod.getDeclaredAnnotations();
+        this.invocableResponseType = getOverridingResponseType(invocable);
+
+        final Collection<ContainerRequestFilter> boundRequestFilters = new HashSet<ContainerRequestFilter>();
+        final Collection<ContainerResponseFilter> boundResponseFilters = new HashSet<ContainerResponseFilter>();
+        final Collection<ReaderInterceptor> boundReaderInterceptors = new HashSet<ReaderInterceptor>();
+        final Collection<WriterInterceptor> boundWriterInterceptors = new HashSet<WriterInterceptor>();
 
         for (DynamicBinder dynamicBinder : dynamicBinders) {
             Object boundProvider = dynamicBinder.getBoundProvider(this);
+            if (boundProvider == null) {
+                continue;
+            }
+            if (injectedProviders.add(boundProvider)) {
+                injector.inject(boundProvider);
+            }
 
             // TODO: should be based on the type arg. value rather than instanceof?
             if (boundProvider instanceof WriterInterceptor) {
-                writerInterceptors.add((WriterInterceptor) boundProvider);
+                boundWriterInterceptors.add((WriterInterceptor) boundProvider);
             }
 
             if (boundProvider instanceof ReaderInterceptor) {
-                readerInterceptors.add((ReaderInterceptor) boundProvider);
+                boundReaderInterceptors.add((ReaderInterceptor) boundProvider);
             }
 
             if (boundProvider instanceof ContainerRequestFilter) {
-                this.requestFilters.add((ContainerRequestFilter) boundProvider);
+                boundRequestFilters.add((ContainerRequestFilter) boundProvider);
             }
 
             if (boundProvider instanceof ContainerResponseFilter) {
-                this.responseFilters.add((ContainerResponseFilter) boundProvider);
+                boundResponseFilters.add((ContainerResponseFilter) boundProvider);
             }
         }
 
         if (resourceMethod != null) {
-            addNameBoundFilters(nameBoundRequestFilters, nameBoundResponseFilters, method);
+            addNameBoundFilters(nameBoundRequestFilters, nameBoundResponseFilters, method,
+                    boundRequestFilters, boundResponseFilters);
         }
         if (resourceClass != null) {
-            addNameBoundFilters(nameBoundRequestFilters, nameBoundResponseFilters, method);
+            addNameBoundFilters(nameBoundRequestFilters, nameBoundResponseFilters, method,
+                    boundRequestFilters, boundResponseFilters);
         }
+
+        final Comparator<ContainerRequestFilter> requestFilterComparator =
+                new PriorityComparator<ContainerRequestFilter>(PriorityComparator.Order.ASCENDING);
+        final Comparator<ContainerResponseFilter> responseFilterComparator =
+                new PriorityComparator<ContainerResponseFilter>(PriorityComparator.Order.DESCENDING);
+
+        this.requestFilters = sorted(Collections.<ContainerRequestFilter>emptyList(), boundRequestFilters,
+                requestFilterComparator);
+        this.responseFilters = sorted(Collections.<ContainerResponseFilter>emptyList(), boundResponseFilters,
+                responseFilterComparator);
+        this.readerInterceptors = sorted(Collections.<ReaderInterceptor>emptyList(), boundReaderInterceptors,
+                new PriorityComparator<ReaderInterceptor>(PriorityComparator.Order.ASCENDING));
+        this.writerInterceptors = sorted(Collections.<WriterInterceptor>emptyList(), boundWriterInterceptors,
+                new PriorityComparator<WriterInterceptor>(PriorityComparator.Order.ASCENDING));
+
+        this.requestFilterChain = sorted(globalRequestFilters, boundRequestFilters, requestFilterComparator);
+        this.responseFilterChain = sorted(globalResponseFilters, boundResponseFilters, responseFilterComparator);
     }
 
-    private void addNameBoundFilters(
+    private static void addNameBoundFilters(
             MultivaluedMap<Class<? extends Annotation>, ContainerRequestFilter> nameBoundRequestFilters,
             MultivaluedMap<Class<? extends Annotation>, ContainerResponseFilter> nameBoundResponseFilters,
-            ResourceMethod method
+            ResourceMethod method,
+            Collection<ContainerRequestFilter> requestFilters,
+            Collection<ContainerResponseFilter> responseFilters
     ) {
         for (Class<? extends Annotation> nameBinding : method.getNameBindings()) {
             List<ContainerRequestFilter> reqF = nameBoundRequestFilters.get(nameBinding);
             if (reqF != null) {
-                this.requestFilters.addAll(reqF);
+                requestFilters.addAll(reqF);
             }
             List<ContainerResponseFilter> resF = nameBoundResponseFilters.get(nameBinding);
             if (resF != null) {
-                this.responseFilters.addAll(resF);
+                responseFilters.addAll(resF);
             }
         }
     }
 
+    private static <T> List<T> sorted(Collection<T> global, Collection<T> bound, Comparator<T> comparator) {
+        final List<T> result = new ArrayList<T>(global.size() + bound.size());
+        result.addAll(global);
+        result.addAll(bound);
+        Collections.sort(result, comparator);
+        return Collections.unmodifiableList(result);
+    }
+
     @Override
     public Method getResourceMethod() {
         return resourceMethod;
@@ -208,6 +364,42 @@ public class ResourceMethodInvoker implements Inflector<ContainerRequest, Contai
 
     @Override
     public ContainerResponse apply(final ContainerRequest requestContext) {
+        if (executor == null) {
+            return invoke(requestContext);
+        }
+
+        final InvocationContext invocationCtx = invocationContextFactory.get();
+        final RequestScope.Instance scopeInstance = requestScope.suspendCurrent();
+        invocationCtx.suspend();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        requestScope.runInScope(scopeInstance, new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    invocationCtx.resume(invoke(requestContext));
+                                } catch (Throwable t) {
+                                    invocationCtx.resume(t);
+                                }
+                            }
+                        });
+                    } finally {
+                        scopeInstance.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            scopeInstance.release();
+            invocationCtx.resume(new WebApplicationException(ex, Response.Status.SERVICE_UNAVAILABLE));
+        }
+        // the response is provided by resuming the suspended invocation context
+        return null;
+    }
+
+    private ContainerResponse invoke(final ContainerRequest requestContext) {
         final Object resource = routingContextFactory.get().peekMatchedResource();
 
         final InvocationContext invocationCtx = invocationContextFactory.get();
@@ -223,19 +415,36 @@ public class ResourceMethodInvoker implements Inflector<ContainerRequest, Contai
         }
 
         final ContainerResponse responseContext = new ContainerResponse(requestContext, response);
-        final Invocable invocable = method.getInvocable();
-        responseContext.setEntityAnnotations(invocable.getHandlingMethod().getDeclaredAnnotations());
+        responseContext.getWrappedMessageContext().setSharedEntityAnnotations(methodAnnotations);
 
-        if (responseContext.hasEntity() && !(responseContext.getEntityType() instanceof ParameterizedType)) {
-            Type invocableType = invocable.getResponseType();
-            if (invocableType != null && Void.TYPE != invocableType && Void.class != invocableType && invocableType != Response.class) {
-                responseContext.setEntityType(invocableType);
-            }
+        if (invocableResponseType != null
+                && responseContext.hasEntity()
+                && !(responseContext.getEntityType() instanceof ParameterizedType)) {
+            responseContext.setEntityType(invocableResponseType);
         }
 
         return responseContext;
     }
 
+    /**
+     * Get the invocable response type that should override the type of a returned
+     * non-generic response entity.
+     *
+     * @param invocable resource method invocable.
+     * @return overriding response type or {@code null} if the type of the returned entity
+     *         should not be overridden.
+     */
+    private static Type getOverridingResponseType(Invocable invocable) {
+        final Type invocableType = invocable.getResponseType();
+        if (invocableType == null
+                || Void.TYPE == invocableType
+                || Void.class == invocableType
+                || invocableType == Response.class) {
+            return null;
+        }
+        return invocableType;
+    }
+
     /**
      * Get all bound request filters applicable to the {@link #getResourceMethod() resource method}
      * wrapped by this invoker.
@@ -258,6 +467,34 @@ public class ResourceMethodInvoker implements Inflector<ContainerRequest, Contai
         return responseFilters;
     }
 
+    /**
+     * Get the complete, priority-sorted chain of post-matching request filters to be executed
+     * before the {@link #getResourceMethod() resource method} is invoked.
+     * <p>
+     * The returned list consists of the global post-matching filters and all the bound filters
+     * and is not modifiable.
+     * </p>
+     *
+     * @return sorted chain of post-matching request filters.
+     */
+    public List<ContainerRequestFilter> getRequestFilterChain() {
+        return requestFilterChain;
+    }
+
+    /**
+     * Get the complete, priority-sorted chain of response filters to be executed on the response
+     * produced by the {@link #getResourceMethod() resource method}.
+     * <p>
+     * The returned list consists of the global response filters and all the bound filters
+     * and is not modifiable.
+     * </p>
+     *
+     * @return sorted chain of response filters.
+     */
+    public List<ContainerResponseFilter> getResponseFilterChain() {
+        return responseFilterChain;
+    }
+
     /**
      * Get all <b>dynamically</b> bound reader interceptors applicable to the {@link #getResourceMethod() resource method}
      * wrapped by this invoker.
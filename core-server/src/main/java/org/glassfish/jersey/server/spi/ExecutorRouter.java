@@ -0,0 +1,82 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.spi;
+
+import java.util.concurrent.Executor;
+
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.spi.Contract;
+
+/**
+ * Service-provider interface for routing the invocations of resource methods to
+ * dedicated {@link Executor executors}.
+ * <p>
+ * By default a resource method is invoked on the thread that processes the request
+ * (i.e. the {@link org.glassfish.jersey.spi.RequestExecutorsProvider requesting executor} thread).
+ * When an executor router returns an executor for a resource method, the request processing is
+ * suspended once the request is matched to the resource method and the resource method is invoked
+ * using the returned executor. Once the resource method invocation finishes, the request processing is
+ * resumed with the produced response. Should the executor reject the invocation, the request is
+ * completed with a {@code 503 Service Unavailable} response.
+ * </p>
+ * <p>
+ * The custom router implementing this interface should be registered in the standard way on the server.
+ * In case multiple routers are registered, the first router returning a non-{@code null} executor
+ * for a resource method wins.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @see org.glassfish.jersey.server.BulkheadExecutorRouter
+ */
+@Contract
+public interface ExecutorRouter {
+    /**
+     * Get the executor to be used to invoke the resource method.
+     * <p/>
+     * This method is called only once for each resource method at Jersey initialization,
+     * before the first request is processed. The routing decision may be based on the resource
+     * method model, its handling Java method, resource class or annotations.
+     *
+     * @param method resource method model.
+     * @return executor to invoke the resource method, or {@code null} if the resource method
+     *     should be invoked on the request processing thread.
+     */
+    public Executor getExecutor(ResourceMethod method);
+}
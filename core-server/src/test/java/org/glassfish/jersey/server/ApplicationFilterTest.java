@@ -39,16 +39,29 @@
  */
 package org.glassfish.jersey.server;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.BindingPriority;
+import javax.ws.rs.GET;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.Path;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.DynamicBinder;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
 
 import org.glassfish.jersey.internal.inject.ProviderInstanceBindingModule;
 import org.glassfish.jersey.process.Inflector;
@@ -231,6 +244,79 @@ public class ApplicationFilterTest {
         assertEquals(200, application.apply(RequestContextBuilder.from("/test", "GET").build()).get().getStatus());
     }
 
+    public abstract class RecordingResponseFilter implements ContainerResponseFilter {
+
+        private final List<Integer> calls;
+        private final int priority;
+
+        protected RecordingResponseFilter(List<Integer> calls, int priority) {
+            this.calls = calls;
+            this.priority = priority;
+        }
+
+        @Override
+        public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+            calls.add(priority);
+        }
+    }
+
+    @BindingPriority(1)
+    public class ResponseFilter1 extends RecordingResponseFilter {
+
+        public ResponseFilter1(List<Integer> calls) {
+            super(calls, 1);
+        }
+    }
+
+    @BindingPriority(10)
+    public class ResponseFilter10 extends RecordingResponseFilter {
+
+        public ResponseFilter10(List<Integer> calls) {
+            super(calls, 10);
+        }
+    }
+
+    @BindingPriority(100)
+    public class ResponseFilter100 extends RecordingResponseFilter {
+
+        public ResponseFilter100(List<Integer> calls) {
+            super(calls, 100);
+        }
+    }
+
+    @Test
+    public void testMultipleResponseFiltersWithBindingPriority() throws Exception {
+        final List<Integer> calls = Lists.newArrayList();
+
+        List<ContainerResponseFilter> responseFilterList = Lists.newArrayList();
+        responseFilterList.add(new ResponseFilter10(calls));
+        responseFilterList.add(new ResponseFilter1(calls));
+        responseFilterList.add(new ResponseFilter100(calls));
+
+        final ResourceConfig resourceConfig = new ResourceConfig().addModules(
+                new ProviderInstanceBindingModule<ContainerResponseFilter>(responseFilterList, ContainerResponseFilter.class));
+
+        Resource.Builder rb = Resource.builder("test");
+        rb.addMethod("GET").handledBy(new Inflector<ContainerRequestContext, Response>() {
+
+            @Override
+            public Response apply(ContainerRequestContext request) {
+                return Response.ok().build();
+            }
+        });
+        resourceConfig.addResources(rb.build());
+        final ApplicationHandler application = new ApplicationHandler(resourceConfig);
+
+        // matched resource method
+        assertEquals(200, application.apply(RequestContextBuilder.from("/test", "GET").build()).get().getStatus());
+        assertEquals(Lists.newArrayList(100, 10, 1), calls);
+
+        // repeated request uses the same pre-sorted chain
+        calls.clear();
+        assertEquals(200, application.apply(RequestContextBuilder.from("/test", "GET").build()).get().getStatus());
+        assertEquals(Lists.newArrayList(100, 10, 1), calls);
+    }
+
     public class ExceptionFilter implements ContainerRequestFilter {
         @Override
         public void filter(ContainerRequestContext context) throws IOException {
@@ -260,4 +346,122 @@ public class ApplicationFilterTest {
 
         assertEquals(500, application.apply(RequestContextBuilder.from("/test", "GET").build()).get().getStatus());
     }
+
+    @Path("bound")
+    public static class BoundResource {
+
+        @GET
+        public String get() {
+            return "bound";
+        }
+    }
+
+    public static class ContextFilter implements ContainerRequestFilter {
+
+        @Context
+        private UriInfo uriInfo;
+        @Context
+        private CloseableService closeableService;
+
+        private final List<String> paths;
+        private final CountDownLatch closed;
+
+        public ContextFilter(List<String> paths, CountDownLatch closed) {
+            this.paths = paths;
+            this.closed = closed;
+        }
+
+        @Override
+        public void filter(ContainerRequestContext context) throws IOException {
+            paths.add(uriInfo.getPath());
+            closeableService.add(new Closeable() {
+
+                @Override
+                public void close() {
+                    closed.countDown();
+                }
+            });
+        }
+    }
+
+    public static class ContextFilterBinder implements DynamicBinder<ContainerRequestFilter> {
+
+        private final List<String> paths;
+        private final CountDownLatch closed;
+
+        public ContextFilterBinder(List<String> paths, CountDownLatch closed) {
+            this.paths = paths;
+            this.closed = closed;
+        }
+
+        @Override
+        public ContainerRequestFilter getBoundProvider(ResourceInfo resourceInfo) {
+            return new ContextFilter(paths, closed);
+        }
+    }
+
+    @Test
+    public void testDynamicallyBoundFilterInjection() throws Exception {
+        final List<String> paths = Lists.newArrayList();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        final ResourceConfig resourceConfig = new ResourceConfig(BoundResource.class)
+                .addSingletons(new ContextFilterBinder(paths, closed));
+        final ApplicationHandler application = new ApplicationHandler(resourceConfig);
+
+        assertEquals(200, application.apply(RequestContextBuilder.from("/bound", "GET").build()).get().getStatus());
+        assertEquals(Lists.newArrayList("bound"), paths);
+        // closeables registered by the bound filter are closed when the request processing is released
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Path("annotated")
+    public static class AnnotatedResource {
+
+        @GET
+        public String get() {
+            return "annotated";
+        }
+    }
+
+    public static class AnnotationModifyingFilter implements ContainerResponseFilter, WriterInterceptor {
+
+        private final List<Annotation> filtered = Lists.newArrayList();
+        private final List<Annotation> intercepted = Lists.newArrayList();
+
+        @Override
+        public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+                throws IOException {
+            final Annotation[] annotations = responseContext.getEntityAnnotations();
+            filtered.add(annotations[0]);
+            annotations[0] = AnnotatedResource.class.getAnnotation(Path.class);
+        }
+
+        @Override
+        public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+            final Annotation[] annotations = context.getAnnotations();
+            intercepted.add(annotations[0]);
+            annotations[0] = AnnotatedResource.class.getAnnotation(Path.class);
+            context.proceed();
+        }
+    }
+
+    @Test
+    public void testEntityAnnotationModificationDoesNotLeak() throws Exception {
+        final AnnotationModifyingFilter filter = new AnnotationModifyingFilter();
+        final ApplicationHandler application = new ApplicationHandler(
+                new ResourceConfig(AnnotatedResource.class).addSingletons(filter));
+
+        for (int i = 0; i < 2; i++) {
+            final ContainerResponse response = application.apply(RequestContextBuilder.from("/annotated", "GET").build()).get();
+            assertEquals(200, response.getStatus());
+            assertEquals("annotated", response.getEntity());
+        }
+
+        // the modifications are visible later in the same response only
+        final Annotation get = AnnotatedResource.class.getMethod("get").getAnnotation(GET.class);
+        final Annotation path = AnnotatedResource.class.getAnnotation(Path.class);
+        assertEquals(Lists.newArrayList(get, get), filter.filtered);
+        assertEquals(Lists.newArrayList(path, path), filter.intercepted);
+    }
 }
@@ -0,0 +1,239 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Lists;
+
+/**
+ * {@link Broadcaster} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class BroadcasterTest {
+
+    /**
+     * Chunked response that records the written chunks. All instances share the same hash code.
+     */
+    private static class RecordingChunkedResponse extends ChunkedResponse<String> {
+        private final List<String> chunks = Collections.synchronizedList(Lists.<String>newArrayList());
+        private final CountDownLatch release;
+        private volatile boolean closed = false;
+
+        RecordingChunkedResponse(CountDownLatch release) {
+            super(String.class);
+            this.release = release;
+        }
+
+        @Override
+        public void write(String chunk) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            chunks.add(chunk);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    private static class RecordingListener implements BroadcasterOverflowListener<String> {
+        private final List<String> overflown = Collections.synchronizedList(Lists.<String>newArrayList());
+        private final CountDownLatch closeLatch = new CountDownLatch(1);
+
+        @Override
+        public void onException(ChunkedResponse<String> chunkedResponse, Exception exception) {
+        }
+
+        @Override
+        public void onClose(ChunkedResponse<String> chunkedResponse) {
+            closeLatch.countDown();
+        }
+
+        @Override
+        public void onOverflow(ChunkedResponse<String> chunkedResponse, String chunk) {
+            overflown.add(chunk);
+        }
+    }
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testResponsesWithSameHashCodeAreRegistered() throws Exception {
+        final Broadcaster<String> broadcaster = new Broadcaster<String>();
+        final CountDownLatch released = new CountDownLatch(0);
+        final RecordingChunkedResponse r1 = new RecordingChunkedResponse(released);
+        final RecordingChunkedResponse r2 = new RecordingChunkedResponse(released);
+
+        assertTrue(broadcaster.add(r1));
+        assertTrue(broadcaster.add(r2));
+        assertFalse(broadcaster.add(r1));
+
+        broadcaster.broadcast("a");
+
+        assertEquals(Collections.singletonList("a"), r1.chunks);
+        assertEquals(Collections.singletonList("a"), r2.chunks);
+
+        assertTrue(broadcaster.remove(r1));
+        broadcaster.broadcast("b");
+
+        assertEquals(Collections.singletonList("a"), r1.chunks);
+        assertEquals(Lists.newArrayList("a", "b"), r2.chunks);
+    }
+
+    @Test
+    public void testSlowResponseDoesNotBlockOthers() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 10, Broadcaster.OverflowPolicy.DROP_OLDEST);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final RecordingChunkedResponse slow = new RecordingChunkedResponse(blocked);
+        final RecordingChunkedResponse fast = new RecordingChunkedResponse(new CountDownLatch(0));
+        final RecordingListener listener = new RecordingListener();
+
+        broadcaster.add(slow);
+        broadcaster.add(fast);
+        broadcaster.addBroadcasterListener(listener);
+
+        broadcaster.broadcast("a");
+        broadcaster.broadcast("b");
+        broadcaster.closeAll();
+
+        assertTrue(listener.closeLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(Lists.newArrayList("a", "b"), fast.chunks);
+        assertTrue(fast.isClosed());
+        assertTrue(slow.chunks.isEmpty());
+
+        blocked.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(Lists.newArrayList("a", "b"), slow.chunks);
+        assertTrue(slow.isClosed());
+    }
+
+    @Test
+    public void testDropOldestOverflowPolicy() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 2, Broadcaster.OverflowPolicy.DROP_OLDEST);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final RecordingChunkedResponse slow = new RecordingChunkedResponse(blocked);
+        final RecordingListener listener = new RecordingListener();
+
+        broadcaster.add(slow);
+        broadcaster.addBroadcasterListener(listener);
+
+        // the first chunk is taken from the queue by the draining task that blocks on writing it
+        broadcaster.broadcast("a");
+        Thread.sleep(100);
+        broadcaster.broadcast("b");
+        broadcaster.broadcast("c");
+        broadcaster.broadcast("d");
+
+        assertEquals(Collections.singletonList("b"), listener.overflown);
+
+        blocked.countDown();
+        broadcaster.closeAll();
+        assertTrue(listener.closeLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(Lists.newArrayList("a", "c", "d"), slow.chunks);
+    }
+
+    @Test
+    public void testDisconnectOverflowPolicy() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 1, Broadcaster.OverflowPolicy.DISCONNECT);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final RecordingChunkedResponse slow = new RecordingChunkedResponse(blocked);
+        final RecordingListener listener = new RecordingListener();
+
+        broadcaster.add(slow);
+        broadcaster.addBroadcasterListener(listener);
+
+        // the first chunk is taken from the queue by the draining task that blocks on writing it
+        broadcaster.broadcast("a");
+        Thread.sleep(100);
+        broadcaster.broadcast("b");
+        broadcaster.broadcast("c");
+
+        assertEquals(Collections.singletonList("c"), listener.overflown);
+        // already unregistered
+        assertFalse(broadcaster.remove(slow));
+
+        blocked.countDown();
+        assertTrue(listener.closeLatch.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.isClosed());
+    }
+}
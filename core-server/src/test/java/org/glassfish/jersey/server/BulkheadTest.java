@@ -0,0 +1,156 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test routing of resource method invocations to {@link Bulkhead bulkheads}.
+ *
+ * @author agent (agent at local)
+ */
+public class BulkheadTest {
+
+    private static volatile CountDownLatch started;
+    private static volatile CountDownLatch release;
+
+    private Bulkhead bulkhead;
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        @Path("routed")
+        @ExecutionPool("test")
+        public String routed() {
+            return Thread.currentThread().getName();
+        }
+
+        @GET
+        @Path("blocking")
+        @ExecutionPool("test")
+        public String blocking() throws InterruptedException {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "released";
+        }
+
+        @GET
+        @Path("direct")
+        public String direct() {
+            return Thread.currentThread().getName();
+        }
+    }
+
+    @Path("/pooled")
+    @ExecutionPool("test")
+    public static class PooledResource {
+
+        @GET
+        public String get() {
+            return Thread.currentThread().getName();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (bulkhead != null) {
+            bulkhead.shutdown();
+        }
+    }
+
+    private ApplicationHandler createApplication(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+        return new ApplicationHandler(new ResourceConfig(Resource.class, PooledResource.class)
+                .addSingletons(new BulkheadExecutorRouter(bulkhead)));
+    }
+
+    @Test
+    public void testRoutedInvocation() throws Exception {
+        final ApplicationHandler app = createApplication(Bulkhead.builder("test").maxConcurrency(2).build());
+
+        ContainerResponse response = app.apply(RequestContextBuilder.from("/routed", "GET").build()).get();
+        assertEquals(200, response.getStatus());
+        assertTrue(((String) response.getEntity()).startsWith("jersey-bulkhead-test-"));
+
+        response = app.apply(RequestContextBuilder.from("/pooled", "GET").build()).get();
+        assertEquals(200, response.getStatus());
+        assertTrue(((String) response.getEntity()).startsWith("jersey-bulkhead-test-"));
+
+        response = app.apply(RequestContextBuilder.from("/direct", "GET").build()).get();
+        assertEquals(200, response.getStatus());
+        assertFalse(((String) response.getEntity()).startsWith("jersey-bulkhead-"));
+
+        assertEquals(0, bulkhead.getRejectedCount());
+    }
+
+    @Test
+    public void testRejectedInvocation() throws Exception {
+        final ApplicationHandler app = createApplication(
+                Bulkhead.builder("test").maxConcurrency(1).maxQueueSize(0).build());
+
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+
+        final Future<ContainerResponse> blocked = app.apply(RequestContextBuilder.from("/blocking", "GET").build());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertEquals(1, bulkhead.getActiveCount());
+
+        ContainerResponse response = app.apply(RequestContextBuilder.from("/routed", "GET").build()).get();
+        assertEquals(503, response.getStatus());
+        assertEquals(1, bulkhead.getRejectedCount());
+
+        release.countDown();
+        response = blocked.get(10, TimeUnit.SECONDS);
+        assertEquals(200, response.getStatus());
+        assertEquals("released", response.getEntity());
+    }
+}
@@ -39,14 +39,24 @@
  */
 package org.glassfish.jersey.server;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
 
 import org.junit.Test;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 
 /**
@@ -87,4 +97,78 @@ public class ChunkedResponseTest {
         ContainerResponse response = applicationHandler.apply(RequestContextBuilder.from("/test", "GET").build()).get();
         assertEquals(200, response.getStatus());
     }
+
+    public static class Chunk {
+        private final String value;
+
+        public Chunk(String value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Writer that flushes the entity stream after each written chunk.
+     */
+    public static class FlushingChunkWriter implements MessageBodyWriter<Chunk> {
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == Chunk.class;
+        }
+
+        @Override
+        public long getSize(Chunk chunk, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Chunk chunk, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            entityStream.write(chunk.value.getBytes());
+            entityStream.flush();
+        }
+    }
+
+    @Path("/batch")
+    public static class BatchResource {
+        @GET
+        public ChunkedResponse<Chunk> get() throws IOException {
+            final ChunkedResponse<Chunk> response = new ChunkedResponse<Chunk>(Chunk.class);
+
+            // all chunks are queued before the response is returned
+            for (int i = 0; i < 10; i++) {
+                response.write(new Chunk(Integer.toString(i)));
+            }
+            response.writeEncoded("a".getBytes());
+            response.writeEncoded(ByteBuffer.wrap("xbx".getBytes(), 1, 1));
+            response.write(new Chunk("c"));
+            response.close();
+
+            return response;
+        }
+    }
+
+    private static class FlushCountingOutputStream extends ByteArrayOutputStream {
+        private int flushCount = 0;
+
+        @Override
+        public void flush() throws IOException {
+            flushCount++;
+        }
+    }
+
+    @Test
+    public void testQueuedChunksWrittenInSingleBatch() throws Exception {
+        final ResourceConfig resourceConfig =
+                new ResourceConfig(BatchResource.class, ChunkedResponseWriter.class, FlushingChunkWriter.class);
+        final ApplicationHandler applicationHandler = new ApplicationHandler(resourceConfig);
+        final FlushCountingOutputStream output = new FlushCountingOutputStream();
+
+        ContainerResponse response = applicationHandler.apply(RequestContextBuilder.from("/batch", "GET").build(), output).get();
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789abc", output.toString());
+        // one flush on response commit, one flush for the whole batch of queued chunks
+        assertTrue("Unexpected number of flushes: " + output.flushCount, output.flushCount <= 2);
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.filter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.glassfish.jersey.message.internal.FileRegion;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ByteRangeFilter} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class ByteRangeFilterTest {
+
+    private static File file;
+
+    private ApplicationHandler handler;
+
+    @Path("/resource")
+    public static class Resource {
+        @GET
+        @Produces("application/octet-stream")
+        public File get() {
+            return file;
+        }
+
+        @GET
+        @Path("text")
+        public String text() {
+            return "text";
+        }
+    }
+
+    @BeforeClass
+    public static void createFile() throws IOException {
+        file = File.createTempFile("jersey-range", ".bin");
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write("0123456789".getBytes("ASCII"));
+        } finally {
+            out.close();
+        }
+    }
+
+    @AfterClass
+    public static void deleteFile() {
+        file.delete();
+    }
+
+    @Before
+    public void setUp() {
+        handler = new ApplicationHandler(new ResourceConfig(Resource.class, ByteRangeFilter.class));
+    }
+
+    private ContainerResponse get(String path, String range) throws Exception {
+        final RequestContextBuilder builder = RequestContextBuilder.from("", path, "GET");
+        if (range != null) {
+            builder.header(ByteRangeFilter.RANGE, range);
+        }
+        return handler.apply(builder.build()).get();
+    }
+
+    @Test
+    public void testNoRange() throws Exception {
+        ContainerResponse response = get("/resource", null);
+        assertEquals(200, response.getStatus());
+        assertEquals(file, response.getEntity());
+        assertEquals("bytes", response.getHeaderString(ByteRangeFilter.ACCEPT_RANGES));
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        ContainerResponse response = get("/resource", "bytes=2-5");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeaderString(ByteRangeFilter.CONTENT_RANGE));
+        FileRegion region = (FileRegion) response.getEntity();
+        assertEquals(2, region.getPosition());
+        assertEquals(4, region.getCount());
+    }
+
+    @Test
+    public void testSuffixRange() throws Exception {
+        ContainerResponse response = get("/resource", "bytes=-3");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 7-9/10", response.getHeaderString(ByteRangeFilter.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testUnsatisfiableRange() throws Exception {
+        ContainerResponse response = get("/resource", "bytes=10-");
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeaderString(ByteRangeFilter.CONTENT_RANGE));
+        assertFalse(response.hasEntity());
+    }
+
+    @Test
+    public void testMultipleRangesIgnored() throws Exception {
+        ContainerResponse response = get("/resource", "bytes=0-1,4-5");
+        assertEquals(200, response.getStatus());
+        assertEquals(file, response.getEntity());
+    }
+
+    @Test
+    public void testMalformedRangeIgnored() throws Exception {
+        ContainerResponse response = get("/resource", "bytes=--5");
+        assertEquals(200, response.getStatus());
+        assertEquals(file, response.getEntity());
+        assertNull(response.getHeaderString(ByteRangeFilter.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testNonFileEntityIgnored() throws Exception {
+        ContainerResponse response = get("/resource/text", "bytes=0-1");
+        assertEquals(200, response.getStatus());
+        assertEquals("text", response.getEntity());
+        assertNull(response.getHeaderString(ByteRangeFilter.ACCEPT_RANGES));
+    }
+
+    @Test
+    public void testParseRange() {
+        assertArrayEquals(new long[]{0, 9}, ByteRangeFilter.parseRange("bytes=0-", 10));
+        assertArrayEquals(new long[]{5, 9}, ByteRangeFilter.parseRange("bytes=5-100", 10));
+        assertTrue(ByteRangeFilter.parseRange("bytes=-0", 10).length == 0);
+        assertNull(ByteRangeFilter.parseRange("bytes=5-2", 10));
+        assertNull(ByteRangeFilter.parseRange("items=0-1", 10));
+        assertNull(ByteRangeFilter.parseRange("bytes=a-b", 10));
+        assertNull(ByteRangeFilter.parseRange("bytes=--5", 10));
+        assertNull(ByteRangeFilter.parseRange("bytes=-+5", 10));
+        assertNull(ByteRangeFilter.parseRange("bytes=+1-2", 10));
+        assertNull(ByteRangeFilter.parseRange("bytes=-", 10));
+        assertArrayEquals(new long[]{0, 9}, ByteRangeFilter.parseRange("bytes=-99999999999999999999", 10));
+        assertTrue(ByteRangeFilter.parseRange("bytes=99999999999999999999-", 10).length == 0);
+    }
+}
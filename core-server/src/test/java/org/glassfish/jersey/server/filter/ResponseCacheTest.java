@@ -0,0 +1,178 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link ResponseCacheDynamicBinder} tests.
+ *
+ * @author agent (agent at local)
+ */
+public class ResponseCacheTest {
+
+    private static final AtomicInteger invocations = new AtomicInteger();
+
+    @Path("/resource")
+    public static class Resource {
+
+        @GET
+        public Response get() {
+            return Response.ok("value" + invocations.incrementAndGet())
+                    .cacheControl(CacheControl.valueOf("max-age=60"))
+                    .tag(new EntityTag("v" + invocations.get()))
+                    .build();
+        }
+
+        @GET
+        @Path("private")
+        public Response getPrivate() {
+            return Response.ok("value" + invocations.incrementAndGet())
+                    .cacheControl(CacheControl.valueOf("no-store"))
+                    .build();
+        }
+
+        @GET
+        @Path("failing")
+        public Response getFailing() {
+            invocations.incrementAndGet();
+            throw new IllegalStateException("unmapped");
+        }
+    }
+
+    private ResponseCache cache;
+    private ApplicationHandler handler;
+
+    @Before
+    public void setUp() {
+        invocations.set(0);
+        cache = new ResponseCache();
+        handler = new ApplicationHandler(new ResourceConfig(Resource.class)
+                .addSingletons(new ResponseCacheDynamicBinder(cache)));
+    }
+
+    private String get(String path, String header, String value) throws Exception {
+        final RequestContextBuilder request = RequestContextBuilder.from("", path, "GET");
+        if (header != null) {
+            request.header(header, value);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ContainerResponse response = handler.apply(request.build(), out).get();
+        return response.getStatus() + ":" + out.toString();
+    }
+
+    @Test
+    public void testCachedResponse() throws Exception {
+        assertEquals("200:value1", get("/resource", null, null));
+        assertEquals("200:value1", get("/resource", null, null));
+        assertEquals(1, invocations.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        assertEquals("200:value1", get("/resource", null, null));
+        assertEquals("304:", get("/resource", HttpHeaders.IF_NONE_MATCH, "\"v1\""));
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    public void testNoCacheRequest() throws Exception {
+        assertEquals("200:value1", get("/resource", null, null));
+        assertEquals("200:value2", get("/resource", "Cache-Control", "no-cache"));
+        assertEquals("200:value2", get("/resource", null, null));
+    }
+
+    @Test
+    public void testNoStoreResponse() throws Exception {
+        assertEquals("200:value1", get("/resource/private", null, null));
+        assertEquals("200:value2", get("/resource/private", null, null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        assertEquals("200:value1", get("/resource", null, null));
+        cache.invalidate("/resource");
+        assertEquals("200:value2", get("/resource", null, null));
+
+        cache.invalidate(Resource.class);
+        assertEquals("200:value3", get("/resource", null, null));
+    }
+
+    @Test
+    public void testCookieRequest() throws Exception {
+        assertEquals("200:value1", get("/resource", HttpHeaders.COOKIE, "session=a"));
+        assertEquals("200:value2", get("/resource", HttpHeaders.COOKIE, "session=a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testNormalizedAccept() throws Exception {
+        assertEquals("200:value1", get("/resource", HttpHeaders.ACCEPT, "text/plain, */*"));
+        assertEquals("200:value1", get("/resource", HttpHeaders.ACCEPT, "Text/Plain;q=1,*/*"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test(timeout = ResponseCache.DEFAULT_LOAD_TIMEOUT / 2)
+    public void testFailedLoadIsFinished() throws Exception {
+        assertEquals("500:", get("/resource/failing", null, null));
+        // a request for the same response must not wait for the failed load
+        assertEquals("500:", get("/resource/failing", null, null));
+        assertEquals(2, invocations.get());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.MatchResult;
+
+import org.glassfish.jersey.uri.PathPattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link PathPatternRouteIndex} test.
+ *
+ * @author agent (agent at local)
+ */
+public class PathPatternRouteIndexTest {
+
+    private static final List<PathPattern> PATTERNS = Arrays.asList(
+            PathPattern.asClosed(new PathPattern("a/b/c")),
+            new PathPattern("a/b"),
+            new PathPattern("a/{x}"),
+            PathPattern.asClosed(new PathPattern("customers/{id: \\d+}")),
+            new PathPattern("customers/{id}/orders"),
+            new PathPattern("customers"),
+            new PathPattern("{any}"),
+            new PathPattern("with space/"),
+            PathPattern.END_OF_PATH_PATTERN,
+            PathPattern.OPEN_ROOT_PATH_PATTERN);
+
+    private static final String[] PATHS = {
+            null, "", "/", "/a", "/a/", "/a/b", "/a/b/", "/a/b/c", "/a/b/c/", "/a/bc", "/a/x/y",
+            "/customers", "/customers/", "/customers/123", "/customers/123/", "/customers/abc",
+            "/customers/123/orders", "/customers/123/orders/1", "/customersx", "/with%20space",
+            "/with%20space/", "/with space", "/unknown", "/unknown/path"
+    };
+
+    @Test
+    public void testLiteralPrefix() {
+        assertEquals("/a/b/c", PathPatternRouteIndex.literalPrefix(PATTERNS.get(0)));
+        assertEquals("/a/", PathPatternRouteIndex.literalPrefix(PATTERNS.get(2)));
+        assertEquals("/customers/", PathPatternRouteIndex.literalPrefix(PATTERNS.get(3)));
+        assertEquals("/", PathPatternRouteIndex.literalPrefix(PATTERNS.get(6)));
+        assertEquals("/with%20space", PathPatternRouteIndex.literalPrefix(PATTERNS.get(7)));
+        assertEquals("", PathPatternRouteIndex.literalPrefix(PathPattern.END_OF_PATH_PATTERN));
+        assertEquals("", PathPatternRouteIndex.literalPrefix(PathPattern.EMPTY_PATTERN));
+    }
+
+    @Test
+    public void testCandidates() {
+        final PathPatternRouteIndex index = new PathPatternRouteIndex(PATTERNS);
+
+        assertArrayEquals(new int[]{8, 9}, index.candidates(null));
+        assertArrayEquals(new int[]{8, 9}, index.candidates(""));
+        assertArrayEquals(new int[]{6, 8, 9}, index.candidates("/"));
+        assertArrayEquals(new int[]{0, 1, 2, 6, 8, 9}, index.candidates("/a/b/c/d"));
+        assertArrayEquals(new int[]{3, 4, 5, 6, 8, 9}, index.candidates("/customers/123"));
+        assertArrayEquals(new int[]{5, 6, 8, 9}, index.candidates("/customers"));
+        assertArrayEquals(new int[]{6, 8, 9}, index.candidates("/unknown"));
+    }
+
+    /**
+     * Verify that the index yields exactly the same first match as the linear scan.
+     */
+    @Test
+    public void testSameMatchAsLinearScan() {
+        final PathPatternRouteIndex index = new PathPatternRouteIndex(PATTERNS);
+
+        for (String path : PATHS) {
+            int expected = -1;
+            MatchResult expectedResult = null;
+            for (int i = 0; i < PATTERNS.size(); i++) {
+                expectedResult = PATTERNS.get(i).match(path);
+                if (expectedResult != null) {
+                    expected = i;
+                    break;
+                }
+            }
+
+            int actual = -1;
+            MatchResult actualResult = null;
+            for (int candidate : index.candidates(path)) {
+                actualResult = PATTERNS.get(candidate).match(path);
+                if (actualResult != null) {
+                    actual = candidate;
+                    break;
+                }
+            }
+
+            assertEquals("Unexpected match for path: " + path, expected, actual);
+            if (expected >= 0) {
+                assertEquals(expectedResult.groupCount(), actualResult.groupCount());
+                for (int g = 0; g <= expectedResult.groupCount(); g++) {
+                    assertEquals(expectedResult.group(g), actualResult.group(g));
+                }
+            }
+        }
+    }
+}
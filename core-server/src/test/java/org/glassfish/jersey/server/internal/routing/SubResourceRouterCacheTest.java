@@ -0,0 +1,171 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link SubResourceRouterCache} tests.
+ *
+ * @author agent (agent at local)
+ */
+public class SubResourceRouterCacheTest {
+
+    @Path("tenants")
+    public static class RootResource {
+
+        @Path("{id}")
+        public TenantResource getTenant(@PathParam("id") String id) {
+            return new TenantResource(id);
+        }
+
+        @Path("class")
+        public Class<ClassSubResource> getClassSubResource() {
+            return ClassSubResource.class;
+        }
+    }
+
+    public static class TenantResource {
+
+        private final String id;
+
+        public TenantResource(String id) {
+            this.id = id;
+        }
+
+        @GET
+        public String get() {
+            return "tenant-" + id;
+        }
+
+        @Path("users")
+        public UsersResource getUsers() {
+            return new UsersResource(id);
+        }
+    }
+
+    public static class UsersResource {
+
+        private final String tenant;
+
+        public UsersResource(String tenant) {
+            this.tenant = tenant;
+        }
+
+        @GET
+        public String get() {
+            return "users-" + tenant;
+        }
+    }
+
+    public static class ClassSubResource {
+
+        @GET
+        public String get() {
+            return "class";
+        }
+    }
+
+    private ApplicationHandler handler;
+    private SubResourceRouterCache cache;
+
+    @Before
+    public void setUp() {
+        handler = new ApplicationHandler(new ResourceConfig(RootResource.class));
+        cache = handler.getServices().forContract(SubResourceRouterCache.class).get();
+    }
+
+    private String get(String path) throws Exception {
+        final ContainerResponse response = handler.apply(RequestContextBuilder.from("/", path, "GET").build()).get();
+        assertEquals(200, response.getStatus());
+        return (String) response.getEntity();
+    }
+
+    @Test
+    public void testInstancesOfSameClass() throws Exception {
+        assertEquals("tenant-a", get("/tenants/a"));
+        assertEquals("tenant-b", get("/tenants/b"));
+        assertEquals("tenant-c", get("/tenants/c"));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testNestedLocators() throws Exception {
+        assertEquals("users-a", get("/tenants/a/users"));
+        assertEquals("users-b", get("/tenants/b/users"));
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testLocatorReturningClass() throws Exception {
+        assertEquals("class", get("/tenants/class"));
+        assertEquals("class", get("/tenants/class"));
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testInvalidateAll() throws Exception {
+        assertEquals("tenant-a", get("/tenants/a"));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals("tenant-b", get("/tenants/b"));
+
+        assertEquals(2, cache.getMissCount());
+    }
+}
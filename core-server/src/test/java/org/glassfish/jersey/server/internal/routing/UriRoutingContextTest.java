@@ -41,6 +41,8 @@ package org.glassfish.jersey.server.internal.routing;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 import javax.ws.rs.core.MultivaluedMap;
@@ -56,6 +58,9 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 /**
  *
@@ -150,4 +155,90 @@ public class UriRoutingContextTest {
         assertEquals("{bar1}", map.getFirst("foo1"));
         assertEquals("{bar2}", map.getFirst("foo2"));
     }
+
+    @Test
+    public void testQueryParamsEncoded() throws URISyntaxException {
+        MultivaluedMap<String, String> map =
+                createContext("http://example.org/app/resource?foo%201=%7Bbar1%7D&foo2=a+b", "GET").getQueryParameters(false);
+        assertEquals("%7Bbar1%7D", map.getFirst("foo 1"));
+        assertEquals("a+b", map.getFirst("foo2"));
+    }
+
+    @Test
+    public void testQueryParamsRepeatedAndEmpty() throws URISyntaxException {
+        MultivaluedMap<String, String> map =
+                createContext("http://example.org/app/resource?a=1&&b&=ignored&a=2&c=", "GET").getQueryParameters();
+        assertEquals(Arrays.asList("1", "2"), map.get("a"));
+        assertEquals("", map.getFirst("b"));
+        assertEquals("", map.getFirst("c"));
+        assertNull(map.get("d"));
+        assertEquals(3, map.size());
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b", "c")), map.keySet());
+    }
+
+    @Test
+    public void testQueryParamsUnmodifiable() throws URISyntaxException {
+        final UriRoutingContext ctx = createContext("http://example.org/app/resource?a=1&b=2", "GET");
+        final MultivaluedMap<String, String> map = ctx.getQueryParameters();
+
+        assertUnsupported(new Runnable() {
+            @Override
+            public void run() {
+                map.putSingle("a", "x");
+            }
+        });
+        assertUnsupported(new Runnable() {
+            @Override
+            public void run() {
+                map.add("c", "3");
+            }
+        });
+        assertUnsupported(new Runnable() {
+            @Override
+            public void run() {
+                map.remove("b");
+            }
+        });
+        assertUnsupported(new Runnable() {
+            @Override
+            public void run() {
+                map.get("a").add("x");
+            }
+        });
+        assertUnsupported(new Runnable() {
+            @Override
+            public void run() {
+                map.keySet().clear();
+            }
+        });
+
+        assertEquals(Arrays.asList("1"), ctx.getQueryParameters().get("a"));
+        assertEquals("2", ctx.getQueryParameters(false).getFirst("b"));
+    }
+
+    private static void assertUnsupported(Runnable modification) {
+        try {
+            modification.run();
+            fail("UnsupportedOperationException expected.");
+        } catch (UnsupportedOperationException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testParsedOnce() throws URISyntaxException {
+        final ContainerRequest request =
+                RequestContextBuilder.from("http://example.org/app/", "http://example.org/app/a;m=1/b?q=1", "GET").build();
+        final UriRoutingContext ctx = new UriRoutingContext(Refs.<ContainerRequest>of(request));
+
+        assertSame(ctx.getQueryParameters(), ctx.getQueryParameters(true));
+        assertSame(ctx.getPathSegments(), ctx.getPathSegments(true));
+        assertSame(ctx.getAbsolutePath(), ctx.getAbsolutePath());
+        assertEquals("1", ctx.getPathSegments().get(0).getMatrixParameters().getFirst("m"));
+
+        request.setRequestUri(URI.create("http://example.org/app/"), URI.create("http://example.org/app/c?q=2"));
+        assertEquals("2", ctx.getQueryParameters().getFirst("q"));
+        assertEquals("c", ctx.getPathSegments().get(0).getPath());
+        assertEquals(URI.create("http://example.org/app/c"), ctx.getAbsolutePath());
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that repeated requests with the same content negotiation input
+ * are routed consistently by the resource method selection.
+ *
+ * @author agent (agent at local)
+ */
+public class ContentNegotiationCacheTest {
+
+    private ApplicationHandler createApplication(Class<?>... classes) {
+        return new ApplicationHandler(new ResourceConfig(classes));
+    }
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        @Produces("application/foo")
+        public String getFoo() {
+            return "foo";
+        }
+
+        @GET
+        @Produces("application/bar")
+        public String getBar() {
+            return "bar";
+        }
+
+        @POST
+        @Consumes("text/plain")
+        @Produces("text/plain")
+        public String postText(String entity) {
+            return "text:" + entity;
+        }
+
+        @POST
+        @Consumes("text/html")
+        @Produces("text/plain")
+        public String postHtml(String entity) {
+            return "html:" + entity;
+        }
+    }
+
+    @Test
+    public void testRepeatedAcceptNegotiation() throws Exception {
+        ApplicationHandler app = createApplication(Resource.class);
+
+        for (int i = 0; i < 3; i++) {
+            ContainerResponse response = app.apply(RequestContextBuilder.from("/", "GET").accept("application/foo").build()).get();
+            assertEquals(200, response.getStatus());
+            assertEquals("foo", response.getEntity());
+            assertEquals(MediaType.valueOf("application/foo"), response.getMediaType());
+
+            response = app.apply(RequestContextBuilder.from("/", "GET").accept("application/bar").build()).get();
+            assertEquals(200, response.getStatus());
+            assertEquals("bar", response.getEntity());
+            assertEquals(MediaType.valueOf("application/bar"), response.getMediaType());
+
+            response = app.apply(RequestContextBuilder.from("/", "GET")
+                    .accept("application/foo;q=0.2", "application/bar").build()).get();
+            assertEquals("bar", response.getEntity());
+        }
+    }
+
+    @Test
+    public void testRepeatedContentTypeNegotiation() throws Exception {
+        ApplicationHandler app = createApplication(Resource.class);
+
+        for (int i = 0; i < 3; i++) {
+            ContainerResponse response = app.apply(RequestContextBuilder.from("/", "POST")
+                    .entity("a").type("text/plain").build()).get();
+            assertEquals(200, response.getStatus());
+            assertEquals("text:a", response.getEntity());
+
+            response = app.apply(RequestContextBuilder.from("/", "POST")
+                    .entity("b").type("text/html").build()).get();
+            assertEquals(200, response.getStatus());
+            assertEquals("html:b", response.getEntity());
+        }
+    }
+
+    @Test
+    public void testRepeatedNegotiationFailures() throws Exception {
+        ApplicationHandler app = createApplication(Resource.class);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(406, app.apply(RequestContextBuilder.from("/", "GET")
+                    .accept("application/baz").build()).get().getStatus());
+            assertEquals(415, app.apply(RequestContextBuilder.from("/", "POST")
+                    .entity("c").type("application/xml").build()).get().getStatus());
+            assertEquals(405, app.apply(RequestContextBuilder.from("/", "PUT")
+                    .entity("d").type("text/plain").build()).get().getStatus());
+        }
+
+        // successful negotiation after the failures
+        assertEquals("foo", app.apply(RequestContextBuilder.from("/", "GET")
+                .accept("application/foo").build()).get().getEntity());
+    }
+
+    @Test
+    public void testRepeatedHeadRequest() throws Exception {
+        ApplicationHandler app = createApplication(Resource.class);
+
+        for (int i = 0; i < 3; i++) {
+            ContainerResponse response = app.apply(RequestContextBuilder.from("/", "GET")
+                    .accept("application/foo").build()).get();
+            assertEquals(MediaType.valueOf("application/foo"), response.getMediaType());
+
+            response = app.apply(RequestContextBuilder.from("/", "HEAD").accept("application/foo").build()).get();
+            assertEquals(200, response.getStatus());
+            assertEquals(MediaType.valueOf("application/foo"), response.getMediaType());
+        }
+    }
+
+    @Test
+    public void testContentTypeParameters() throws Exception {
+        ApplicationHandler app = createApplication(Resource.class);
+
+        // more distinct content type parameters than the cache can hold
+        for (int i = 0; i < 100; i++) {
+            ContainerResponse response = app.apply(RequestContextBuilder.from("/", "POST")
+                    .entity("a").type("text/plain;boundary=b" + i).build()).get();
+            assertEquals("text:a", response.getEntity());
+
+            response = app.apply(RequestContextBuilder.from("/", "POST")
+                    .entity("b").type("text/html;boundary=b" + i).build()).get();
+            assertEquals("html:b", response.getEntity());
+        }
+
+        assertEquals("bar", app.apply(RequestContextBuilder.from("/", "GET")
+                .accept("application/bar").build()).get().getEntity());
+    }
+}
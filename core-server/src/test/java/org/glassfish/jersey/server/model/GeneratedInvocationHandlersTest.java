@@ -0,0 +1,187 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link GeneratedInvocationHandlers} tests.
+ *
+ * @author agent (agent at local)
+ */
+public class GeneratedInvocationHandlersTest {
+
+    public static class Target {
+
+        public String concat(int i, long l, String s, double[] d) {
+            return s + i + l + d.length;
+        }
+
+        public void nothing() {
+        }
+
+        public boolean fail(boolean fail) {
+            if (fail) {
+                throw new IllegalStateException();
+            }
+            return true;
+        }
+
+        String packagePrivate() {
+            return null;
+        }
+    }
+
+    /**
+     * Name of the class that invoked the last {@link Resource#get(int, String)} call.
+     */
+    private static volatile String resourceMethodCaller;
+
+    @Path("resource")
+    public static class Resource {
+
+        @GET
+        public String get(@QueryParam("a") int a, @QueryParam("b") String b) {
+            resourceMethodCaller = Thread.currentThread().getStackTrace()[2].getClassName();
+            if (a < 0) {
+                throw new WebApplicationException(409);
+            }
+            return b + a;
+        }
+    }
+
+    @Test
+    public void testInvoke() throws Throwable {
+        final Target target = new Target();
+        final Method concat = Target.class.getMethod("concat", int.class, long.class, String.class, double[].class);
+        final InvocationHandler handler = GeneratedInvocationHandlers.create(concat);
+
+        assertNotNull(handler);
+        assertEquals("s123", handler.invoke(target, concat, new Object[]{1, 2L, "s", new double[3]}));
+
+        final Method nothing = Target.class.getMethod("nothing");
+        assertNull(GeneratedInvocationHandlers.create(nothing).invoke(target, nothing, new Object[0]));
+    }
+
+    @Test
+    public void testExceptionWrapping() throws Throwable {
+        final Target target = new Target();
+        final Method fail = Target.class.getMethod("fail", boolean.class);
+        final InvocationHandler handler = GeneratedInvocationHandlers.create(fail);
+
+        assertEquals(Boolean.TRUE, handler.invoke(target, fail, new Object[]{false}));
+        try {
+            handler.invoke(target, fail, new Object[]{true});
+            fail("InvocationTargetException expected.");
+        } catch (InvocationTargetException ex) {
+            assertSame(IllegalStateException.class, ex.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testArgumentErrors() throws Throwable {
+        final Target target = new Target();
+        final Method concat = Target.class.getMethod("concat", int.class, long.class, String.class, double[].class);
+        final InvocationHandler handler = GeneratedInvocationHandlers.create(concat);
+
+        final Object[][] invalidArguments = {
+                {"1", 2L, "s", new double[3]},
+                {null, 2L, "s", new double[3]},
+                {1, 2L}
+        };
+        for (Object[] args : invalidArguments) {
+            try {
+                handler.invoke(target, concat, args);
+                fail("IllegalArgumentException expected.");
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        }
+
+        try {
+            handler.invoke(new Object(), concat, new Object[]{1, 2L, "s", new double[3]});
+            fail("IllegalArgumentException expected.");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testNotSupported() throws Exception {
+        assertNull(GeneratedInvocationHandlers.create(Target.class.getDeclaredMethod("packagePrivate")));
+    }
+
+    @Test
+    public void testGeneratedDispatch() throws Exception {
+        final ApplicationHandler handler = new ApplicationHandler(new ResourceConfig(Resource.class)
+                .setProperty(ServerProperties.RESOURCE_METHOD_DISPATCH_GENERATED, true));
+
+        ContainerResponse response = handler.apply(
+                RequestContextBuilder.from("/resource?a=1&b=x", "GET").build()).get();
+        assertEquals(200, response.getStatus());
+        assertEquals("x1", response.getEntity());
+        // invoked by the generated handler, not by reflection
+        assertTrue(resourceMethodCaller, resourceMethodCaller.startsWith("org.glassfish.jersey.server.model.generated."));
+
+        response = handler.apply(RequestContextBuilder.from("/resource?a=-1", "GET").build()).get();
+        assertEquals(409, response.getStatus());
+    }
+}
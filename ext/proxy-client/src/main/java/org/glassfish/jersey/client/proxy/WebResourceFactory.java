@@ -43,27 +43,42 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.*;
+import javax.ws.rs.client.AsyncInvoker;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Cookie;
 import javax.ws.rs.core.Form;
+import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import com.google.common.collect.MapMaker;
 
 /**
  * Factory for client-side representation of a resource.
  * See the <a href="package-summary.html">package overview</a>
  * for an example on how to use this class.
+ * <p>
+ * Each resource interface method is analyzed once, on its first invocation, into a cached
+ * invocation plan. Subsequent invocations of the method only bind the method arguments to the
+ * request and invoke it. Resource methods returning {@link Future} are invoked asynchronously.
+ * </p>
  *
  * @author Martin Matula (martin.matula at oracle.com)
  */
@@ -72,10 +87,185 @@ public final class WebResourceFactory implements InvocationHandler {
     private final MultivaluedMap<String, Object> headers;
     private final List<Cookie> cookies;
     private final Form form;
+    /**
+     * Targets of the resource methods annotated with {@link Path}.
+     */
+    private final ConcurrentMap<Method, WebTarget> methodTargets = new ConcurrentHashMap<Method, WebTarget>();
 
     private static final MultivaluedMap<String, Object> EMPTY_HEADERS = new MultivaluedHashMap<String, Object>();
     private static final Form EMPTY_FORM = new Form();
 
+    /**
+     * Invocation plans of the resource interface methods, kept separately for each resource interface
+     * as the plans include the interface-level {@link Produces} and {@link Consumes} values. The keys
+     * are weak and the plans soft so that the cache does not prevent the resource interfaces from
+     * being unloaded.
+     */
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodModel>> methodModels =
+            new MapMaker().weakKeys().makeMap();
+
+    /**
+     * Kind of a resource method parameter.
+     */
+    private static enum ParamKind {
+        ENTITY, PATH, QUERY, MATRIX, HEADER, COOKIE, FORM, IGNORED
+    }
+
+    /**
+     * Binding of a resource method parameter to the request.
+     */
+    private static final class ParamBinder {
+        private final ParamKind kind;
+        private final String name;
+        private final String defaultValue;
+
+        private ParamBinder(ParamKind kind, String name, String defaultValue) {
+            this.kind = kind;
+            this.name = name;
+            this.defaultValue = defaultValue;
+        }
+
+        private Object value(Object argument) {
+            return (argument == null) ? defaultValue : argument;
+        }
+
+        private Cookie cookie(Object value) {
+            if (!(value instanceof Cookie)) {
+                return new Cookie(name, value.toString());
+            }
+            Cookie c = (Cookie) value;
+            if (!name.equals(c.getName())) {
+                // is this the right thing to do? or should I fail? or ignore the difference?
+                c = new Cookie(name, c.getValue(), c.getPath(), c.getDomain(), c.getVersion());
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Invocation plan of a resource interface method.
+     */
+    private static final class MethodModel {
+        /**
+         * HTTP method name, {@code null} for sub-resource locators.
+         */
+        private final String httpMethod;
+        private final String path;
+        private final ParamBinder[] binders;
+        private final boolean hasTargetParams;
+        private final boolean hasFormParams;
+        private final String[] accepts;
+        private final String contentType;
+        private final boolean async;
+        private final Class<?> responseClass;
+        private final GenericType<Object> responseGenericType;
+
+        private MethodModel(Class<?> proxyIfc, Method method) {
+            // determine method name
+            String name = getHttpMethodName(method);
+            if (name == null) {
+                for (Annotation ann : method.getAnnotations()) {
+                    name = getHttpMethodName(ann.annotationType());
+                    if (name != null) {
+                        break;
+                    }
+                }
+            }
+            this.httpMethod = name;
+
+            final Path p = method.getAnnotation(Path.class);
+            this.path = (p == null) ? null : p.value();
+
+            if (httpMethod == null) {
+                if (path == null) {
+                    // no path annotation on the method -> fail
+                    throw new UnsupportedOperationException("Not a resource method.");
+                } else if (!method.getReturnType().isInterface()) {
+                    // the method is a subresource locator, but returns class,
+                    // not interface - can't help here
+                    throw new UnsupportedOperationException("Return type not an interface");
+                }
+            }
+
+            // process method params (Path|Form|Cookie|Matrix|Header..)Params and entity
+            final Annotation[][] paramAnns = method.getParameterAnnotations();
+            this.binders = new ParamBinder[paramAnns.length];
+            boolean targetParams = false;
+            boolean formParams = false;
+            for (int i = 0; i < paramAnns.length; i++) {
+                binders[i] = createBinder(paramAnns[i]);
+                targetParams |= binders[i].kind == ParamKind.PATH
+                        || binders[i].kind == ParamKind.QUERY
+                        || binders[i].kind == ParamKind.MATRIX;
+                formParams |= binders[i].kind == ParamKind.FORM;
+            }
+            this.hasTargetParams = targetParams;
+            this.hasFormParams = formParams;
+
+            // accepted media types
+            Produces produces = method.getAnnotation(Produces.class);
+            if (produces == null) {
+                produces = proxyIfc.getAnnotation(Produces.class);
+            }
+            this.accepts = produces == null ? null : produces.value();
+
+            // entity content type
+            Consumes consumes = method.getAnnotation(Consumes.class);
+            if (consumes == null) {
+                consumes = proxyIfc.getAnnotation(Consumes.class);
+            }
+            if (consumes != null && consumes.value().length > 0) {
+                // TODO: should consider q/qs instead of picking the first one
+                this.contentType = consumes.value()[0];
+            } else {
+                this.contentType = null;
+            }
+
+            // response type
+            Type responseType = method.getGenericReturnType();
+            this.async = httpMethod != null && Future.class.isAssignableFrom(method.getReturnType());
+            if (async) {
+                responseType = (responseType instanceof ParameterizedType)
+                        ? ((ParameterizedType) responseType).getActualTypeArguments()[0] : Response.class;
+            }
+            if (responseType instanceof Class || httpMethod == null) {
+                this.responseClass = (responseType instanceof Class) ? (Class<?>) responseType : method.getReturnType();
+                this.responseGenericType = null;
+            } else {
+                this.responseClass = null;
+                this.responseGenericType = new GenericType<Object>(responseType);
+            }
+        }
+
+        private static ParamBinder createBinder(Annotation[] paramAnns) {
+            final Map<Class, Annotation> anns = new HashMap<Class, Annotation>();
+            for (Annotation ann : paramAnns) {
+                anns.put(ann.annotationType(), ann);
+            }
+            if (anns.isEmpty()) {
+                return new ParamBinder(ParamKind.ENTITY, null, null);
+            }
+
+            Annotation ann;
+            final String defaultValue = ((ann = anns.get(DefaultValue.class)) != null)
+                    ? ((DefaultValue) ann).value() : null;
+            if ((ann = anns.get(PathParam.class)) != null) {
+                return new ParamBinder(ParamKind.PATH, ((PathParam) ann).value(), defaultValue);
+            } else if ((ann = anns.get((QueryParam.class))) != null) {
+                return new ParamBinder(ParamKind.QUERY, ((QueryParam) ann).value(), defaultValue);
+            } else if ((ann = anns.get((HeaderParam.class))) != null) {
+                return new ParamBinder(ParamKind.HEADER, ((HeaderParam) ann).value(), defaultValue);
+            } else if ((ann = anns.get((CookieParam.class))) != null) {
+                return new ParamBinder(ParamKind.COOKIE, ((CookieParam) ann).value(), defaultValue);
+            } else if ((ann = anns.get((MatrixParam.class))) != null) {
+                return new ParamBinder(ParamKind.MATRIX, ((MatrixParam) ann).value(), defaultValue);
+            } else if ((ann = anns.get((FormParam.class))) != null) {
+                return new ParamBinder(ParamKind.FORM, ((FormParam) ann).value(), defaultValue);
+            }
+            return new ParamBinder(ParamKind.IGNORED, null, defaultValue);
+        }
+    }
+
     /**
      * Creates a new client-side representation of a resource described by
      * the interface passed in the first argument.
@@ -125,120 +315,45 @@ public final class WebResourceFactory implements InvocationHandler {
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        // get the interface describing the resource
-        Class<?> proxyIfc = proxy.getClass().getInterfaces()[0];
-
-        // response type
-        Class<?> responseType = method.getReturnType();
-
-        // determine method name
-        String httpMethod = getHttpMethodName(method);
-        if (httpMethod == null) {
-            for (Annotation ann : method.getAnnotations()) {
-                httpMethod = getHttpMethodName(ann.annotationType());
-                if (httpMethod != null) {
-                    break;
-                }
-            }
-        }
+        final MethodModel model = getMethodModel(proxy.getClass().getInterfaces()[0], method);
 
-        // create a new UriBuilder appending the @Path attached to the method
-        WebTarget newTarget = addPathFromAnnotation(method, target);
-
-        if (httpMethod == null) {
-            if (newTarget == target) {
-                // no path annotation on the method -> fail
-                throw new UnsupportedOperationException("Not a resource method.");
-            } else if (!responseType.isInterface()) {
-                // the method is a subresource locator, but returns class,
-                // not interface - can't help here
-                throw new UnsupportedOperationException("Return type not an interface");
-            }
+        if (model.httpMethod == null) {
+            return invokeSubResourceLocator(model, method, args);
         }
 
-        // process method params (build maps of (Path|Form|Cookie|Matrix|Header..)Params
-        // and extract entity type
-        MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<String, Object>(this.headers);
-        LinkedList<Cookie> cookies = new LinkedList<Cookie>(this.cookies);
-        Form form = new Form();
-        form.asMap().putAll(this.form.asMap());
-        Annotation[][] paramAnns = method.getParameterAnnotations();
-        Object entity = null;
-        for (int i = 0; i < paramAnns.length; i++) {
-            Map<Class, Annotation> anns = new HashMap<Class, Annotation>();
-            for (Annotation ann : paramAnns[i]) {
-                anns.put(ann.annotationType(), ann);
-            }
-            Annotation ann;
-            Object value = args[i];
-            if (anns.isEmpty()) {
-                entity = value;
-            } else {
-                if (value == null && (ann = anns.get(DefaultValue.class)) != null) {
-                    value = ((DefaultValue) ann).value();
+        // bind the target params
+        WebTarget newTarget = getMethodTarget(model, method);
+        if (model.hasTargetParams) {
+            for (int i = 0; i < model.binders.length; i++) {
+                final ParamBinder binder = model.binders[i];
+                final Object value = binder.value(args[i]);
+                if (value == null) {
+                    continue;
                 }
-                if (value != null) {
-                    if ((ann = anns.get(PathParam.class)) != null) {
-                        newTarget = newTarget.pathParam(((PathParam) ann).value(), value);
-                    } else if ((ann = anns.get((QueryParam.class))) != null) {
-                        newTarget = newTarget.queryParam(((QueryParam) ann).value(), value);
-                    } else if ((ann = anns.get((HeaderParam.class))) != null) {
-                        headers.addAll(((HeaderParam) ann).value(), value);
-                    } else if ((ann = anns.get((CookieParam.class))) != null) {
-                        String name = ((CookieParam) ann).value();
-                        Cookie c;
-                        if (!(value instanceof Cookie)) {
-                            c = new Cookie(name, value.toString());
-                        } else {
-                            c = (Cookie) value;
-                            if (!name.equals(((Cookie) value).getName())) {
-                                // is this the right thing to do? or should I fail? or ignore the difference?
-                                c = new Cookie(name, c.getValue(), c.getPath(), c.getDomain(), c.getVersion());
-                            }
-                        }
-                        cookies.add(c);
-                    } else if ((ann = anns.get((MatrixParam.class))) != null) {
-                        newTarget = newTarget.matrixParam(((MatrixParam) ann).value(), value);
-                    } else if ((ann = anns.get((FormParam.class))) != null) {
-                        form.param(((FormParam) ann).value(), value.toString());
-                    }
+                switch (binder.kind) {
+                    case PATH:
+                        newTarget = newTarget.pathParam(binder.name, value);
+                        break;
+                    case QUERY:
+                        newTarget = newTarget.queryParam(binder.name, value);
+                        break;
+                    case MATRIX:
+                        newTarget = newTarget.matrixParam(binder.name, value);
+                        break;
+                    default:
+                        break;
                 }
             }
         }
 
-        if (httpMethod == null) {
-            // the method is a subresource locator
-            return WebResourceFactory.newResource(responseType, newTarget, true, headers, cookies, form);
-        }
-
-        // accepted media types
-        Produces produces = method.getAnnotation(Produces.class);
-        if (produces == null) {
-            produces = proxyIfc.getAnnotation(Produces.class);
-        }
-        String[] accepts = produces == null ? null : produces.value();
-
-        // determine content type
-        String contentType = null;
-        if (entity != null) {
-            Consumes consumes = method.getAnnotation(Consumes.class);
-            if (consumes == null) {
-                consumes = proxyIfc.getAnnotation(Consumes.class);
-            }
-            if (consumes != null && consumes.value().length > 0) {
-                // TODO: should consider q/qs instead of picking the first one
-                contentType = consumes.value()[0];
-            }
-        }
-
         Invocation.Builder b;
-        if (accepts != null) {
-            b = newTarget.request(accepts);
+        if (model.accepts != null) {
+            b = newTarget.request(model.accepts);
         } else {
             b = newTarget.request();
         }
 
-        // apply header params and cookies
+        // apply header params and cookies collected from parent resources
         for (Cookie c : cookies) {
             b = b.cookie(c);
         }
@@ -249,8 +364,39 @@ public final class WebResourceFactory implements InvocationHandler {
             }
         }
 
-        Object result;
+        // bind the request params and extract the entity
+        Form form = this.form;
+        if (model.hasFormParams) {
+            form = new Form();
+            form.asMap().putAll(this.form.asMap());
+        }
+        Object entity = null;
+        for (int i = 0; i < model.binders.length; i++) {
+            final ParamBinder binder = model.binders[i];
+            if (binder.kind == ParamKind.ENTITY) {
+                entity = args[i];
+                continue;
+            }
+            final Object value = binder.value(args[i]);
+            if (value == null) {
+                continue;
+            }
+            switch (binder.kind) {
+                case HEADER:
+                    b = b.header(binder.name, value);
+                    break;
+                case COOKIE:
+                    b = b.cookie(binder.cookie(value));
+                    break;
+                case FORM:
+                    form.param(binder.name, value.toString());
+                    break;
+                default:
+                    break;
+            }
+        }
 
+        String contentType = (entity != null) ? model.contentType : null;
         if (entity == null && !form.asMap().isEmpty()) {
             entity = form;
             contentType = MediaType.APPLICATION_FORM_URLENCODED;
@@ -267,13 +413,107 @@ public final class WebResourceFactory implements InvocationHandler {
             }
         }
 
+        if (model.async) {
+            return invokeAsync(model, b.async(), (entity == null) ? null : Entity.entity(entity, contentType));
+        }
+
         if (entity != null) {
-            result = b.method(httpMethod, Entity.entity(entity, contentType), responseType);
+            final Entity<?> e = Entity.entity(entity, contentType);
+            return (model.responseClass != null)
+                    ? b.method(model.httpMethod, e, model.responseClass)
+                    : b.method(model.httpMethod, e, model.responseGenericType);
         } else {
-            result = b.method(httpMethod, responseType);
+            return (model.responseClass != null)
+                    ? b.method(model.httpMethod, model.responseClass)
+                    : b.method(model.httpMethod, model.responseGenericType);
+        }
+    }
+
+    private static Future<?> invokeAsync(MethodModel model, AsyncInvoker invoker, Entity<?> entity) {
+        if (entity != null) {
+            return (model.responseClass != null)
+                    ? invoker.method(model.httpMethod, entity, model.responseClass)
+                    : invoker.method(model.httpMethod, entity, model.responseGenericType);
+        } else {
+            return (model.responseClass != null)
+                    ? invoker.method(model.httpMethod, model.responseClass)
+                    : invoker.method(model.httpMethod, model.responseGenericType);
+        }
+    }
+
+    private Object invokeSubResourceLocator(MethodModel model, Method method, Object[] args) {
+        WebTarget newTarget = getMethodTarget(model, method);
+
+        // params collected for the sub-resource
+        MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<String, Object>(this.headers);
+        LinkedList<Cookie> cookies = new LinkedList<Cookie>(this.cookies);
+        Form form = new Form();
+        form.asMap().putAll(this.form.asMap());
+        for (int i = 0; i < model.binders.length; i++) {
+            final ParamBinder binder = model.binders[i];
+            final Object value = binder.value(args[i]);
+            if (value == null) {
+                continue;
+            }
+            switch (binder.kind) {
+                case PATH:
+                    newTarget = newTarget.pathParam(binder.name, value);
+                    break;
+                case QUERY:
+                    newTarget = newTarget.queryParam(binder.name, value);
+                    break;
+                case MATRIX:
+                    newTarget = newTarget.matrixParam(binder.name, value);
+                    break;
+                case HEADER:
+                    headers.add(binder.name, value);
+                    break;
+                case COOKIE:
+                    cookies.add(binder.cookie(value));
+                    break;
+                case FORM:
+                    form.param(binder.name, value.toString());
+                    break;
+                default:
+                    break;
+            }
         }
 
-        return result;
+        return WebResourceFactory.newResource(model.responseClass, newTarget, true, headers, cookies, form);
+    }
+
+    private static MethodModel getMethodModel(Class<?> proxyIfc, Method method) {
+        ConcurrentMap<Method, MethodModel> models = methodModels.get(proxyIfc);
+        if (models == null) {
+            final ConcurrentMap<Method, MethodModel> newModels = new MapMaker().weakKeys().softValues().makeMap();
+            models = methodModels.putIfAbsent(proxyIfc, newModels);
+            if (models == null) {
+                models = newModels;
+            }
+        }
+
+        MethodModel model = models.get(method);
+        if (model == null) {
+            final MethodModel newModel = new MethodModel(proxyIfc, method);
+            model = models.putIfAbsent(method, newModel);
+            if (model == null) {
+                model = newModel;
+            }
+        }
+        return model;
+    }
+
+    private WebTarget getMethodTarget(MethodModel model, Method method) {
+        if (model.path == null) {
+            return target;
+        }
+
+        WebTarget methodTarget = methodTargets.get(method);
+        if (methodTarget == null) {
+            methodTarget = target.path(model.path);
+            methodTargets.put(method, methodTarget);
+        }
+        return methodTarget;
     }
 
     private static WebTarget addPathFromAnnotation(AnnotatedElement ae, WebTarget target) {
@@ -39,6 +39,13 @@
  */
 package org.glassfish.jersey.client.proxy;
 
+import java.util.concurrent.Future;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.test.JerseyTest;
 import org.glassfish.jersey.test.TestProperties;
@@ -49,6 +56,30 @@ import static org.junit.Assert.assertEquals;
 public class WebResourceFactoryTest extends JerseyTest {
     private MyResourceIfc resource;
 
+    @Path("accept")
+    public static class AcceptResource {
+        @GET
+        @Produces({"text/plain", "text/html"})
+        public String getAccept(@HeaderParam("Accept") String accept) {
+            return accept;
+        }
+    }
+
+    public static interface AcceptIfc {
+        @GET
+        String getAccept();
+    }
+
+    @Path("accept")
+    @Produces("text/plain")
+    public static interface PlainAcceptIfc extends AcceptIfc {
+    }
+
+    @Path("accept")
+    @Produces("text/html")
+    public static interface HtmlAcceptIfc extends AcceptIfc {
+    }
+
     @Override
     protected ResourceConfig configure() {
         // mvn test -DargLine="-Djersey.config.test.container.factory=org.glassfish.jersey.test.inmemory.InMemoryTestContainerFactory"
@@ -56,7 +87,7 @@ public class WebResourceFactoryTest extends JerseyTest {
         // mvn test -DargLine="-Djersey.config.test.container.factory=org.glassfish.jersey.test.jdkhttp.JdkHttpServerTestContainerFactory"
         enable(TestProperties.LOG_TRAFFIC);
 //        enable(TestProperties.DUMP_ENTITY);
-        return new ResourceConfig(MyResource.class);
+        return new ResourceConfig(MyResource.class, AcceptResource.class);
     }
 
     @Override
@@ -87,8 +118,36 @@ public class WebResourceFactoryTest extends JerseyTest {
         assertEquals("jiri", resource.getByName("jiri"));
     }
 
+    @Test
+    public void testRepeatedInvocations() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("id" + i, resource.getId("id" + i));
+            assertEquals("name" + i, resource.getByName("name" + i));
+        }
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        final MyResourceAsyncIfc asyncResource = WebResourceFactory.newResource(MyResourceAsyncIfc.class, target());
+
+        final Future<String> it = asyncResource.getIt();
+        final Future<String> id = asyncResource.getId("jouda");
+        assertEquals("Got it!", it.get());
+        assertEquals("jouda", id.get());
+    }
+
     @Test
     public void testSubResource() {
         assertEquals("Got it!", resource.getSubResource().getMyBean().name);
     }
+
+    @Test
+    public void testInheritedMethodUsesInterfaceProduces() {
+        final PlainAcceptIfc plain = WebResourceFactory.newResource(PlainAcceptIfc.class, target());
+        final HtmlAcceptIfc html = WebResourceFactory.newResource(HtmlAcceptIfc.class, target());
+
+        assertEquals("text/plain", plain.getAccept());
+        assertEquals("text/html", html.getAccept());
+        assertEquals("text/plain", plain.getAccept());
+    }
 }
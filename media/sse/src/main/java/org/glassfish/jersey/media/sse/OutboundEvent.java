@@ -156,6 +156,25 @@ public final class OutboundEvent {
     private final Class type;
     private final MediaType mediaType;
     private final Object data;
+    /**
+     * Last serialized form of the event, reused when the event is written to multiple event channels.
+     */
+    private volatile Encoded encoded;
+
+    /**
+     * Serialized form of the event produced by a particular writer for a particular media type.
+     */
+    private static final class Encoded {
+        private final Object encoder;
+        private final MediaType mediaType;
+        private final byte[] bytes;
+
+        Encoded(Object encoder, MediaType mediaType, byte[] bytes) {
+            this.encoder = encoder;
+            this.mediaType = mediaType;
+            this.bytes = bytes;
+        }
+    }
 
     /**
      * Create new OutboundEvent with given properties.
@@ -229,4 +248,31 @@ public final class OutboundEvent {
     public Object getData() {
         return data;
     }
+
+    /**
+     * Get the serialized form of the event previously {@link #setEncoded(Object, MediaType, byte[]) stored}
+     * by the given writer for the given media type.
+     *
+     * @param encoder writer that serialized the event.
+     * @param mediaType media type the event has been serialized for.
+     * @return serialized event or {@code null} if not available.
+     */
+    byte[] getEncoded(Object encoder, MediaType mediaType) {
+        final Encoded e = encoded;
+        if (e != null && e.encoder == encoder && (e.mediaType == null ? mediaType == null : e.mediaType.equals(mediaType))) {
+            return e.bytes;
+        }
+        return null;
+    }
+
+    /**
+     * Store the serialized form of the event.
+     *
+     * @param encoder writer that serialized the event.
+     * @param mediaType media type the event has been serialized for.
+     * @param bytes serialized event.
+     */
+    void setEncoded(Object encoder, MediaType mediaType, byte[] bytes) {
+        this.encoded = new Encoded(encoder, mediaType, bytes);
+    }
 }
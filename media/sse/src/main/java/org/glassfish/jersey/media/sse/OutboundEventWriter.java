@@ -39,6 +39,7 @@
  */
 package org.glassfish.jersey.media.sse;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
@@ -83,8 +84,22 @@ public class OutboundEventWriter implements MessageBodyWriter<OutboundEvent> {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void writeTo(OutboundEvent outboundEvent, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, final OutputStream entityStream) throws IOException, WebApplicationException {
+        // the same event is typically broadcast to many event channels - serialize it only once
+        byte[] encoded = outboundEvent.getEncoded(this, mediaType);
+        if (encoded == null) {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            encode(outboundEvent, annotations, mediaType, httpHeaders, buffer);
+            encoded = buffer.toByteArray();
+            outboundEvent.setEncoded(this, mediaType, encoded);
+        }
+
+        entityStream.write(encoded);
+        entityStream.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void encode(OutboundEvent outboundEvent, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, final OutputStream entityStream) throws IOException {
         final References references = services.forContract(Injector.class).get().inject(References.class);
 
         if(outboundEvent.getComment() != null) {
@@ -121,6 +136,5 @@ public class OutboundEventWriter implements MessageBodyWriter<OutboundEvent> {
         }
 
         entityStream.write("\n\n".getBytes());
-        entityStream.flush();
     }
 }
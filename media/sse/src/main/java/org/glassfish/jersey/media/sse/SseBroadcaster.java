@@ -39,14 +39,42 @@
  */
 package org.glassfish.jersey.media.sse;
 
+import java.util.concurrent.Executor;
+
 import org.glassfish.jersey.server.Broadcaster;
 
 /**
  * Used for broadcasting sse to multiple {@link EventChannel} instances.
+ * <p>
+ * An {@link OutboundEvent} broadcast to multiple event channels is serialized only once,
+ * the encoded event is then reused for all the event channels.
+ * </p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  */
 public class SseBroadcaster extends Broadcaster<OutboundEvent> {
+
+    /**
+     * Create new SSE broadcaster that writes the events to the registered event channels
+     * on the thread invoking the {@link #broadcast(Object)} method.
+     */
+    public SseBroadcaster() {
+        super();
+    }
+
+    /**
+     * Create new SSE broadcaster that writes the events to the registered event channels using
+     * the supplied executor.
+     *
+     * @param executor executor used to write the queued events to the registered event channels.
+     * @param queueCapacity maximum number of events queued for a single event channel.
+     * @param overflowPolicy policy applied when the queue of an event channel is full.
+     * @see Broadcaster#Broadcaster(java.util.concurrent.Executor, int, Broadcaster.OverflowPolicy)
+     */
+    public SseBroadcaster(final Executor executor, final int queueCapacity, final OverflowPolicy overflowPolicy) {
+        super(executor, queueCapacity, overflowPolicy);
+    }
+
     /**
      * Register {@link EventChannel} to current {@link SseBroadcaster} instance.
      *
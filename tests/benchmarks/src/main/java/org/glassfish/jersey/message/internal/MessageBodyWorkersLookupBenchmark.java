@@ -0,0 +1,171 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.glassfish.hk2.DynamicBinderFactory;
+import org.glassfish.hk2.HK2;
+import org.glassfish.hk2.Services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a {@link MessageBodyWriter message body writer} lookup with
+ * a growing number of registered providers. Compares the provider scan performed on
+ * every lookup before the lookup results were cached with the cached
+ * {@link MessageBodyFactory} lookup.
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageBodyWorkersLookupBenchmark {
+
+    /**
+     * Entity type written by the benchmark.
+     */
+    public static class Bean {
+    }
+
+    /**
+     * Writer supporting only the entity type it has been created for.
+     */
+    private static class BenchmarkWriter implements MessageBodyWriter<Object> {
+
+        private final Class<?> supported;
+
+        BenchmarkWriter(Class<?> supported) {
+            this.supported = supported;
+        }
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return supported == type;
+        }
+
+        @Override
+        public long getSize(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+            // not used
+        }
+    }
+
+    @GET
+    @Produces("application/json")
+    public Bean resourceMethod() {
+        return null;
+    }
+
+    @Param({"5", "50", "200"})
+    private int providers;
+
+    private MessageBodyFactory workers;
+    private Annotation[] annotations;
+    private MediaType mediaType;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        final Services services = HK2.get().create(null);
+        final DynamicBinderFactory binderFactory = services.bindDynamically();
+        for (int i = 1; i < providers; i++) {
+            binderFactory.bind(MessageBodyWriter.class).toInstance(new BenchmarkWriter(Void.class));
+        }
+        binderFactory.bind(MessageBodyWriter.class).toInstance(new BenchmarkWriter(Bean.class));
+        binderFactory.commit();
+
+        workers = new MessageBodyFactory(services);
+        annotations = MessageBodyWorkersLookupBenchmark.class.getMethod("resourceMethod").getDeclaredAnnotations();
+        mediaType = MediaType.APPLICATION_JSON_TYPE;
+    }
+
+    @Benchmark
+    public MessageBodyWriter<?> providerScan() {
+        // lookup algorithm used by MessageBodyFactory before the lookup results were cached
+        for (List<MessageBodyWriter> writers : workers.getWriters(mediaType).values()) {
+            for (MessageBodyWriter<?> writer : writers) {
+                if (writer.isWriteable(Bean.class, Bean.class, annotations, mediaType)) {
+                    return writer;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public MessageBodyWriter<?> cachedLookup() {
+        return workers.getMessageBodyWriter(Bean.class, Bean.class, annotations, mediaType);
+    }
+
+    @Benchmark
+    public List<MediaType> cachedMediaTypesLookup() {
+        return workers.getMessageBodyWriterMediaTypes(Bean.class, Bean.class, annotations);
+    }
+}
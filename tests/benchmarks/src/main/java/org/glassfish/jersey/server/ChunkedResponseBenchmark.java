@@ -0,0 +1,148 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Streams small events through a {@link ChunkedResponse} of a request processed by an in-memory
+ * {@link ApplicationHandler} (the same way as the in-memory test container does). Compares typed
+ * chunks serialized by the pre-resolved message body writer with already encoded chunks.
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChunkedResponseBenchmark {
+
+    private static final String EVENT = "data: tick\n\n";
+    private static final byte[] ENCODED_EVENT = EVENT.getBytes();
+
+    private static volatile ChunkedResponse<String> current;
+
+    @Path("events")
+    public static class EventsResource {
+        @GET
+        @Produces("text/event-stream")
+        public ChunkedResponse<String> get() {
+            final ChunkedResponse<String> response = new ChunkedResponse<String>(String.class);
+            current = response;
+            return response;
+        }
+    }
+
+    /**
+     * Discards the written response bytes.
+     */
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    @Param({"1000000"})
+    private int events;
+
+    private ApplicationHandler handler;
+    private ChunkedResponse<String> response;
+
+    @Setup
+    public void setup() {
+        handler = new ApplicationHandler(new ResourceConfig(EventsResource.class));
+    }
+
+    @Setup(Level.Iteration)
+    public void openStream() throws Exception {
+        final ContainerRequest request = new ContainerRequest(URI.create("/"), URI.create("/events"), "GET",
+                null, new MapPropertiesDelegate());
+        request.setEntityStream(new ByteArrayInputStream(new byte[0]));
+
+        // the response context of the chunked response is set once the response is written
+        handler.apply(request, new NullOutputStream()).get();
+        response = current;
+    }
+
+    @Benchmark
+    public void typedChunks() throws IOException {
+        for (int i = 0; i < events; i++) {
+            response.write(EVENT);
+        }
+        response.close();
+    }
+
+    @Benchmark
+    public void encodedChunks() throws IOException {
+        for (int i = 0; i < events; i++) {
+            response.writeEncoded(ENCODED_EVENT);
+        }
+        response.close();
+    }
+}
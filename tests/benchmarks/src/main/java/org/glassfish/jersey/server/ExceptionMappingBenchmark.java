@@ -0,0 +1,163 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+
+import org.glassfish.jersey.internal.ExceptionMapperFactory;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of failing requests processed by an in-memory {@link ApplicationHandler}:
+ * application exceptions mapped by a registered {@link ExceptionMapper} and requests rejected by
+ * the request routing with {@code 405 Method Not Allowed}. The exception mapper lookup alone is
+ * measured as well.
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ExceptionMappingBenchmark {
+
+    public static class BackendUnavailableException extends RuntimeException {
+
+        private static final long serialVersionUID = 4286325519766632914L;
+    }
+
+    public static class DownstreamTimeoutException extends BackendUnavailableException {
+
+        private static final long serialVersionUID = -1786458327014306937L;
+    }
+
+    public static class BackendUnavailableMapper implements ExceptionMapper<BackendUnavailableException> {
+
+        @Override
+        public Response toResponse(BackendUnavailableException exception) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @Path("failing")
+    public static class FailingResource {
+
+        @GET
+        public String get() {
+            throw new DownstreamTimeoutException();
+        }
+    }
+
+    /**
+     * Discards the written response bytes.
+     */
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    private static final OutputStream NULL_OUTPUT = new NullOutputStream();
+
+    private ApplicationHandler handler;
+    private ExceptionMapperFactory mappers;
+
+    @Setup
+    public void setup() {
+        handler = new ApplicationHandler(new ResourceConfig(FailingResource.class, BackendUnavailableMapper.class));
+        mappers = new ExceptionMapperFactory(Arrays.<ExceptionMapper>asList(new BackendUnavailableMapper()));
+    }
+
+    private ContainerResponse apply(final String method) throws Exception {
+        final ContainerRequest request = new ContainerRequest(URI.create("/"), URI.create("/failing"), method,
+                null, new MapPropertiesDelegate());
+        request.setEntityStream(new ByteArrayInputStream(new byte[0]));
+
+        return handler.apply(request, NULL_OUTPUT).get();
+    }
+
+    @Benchmark
+    public ContainerResponse mappedException() throws Exception {
+        return apply("GET");
+    }
+
+    @Benchmark
+    public ContainerResponse methodNotAllowed() throws Exception {
+        return apply("DELETE");
+    }
+
+    @Benchmark
+    public ExceptionMapper<DownstreamTimeoutException> findMapper() {
+        return mappers.find(DownstreamTimeoutException.class);
+    }
+
+    @Benchmark
+    public ExceptionMapper<IllegalStateException> findMissingMapper() {
+        return mappers.find(IllegalStateException.class);
+    }
+}
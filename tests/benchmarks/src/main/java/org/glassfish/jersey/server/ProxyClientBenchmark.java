@@ -0,0 +1,125 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.WebTarget;
+
+import org.glassfish.jersey.client.JerseyClientFactory;
+import org.glassfish.jersey.client.proxy.WebResourceFactory;
+import org.glassfish.jersey.test.inmemory.internal.InMemoryConnector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares resource invocations made through a {@link WebResourceFactory} proxy with the same
+ * invocations hand-written using the {@link WebTarget} API. The requests are processed by an
+ * in-memory {@link ApplicationHandler}, so the difference is the client-side invocation overhead.
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProxyClientBenchmark {
+
+    @Path("items")
+    public static interface ItemsResource {
+
+        @GET
+        @Path("{id}")
+        @Produces("text/plain")
+        String get(@PathParam("id") String id, @QueryParam("fields") String fields, @HeaderParam("X-Tenant") String tenant);
+    }
+
+    public static class ItemsResourceImpl implements ItemsResource {
+
+        @Override
+        public String get(String id, String fields, String tenant) {
+            return id;
+        }
+    }
+
+    private static final URI BASE_URI = URI.create("http://localhost/");
+
+    private ItemsResource proxy;
+    private WebTarget items;
+
+    @Setup
+    public void setup() {
+        final ApplicationHandler handler = new ApplicationHandler(new ResourceConfig(ItemsResourceImpl.class));
+        final Client client = JerseyClientFactory.clientBuilder().transport(new InMemoryConnector(BASE_URI, handler)).build();
+
+        proxy = WebResourceFactory.newResource(ItemsResource.class, client.target(BASE_URI));
+        items = client.target(BASE_URI).path("items");
+    }
+
+    @Benchmark
+    public String proxyInvocation() {
+        return proxy.get("42", "name", "acme");
+    }
+
+    @Benchmark
+    public String webTargetInvocation() {
+        return items.path("{id}").pathParam("id", "42").queryParam("fields", "name")
+                .request("text/plain").header("X-Tenant", "acme").get(String.class);
+    }
+}
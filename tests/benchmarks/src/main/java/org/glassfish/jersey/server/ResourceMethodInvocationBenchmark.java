@@ -0,0 +1,153 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a single request invoking a resource method on an in-memory
+ * {@link ApplicationHandler}: a method returning a plain entity, a method returning
+ * a {@link Response} and a method returning a response with a custom header.
+ * <p>
+ * The benchmark is meant to be run with the JMH GC profiler ({@code -prof gc}) so that
+ * the per-request allocations ({@code gc.alloc.rate.norm}) are reported along with the time.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceMethodInvocationBenchmark {
+
+    @Path("invocation")
+    public static class InvocationResource {
+
+        @GET
+        @Path("entity")
+        @Produces("text/plain")
+        public String entity() {
+            return "entity";
+        }
+
+        @GET
+        @Path("response")
+        @Produces("text/plain")
+        public Response response() {
+            return Response.ok("entity").build();
+        }
+
+        @GET
+        @Path("header")
+        @Produces("text/plain")
+        public Response header() {
+            return Response.ok("entity").header("X-Custom", "value").build();
+        }
+    }
+
+    /**
+     * Discards the written response bytes.
+     */
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    private static final OutputStream NULL_OUTPUT = new NullOutputStream();
+
+    private ApplicationHandler handler;
+
+    @Setup
+    public void setup() {
+        handler = new ApplicationHandler(new ResourceConfig(InvocationResource.class));
+    }
+
+    private ContainerResponse apply(final String path) throws Exception {
+        final ContainerRequest request = new ContainerRequest(URI.create("/"), URI.create(path), "GET",
+                null, new MapPropertiesDelegate());
+        request.setEntityStream(new ByteArrayInputStream(new byte[0]));
+
+        return handler.apply(request, NULL_OUTPUT).get();
+    }
+
+    @Benchmark
+    public ContainerResponse entity() throws Exception {
+        return apply("/invocation/entity");
+    }
+
+    @Benchmark
+    public ContainerResponse response() throws Exception {
+        return apply("/invocation/response");
+    }
+
+    @Benchmark
+    public ContainerResponse header() throws Exception {
+        return apply("/invocation/header");
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.MatchResult;
+
+import org.glassfish.jersey.uri.PathPattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Compares the linear path pattern matching with the {@link PathPatternRouteIndex
+ * literal prefix indexed} path pattern matching used by the {@link PathPatternRouter}.
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathPatternRoutingBenchmark {
+
+    @Param({"10", "100", "900"})
+    private int routes;
+
+    private List<PathPattern> patterns;
+    private PathPatternRouteIndex index;
+    private String[] paths;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        patterns = Lists.newArrayListWithCapacity(routes);
+        final List<String> requestPaths = Lists.newArrayList();
+        for (int i = 0; i < routes; i++) {
+            switch (i % 3) {
+                case 0:
+                    patterns.add(PathPattern.asClosed(new PathPattern("resource" + i + "/items")));
+                    requestPaths.add("/resource" + i + "/items");
+                    break;
+                case 1:
+                    patterns.add(PathPattern.asClosed(new PathPattern("resource" + i + "/{id}")));
+                    requestPaths.add("/resource" + i + "/42");
+                    break;
+                default:
+                    patterns.add(new PathPattern("tenants/" + i + "/{id: \\d+}"));
+                    requestPaths.add("/tenants/" + i + "/42/orders");
+                    break;
+            }
+        }
+        index = new PathPatternRouteIndex(patterns);
+        paths = requestPaths.toArray(new String[requestPaths.size()]);
+    }
+
+    private String nextPath() {
+        counter = (counter + 1) % paths.length;
+        return paths[counter];
+    }
+
+    @Benchmark
+    public MatchResult linearScan() {
+        final String path = nextPath();
+        for (PathPattern pattern : patterns) {
+            final MatchResult result = pattern.match(path);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public MatchResult prefixIndex() {
+        final String path = nextPath();
+        for (int candidate : index.candidates(path)) {
+            final MatchResult result = patterns.get(candidate).match(path);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.glassfish.jersey.filter.EncodingFilter;
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.message.internal.ReaderWriter;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link EncodingFilter} end-to-end tests.
+ *
+ * @author agent (agent at local)
+ */
+public class EncodingFilterTest extends JerseyTest {
+
+    private static final String LARGE;
+
+    static {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"value\"}");
+        }
+        LARGE = sb.toString();
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(Resource.class, EncodingFilter.class)
+                .setProperty(MessageProperties.ENCODING_MIN_SIZE, 100);
+    }
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        @Path("large")
+        @Produces("application/json")
+        public String large() {
+            return LARGE;
+        }
+
+        @GET
+        @Path("small")
+        @Produces("application/json")
+        public String small() {
+            return "{}";
+        }
+
+        @GET
+        @Path("image")
+        @Produces("image/png")
+        public byte[] image() {
+            return LARGE.getBytes();
+        }
+
+        @GET
+        @Path("bytes")
+        @Produces("application/json")
+        public StreamingOutput bytes() {
+            return new StreamingOutput() {
+                @Override
+                public void write(OutputStream output) throws IOException {
+                    for (byte b : LARGE.getBytes("UTF-8")) {
+                        output.write(b);
+                    }
+                }
+            };
+        }
+
+        @POST
+        @Path("echo")
+        public String echo(String entity) {
+            return entity;
+        }
+    }
+
+    @Test
+    public void testGzipResponse() throws Exception {
+        Response response = target().path("large").request().header(HttpHeaders.ACCEPT_ENCODING, "gzip").get();
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader("Vary"));
+        assertTrue(Integer.parseInt(response.getHeader(HttpHeaders.CONTENT_LENGTH)) < LARGE.length());
+
+        InputStream in = new GZIPInputStream(response.readEntity(InputStream.class));
+        assertEquals(LARGE, ReaderWriter.readFromAsString(in, MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    @Test
+    public void testSingleByteWritesEncoded() throws Exception {
+        Response response = target().path("bytes").request().header(HttpHeaders.ACCEPT_ENCODING, "gzip").get();
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+
+        InputStream in = new GZIPInputStream(response.readEntity(InputStream.class));
+        assertEquals(LARGE, ReaderWriter.readFromAsString(in, MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    @Test
+    public void testNoAcceptEncoding() throws Exception {
+        Response response = target().path("large").request().get();
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE, response.readEntity(String.class));
+    }
+
+    @Test
+    public void testIdentityPreferred() throws Exception {
+        Response response = target().path("large").request()
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.5, identity").get();
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testSmallEntityNotEncoded() throws Exception {
+        Response response = target().path("small").request().header(HttpHeaders.ACCEPT_ENCODING, "gzip").get();
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{}", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testExcludedMediaTypeNotEncoded() throws Exception {
+        Response response = target().path("image").request().header(HttpHeaders.ACCEPT_ENCODING, "gzip").get();
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testClientDecodesResponse() throws Exception {
+        client().configuration().register(EncodingFilter.class);
+        Response response = target().path("large").request().get();
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE, response.readEntity(String.class));
+    }
+
+    @Test
+    public void testClientEncodesRequest() throws Exception {
+        client().configuration().register(EncodingFilter.class);
+        Response response = target().path("echo").request()
+                .header(HttpHeaders.CONTENT_ENCODING, "deflate")
+                .header(HttpHeaders.ACCEPT_ENCODING, "deflate")
+                .post(Entity.text(LARGE));
+        assertEquals("deflate", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE, response.readEntity(String.class));
+    }
+}